@@ -6,12 +6,21 @@
 
 package org.eclipse.xpanse.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -21,20 +30,63 @@ import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
 import org.eclipse.xpanse.modules.models.SystemStatus;
 import org.eclipse.xpanse.modules.models.enums.Category;
 import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
 import org.eclipse.xpanse.modules.models.enums.HealthStatus;
+import org.eclipse.xpanse.modules.models.enums.IdempotentOperation;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployResourceQuery;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
 import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.query.ServiceEventQuery;
 import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.service.BatchCreateRequest;
+import org.eclipse.xpanse.modules.models.service.BatchDestroyRequest;
+import org.eclipse.xpanse.modules.models.service.CompositeCreateRequest;
 import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.ModifyRequest;
+import org.eclipse.xpanse.modules.models.service.MultiRegionCreateRequest;
+import org.eclipse.xpanse.modules.models.service.ServiceScheduleRequest;
+import org.eclipse.xpanse.modules.models.service.ServiceUpgradeRequest;
+import org.eclipse.xpanse.modules.models.service.WarmPoolRequest;
 import org.eclipse.xpanse.modules.models.view.CategoryOclVo;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.ChangeVo;
+import org.eclipse.xpanse.modules.models.view.CompositeServiceVo;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.DeployResourceVo;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
 import org.eclipse.xpanse.modules.models.view.OclDetailVo;
 import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.modules.models.view.ServiceBatchVo;
 import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
+import org.eclipse.xpanse.modules.models.view.ServiceDriftVo;
+import org.eclipse.xpanse.modules.models.view.ServiceGroupVo;
+import org.eclipse.xpanse.modules.models.view.ServiceScheduleVo;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.eclipse.xpanse.modules.models.view.ServiceUpgradeVo;
 import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.modules.models.view.WarmPoolVo;
 import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.batch.ServiceBatchService;
+import org.eclipse.xpanse.orchestrator.composite.CompositeServiceService;
+import org.eclipse.xpanse.orchestrator.drift.ServiceDriftService;
+import org.eclipse.xpanse.orchestrator.group.ServiceGroupService;
+import org.eclipse.xpanse.orchestrator.idempotency.IdempotencyService;
+import org.eclipse.xpanse.orchestrator.pool.WarmPoolService;
 import org.eclipse.xpanse.orchestrator.register.RegisterService;
+import org.eclipse.xpanse.orchestrator.register.cache.CategoryCatalog;
+import org.eclipse.xpanse.orchestrator.schedule.ServiceScheduleService;
+import org.eclipse.xpanse.orchestrator.service.cache.CachedServiceDetail;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventListener;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventSubscription;
+import org.eclipse.xpanse.orchestrator.upgrade.ServiceUpgradeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -43,10 +95,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -58,15 +113,65 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin
 public class OrchestratorApi {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String HAS_MORE_HEADER = "X-Has-More";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_STATE_IDS = 5000;
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrchestratorService orchestratorService;
 
     private final RegisterService registerService;
 
+    private final ServiceBatchService serviceBatchService;
+
+    private final ServiceDriftService serviceDriftService;
+
+    private final WarmPoolService warmPoolService;
+
+    private final ServiceGroupService serviceGroupService;
+
+    private final CompositeServiceService compositeServiceService;
+
+    private final ServiceUpgradeService serviceUpgradeService;
+
+    private final ServiceScheduleService serviceScheduleService;
+
+    private final IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper;
+
+    private final long serviceEventsTimeoutMillis;
+
+    /**
+     * Constructor of the OrchestratorApi.
+     */
     @Autowired
     public OrchestratorApi(OrchestratorService orchestratorService,
-            RegisterService registerService) {
+            RegisterService registerService, ServiceBatchService serviceBatchService,
+            ServiceDriftService serviceDriftService, WarmPoolService warmPoolService,
+            ServiceGroupService serviceGroupService,
+            CompositeServiceService compositeServiceService,
+            ServiceUpgradeService serviceUpgradeService,
+            ServiceScheduleService serviceScheduleService,
+            IdempotencyService idempotencyService, ObjectMapper objectMapper,
+            @Value("${xpanse.service.events.timeout-ms:1800000}")
+            long serviceEventsTimeoutMillis) {
         this.orchestratorService = orchestratorService;
         this.registerService = registerService;
+        this.serviceBatchService = serviceBatchService;
+        this.serviceDriftService = serviceDriftService;
+        this.warmPoolService = warmPoolService;
+        this.serviceGroupService = serviceGroupService;
+        this.compositeServiceService = compositeServiceService;
+        this.serviceUpgradeService = serviceUpgradeService;
+        this.serviceScheduleService = serviceScheduleService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.serviceEventsTimeoutMillis = serviceEventsTimeoutMillis;
     }
 
     /**
@@ -210,12 +315,17 @@ public class OrchestratorApi {
 
 
     /**
-     * List registered service with query params.
+     * List registered service with query params. All services are returned unless a page size
+     * or a cursor is given, the cursor of the next page is returned in the X-Next-Cursor header.
      *
      * @param categoryName   name of category.
      * @param cspName        name of cloud service provider.
      * @param serviceName    name of registered service.
      * @param serviceVersion version of registered service.
+     * @param cursor         cursor of the page.
+     * @param pageSize       size of the page, 100 when not set.
+     * @param withTotal      whether to return the total count in the X-Total-Count header.
+     * @param withOcl        whether to return the Ocl of the services, not returned by default.
      * @return response
      */
     @Tag(name = "Service Vendor",
@@ -223,8 +333,7 @@ public class OrchestratorApi {
     @Operation(description = "List registered service with query params.")
     @GetMapping(value = "/register",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public List<RegisteredServiceVo> listRegisteredServices(
+    public ResponseEntity<List<RegisteredServiceVo>> listRegisteredServices(
             @Parameter(name = "categoryName", description = "category of the service")
             @RequestParam(name = "categoryName", required = false) String categoryName,
             @Parameter(name = "cspName", description = "name of the service provider")
@@ -232,7 +341,17 @@ public class OrchestratorApi {
             @Parameter(name = "serviceName", description = "name of the service")
             @RequestParam(name = "serviceName", required = false) String serviceName,
             @Parameter(name = "serviceVersion", description = "version of the service")
-            @RequestParam(name = "serviceVersion", required = false) String serviceVersion) {
+            @RequestParam(name = "serviceVersion", required = false) String serviceVersion,
+            @Parameter(name = "cursor", description = "X-Next-Cursor of the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "pageSize", description = "maximum number of services returned")
+            @RequestParam(name = "pageSize", required = false) Integer pageSize,
+            @Parameter(name = "withTotal", description = "whether to count all services")
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal,
+            @Parameter(name = "withOcl", description = "whether to return the Ocl of the services")
+            @RequestParam(name = "withOcl", defaultValue = "false") boolean withOcl) {
+        final int size = Objects.requireNonNullElse(pageSize, DEFAULT_PAGE_SIZE);
+        checkPageSize(size);
         RegisteredServiceQuery query = new RegisteredServiceQuery();
         if (StringUtils.isNotBlank(cspName)) {
             query.setCsp(Csp.getCspByValue(cspName));
@@ -243,17 +362,42 @@ public class OrchestratorApi {
         query.setServiceName(serviceName);
         query.setServiceVersion(serviceVersion);
         log.info("List registered service with query model {}", query);
-        List<RegisteredServiceVo> registerVos =
-                registerService.queryRegisteredServices(query);
+        KeysetPage<RegisteredServiceVo> page =
+                registerService.queryRegisteredServices(query, cursor, size, withTotal, withOcl);
         String successMsg = String.format("List registered service with query model %s "
                 + "success.", query);
         log.info(successMsg);
-        return registerVos;
+        return toResponseEntity(page);
     }
 
 
     /**
-     * List registered service with category.
+     * List the changes of the registered services after the cursor, ordered by the time of the
+     * change. Unregistered services are returned as deleted. The cursor of the next request is
+     * returned in the X-Next-Cursor header, X-Has-More tells whether it can be requested at once.
+     *
+     * @param cursor   X-Next-Cursor of the previous request, empty for all services.
+     * @param pageSize maximum number of changes returned.
+     * @return changes of the registered services.
+     */
+    @Tag(name = "Service Vendor",
+            description = "APIs to manage register services.")
+    @Operation(description = "List the changes of the registered services after the cursor.")
+    @GetMapping(value = "/register/changes",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ChangeVo<RegisteredServiceVo>>> listRegisteredServiceChanges(
+            @Parameter(name = "cursor", description = "X-Next-Cursor of the previous request")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "pageSize", description = "maximum number of changes returned")
+            @RequestParam(name = "pageSize", defaultValue = "100") int pageSize) {
+        checkPageSize(pageSize);
+        return toResponseEntity(registerService.queryRegisteredServiceChanges(cursor, pageSize));
+    }
+
+
+    /**
+     * List registered service with category. The response carries the ETag of the tree, a
+     * request with a matching If-None-Match header is answered with 304.
      *
      * @param categoryName name of category.
      * @return response
@@ -264,20 +408,18 @@ public class OrchestratorApi {
             + "cspName with category.")
     @GetMapping(value = "/register/category/{categoryName}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public List<CategoryOclVo> listRegisteredServicesTree(
+    public ResponseEntity<List<CategoryOclVo>> listRegisteredServicesTree(
             @Parameter(name = "categoryName", description = "category of the service")
             @PathVariable(name = "categoryName", required = false) String categoryName) {
         Category category = Category.getCategoryByCatalog(categoryName);
-        RegisteredServiceQuery query = new RegisteredServiceQuery();
-        query.setCategory(category);
-        log.info("List registered service with query model {}", query);
-        List<CategoryOclVo> categoryOclList =
-                registerService.queryRegisteredServicesTree(query);
-        String successMsg = String.format("List registered service with query model %s "
-                + "success.", query);
-        log.info(successMsg);
-        return categoryOclList;
+        if (Objects.isNull(category)) {
+            RegisteredServiceQuery query = new RegisteredServiceQuery();
+            log.info("List registered service with query model {}", query);
+            return ResponseEntity.ok(registerService.queryRegisteredServicesTree(query));
+        }
+        log.info("List registered service with category {}", category);
+        CategoryCatalog catalog = registerService.getRegisteredServicesTree(category);
+        return ResponseEntity.ok().eTag(catalog.getEtag()).body(catalog.getServices());
     }
 
 
@@ -320,81 +462,660 @@ public class OrchestratorApi {
     }
 
     /**
-     * Get status of the managed service with name.
+     * Get status of the managed service with name. The response carries the ETag of the detail,
+     * a request with a matching If-None-Match header is answered with 304.
      *
      * @return Status of the managed service.
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
     @Operation(description = "Get deployed service using id.")
     @GetMapping(value = "/service/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public ServiceDetailVo serviceDetail(
+    public ResponseEntity<ServiceDetailVo> serviceDetail(
             @Parameter(name = "id", description = "Task id of deploy service")
             @PathVariable("id") String id) {
 
-        return this.orchestratorService.getDeployServiceDetail(UUID.fromString(id));
+        CachedServiceDetail serviceDetail =
+                this.orchestratorService.getDeployServiceDetail(UUID.fromString(id));
+        if (Objects.isNull(serviceDetail)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .eTag(serviceDetail.getEtag()).body(serviceDetail.getDetail());
     }
 
     /**
-     * List the deployed services.
+     * List the deployed services with query params. All services are returned unless a page
+     * size or a cursor is given, the cursor of the next page is returned in the X-Next-Cursor
+     * header.
      *
-     * @return list of all services deployed.
+     * @param categoryName   name of category.
+     * @param cspName        name of cloud service provider.
+     * @param serviceName    name of deployed service.
+     * @param serviceVersion version of deployed service.
+     * @param serviceState   state of deployed service.
+     * @param createdFrom    only services created at or after this time.
+     * @param createdTo      only services created before this time.
+     * @param cursor         cursor of the page.
+     * @param pageSize       size of the page, all services are returned when not set.
+     * @param withTotal      whether to return the total count in the X-Total-Count header.
+     * @return list of services deployed.
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
     @Operation(description = "List the deployed services.")
     @GetMapping(value = "/services", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public List<ServiceVo> services() {
-        return this.orchestratorService.listDeployServices();
+    public ResponseEntity<List<ServiceVo>> services(
+            @Parameter(name = "categoryName", description = "category of the service")
+            @RequestParam(name = "categoryName", required = false) String categoryName,
+            @Parameter(name = "cspName", description = "name of the service provider")
+            @RequestParam(name = "cspName", required = false) String cspName,
+            @Parameter(name = "serviceName", description = "name of the service")
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @Parameter(name = "serviceVersion", description = "version of the service")
+            @RequestParam(name = "serviceVersion", required = false) String serviceVersion,
+            @Parameter(name = "serviceState", description = "state of the service")
+            @RequestParam(name = "serviceState", required = false) ServiceState serviceState,
+            @Parameter(name = "createdFrom", description = "services created at or after")
+            @RequestParam(name = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @Parameter(name = "createdTo", description = "services created before")
+            @RequestParam(name = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo,
+            @Parameter(name = "cursor", description = "X-Next-Cursor of the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "pageSize", description = "maximum number of services returned")
+            @RequestParam(name = "pageSize", required = false) Integer pageSize,
+            @Parameter(name = "withTotal", description = "whether to count all services")
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
+        final Integer size = getOptionalPageSize(pageSize, cursor);
+        DeployedServiceQuery query = getDeployedServiceQuery(categoryName, cspName, serviceName,
+                serviceVersion, serviceState, createdFrom, createdTo);
+        log.info("List deployed services with query model {}", query);
+        return toResponseEntity(
+                this.orchestratorService.listDeployServices(query, cursor, size, withTotal));
+    }
+
+    /**
+     * List the changes of the deployed services after the cursor, ordered by the time of the
+     * change. The cursor of the next request is returned in the X-Next-Cursor header,
+     * X-Has-More tells whether it can be requested at once.
+     *
+     * @param cursor   X-Next-Cursor of the previous request, empty for all services.
+     * @param pageSize maximum number of changes returned.
+     * @return changes of the deployed services.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "List the changes of the deployed services after the cursor.")
+    @GetMapping(value = "/services/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ChangeVo<ServiceVo>>> listDeployServiceChanges(
+            @Parameter(name = "cursor", description = "X-Next-Cursor of the previous request")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "pageSize", description = "maximum number of changes returned")
+            @RequestParam(name = "pageSize", defaultValue = "100") int pageSize) {
+        checkPageSize(pageSize);
+        return toResponseEntity(orchestratorService.listDeployServiceChanges(cursor, pageSize));
+    }
+
+    /**
+     * Search the resources of all deployed services, for example all VMs with an IP address or
+     * all public IPs in a region.
+     *
+     * @param kind       kind of the deployed resources.
+     * @param resourceId id of the resource in the cloud service provider.
+     * @param ipAddress  IP address of the deployed resources.
+     * @param region     region of the deployed resources.
+     * @param cursor     cursor of the page.
+     * @param pageSize   size of the page.
+     * @param withTotal  whether to return the total count in the X-Total-Count header.
+     * @return list of deployed resources.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Search the resources of all deployed services.")
+    @GetMapping(value = "/resources", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<DeployResourceVo>> resources(
+            @Parameter(name = "kind", description = "kind of the resource")
+            @RequestParam(name = "kind", required = false) DeployResourceKind kind,
+            @Parameter(name = "resourceId", description = "id of the resource in the provider")
+            @RequestParam(name = "resourceId", required = false) String resourceId,
+            @Parameter(name = "ipAddress", description = "IP address of the resource")
+            @RequestParam(name = "ipAddress", required = false) String ipAddress,
+            @Parameter(name = "region", description = "region of the resource")
+            @RequestParam(name = "region", required = false) String region,
+            @Parameter(name = "cursor", description = "X-Next-Cursor of the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "pageSize", description = "maximum number of resources returned")
+            @RequestParam(name = "pageSize", defaultValue = "100") int pageSize,
+            @Parameter(name = "withTotal", description = "whether to count all resources")
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
+        checkPageSize(pageSize);
+        DeployResourceQuery query = new DeployResourceQuery();
+        query.setKind(kind);
+        query.setResourceId(resourceId);
+        query.setIpAddress(ipAddress);
+        query.setRegion(region);
+        log.info("Search deployed resources with query model {}", query);
+        return toResponseEntity(
+                this.orchestratorService.listDeployResources(query, cursor, pageSize, withTotal));
     }
 
     /**
-     * Start a task to deploy registered service.
+     * Export the deployed services with query params as newline delimited JSON. The services
+     * are streamed from the database, so the export works regardless of the number of services.
      *
-     * @param deployRequest the managed service to create.
+     * @param categoryName   name of category.
+     * @param cspName        name of cloud service provider.
+     * @param serviceName    name of deployed service.
+     * @param serviceVersion version of deployed service.
+     * @param serviceState   state of deployed service.
+     * @param createdFrom    only services created at or after this time.
+     * @param createdTo      only services created before this time.
+     * @return stream of services deployed, one JSON object per line.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Export the deployed services as newline delimited JSON.")
+    @GetMapping(value = "/services/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportServices(
+            @Parameter(name = "categoryName", description = "category of the service")
+            @RequestParam(name = "categoryName", required = false) String categoryName,
+            @Parameter(name = "cspName", description = "name of the service provider")
+            @RequestParam(name = "cspName", required = false) String cspName,
+            @Parameter(name = "serviceName", description = "name of the service")
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @Parameter(name = "serviceVersion", description = "version of the service")
+            @RequestParam(name = "serviceVersion", required = false) String serviceVersion,
+            @Parameter(name = "serviceState", description = "state of the service")
+            @RequestParam(name = "serviceState", required = false) ServiceState serviceState,
+            @Parameter(name = "createdFrom", description = "services created at or after")
+            @RequestParam(name = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @Parameter(name = "createdTo", description = "services created before")
+            @RequestParam(name = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo) {
+        DeployedServiceQuery query = getDeployedServiceQuery(categoryName, cspName, serviceName,
+                serviceVersion, serviceState, createdFrom, createdTo);
+        log.info("Export deployed services with query model {}", query);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                this.orchestratorService.exportDeployServices(query, service -> {
+                    try {
+                        writer.write(service);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Subscribe to the state changes of the deployed services as server-sent events. Every
+     * change is sent as a "state" event. A subscriber which can't keep up is disconnected and
+     * should reconnect and re-read the services it follows.
+     *
+     * @param ids          ids of the deployed services, all services when empty.
+     * @param cspName      name of cloud service provider.
+     * @param serviceState state of the deployed services after the change.
+     * @return stream of the state changes.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Subscribe to the state changes of the deployed services.")
+    @GetMapping(value = "/services/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter serviceEvents(
+            @Parameter(name = "ids", description = "ids of the services")
+            @RequestParam(name = "ids", required = false) List<UUID> ids,
+            @Parameter(name = "cspName", description = "name of the service provider")
+            @RequestParam(name = "cspName", required = false) String cspName,
+            @Parameter(name = "serviceState", description = "state of the service")
+            @RequestParam(name = "serviceState", required = false) ServiceState serviceState) {
+        ServiceEventQuery query = new ServiceEventQuery();
+        if (Objects.nonNull(ids)) {
+            query.setIds(new HashSet<>(ids));
+        }
+        if (StringUtils.isNotBlank(cspName)) {
+            query.setCsp(Csp.getCspByValue(cspName));
+        }
+        query.setServiceState(serviceState);
+        log.info("Subscribe to service state changes with query model {}", query);
+        SseEmitter emitter = new SseEmitter(serviceEventsTimeoutMillis);
+        ServiceEventSubscription subscription = this.orchestratorService.subscribeServiceEvents(
+                query, new ServiceEventListener() {
+                    @Override
+                    public void onEvent(ServiceStateEventVo event) throws IOException {
+                        emitter.send(SseEmitter.event().name("state")
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void onDropped() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Start a task to deploy registered service. A retry with the same idempotency key returns
+     * the id of the first task instead of deploying another service.
+     *
+     * @param deployRequest  the managed service to create.
+     * @param idempotencyKey the idempotency key of the request.
      * @return response
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
     @Operation(description = "Start a task to deploy registered service.")
     @PostMapping(value = "/service", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public UUID deploy(@Valid @RequestBody CreateRequest deployRequest) {
+    public UUID deploy(@Valid @RequestBody CreateRequest deployRequest,
+            @Parameter(description = "Key of the request, a retry with the key returns the id "
+                    + "of the first task")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+            String idempotencyKey) {
         log.info("Starting managed service with name {}, version {}, csp {}",
                 deployRequest.getName(),
                 deployRequest.getVersion(), deployRequest.getCsp());
-        UUID id = UUID.randomUUID();
-        DeployTask deployTask = new DeployTask();
-        deployRequest.setId(id);
-        deployTask.setId(id);
-        deployTask.setCreateRequest(deployRequest);
-        Deployment deployment = this.orchestratorService.getDeployHandler(deployTask);
-        this.orchestratorService.asyncDeployService(deployment, deployTask);
-        String successMsg = String.format(
-                "Task of start managed service %s-%s-%s start running. UUID %s",
-                deployRequest.getName(),
-                deployRequest.getVersion(), deployRequest.getCsp(), deployTask.getId());
-        log.info(successMsg);
-        return id;
+        return this.idempotencyService.execute(idempotencyKey, IdempotentOperation.DEPLOY,
+                deployRequest, () -> startDeploy(deployRequest));
     }
 
     /**
-     * Start a task to destroy the deployed service using id.
+     * Preview the deployment of a service: the resources which would be created. Previews of
+     * identical requests are cached, a deployment of the same request applies the cached plan.
      *
-     * @param id ID of deployed service.
+     * @param deployRequest the request of the service.
+     * @return the planned resource changes.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Preview the deployment of a service without deploying it.")
+    @PostMapping(value = "/service/plan", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public DeployPlanVo planDeploy(@Valid @RequestBody CreateRequest deployRequest) {
+        return this.orchestratorService.planDeployService(deployRequest);
+    }
+
+    /**
+     * Start the tasks to deploy the same service in several regions, as a group. The regions
+     * are deployed in parallel.
+     *
+     * @param groupRequest the request of the service, the regions and the failure policy.
+     * @return the group with the id of the service per region.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to deploy the service in several regions.")
+    @PostMapping(value = "/services/groups", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceGroupVo deployGroup(
+            @Valid @RequestBody MultiRegionCreateRequest groupRequest) {
+        return serviceGroupService.deployServices(groupRequest);
+    }
+
+    /**
+     * Get the aggregate state of the group and the state of its service in every region.
+     *
+     * @param id ID of the group.
+     * @return the group.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the aggregate state of the services of a group.")
+    @GetMapping(value = "/services/groups/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ServiceGroupVo getGroup(@PathVariable("id") String id) {
+        return serviceGroupService.getServiceGroup(UUID.fromString(id));
+    }
+
+    /**
+     * Start the tasks to deploy several registered services as one composite service. The
+     * nodes are deployed in the order of their dependencies, independent nodes in parallel.
+     *
+     * @param compositeRequest the nodes, their dependencies and the failure policy.
+     * @return the composite service with the id of the service per node.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to deploy a composite service.")
+    @PostMapping(value = "/services/composites", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CompositeServiceVo deployComposite(
+            @Valid @RequestBody CompositeCreateRequest compositeRequest) {
+        return compositeServiceService.deployComposite(compositeRequest);
+    }
+
+    /**
+     * Get the aggregate state of the composite service and the state of the service of every
+     * node.
+     *
+     * @param id ID of the composite service.
+     * @return the composite service.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the aggregate state of the services of a composite service.")
+    @GetMapping(value = "/services/composites/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public CompositeServiceVo getComposite(@PathVariable("id") String id) {
+        return compositeServiceService.getComposite(UUID.fromString(id));
+    }
+
+    /**
+     * Start the tasks to destroy the services of a composite service, in the reverse order of
+     * their dependencies.
+     *
+     * @param id ID of the composite service.
+     * @return the composite service.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to destroy a composite service.")
+    @DeleteMapping(value = "/services/composites/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CompositeServiceVo destroyComposite(@PathVariable("id") String id) {
+        return compositeServiceService.destroyComposite(UUID.fromString(id));
+    }
+
+    /**
+     * Start the rolling upgrade of the deployed services of a registered service to its
+     * current Ocl. The services are upgraded in place, in batches.
+     *
+     * @param upgradeRequest the registered service and the limits of the upgrade.
+     * @return the upgrade.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the rolling upgrade of the services of a registered "
+            + "service.")
+    @PostMapping(value = "/services/upgrades", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceUpgradeVo startUpgrade(
+            @Valid @RequestBody ServiceUpgradeRequest upgradeRequest) {
+        return serviceUpgradeService.startUpgrade(upgradeRequest);
+    }
+
+    /**
+     * Get the progress of the rolling upgrade.
+     *
+     * @param id ID of the upgrade.
+     * @return the upgrade.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the progress of a rolling upgrade.")
+    @GetMapping(value = "/services/upgrades/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ServiceUpgradeVo getUpgrade(@PathVariable("id") String id) {
+        return serviceUpgradeService.getUpgrade(UUID.fromString(id));
+    }
+
+    /**
+     * Resume the rolling upgrade paused after a failed batch.
+     *
+     * @param id ID of the upgrade.
+     * @return the upgrade.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Resume a paused rolling upgrade.")
+    @PostMapping(value = "/services/upgrades/{id}/resume",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceUpgradeVo resumeUpgrade(@PathVariable("id") String id) {
+        return serviceUpgradeService.resumeUpgrade(UUID.fromString(id));
+    }
+
+    /**
+     * Schedule the deployment of a service at a set time and, with a time to live, its
+     * destroy after the deployment.
+     *
+     * @param scheduleRequest the request of the service and the times of the operations.
+     * @return the schedule of the deployment, with the ID of the service.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Schedule the deployment of a service and its destroy.")
+    @PostMapping(value = "/services/schedules", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceScheduleVo scheduleService(
+            @Valid @RequestBody ServiceScheduleRequest scheduleRequest) {
+        return serviceScheduleService.scheduleService(scheduleRequest);
+    }
+
+    /**
+     * Get the scheduled operation.
+     *
+     * @param id ID of the schedule.
+     * @return the schedule.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get a scheduled operation of a service.")
+    @GetMapping(value = "/services/schedules/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ServiceScheduleVo getSchedule(@PathVariable("id") String id) {
+        return serviceScheduleService.getSchedule(UUID.fromString(id));
+    }
+
+    /**
+     * Cancel the scheduled operation which didn't start yet.
+     *
+     * @param id ID of the schedule.
+     * @return the cancelled schedule.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Cancel a pending scheduled operation of a service.")
+    @DeleteMapping(value = "/services/schedules/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ServiceScheduleVo cancelSchedule(@PathVariable("id") String id) {
+        return serviceScheduleService.cancelSchedule(UUID.fromString(id));
+    }
+
+    /**
+     * Configure the warm pool of the request: the number of instances kept deployed ahead of
+     * the matching create requests. A pool with the same request is updated.
+     *
+     * @param poolRequest the request of the instances and the size of the pool.
+     * @return the pool.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Configure the warm pool of a service flavor in a region.")
+    @PostMapping(value = "/services/pools", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public WarmPoolVo storeWarmPool(@Valid @RequestBody WarmPoolRequest poolRequest) {
+        return warmPoolService.storePool(poolRequest);
+    }
+
+    /**
+     * List the warm pools with the number of their instances per state.
+     *
+     * @return the pools.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "List the warm pools.")
+    @GetMapping(value = "/services/pools", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<WarmPoolVo> listWarmPools() {
+        return warmPoolService.listPools();
+    }
+
+    /**
+     * Delete the warm pool, its instances are destroyed in the background.
+     *
+     * @param id ID of the pool.
+     * @return response
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Delete the warm pool and destroy its instances.")
+    @DeleteMapping(value = "/services/pools/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Response deleteWarmPool(@PathVariable("id") String id) {
+        warmPoolService.deletePool(UUID.fromString(id));
+        return Response.successResponse(String.format(
+                "Instances of warm pool %s are being destroyed.", id));
+    }
+
+    /**
+     * Start the tasks to deploy a batch of services. The requests are validated together, no
+     * service is deployed if one of them is invalid.
+     *
+     * @param batchRequest the requests, or one request and the number of services.
+     * @return the batch with the ids of the services, in the order of the requests.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to deploy a batch of services.")
+    @PostMapping(value = "/services/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceBatchVo deployBatch(@Valid @RequestBody BatchCreateRequest batchRequest) {
+        ServiceBatchVo batch = serviceBatchService.deployServices(batchRequest);
+        log.info("Task of deploy batch {} of {} services start running.", batch.getId(),
+                batch.getTotal());
+        return batch;
+    }
+
+    /**
+     * Get the aggregate progress of a batch of services.
+     *
+     * @param id ID of the batch.
+     * @return the number of services of the batch per state.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the aggregate progress of a batch of services.")
+    @GetMapping(value = "/services/batch/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ServiceBatchVo batchProgress(
+            @Parameter(name = "id", description = "id of the batch")
+            @PathVariable("id") String id) {
+        return serviceBatchService.getServiceBatch(UUID.fromString(id));
+    }
+
+    /**
+     * Start the tasks to destroy a batch of services, selected by their ids or by the registered
+     * service they were deployed from. The destroys start before the deploys still waiting.
+     *
+     * @param batchRequest the ids of the services, or the filter selecting them.
+     * @return the batch with the ids of the services.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to destroy a batch of services.")
+    @PostMapping(value = "/services/batch/destroy", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ServiceBatchVo destroyBatch(@RequestBody BatchDestroyRequest batchRequest) {
+        ServiceBatchVo batch = serviceBatchService.destroyServices(batchRequest);
+        log.info("Task of destroy batch {} of {} services start running.", batch.getId(),
+                batch.getTotal());
+        return batch;
+    }
+
+    /**
+     * Get the states of many deployed services at once. Unknown ids are left out.
+     *
+     * @param ids IDs of the deployed services.
+     * @return the state of every known service by its id.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the states of many deployed services at once.")
+    @PostMapping(value = "/services/states", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Map<UUID, ServiceState> serviceStates(@RequestBody List<UUID> ids) {
+        if (ids.size() > MAX_STATE_IDS) {
+            throw new IllegalArgumentException(String.format(
+                    "At most %d ids can be requested at once.", MAX_STATE_IDS));
+        }
+        return orchestratorService.getServiceStates(ids);
+    }
+
+    /**
+     * Start a task to destroy the deployed service using id. A destroy of a service whose
+     * destroy is already queued is coalesced with it, a retry with the same idempotency key
+     * doesn't destroy the service again.
+     *
+     * @param id             ID of deployed service.
+     * @param idempotencyKey the idempotency key of the request.
      * @return response
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
     @Operation(description = "Start a task to destroy the deployed service using id.")
     @DeleteMapping(value = "/service/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public Response destroy(@PathVariable("id") String id) {
+    public Response destroy(@PathVariable("id") String id,
+            @Parameter(description = "Key of the request, a retry with the key doesn't start "
+                    + "another task")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+            String idempotencyKey) {
         log.info("Stopping managed service with id {}", id);
+        UUID serviceId = UUID.fromString(id);
+        this.idempotencyService.execute(idempotencyKey, IdempotentOperation.DESTROY, serviceId,
+                () -> {
+                    this.idempotencyService.destroyOnce(serviceId);
+                    return serviceId;
+                });
+        String successMsg = String.format(
+                "Task of stop managed service %s start running.", id);
+        return Response.successResponse(successMsg);
+    }
+
+    /**
+     * Preview the modification of the deployed service: the resources which would be changed.
+     *
+     * @param id            ID of deployed service.
+     * @param modifyRequest the new flavor and the changed properties of the service.
+     * @return the planned resource changes.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Preview the modification of the deployed service.")
+    @PostMapping(value = "/service/{id}/plan", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public DeployPlanVo planModify(@PathVariable("id") String id,
+            @RequestBody ModifyRequest modifyRequest) {
+        return this.orchestratorService.planModifyService(UUID.fromString(id), modifyRequest);
+    }
+
+    /**
+     * Get the result of the last drift check of the deployed service: the resources changed or
+     * deleted outside of the deployment.
+     *
+     * @param id ID of deployed service.
+     * @return the result of the last drift check.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the result of the last drift check of the deployed service.")
+    @GetMapping(value = "/service/{id}/drift", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ServiceDriftVo getServiceDrift(@PathVariable("id") String id) {
+        return this.serviceDriftService.getServiceDrift(UUID.fromString(id));
+    }
+
+    /**
+     * List the scheduled operations of the service, the destroy after its time to live too.
+     *
+     * @param id ID of the service.
+     * @return the schedules.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "List the scheduled operations of the service.")
+    @GetMapping(value = "/service/{id}/schedules", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<ServiceScheduleVo> listSchedules(@PathVariable("id") String id) {
+        return serviceScheduleService.listSchedules(UUID.fromString(id));
+    }
+
+    /**
+     * Start a task to modify the deployed service in place, without destroying it.
+     *
+     * @param id            ID of deployed service.
+     * @param modifyRequest the new flavor and the changed properties of the service.
+     * @return response
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start a task to modify the deployed service in place.")
+    @PutMapping(value = "/service/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Response modify(@PathVariable("id") String id,
+            @RequestBody ModifyRequest modifyRequest) {
+        log.info("Modifying managed service with id {}", id);
         DeployTask deployTask = new DeployTask();
         deployTask.setId(UUID.fromString(id));
-        Deployment deployment = this.orchestratorService.getDestroyHandler(deployTask);
-        this.orchestratorService.asyncDestroyService(deployment, deployTask);
+        Deployment deployment = this.orchestratorService.getModifyHandler(deployTask,
+                modifyRequest);
+        this.orchestratorService.asyncModifyService(deployment, deployTask);
         String successMsg = String.format(
-                "Task of stop managed service %s start running.", id);
+                "Task of modify managed service %s start running.", id);
         return Response.successResponse(successMsg);
     }
 
@@ -417,4 +1138,85 @@ public class OrchestratorApi {
         return apiUrl;
     }
 
+    private UUID startDeploy(CreateRequest deployRequest) {
+        UUID id = UUID.randomUUID();
+        DeployTask deployTask = new DeployTask();
+        deployRequest.setId(id);
+        deployTask.setId(id);
+        deployTask.setCreateRequest(deployRequest);
+        Deployment deployment = this.orchestratorService.getDeployHandler(deployTask);
+        // a ready instance of a warm pool is assigned at once, its id becomes the service id.
+        if (this.warmPoolService.assign(deployTask)) {
+            log.info("Managed service {}-{}-{} assigned warm instance {}",
+                    deployRequest.getName(), deployRequest.getVersion(),
+                    deployRequest.getCsp(), deployTask.getId());
+            return deployTask.getId();
+        }
+        this.orchestratorService.asyncDeployService(deployment, deployTask);
+        String successMsg = String.format(
+                "Task of start managed service %s-%s-%s start running. UUID %s",
+                deployRequest.getName(),
+                deployRequest.getVersion(), deployRequest.getCsp(), deployTask.getId());
+        log.info(successMsg);
+        return id;
+    }
+
+    private DeployedServiceQuery getDeployedServiceQuery(String categoryName, String cspName,
+            String serviceName, String serviceVersion, ServiceState serviceState,
+            OffsetDateTime createdFrom, OffsetDateTime createdTo) {
+        DeployedServiceQuery query = new DeployedServiceQuery();
+        if (StringUtils.isNotBlank(cspName)) {
+            query.setCsp(Csp.getCspByValue(cspName));
+        }
+        if (StringUtils.isNotBlank(categoryName)) {
+            query.setCategory(Category.getCategoryByCatalog(categoryName));
+        }
+        query.setServiceName(serviceName);
+        query.setServiceVersion(serviceVersion);
+        query.setServiceState(serviceState);
+        if (Objects.nonNull(createdFrom)) {
+            query.setCreatedFrom(Date.from(createdFrom.toInstant()));
+        }
+        if (Objects.nonNull(createdTo)) {
+            query.setCreatedTo(Date.from(createdTo.toInstant()));
+        }
+        return query;
+    }
+
+    private void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "Page size must be between 1 and %d.", MAX_PAGE_SIZE));
+        }
+    }
+
+    /**
+     * Listings without a page size nor a cursor are not paged, a cursor without a page size
+     * continues with pages of the default size.
+     */
+    private Integer getOptionalPageSize(Integer pageSize, String cursor) {
+        if (Objects.nonNull(pageSize)) {
+            checkPageSize(pageSize);
+            return pageSize;
+        }
+        return StringUtils.isBlank(cursor) ? null : DEFAULT_PAGE_SIZE;
+    }
+
+    private <T> ResponseEntity<List<T>> toResponseEntity(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (Objects.nonNull(page.getNextCursor())) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        if (Objects.nonNull(page.getTotalCount())) {
+            builder.header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+        }
+        return builder.body(page.getItems());
+    }
+
+    private <T> ResponseEntity<List<ChangeVo<T>>> toResponseEntity(ChangePage<T> page) {
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                .header(HAS_MORE_HEADER, String.valueOf(page.isHasMore()))
+                .body(page.getChanges());
+    }
 }
@@ -11,8 +11,12 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.api.response.Response;
 import org.eclipse.xpanse.api.response.ResultCode;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursorExpiredException;
+import org.eclipse.xpanse.orchestrator.idempotency.IdempotencyKeyConflictException;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -102,6 +106,41 @@ public class CommonExceptionHandler {
         return Response.errorResponse(ResultCode.BAD_PARAMETERS, failMessage);
     }
 
+    /**
+     * Exception handler for ChangeCursorExpiredException.
+     */
+    @ExceptionHandler({ChangeCursorExpiredException.class})
+    @ResponseStatus(HttpStatus.GONE)
+    public Response handleChangeCursorExpiredException(ChangeCursorExpiredException ex) {
+        log.error("handleChangeCursorExpiredException: ", ex);
+        String failMessage = ex.getMessage();
+        return Response.errorResponse(ResultCode.CURSOR_EXPIRED, failMessage);
+    }
+
+    /**
+     * Exception handler for IdempotencyKeyConflictException.
+     */
+    @ExceptionHandler({IdempotencyKeyConflictException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Response handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex) {
+        log.error("handleIdempotencyKeyConflictException: ", ex);
+        String failMessage = ex.getMessage();
+        return Response.errorResponse(ResultCode.IDEMPOTENCY_CONFLICT, failMessage);
+    }
+
+    /**
+     * Exception handler for ServiceStateConflictException and optimistic locking failures of
+     * the stored services.
+     */
+    @ExceptionHandler({ServiceStateConflictException.class,
+            ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Response handleServiceStateConflictException(RuntimeException ex) {
+        log.error("handleServiceStateConflictException: ", ex);
+        String failMessage = ex.getMessage();
+        return Response.errorResponse(ResultCode.SERVICE_STATE_CONFLICT, failMessage);
+    }
+
     /**
      * Exception handler for Exception.
      */
@@ -112,4 +151,4 @@ public class CommonExceptionHandler {
         String failMessage = ex.getClass().getName() + ":" + ex.getMessage();
         return Response.errorResponse(ResultCode.RUNTIME_ERROR, failMessage);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -12,7 +12,10 @@ package org.eclipse.xpanse.api.response;
 public enum ResultCode {
     SUCCESS("Success.0000", "success"),
     RUNTIME_ERROR("Common.0001", "Runtime failed"),
-    BAD_PARAMETERS("Common.0002", "Parameters invalid");
+    BAD_PARAMETERS("Common.0002", "Parameters invalid"),
+    CURSOR_EXPIRED("Common.0003", "Cursor expired"),
+    IDEMPOTENCY_CONFLICT("Common.0004", "Request in progress"),
+    SERVICE_STATE_CONFLICT("Common.0005", "Service state conflict");
 
     private final String code;
     private final String message;
@@ -0,0 +1,194 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.api;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.eclipse.xpanse.api.exceptions.CommonExceptionHandler;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
+import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
+import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.batch.ServiceBatchService;
+import org.eclipse.xpanse.orchestrator.composite.CompositeServiceService;
+import org.eclipse.xpanse.orchestrator.drift.ServiceDriftService;
+import org.eclipse.xpanse.orchestrator.group.ServiceGroupService;
+import org.eclipse.xpanse.orchestrator.idempotency.IdempotencyService;
+import org.eclipse.xpanse.orchestrator.pool.WarmPoolService;
+import org.eclipse.xpanse.orchestrator.register.RegisterService;
+import org.eclipse.xpanse.orchestrator.schedule.ServiceScheduleService;
+import org.eclipse.xpanse.orchestrator.upgrade.ServiceUpgradeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Test for the listings and the export of OrchestratorApi.
+ */
+public class OrchestratorApiTest {
+
+    private OrchestratorService orchestratorService;
+    private RegisterService registerService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        orchestratorService = mock(OrchestratorService.class);
+        registerService = mock(RegisterService.class);
+        OrchestratorApi orchestratorApi = new OrchestratorApi(orchestratorService,
+                registerService, mock(ServiceBatchService.class),
+                mock(ServiceDriftService.class), mock(WarmPoolService.class),
+                mock(ServiceGroupService.class), mock(CompositeServiceService.class),
+                mock(ServiceUpgradeService.class), mock(ServiceScheduleService.class),
+                mock(IdempotencyService.class), new ObjectMapper(), 1000);
+        mockMvc = MockMvcBuilders.standaloneSetup(orchestratorApi)
+                .setControllerAdvice(new CommonExceptionHandler()).build();
+    }
+
+    @Test
+    public void testRegisteredServicesArePagedWithoutTheirOclByDefault() throws Exception {
+        RegisteredServiceVo service = getRegisteredServiceVo();
+        service.setOcl(null);
+        when(registerService.queryRegisteredServices(any(RegisteredServiceQuery.class),
+                isNull(), eq(100), eq(false), eq(false)))
+                .thenReturn(new KeysetPage<>(List.of(service), "c2", null));
+
+        mockMvc.perform(get("/xpanse/register").param("serviceName", "kafka"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "c2"))
+                .andExpect(jsonPath("$[0].id").value(service.getId().toString()))
+                .andExpect(jsonPath("$[0].name").value("kafka"))
+                .andExpect(jsonPath("$[0].ocl").doesNotExist());
+    }
+
+    @Test
+    public void testRegisteredServicesAreListedWithTheirOclOnRequest() throws Exception {
+        RegisteredServiceVo service = getRegisteredServiceVo();
+        when(registerService.queryRegisteredServices(any(RegisteredServiceQuery.class), eq("c1"),
+                eq(20), eq(true), eq(true)))
+                .thenReturn(new KeysetPage<>(List.of(service), null, 7L));
+
+        mockMvc.perform(get("/xpanse/register").param("cursor", "c1").param("pageSize", "20")
+                        .param("withTotal", "true").param("withOcl", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andExpect(jsonPath("$[0].name").value("kafka"))
+                .andExpect(jsonPath("$[0].ocl.name").value("kafka"));
+        mockMvc.perform(get("/xpanse/register").param("pageSize", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testDeployedServicesAreListedAllAtOnce() throws Exception {
+        ServiceVo service = getServiceVo();
+        when(orchestratorService.listDeployServices(any(), isNull(), isNull(), eq(false)))
+                .thenReturn(new KeysetPage<>(List.of(service), null, null));
+
+        mockMvc.perform(get("/xpanse/services").param("cspName", "huawei"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(service.getId().toString()));
+    }
+
+    @Test
+    public void testDeployedServicesArePagedOnRequest() throws Exception {
+        when(orchestratorService.listDeployServices(any(), isNull(), eq(2), eq(false)))
+                .thenReturn(new KeysetPage<>(List.of(getServiceVo(), getServiceVo()), "c1",
+                        null));
+
+        mockMvc.perform(get("/xpanse/services").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "c1"))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/xpanse/services").param("pageSize", "1001"))
+                .andExpect(status().isBadRequest());
+        verify(orchestratorService, never()).listDeployServices(any(), any(), eq(1001),
+                anyBoolean());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeployedServicesAreExportedAsNdjson() throws Exception {
+        ServiceVo first = getServiceVo();
+        ServiceVo second = getServiceVo();
+        doAnswer(invocation -> {
+            Consumer<ServiceVo> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(orchestratorService).exportDeployServices(any(DeployedServiceQuery.class),
+                any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/xpanse/services/export")
+                        .param("serviceState", "DEPLOY_SUCCESS"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        ObjectMapper objectMapper = new ObjectMapper();
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(first.getId().toString(),
+                objectMapper.readTree(lines[0]).get("id").asText());
+        Assertions.assertEquals(second.getId().toString(),
+                objectMapper.readTree(lines[1]).get("id").asText());
+    }
+
+    private RegisteredServiceVo getRegisteredServiceVo() {
+        Ocl ocl = new Ocl();
+        ocl.setName("kafka");
+        RegisteredServiceVo service = new RegisteredServiceVo();
+        service.setId(UUID.randomUUID());
+        service.setName("kafka");
+        service.setVersion("v1.0");
+        service.setCsp(Csp.HUAWEI);
+        service.setOcl(ocl);
+        return service;
+    }
+
+    private ServiceVo getServiceVo() {
+        ServiceVo service = new ServiceVo();
+        service.setId(UUID.randomUUID());
+        service.setName("kafka");
+        service.setVersion("v1.0");
+        service.setCsp(Csp.HUAWEI);
+        service.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        return service;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.batch;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Represents the SERVICE_BATCH table in the database, an operation started on a batch of
+ * services with one request. The services are kept in the SERVICE_BATCH_ITEM table, in the
+ * order their operations are started.
+ */
+@Table(name = "SERVICE_BATCH")
+@Entity
+@Data
+public class ServiceBatchEntity {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "KIND", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ServiceBatchKind kind;
+
+    @Column(name = "CREATE_TIME", nullable = false)
+    private Date createTime;
+
+    @Column(name = "TOTAL", nullable = false)
+    private int total;
+
+    /**
+     * Number of services whose operation was started, the services after them are waiting.
+     */
+    @ColumnDefault("0")
+    @Column(name = "DISPATCHED", nullable = false)
+    private int dispatched;
+
+    @ElementCollection
+    @CollectionTable(name = "SERVICE_BATCH_ITEM", joinColumns = @JoinColumn(name = "BATCH_ID"),
+            indexes = @Index(name = "IDX_SERVICE_BATCH_ITEM_BATCH", columnList = "BATCH_ID"))
+    @OrderColumn(name = "POSITION")
+    private List<ServiceBatchItem> items;
+}
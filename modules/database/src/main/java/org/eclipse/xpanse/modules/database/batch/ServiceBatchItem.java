@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents a row of the SERVICE_BATCH_ITEM table, a service of a batch.
+ */
+@Embeddable
+@Data
+public class ServiceBatchItem {
+
+    @Column(name = "SERVICE_ID", nullable = false)
+    private UUID serviceId;
+
+    /**
+     * Request of the service to deploy, null in the batches destroying services.
+     */
+    @Column(name = "CREATE_REQUEST", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private CreateRequest createRequest;
+}
@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.batch;
+
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ServiceBatchRepository extends JpaRepository<ServiceBatchEntity, UUID> {
+
+    /**
+     * Count the services of the batch per state, services not stored yet are not counted.
+     *
+     * @param id id of the batch.
+     * @return pairs of the state and the number of services in the state.
+     */
+    @Query("select s.serviceState, count(s) from ServiceBatchEntity b join b.items i,"
+            + " DeployServiceEntity s where b.id = :id and s.id = i.serviceId"
+            + " group by s.serviceState")
+    List<Object[]> countServiceStates(@Param("id") UUID id);
+
+    /**
+     * Find the batches with services waiting for their operation, the batches of the given kind
+     * first, then the oldest first.
+     *
+     * @param first    kind of the batches to return first.
+     * @param pageable maximum number of batches.
+     * @return the batches.
+     */
+    @Query("select b from ServiceBatchEntity b where b.dispatched < b.total"
+            + " order by case when b.kind = :first then 0 else 1 end, b.createTime")
+    List<ServiceBatchEntity> findPendingBatches(@Param("first") ServiceBatchKind first,
+            Pageable pageable);
+
+    /**
+     * Count the service at the position as dispatched, unless another node did it first.
+     *
+     * @param id       id of the batch.
+     * @param position position of the service, the number of services dispatched before.
+     * @return 1 if the service was claimed, else 0.
+     */
+    @Modifying
+    @Query("update ServiceBatchEntity b set b.dispatched = b.dispatched + 1"
+            + " where b.id = :id and b.dispatched = :position and b.dispatched < b.total")
+    int claimItem(@Param("id") UUID id, @Param("position") int position);
+
+    /**
+     * Find the service at the position of the batch.
+     *
+     * @param id       id of the batch.
+     * @param position position of the service.
+     * @return the service, null if not found.
+     */
+    @Query("select i from ServiceBatchEntity b join b.items i"
+            + " where b.id = :id and index(i) = :position")
+    ServiceBatchItem findItem(@Param("id") UUID id, @Param("position") int position);
+}
@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.change;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+
+/**
+ * Represents the CHANGE_TOMBSTONE table in the database. Every deleted row tracked by a change
+ * feed leaves a tombstone, kept for the retention period of the change feeds.
+ */
+@Table(name = "CHANGE_TOMBSTONE", indexes = {
+        @Index(name = "IDX_CHANGE_TOMBSTONE_TIME",
+                columnList = "ENTITY_TYPE,DELETE_TIME,ENTITY_ID")
+})
+@Entity
+@Data
+public class ChangeTombstoneEntity {
+
+    /**
+     * ID of the deleted row.
+     */
+    @Id
+    @Column(name = "ENTITY_ID", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "ENTITY_TYPE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChangeEntityType entityType;
+
+    @Column(name = "DELETE_TIME", nullable = false)
+    private Date deleteTime;
+}
@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.change;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ChangeTombstoneRepository extends JpaRepository<ChangeTombstoneEntity, UUID> {
+
+    /**
+     * Find the tombstones after the position, ordered by delete time and id.
+     *
+     * @param entityType kind of the deleted rows.
+     * @param time       delete time of the position.
+     * @param id         id of the position, for rows deleted at the same time.
+     * @param until      only rows deleted before this time are returned.
+     * @param pageable   limit of the tombstones returned.
+     * @return the tombstones after the position.
+     */
+    @Query("select t from ChangeTombstoneEntity t where t.entityType = :entityType"
+            + " and t.deleteTime < :until and (t.deleteTime > :time"
+            + " or (t.deleteTime = :time and t.entityId > :id))"
+            + " order by t.deleteTime, t.entityId")
+    List<ChangeTombstoneEntity> findAfter(@Param("entityType") ChangeEntityType entityType,
+            @Param("time") Date time, @Param("id") UUID id, @Param("until") Date until,
+            Pageable pageable);
+
+    /**
+     * Delete the tombstones older than the time.
+     *
+     * @param time only tombstones of rows deleted before this time are deleted.
+     * @return number of deleted tombstones.
+     */
+    @Modifying
+    @Query("delete from ChangeTombstoneEntity t where t.deleteTime < :time")
+    int deleteBefore(@Param("time") Date time);
+}
@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hypersistence.utils.hibernate.type.util.ObjectMapperWrapper;
+import java.lang.reflect.Type;
+
+/**
+ * Adapter of the {@link JsonCodec} to the json types. The string form is the column value, the
+ * bytes form is only used to copy values and stays uncompressed.
+ */
+public class CodecObjectMapperWrapper extends ObjectMapperWrapper {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JsonCodec codec;
+
+    /**
+     * Create the wrapper.
+     *
+     * @param codec codec of the column values.
+     */
+    public CodecObjectMapperWrapper(JsonCodec codec) {
+        super(JsonCodec.getMapper());
+        this.codec = codec;
+    }
+
+    @Override
+    public <T> T fromString(String string, Class<T> clazz) {
+        return codec.decode(string, clazz);
+    }
+
+    @Override
+    public <T> T fromString(String string, Type type) {
+        return codec.decode(string, type);
+    }
+
+    @Override
+    public <T> T fromBytes(byte[] value, Class<T> clazz) {
+        return codec.fromJson(value, clazz);
+    }
+
+    @Override
+    public <T> T fromBytes(byte[] value, Type type) {
+        return codec.fromJson(value, type);
+    }
+
+    @Override
+    public String toString(Object value) {
+        return codec.encode(value);
+    }
+
+    @Override
+    public byte[] toBytes(Object value) {
+        return codec.toJson(value);
+    }
+
+    @Override
+    public JsonNode toJsonNode(String value) {
+        return codec.decodeTree(value);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import java.util.Map;
+import java.util.Objects;
+import org.hibernate.type.spi.TypeBootstrapContext;
+
+/**
+ * Json column type using the {@link JsonCodec}. The compression threshold is read from the
+ * hibernate setting {@value #COMPRESSION_THRESHOLD_SETTING}, that can be set with the
+ * spring.jpa.properties prefix.
+ */
+public class CompactJsonType extends JsonType {
+
+    /**
+     * Hibernate setting of the minimal size in bytes of the json values to compress.
+     */
+    public static final String COMPRESSION_THRESHOLD_SETTING =
+            "xpanse.database.json.compression-threshold-bytes";
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the type without compression.
+     */
+    public CompactJsonType() {
+        super(new CodecObjectMapperWrapper(new JsonCodec(0)));
+    }
+
+    /**
+     * Create the type with the hibernate settings.
+     *
+     * @param typeBootstrapContext context holding the hibernate settings.
+     */
+    public CompactJsonType(TypeBootstrapContext typeBootstrapContext) {
+        super(new CodecObjectMapperWrapper(new JsonCodec(
+                getCompressionThreshold(typeBootstrapContext.getConfigurationSettings()))));
+    }
+
+    private static int getCompressionThreshold(Map<String, Object> settings) {
+        Object threshold = settings.get(COMPRESSION_THRESHOLD_SETTING);
+        return Objects.isNull(threshold) ? 0 : Integer.parseInt(threshold.toString().trim());
+    }
+}
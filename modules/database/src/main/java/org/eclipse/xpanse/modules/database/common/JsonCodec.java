@@ -0,0 +1,223 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codec of the json columns. All columns share one preconfigured mapper, the readers and writers
+ * derived from it are immutable and cached per type.
+ *
+ * <p>Values are written as compact json without null fields. When a compression threshold is
+ * set, values whose json is at least that large are gzipped and stored as a json string with the
+ * {@value #COMPRESSED_PREFIX} prefix, so that the column still holds valid json. Values without
+ * the prefix are read as plain json, rows written before compression was enabled stay readable.
+ */
+public final class JsonCodec implements Serializable {
+
+    /**
+     * Prefix of the compressed values, followed by the url safe base64 of the gzipped json.
+     */
+    public static final String COMPRESSED_PREFIX = "xgz:";
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String COMPRESSED_START = "\"" + COMPRESSED_PREFIX;
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .findAndAddModules()
+            .build();
+
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private final int compressionThreshold;
+
+    /**
+     * Create the codec.
+     *
+     * @param compressionThreshold minimal size in bytes of the json to compress, compression is
+     *                             disabled when it is not positive.
+     */
+    public JsonCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Get the mapper shared by all json columns, it must not be reconfigured.
+     *
+     * @return the shared mapper.
+     */
+    public static JsonMapper getMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Get the shared reader of the type.
+     *
+     * @param type type of the values.
+     * @return the reader of the type.
+     */
+    public static ObjectReader reader(Type type) {
+        return READERS.computeIfAbsent(type,
+                key -> MAPPER.readerFor(MAPPER.getTypeFactory().constructType(key)));
+    }
+
+    /**
+     * Get the shared writer of the class.
+     *
+     * @param clazz class of the values.
+     * @return the writer of the class.
+     */
+    public static ObjectWriter writer(Class<?> clazz) {
+        return WRITERS.computeIfAbsent(clazz, MAPPER::writerFor);
+    }
+
+    /**
+     * Encode the value as column value, compressed when it is large enough.
+     *
+     * @param value value to encode.
+     * @return the column value.
+     */
+    public String encode(Object value) {
+        byte[] json = toJson(value);
+        if (compressionThreshold > 0 && json.length >= compressionThreshold) {
+            byte[] compressed = gzip(json);
+            // the prefix, the quotes and base64 add about a third to the compressed size.
+            if (compressed.length * 4 / 3 + COMPRESSED_START.length() + 1 < json.length) {
+                return COMPRESSED_START + Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(compressed) + "\"";
+            }
+        }
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encode the value as plain compact json.
+     *
+     * @param value value to encode.
+     * @return the json of the value.
+     */
+    public byte[] toJson(Object value) {
+        if (value == null) {
+            return "null".getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return writer(value.getClass()).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Serialising object to json failed.", e);
+        }
+    }
+
+    /**
+     * Decode the column value, compressed or not.
+     *
+     * @param value column value.
+     * @param type  type of the value.
+     * @param <T>   type of the value.
+     * @return the decoded value.
+     */
+    public <T> T decode(String value, Type type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (isCompressed(value)) {
+                try (InputStream json = inflate(value)) {
+                    return reader(type).readValue(json);
+                }
+            }
+            return reader(type).readValue(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Deserialising json to object failed.", e);
+        }
+    }
+
+    /**
+     * Decode plain json.
+     *
+     * @param json json of the value.
+     * @param type type of the value.
+     * @param <T>  type of the value.
+     * @return the decoded value.
+     */
+    public <T> T fromJson(byte[] json, Type type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Deserialising json to object failed.", e);
+        }
+    }
+
+    /**
+     * Decode the column value, compressed or not, as tree.
+     *
+     * @param value column value.
+     * @return the json tree of the value.
+     */
+    public JsonNode decodeTree(String value) {
+        try {
+            if (isCompressed(value)) {
+                try (InputStream json = inflate(value)) {
+                    return MAPPER.readTree(json);
+                }
+            }
+            return MAPPER.readTree(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Deserialising json to tree failed.", e);
+        }
+    }
+
+    /**
+     * Check whether the column value is compressed.
+     *
+     * @param value column value.
+     * @return true if the value is compressed.
+     */
+    public static boolean isCompressed(String value) {
+        return value != null && value.startsWith(COMPRESSED_START);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Compressing json failed.", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static InputStream inflate(String value) throws IOException {
+        byte[] compressed = Base64.getUrlDecoder().decode(
+                value.substring(COMPRESSED_START.length(), value.length() - 1));
+        return new GZIPInputStream(new ByteArrayInputStream(compressed));
+    }
+}
@@ -1,41 +0,0 @@
-/*
- * SPDX-License-Identifier: Apache-2.0
- * SPDX-FileCopyrightText: Huawei Inc.
- *
- */
-
-package org.eclipse.xpanse.modules.database.common;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-/**
- * Converter to handle object data type and string automatic conversion between database and the
- * entity.
- */
-@Converter
-public class ObjectJsonConverter implements AttributeConverter<Object, String> {
-
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Override
-    public String convertToDatabaseColumn(Object object) {
-        try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(object);
-        } catch (JsonProcessingException ex) {
-            throw new IllegalStateException("Serialising object to string failed.", ex);
-        }
-    }
-
-    @Override
-    public Object convertToEntityAttribute(String s) {
-        try {
-            return objectMapper.readValue(s, Object.class);
-        } catch (JsonProcessingException ex) {
-            throw new IllegalStateException("Serialising string to object failed.", ex);
-        }
-    }
-
-}
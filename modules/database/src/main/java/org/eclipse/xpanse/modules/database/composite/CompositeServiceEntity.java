@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.composite;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.service.CompositeNode;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the COMPOSITE_SERVICE table in the database, registered services deployed
+ * together in the order of their dependencies. The service of every node is kept in the
+ * COMPOSITE_SERVICE_NODE table.
+ */
+@Table(name = "COMPOSITE_SERVICE")
+@Entity
+@Data
+public class CompositeServiceEntity {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
+
+    @Column(name = "CREATE_TIME", nullable = false)
+    private Date createTime;
+
+    @Column(name = "FAILURE_POLICY", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GroupFailurePolicy failurePolicy;
+
+    @Column(name = "STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private CompositeServiceState state;
+
+    /**
+     * End of the lease of the node running the deployment, rollback or destroy, which renews
+     * it until the operation ends.
+     */
+    @Column(name = "LEASE_EXPIRE_TIME")
+    private Date leaseExpireTime;
+
+    /**
+     * The nodes with their dependencies, the services are destroyed in the reverse order.
+     */
+    @Column(name = "NODES", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private List<CompositeNode> nodes;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "COMPOSITE_SERVICE_NODE",
+            joinColumns = @JoinColumn(name = "COMPOSITE_ID"))
+    @MapKeyColumn(name = "NODE")
+    @Column(name = "SERVICE_ID", nullable = false)
+    private Map<String, UUID> serviceIds;
+}
@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.composite;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface CompositeServiceRepository extends JpaRepository<CompositeServiceEntity, UUID> {
+
+    /**
+     * Change the state of the composite service if it is still in one of the expected states.
+     *
+     * @param id              id of the composite service.
+     * @param expected        the expected states.
+     * @param state           the new state.
+     * @param leaseExpireTime end of the lease of the node running the new state.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update CompositeServiceEntity c set c.state = :state,"
+            + " c.leaseExpireTime = :leaseExpireTime where c.id = :id and c.state in :expected")
+    int updateState(@Param("id") UUID id,
+            @Param("expected") Collection<CompositeServiceState> expected,
+            @Param("state") CompositeServiceState state,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the composite services still in one of the states.
+     *
+     * @param ids             ids of the composite services.
+     * @param states          the leased states.
+     * @param leaseExpireTime the new end of the leases.
+     * @return number of composite services whose lease was extended.
+     */
+    @Modifying
+    @Query("update CompositeServiceEntity c set c.leaseExpireTime = :leaseExpireTime"
+            + " where c.id in :ids and c.state in :states")
+    int renewLeases(@Param("ids") Collection<UUID> ids,
+            @Param("states") Collection<CompositeServiceState> states,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Find the composite services in one of the states whose lease ended.
+     *
+     * @param states   the leased states.
+     * @param time     the current time.
+     * @param pageable the maximum number of composite services.
+     * @return the ids of the composite services.
+     */
+    @Query("select c.id from CompositeServiceEntity c where c.state in :states"
+            + " and (c.leaseExpireTime is null or c.leaseExpireTime < :time)")
+    List<UUID> findExpiredLeases(@Param("states") Collection<CompositeServiceState> states,
+            @Param("time") Date time, Pageable pageable);
+
+    /**
+     * Change the state of the composite service if it is still in the expected state and its
+     * lease ended.
+     *
+     * @param id       id of the composite service.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @param time     the current time.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update CompositeServiceEntity c set c.state = :state, c.leaseExpireTime = null"
+            + " where c.id = :id and c.state = :expected"
+            + " and (c.leaseExpireTime is null or c.leaseExpireTime < :time)")
+    int updateExpiredState(@Param("id") UUID id,
+            @Param("expected") CompositeServiceState expected,
+            @Param("state") CompositeServiceState state, @Param("time") Date time);
+}
@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.drift;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DriftStatus;
+import org.eclipse.xpanse.modules.models.view.ResourceChangeVo;
+import org.hibernate.annotations.Type;
+
+/**
+ * Drift check schedule and result of a deployed service. Kept apart from the deployed service,
+ * so that the periodic checks don't change the service and its position in the change feed.
+ */
+@Table(name = "SERVICE_DRIFT", indexes = {
+        @Index(name = "IDX_SERVICE_DRIFT_DUE", columnList = "NEXT_CHECK_TIME")
+})
+@Entity
+@Data
+public class ServiceDriftEntity {
+
+    /**
+     * ID of the deployed service.
+     */
+    @Id
+    @Column(name = "SERVICE_ID", nullable = false)
+    private UUID serviceId;
+
+    @Column(name = "CSP", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Csp csp;
+
+    @Column(name = "STATUS", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DriftStatus status;
+
+    @Column(name = "CHECK_TIME")
+    private Date checkTime;
+
+    /**
+     * Time of the next check, or the end of the lease of a running check.
+     */
+    @Column(name = "NEXT_CHECK_TIME", nullable = false)
+    private Date nextCheckTime;
+
+    @Column(name = "CHANGES", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private List<ResourceChangeVo> changes;
+
+    @Column(name = "ERROR", length = 1024)
+    private String error;
+}
@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.drift;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ServiceDriftRepository extends JpaRepository<ServiceDriftEntity, UUID> {
+
+    /**
+     * Find the drift records due for a check, the longest due first.
+     *
+     * @param now      the current time.
+     * @param pageable limit of the records returned.
+     * @return the due records.
+     */
+    @Query("select d from ServiceDriftEntity d where d.nextCheckTime <= :now"
+            + " order by d.nextCheckTime")
+    List<ServiceDriftEntity> findDue(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * Claim the drift record if it is still due, so that no other node checks the service
+     * until the lease ends.
+     *
+     * @param serviceId  id of the deployed service.
+     * @param now        the current time.
+     * @param leaseUntil end of the lease.
+     * @return 1 if the record was claimed, else 0.
+     */
+    @Modifying
+    @Query("update ServiceDriftEntity d set d.nextCheckTime = :leaseUntil"
+            + " where d.serviceId = :serviceId and d.nextCheckTime <= :now")
+    int claim(@Param("serviceId") UUID serviceId, @Param("now") Date now,
+            @Param("leaseUntil") Date leaseUntil);
+
+    /**
+     * Find the deployed services in the states without a drift record.
+     *
+     * @param states   states of the services.
+     * @param pageable limit of the services returned.
+     * @return the id and the csp of the services.
+     */
+    @Query("select s.id, s.csp from DeployServiceEntity s where s.serviceState in :states"
+            + " and not exists (select d.serviceId from ServiceDriftEntity d"
+            + " where d.serviceId = s.id)")
+    List<Object[]> findUnscheduledServices(@Param("states") Collection<ServiceState> states,
+            Pageable pageable);
+}
@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.group;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+
+/**
+ * Represents the SERVICE_GROUP table in the database, the same service deployed in several
+ * regions with one request. The service of every region is kept in the SERVICE_GROUP_REGION
+ * table.
+ */
+@Table(name = "SERVICE_GROUP")
+@Entity
+@Data
+public class ServiceGroupEntity {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "CREATE_TIME", nullable = false)
+    private Date createTime;
+
+    @Column(name = "FAILURE_POLICY", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GroupFailurePolicy failurePolicy;
+
+    @Column(name = "STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ServiceGroupState state;
+
+    /**
+     * End of the lease of the node running the deployments or the rollback, which renews it
+     * until the operation ends.
+     */
+    @Column(name = "LEASE_EXPIRE_TIME")
+    private Date leaseExpireTime;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "SERVICE_GROUP_REGION", joinColumns = @JoinColumn(name = "GROUP_ID"))
+    @MapKeyColumn(name = "REGION")
+    @Column(name = "SERVICE_ID", nullable = false)
+    private Map<String, UUID> serviceIds;
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.group;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ServiceGroupRepository extends JpaRepository<ServiceGroupEntity, UUID> {
+
+    /**
+     * Extend the leases of the groups still in one of the states.
+     *
+     * @param ids             ids of the groups.
+     * @param states          the leased states.
+     * @param leaseExpireTime the new end of the leases.
+     * @return number of groups whose lease was extended.
+     */
+    @Modifying
+    @Query("update ServiceGroupEntity g set g.leaseExpireTime = :leaseExpireTime"
+            + " where g.id in :ids and g.state in :states")
+    int renewLeases(@Param("ids") Collection<UUID> ids,
+            @Param("states") Collection<ServiceGroupState> states,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Find the groups in one of the states whose lease ended.
+     *
+     * @param states   the leased states.
+     * @param time     the current time.
+     * @param pageable the maximum number of groups.
+     * @return the ids of the groups.
+     */
+    @Query("select g.id from ServiceGroupEntity g where g.state in :states"
+            + " and (g.leaseExpireTime is null or g.leaseExpireTime < :time)")
+    List<UUID> findExpiredLeases(@Param("states") Collection<ServiceGroupState> states,
+            @Param("time") Date time, Pageable pageable);
+
+    /**
+     * Change the state of the group if it is still in the expected state and its lease ended.
+     *
+     * @param id       id of the group.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @param time     the current time.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update ServiceGroupEntity g set g.state = :state, g.leaseExpireTime = null"
+            + " where g.id = :id and g.state = :expected"
+            + " and (g.leaseExpireTime is null or g.leaseExpireTime < :time)")
+    int updateExpiredState(@Param("id") UUID id, @Param("expected") ServiceGroupState expected,
+            @Param("state") ServiceGroupState state, @Param("time") Date time);
+}
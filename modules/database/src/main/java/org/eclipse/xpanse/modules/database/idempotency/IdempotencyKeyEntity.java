@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.IdempotentOperation;
+
+/**
+ * Represents the IDEMPOTENCY_KEY table in the database, the task started by a request with an
+ * idempotency key until the key expires.
+ */
+@Table(name = "IDEMPOTENCY_KEY", indexes = {
+        @Index(name = "IDX_IDEMPOTENCY_KEY_EXPIRE", columnList = "EXPIRE_TIME")
+})
+@Entity
+@Data
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "IDEMPOTENCY_KEY", nullable = false)
+    private String key;
+
+    @Column(name = "OPERATION", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private IdempotentOperation operation;
+
+    /**
+     * Hash of the request, a replay with another request is rejected.
+     */
+    @Column(name = "REQUEST_HASH", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * ID of the task started by the request, null while the task is starting.
+     */
+    @Column(name = "TASK_ID")
+    private UUID taskId;
+
+    @Column(name = "EXPIRE_TIME", nullable = false)
+    private Date expireTime;
+
+    /**
+     * Version of the row, a new key is inserted and never merged into a key stored
+     * concurrently.
+     */
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+}
@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.ocl;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the OCL_SNAPSHOT table in the database. Every distinct Ocl used by a deployment is
+ * stored once, keyed by the hash of its content.
+ */
+@Table(name = "OCL_SNAPSHOT")
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class OclSnapshotEntity extends CreateModifiedTime {
+
+    /**
+     * SHA-256 of the canonical JSON of the Ocl, hex encoded.
+     */
+    @Id
+    @Column(name = "HASH", length = 64, nullable = false)
+    private String hash;
+
+    @Column(name = "OCL", columnDefinition = "json", nullable = false)
+    @Type(value = CompactJsonType.class)
+    private Ocl ocl;
+}
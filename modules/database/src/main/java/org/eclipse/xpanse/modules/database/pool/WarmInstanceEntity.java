@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.pool;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.DeployResource;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the WARM_INSTANCE table in the database, an instance of a warm pool deployed
+ * ahead of the create requests. The instance is deployed in the workspace of its id, which
+ * becomes the id of the service it is assigned to.
+ */
+@Table(name = "WARM_INSTANCE", indexes = {
+        @Index(name = "IDX_WARM_INSTANCE_POOL", columnList = "POOL_ID,STATE")
+})
+@Entity
+@Data
+public class WarmInstanceEntity {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "POOL_ID", nullable = false)
+    private UUID poolId;
+
+    @Column(name = "STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private WarmInstanceState state;
+
+    /**
+     * Time the instance entered its state.
+     */
+    @Column(name = "STATE_TIME", nullable = false)
+    private Date stateTime;
+
+    /**
+     * The hash of the Ocl snapshot the instance is deployed with.
+     */
+    @Column(name = "OCL_HASH", length = 64)
+    private String oclHash;
+
+    @Column(name = "CREATE_REQUEST", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private CreateRequest createRequest;
+
+    @Column(name = "RESOURCES", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private List<DeployResource> resources;
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.pool;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface WarmInstanceRepository extends JpaRepository<WarmInstanceEntity, UUID> {
+
+    /**
+     * Find the instances of the pool.
+     *
+     * @param poolId id of the pool.
+     * @return the instances.
+     */
+    List<WarmInstanceEntity> findByPoolId(UUID poolId);
+
+    /**
+     * Find the ready instances of the pool deployed with the Ocl snapshot, the longest ready
+     * first.
+     *
+     * @param poolId   id of the pool.
+     * @param oclHash  hash of the Ocl snapshot.
+     * @param pageable limit of the instances returned.
+     * @return the ready instances.
+     */
+    @Query("select i from WarmInstanceEntity i where i.poolId = :poolId and i.oclHash = :oclHash"
+            + " and i.state = org.eclipse.xpanse.modules.models.enums.WarmInstanceState.READY"
+            + " order by i.stateTime")
+    List<WarmInstanceEntity> findReady(@Param("poolId") UUID poolId,
+            @Param("oclHash") String oclHash, Pageable pageable);
+
+    /**
+     * Count the instances of the pool per state.
+     *
+     * @param poolId id of the pool.
+     * @return the state and the number of instances.
+     */
+    @Query("select i.state, count(i) from WarmInstanceEntity i where i.poolId = :poolId"
+            + " group by i.state")
+    List<Object[]> countStates(@Param("poolId") UUID poolId);
+
+    /**
+     * Change the state of the instance if it is still in the expected state.
+     *
+     * @param id        id of the instance.
+     * @param expected  the expected state.
+     * @param state     the new state.
+     * @param stateTime the time of the change.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update WarmInstanceEntity i set i.state = :state, i.stateTime = :stateTime"
+            + " where i.id = :id and i.state = :expected")
+    int updateState(@Param("id") UUID id, @Param("expected") WarmInstanceState expected,
+            @Param("state") WarmInstanceState state, @Param("stateTime") Date stateTime);
+
+    /**
+     * Delete the instance if it is still in the expected state.
+     *
+     * @param id       id of the instance.
+     * @param expected the expected state.
+     * @return 1 if the instance was deleted, else 0.
+     */
+    @Modifying
+    @Query("delete from WarmInstanceEntity i where i.id = :id and i.state = :expected")
+    int deleteInState(@Param("id") UUID id, @Param("expected") WarmInstanceState expected);
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.pool;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the WARM_POOL table in the database, the number of instances of a service flavor
+ * in a region kept deployed ahead of the create requests. The instances are kept in the
+ * WARM_INSTANCE table.
+ */
+@Table(name = "WARM_POOL", indexes = {
+        @Index(name = "IDX_WARM_POOL_SERVICE", columnList = "NAME,VERSION,CSP,REGION,FLAVOR")
+})
+@Entity
+@Data
+public class WarmPoolEntity {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "CATEGORY")
+    @Enumerated(EnumType.STRING)
+    private Category category;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
+
+    @Column(name = "VERSION", nullable = false)
+    private String version;
+
+    @Column(name = "CSP", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Csp csp;
+
+    @Column(name = "REGION", nullable = false)
+    private String region;
+
+    @Column(name = "FLAVOR", nullable = false)
+    private String flavor;
+
+    /**
+     * The request the instances are deployed with.
+     */
+    @Column(name = "CREATE_REQUEST", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private CreateRequest createRequest;
+
+    @Column(name = "POOL_SIZE", nullable = false)
+    private int size;
+
+    @Column(name = "MAX_IDLE_MINUTES", nullable = false)
+    private long maxIdleMinutes;
+
+    /**
+     * End of the lease of the node refilling the pool.
+     */
+    @Column(name = "REFILL_LEASE_UNTIL")
+    private Date refillLeaseUntil;
+}
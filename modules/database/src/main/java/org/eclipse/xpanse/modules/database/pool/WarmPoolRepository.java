@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.pool;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface WarmPoolRepository extends JpaRepository<WarmPoolEntity, UUID> {
+
+    /**
+     * Find the pools of the service flavor in the region.
+     *
+     * @param name    name of the service.
+     * @param version version of the service.
+     * @param csp     csp of the service.
+     * @param region  region of the service.
+     * @param flavor  flavor of the service.
+     * @return the pools.
+     */
+    List<WarmPoolEntity> findByNameAndVersionAndCspAndRegionAndFlavor(String name,
+            String version, Csp csp, String region, String flavor);
+
+    /**
+     * Claim the refill of the pool, so that no other node refills it until the lease ends.
+     *
+     * @param id         id of the pool.
+     * @param now        the current time.
+     * @param leaseUntil end of the lease.
+     * @return 1 if the refill was claimed, else 0.
+     */
+    @Modifying
+    @Query("update WarmPoolEntity p set p.refillLeaseUntil = :leaseUntil where p.id = :id"
+            + " and (p.refillLeaseUntil is null or p.refillLeaseUntil <= :now)")
+    int claimRefill(@Param("id") UUID id, @Param("now") Date now,
+            @Param("leaseUntil") Date leaseUntil);
+}
@@ -6,22 +6,21 @@
 
 package org.eclipse.xpanse.modules.database.register;
 
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.util.UUID;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
 import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
-import org.eclipse.xpanse.modules.database.common.ObjectJsonConverter;
 import org.eclipse.xpanse.modules.models.enums.Category;
 import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.ServiceState;
@@ -33,6 +32,8 @@ import org.hibernate.annotations.Type;
  */
 @Table(name = "REGISTER_SERVICE", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"NAME", "VERSION", "CSP", "CATEGORY"})
+}, indexes = {
+        @Index(name = "IDX_REGISTER_SERVICE_MODIFIED_TIME", columnList = "LAST_MODIFIED_TIME,ID")
 })
 @Entity
 @Data
@@ -59,10 +60,15 @@ public class RegisterServiceEntity extends CreateModifiedTime {
     private Category category;
 
     @Column(name = "OCL", columnDefinition = "json", nullable = false)
-    @Type(value = JsonType.class)
-    @Convert(converter = ObjectJsonConverter.class)
+    @Type(value = CompactJsonType.class)
     private Ocl ocl;
 
+    /**
+     * The hash of the Ocl snapshot of the Ocl, stored when the service is registered or updated.
+     */
+    @Column(name = "OCL_HASH", length = 64)
+    private String oclHash;
+
     @Column(name = "SERVICE_STATE")
     @Enumerated(EnumType.STRING)
     private ServiceState serviceState;
@@ -6,9 +6,11 @@
 
 package org.eclipse.xpanse.modules.database.register;
 
+import java.util.Date;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +20,11 @@ import org.springframework.stereotype.Repository;
 public interface RegisterServiceRepository extends JpaRepository<RegisterServiceEntity, UUID>,
         JpaSpecificationExecutor<RegisterServiceEntity> {
 
+    /**
+     * Get the latest modification time of all registered services.
+     *
+     * @return the latest modification time, or null if no service is registered.
+     */
+    @Query("select max(r.lastModifiedTime) from RegisterServiceEntity r")
+    Date findLatestModifiedTime();
 }
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.schedule;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.eclipse.xpanse.modules.models.enums.ScheduleType;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the SERVICE_SCHEDULE table in the database, an operation of a service started at
+ * a set time. The pending schedules are found by their state and fire time, so the timers are
+ * loaded again after a restart.
+ */
+@Table(name = "SERVICE_SCHEDULE", indexes = {
+        @Index(name = "IDX_SERVICE_SCHEDULE_DUE", columnList = "STATE,FIRE_TIME,ID"),
+        @Index(name = "IDX_SERVICE_SCHEDULE_SERVICE", columnList = "SERVICE_ID")
+})
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ServiceScheduleEntity extends CreateModifiedTime {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "SERVICE_ID", nullable = false)
+    private UUID serviceId;
+
+    @Column(name = "TYPE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ScheduleType type;
+
+    @Column(name = "STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ScheduleState state;
+
+    @Column(name = "FIRE_TIME", nullable = false)
+    private Date fireTime;
+
+    /**
+     * Minutes the service is kept after the deployment, only of the deploy schedules.
+     */
+    @Column(name = "TTL_MINUTES")
+    private Long ttlMinutes;
+
+    /**
+     * Request of the service, only of the deploy schedules.
+     */
+    @Column(name = "CREATE_REQUEST", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private CreateRequest createRequest;
+
+    /**
+     * Number of times the destroy found no service, the deployment may still be queued.
+     */
+    @ColumnDefault("0")
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    @Column(name = "ERROR", length = 1024)
+    private String error;
+}
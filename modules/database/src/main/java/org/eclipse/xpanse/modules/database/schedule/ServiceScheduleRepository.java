@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.schedule;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ServiceScheduleRepository extends JpaRepository<ServiceScheduleEntity, UUID> {
+
+    /**
+     * Find the schedules of the service.
+     *
+     * @param serviceId id of the service.
+     * @return the schedules, in the order of their fire time.
+     */
+    List<ServiceScheduleEntity> findByServiceIdOrderByFireTimeAsc(UUID serviceId);
+
+    /**
+     * Find the ids and the fire times of the schedules in the state firing until the time, after
+     * the last schedule found in the order of the fire times and the ids.
+     *
+     * @param state    the state of the schedules.
+     * @param until    the latest fire time.
+     * @param fireTime fire time of the last schedule found.
+     * @param id       id of the last schedule found.
+     * @param pageable limit of the schedules returned.
+     * @return the ids and the fire times of the schedules.
+     */
+    @Query("select s.id, s.fireTime from ServiceScheduleEntity s where s.state = :state"
+            + " and s.fireTime <= :until and (s.fireTime > :fireTime"
+            + " or (s.fireTime = :fireTime and s.id > :id)) order by s.fireTime, s.id")
+    List<Object[]> findDue(@Param("state") ScheduleState state, @Param("until") Date until,
+            @Param("fireTime") Date fireTime, @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * Change the state of the schedule if it is still in the expected state.
+     *
+     * @param id       id of the schedule.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update ServiceScheduleEntity s set s.state = :state"
+            + " where s.id = :id and s.state = :expected")
+    int updateState(@Param("id") UUID id, @Param("expected") ScheduleState expected,
+            @Param("state") ScheduleState state);
+}
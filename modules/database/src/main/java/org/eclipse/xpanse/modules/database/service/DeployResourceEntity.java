@@ -7,31 +7,35 @@
 package org.eclipse.xpanse.modules.database.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.MapKeyColumn;
 import jakarta.persistence.Table;
 import java.util.Map;
 import java.util.UUID;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
 import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
 import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.hibernate.annotations.Type;
 
 /**
  * DeployResourceEntity for persistence.
  */
 @Data
-@Table(name = "DEPLOY_RESOURCE")
+@Table(name = "DEPLOY_RESOURCE", indexes = {
+        @Index(name = "IDX_DEPLOY_RESOURCE_IP", columnList = "IP_ADDRESS,KIND,ID"),
+        @Index(name = "IDX_DEPLOY_RESOURCE_REGION", columnList = "REGION,KIND,ID"),
+        @Index(name = "IDX_DEPLOY_RESOURCE_RESOURCE_ID", columnList = "RESOURCE_ID"),
+        @Index(name = "IDX_DEPLOY_RESOURCE_KIND", columnList = "KIND")})
 @Entity
 @EqualsAndHashCode(callSuper = true)
 public class DeployResourceEntity extends CreateModifiedTime {
@@ -44,6 +48,7 @@ public class DeployResourceEntity extends CreateModifiedTime {
     @Column(name = "ID", nullable = false)
     private UUID id;
 
+    @Column(name = "RESOURCE_ID")
     private String resourceId;
 
     /**
@@ -54,6 +59,7 @@ public class DeployResourceEntity extends CreateModifiedTime {
     /**
      * The kind of the deployed resource.
      */
+    @Column(name = "KIND")
     @Enumerated(EnumType.STRING)
     private DeployResourceKind kind;
 
@@ -68,10 +74,20 @@ public class DeployResourceEntity extends CreateModifiedTime {
     /**
      * The properties of the deployed resource.
      */
-    @ElementCollection
-    @CollectionTable(name = "DEPLOY_RESOURCE_PROPERTY",
-            joinColumns = @JoinColumn(name = "deployResource_id", nullable = false))
-    @MapKeyColumn(name = "p_key")
-    @Column(name = "p_value")
+    @Column(name = "PROPERTY", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
     private Map<String, String> property;
+
+    /**
+     * The IP address of the deployed resource, copied from the properties to be searchable.
+     */
+    @Column(name = "IP_ADDRESS", length = 64)
+    private String ipAddress;
+
+    /**
+     * The region of the deployed resource, copied from the properties or the create request of
+     * the deployed service to be searchable.
+     */
+    @Column(name = "REGION")
+    private String region;
 }
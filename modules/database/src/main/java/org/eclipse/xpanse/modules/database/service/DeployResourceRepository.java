@@ -6,9 +6,13 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,5 +22,22 @@ import org.springframework.stereotype.Repository;
 public interface DeployResourceRepository extends JpaRepository<DeployResourceEntity, UUID>,
         JpaSpecificationExecutor<DeployResourceEntity> {
 
-    void deleteByDeployServiceId(UUID id);
-}
\ No newline at end of file
+    /**
+     * Delete all resources of the deployed service, together with their properties, without
+     * loading them.
+     *
+     * @param id id of the deployed service.
+     * @return number of deleted resources.
+     */
+    @Modifying
+    @Query("delete from DeployResourceEntity r where r.deployService.id = :id")
+    int deleteByDeployServiceId(@Param("id") UUID id);
+
+    /**
+     * Find all resources of the deployed service.
+     *
+     * @param id id of the deployed service.
+     * @return the resources of the service.
+     */
+    List<DeployResourceEntity> findByDeployServiceId(UUID id);
+}
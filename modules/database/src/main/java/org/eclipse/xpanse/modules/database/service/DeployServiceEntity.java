@@ -6,34 +6,41 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
 import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
-import org.eclipse.xpanse.modules.database.common.ObjectJsonConverter;
 import org.eclipse.xpanse.modules.models.enums.Category;
 import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.ServiceState;
 import org.eclipse.xpanse.modules.models.service.CreateRequest;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Type;
 
 /**
  * DeployServiceEntity for persistence.
  */
-@Table(name = "DEPLOY_SERVICE")
+@Table(name = "DEPLOY_SERVICE", indexes = {
+        @Index(name = "IDX_DEPLOY_SERVICE_STATE", columnList = "SERVICE_STATE"),
+        @Index(name = "IDX_DEPLOY_SERVICE_NAME", columnList = "NAME,VERSION,CSP"),
+        @Index(name = "IDX_DEPLOY_SERVICE_CREATE_TIME", columnList = "CREATE_TIME"),
+        @Index(name = "IDX_DEPLOY_SERVICE_MODIFIED_TIME", columnList = "LAST_MODIFIED_TIME,ID")
+})
 @Entity
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -52,16 +59,19 @@ public class DeployServiceEntity extends CreateModifiedTime {
     /**
      * The name of the Service.
      */
+    @Column(name = "NAME")
     private String name;
 
     /**
      * The version of the Service.
      */
+    @Column(name = "VERSION")
     private String version;
 
     /**
      * The csp of the Service.
      */
+    @Column(name = "CSP")
     @Enumerated(EnumType.STRING)
     private Csp csp;
 
@@ -73,6 +83,7 @@ public class DeployServiceEntity extends CreateModifiedTime {
     /**
      * The state of the Service.
      */
+    @Column(name = "SERVICE_STATE")
     @Enumerated(EnumType.STRING)
     private ServiceState serviceState;
 
@@ -80,12 +91,40 @@ public class DeployServiceEntity extends CreateModifiedTime {
      * The Ocl object of the XpanseDeployTask.
      */
     @Column(columnDefinition = "json")
-    @Type(value = JsonType.class)
-    @Convert(converter = ObjectJsonConverter.class)
+    @Type(value = CompactJsonType.class)
     private CreateRequest createRequest;
 
+    /**
+     * The hash of the Ocl snapshot the Service is deployed with.
+     */
+    @Column(name = "OCL_HASH", length = 64)
+    private String oclHash;
+
+    /**
+     * Time the deployer took to deploy the Service, in milliseconds. Not set for Services
+     * assigned resources deployed ahead, e.g. by a warm pool.
+     */
+    @Column(name = "DEPLOY_DURATION")
+    private Long deployDuration;
+
     @OneToMany(mappedBy = "deployService", orphanRemoval = true)
     @Cascade({CascadeType.ALL})
     private List<DeployResourceEntity> deployResourceList;
 
-}
\ No newline at end of file
+    /**
+     * Version of the row, a service changed by another operation or node since it was loaded
+     * isn't overwritten. The services stored before the column existed start with 0.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "ROW_VERSION", nullable = false)
+    private Long rowVersion;
+
+    /**
+     * Time until which the operation claiming the Service holds it. An operation whose node
+     * stopped renewing the lease is failed, so the Service can be operated again.
+     */
+    @Column(name = "LEASE_EXPIRE_TIME")
+    private Date leaseExpireTime;
+
+}
\ No newline at end of file
@@ -6,10 +6,19 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -19,4 +28,112 @@ import org.springframework.stereotype.Repository;
 public interface DeployServiceRepository extends JpaRepository<DeployServiceEntity, UUID>,
         JpaSpecificationExecutor<DeployServiceEntity> {
 
+    /**
+     * Find the deployed service together with its resources in one query.
+     *
+     * @param id id of the deployed service.
+     * @return the deployed service with the resources fetched.
+     */
+    @EntityGraph(attributePaths = {"deployResourceList"})
+    Optional<DeployServiceEntity> findWithResourcesById(UUID id);
+
+    /**
+     * Change the state of the deployed service if it is still in the expected state and not
+     * leased, e.g. by a drift check. The version of the row is incremented, so a stale copy of
+     * the service can't be stored.
+     *
+     * @param id              id of the deployed service.
+     * @param expected        the expected state.
+     * @param state           the new state.
+     * @param time            time of the change.
+     * @param leaseExpireTime end of the lease of the operation of the new state, null if none.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update DeployServiceEntity s set s.serviceState = :state,"
+            + " s.rowVersion = s.rowVersion + 1, s.lastModifiedTime = :time,"
+            + " s.leaseExpireTime = :leaseExpireTime"
+            + " where s.id = :id and s.serviceState = :expected"
+            + " and (s.leaseExpireTime is null or s.leaseExpireTime < :time)")
+    int updateState(@Param("id") UUID id, @Param("expected") ServiceState expected,
+            @Param("state") ServiceState state, @Param("time") Date time,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the deployed services still in one of the states. The version of
+     * the row is kept, the operations holding the services store them when they end.
+     *
+     * @param ids             ids of the deployed services.
+     * @param states          states of the operations holding the services.
+     * @param leaseExpireTime the new end of the leases.
+     * @return number of services whose lease was extended.
+     */
+    @Modifying
+    @Query("update DeployServiceEntity s set s.leaseExpireTime = :leaseExpireTime"
+            + " where s.id in :ids and s.serviceState in :states")
+    int renewLeases(@Param("ids") Collection<UUID> ids,
+            @Param("states") Collection<ServiceState> states,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Find the deployed services in one of the states whose lease ended. Services without a
+     * lease were claimed before the leases existed and are returned too.
+     *
+     * @param states   states of the operations holding the services.
+     * @param time     the current time.
+     * @param pageable the maximum number of services.
+     * @return the ids of the services.
+     */
+    @Query("select s.id from DeployServiceEntity s where s.serviceState in :states"
+            + " and (s.leaseExpireTime is null or s.leaseExpireTime < :time)")
+    List<UUID> findExpiredLeases(@Param("states") Collection<ServiceState> states,
+            @Param("time") Date time, Pageable pageable);
+
+    /**
+     * Change the state of the deployed service if it is still in the expected state and its
+     * lease ended, so a lease renewed meanwhile is kept.
+     *
+     * @param id       id of the deployed service.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @param time     the current time.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update DeployServiceEntity s set s.serviceState = :state,"
+            + " s.rowVersion = s.rowVersion + 1, s.lastModifiedTime = :time,"
+            + " s.leaseExpireTime = null"
+            + " where s.id = :id and s.serviceState = :expected"
+            + " and (s.leaseExpireTime is null or s.leaseExpireTime < :time)")
+    int updateExpiredState(@Param("id") UUID id, @Param("expected") ServiceState expected,
+            @Param("state") ServiceState state, @Param("time") Date time);
+
+    /**
+     * Lease the deployed service without changing its state, if it is in one of the states and
+     * not leased. No operation of the service starts until the lease is released or ends.
+     *
+     * @param id              id of the deployed service.
+     * @param states          the expected states.
+     * @param time            the current time.
+     * @param leaseExpireTime end of the lease.
+     * @return 1 if the service was leased, else 0.
+     */
+    @Modifying
+    @Query("update DeployServiceEntity s set s.leaseExpireTime = :leaseExpireTime"
+            + " where s.id = :id and s.serviceState in :states"
+            + " and (s.leaseExpireTime is null or s.leaseExpireTime < :time)")
+    int updateLease(@Param("id") UUID id, @Param("states") Collection<ServiceState> states,
+            @Param("time") Date time, @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Release the lease of the deployed service, if it is still in one of the states.
+     *
+     * @param id     id of the deployed service.
+     * @param states the states of the leased service.
+     * @return 1 if the lease was released, else 0.
+     */
+    @Modifying
+    @Query("update DeployServiceEntity s set s.leaseExpireTime = null"
+            + " where s.id = :id and s.serviceState in :states")
+    int releaseLease(@Param("id") UUID id, @Param("states") Collection<ServiceState> states);
 }
@@ -0,0 +1,112 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.upgrade;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the SERVICE_UPGRADE table in the database, the rolling upgrade of the deployed
+ * services of a registered service to an Ocl snapshot. A registered service has at most one
+ * upgrade running or paused.
+ */
+@Table(name = "SERVICE_UPGRADE", indexes = {
+        @Index(name = "IDX_SERVICE_UPGRADE_REGISTERED", columnList = "REGISTERED_SERVICE_ID")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "UK_SERVICE_UPGRADE_ACTIVE",
+                columnNames = "ACTIVE_REGISTERED_SERVICE_ID")
+})
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ServiceUpgradeEntity extends CreateModifiedTime {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "REGISTERED_SERVICE_ID", nullable = false)
+    private UUID registeredServiceId;
+
+    /**
+     * Id of the registered service while the upgrade is running or paused, null once it
+     * completed. The column is unique, so a second upgrade of the service can't be stored.
+     */
+    @Column(name = "ACTIVE_REGISTERED_SERVICE_ID")
+    private UUID activeRegisteredServiceId;
+
+    @Column(name = "CATEGORY")
+    @Enumerated(EnumType.STRING)
+    private Category category;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
+
+    @Column(name = "VERSION", nullable = false)
+    private String version;
+
+    @Column(name = "CSP", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Csp csp;
+
+    /**
+     * Hash of the Ocl snapshot the services are upgraded to.
+     */
+    @Column(name = "OCL_HASH", nullable = false)
+    private String oclHash;
+
+    @Column(name = "STATE", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UpgradeState state;
+
+    /**
+     * End of the lease of the node running the upgrade, a running upgrade whose lease ended is
+     * resumed by another node or after a restart.
+     */
+    @Column(name = "LEASE_EXPIRE_TIME")
+    private Date leaseExpireTime;
+
+    @Column(name = "BATCH_SIZE", nullable = false)
+    private int batchSize;
+
+    @Column(name = "MAX_UNAVAILABLE", nullable = false)
+    private int maxUnavailable;
+
+    @Column(name = "FAILURE_THRESHOLD", nullable = false)
+    private double failureThreshold;
+
+    /**
+     * Id of the last service of the last finished batch, the services are upgraded in the
+     * order of their ids.
+     */
+    @Column(name = "CURSOR_ID", nullable = false)
+    private UUID cursor;
+
+    @Column(name = "SUCCEEDED", nullable = false)
+    private int succeeded;
+
+    @Column(name = "FAILED_SERVICE_IDS", columnDefinition = "json")
+    @Type(value = CompactJsonType.class)
+    private List<UUID> failedServiceIds;
+}
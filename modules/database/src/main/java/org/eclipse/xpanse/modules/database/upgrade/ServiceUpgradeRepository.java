@@ -0,0 +1,133 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.upgrade;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface ServiceUpgradeRepository extends JpaRepository<ServiceUpgradeEntity, UUID> {
+
+    /**
+     * Change the state of the upgrade if it is still in the expected state.
+     *
+     * @param id              id of the upgrade.
+     * @param expected        the expected state.
+     * @param state           the new state.
+     * @param leaseExpireTime end of the lease of the node continuing the upgrade.
+     * @return 1 if the state was changed, else 0.
+     */
+    @Modifying
+    @Query("update ServiceUpgradeEntity u set u.state = :state,"
+            + " u.leaseExpireTime = :leaseExpireTime where u.id = :id and u.state = :expected")
+    int updateState(@Param("id") UUID id, @Param("expected") UpgradeState expected,
+            @Param("state") UpgradeState state, @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the upgrades still in the state.
+     *
+     * @param ids             ids of the upgrades.
+     * @param state           state of the upgrades.
+     * @param leaseExpireTime the new end of the leases.
+     * @return number of upgrades whose lease was extended.
+     */
+    @Modifying
+    @Query("update ServiceUpgradeEntity u set u.leaseExpireTime = :leaseExpireTime"
+            + " where u.id in :ids and u.state = :state")
+    int renewLeases(@Param("ids") Collection<UUID> ids, @Param("state") UpgradeState state,
+            @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Find the upgrades in the state whose lease ended.
+     *
+     * @param state    state of the upgrades.
+     * @param time     the current time.
+     * @param pageable the maximum number of upgrades.
+     * @return the ids of the upgrades.
+     */
+    @Query("select u.id from ServiceUpgradeEntity u where u.state = :state"
+            + " and (u.leaseExpireTime is null or u.leaseExpireTime < :time)")
+    List<UUID> findExpiredLeases(@Param("state") UpgradeState state, @Param("time") Date time,
+            Pageable pageable);
+
+    /**
+     * Lease the upgrade in the state if its lease ended, so only one node takes it over.
+     *
+     * @param id              id of the upgrade.
+     * @param state           state of the upgrade.
+     * @param time            the current time.
+     * @param leaseExpireTime end of the new lease.
+     * @return 1 if the upgrade was leased, else 0.
+     */
+    @Modifying
+    @Query("update ServiceUpgradeEntity u set u.leaseExpireTime = :leaseExpireTime"
+            + " where u.id = :id and u.state = :state"
+            + " and (u.leaseExpireTime is null or u.leaseExpireTime < :time)")
+    int updateExpiredLease(@Param("id") UUID id, @Param("state") UpgradeState state,
+            @Param("time") Date time, @Param("leaseExpireTime") Date leaseExpireTime);
+
+    /**
+     * Find the deployed services of the registered service in the states which are not
+     * deployed with the Ocl snapshot, after the cursor in the order of their ids.
+     *
+     * @param category category of the registered service.
+     * @param name     name of the registered service.
+     * @param version  version of the registered service.
+     * @param csp      csp of the registered service.
+     * @param oclHash  hash of the Ocl snapshot.
+     * @param states   states of the services.
+     * @param cursor   id of the last service already found.
+     * @param pageable limit of the services returned.
+     * @return the ids of the services.
+     */
+    @Query("select s.id from DeployServiceEntity s where s.category = :category"
+            + " and s.name = :name and s.version = :version and s.csp = :csp"
+            + " and s.serviceState in :states and (s.oclHash is null or s.oclHash <> :oclHash)"
+            + " and s.id > :cursor order by s.id")
+    List<UUID> findOutdatedServices(@Param("category") Category category,
+            @Param("name") String name, @Param("version") String version,
+            @Param("csp") Csp csp, @Param("oclHash") String oclHash,
+            @Param("states") Collection<ServiceState> states, @Param("cursor") UUID cursor,
+            Pageable pageable);
+
+    /**
+     * Count the deployed services of the registered service in the states which are not
+     * deployed with the Ocl snapshot, after the cursor in the order of their ids.
+     *
+     * @param category category of the registered service.
+     * @param name     name of the registered service.
+     * @param version  version of the registered service.
+     * @param csp      csp of the registered service.
+     * @param oclHash  hash of the Ocl snapshot.
+     * @param states   states of the services.
+     * @param cursor   id of the last service already found.
+     * @return the number of services.
+     */
+    @Query("select count(s) from DeployServiceEntity s where s.category = :category"
+            + " and s.name = :name and s.version = :version and s.csp = :csp"
+            + " and s.serviceState in :states and (s.oclHash is null or s.oclHash <> :oclHash)"
+            + " and s.id > :cursor")
+    long countOutdatedServices(@Param("category") Category category,
+            @Param("name") String name, @Param("version") String version,
+            @Param("csp") Csp csp, @Param("oclHash") String oclHash,
+            @Param("states") Collection<ServiceState> states, @Param("cursor") UUID cursor);
+}
@@ -4,26 +4,22 @@
  *
  */
 
-
 package org.eclipse.xpanse.modules.database.utils;
 
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
 import org.eclipse.xpanse.modules.models.enums.ResourceKindInstance;
 import org.eclipse.xpanse.modules.models.service.DeployResource;
-import org.springframework.beans.BeanUtils;
+import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
 import org.springframework.util.CollectionUtils;
 
 /**
- * Transform DB entity object and model object.
+ * Transform DB entity object and model object. The fields are copied explicitly, without
+ * reflection.
  */
-@Slf4j
 public class EntityTransUtils {
 
 
@@ -37,35 +33,41 @@ public class EntityTransUtils {
         List<DeployResource> resources = new ArrayList<>();
         if (!CollectionUtils.isEmpty(entities)) {
             for (DeployResourceEntity entity : entities) {
-                DeployResource deployResource = ResourceKindInstance.getInstance(entity.getKind());
-                BeanUtils.copyProperties(entity, deployResource);
-                fillChildFields(deployResource, entity.getProperty());
+                DeployResource deployResource = ResourceKindInstance.getInstance(entity.getKind(),
+                        entity.getProperty());
+                deployResource.setResourceId(entity.getResourceId());
+                deployResource.setName(entity.getName());
+                deployResource.setKind(entity.getKind());
+                deployResource.setProperty(entity.getProperty());
                 resources.add(deployResource);
             }
         }
         return resources;
     }
 
-
-    private static void fillChildFields(DeployResource deployResource,
-            Map<String, String> properties) {
-        if (Objects.isNull(deployResource) || properties.isEmpty()) {
-            return;
-        }
-        Field[] fields = deployResource.getClass().getFields();
-        try {
-            for (Field field : fields) {
-                String fieldName = field.getName();
-                if (properties.containsKey(fieldName)) {
-                    String value = properties.get(fieldName);
-                    field.setAccessible(true);
-                    field.set(deployResource, value);
-                }
-            }
-        } catch (IllegalAccessException e) {
-            log.error("IllegalAccessException:", e);
+    /**
+     * Transform deployServiceEntity with its resources to ServiceDetailVo.
+     *
+     * @param entity deployServiceEntity
+     * @return serviceDetailVo
+     */
+    public static ServiceDetailVo transServiceEntity(DeployServiceEntity entity) {
+        ServiceDetailVo serviceDetailVo = new ServiceDetailVo();
+        serviceDetailVo.setId(entity.getId());
+        serviceDetailVo.setCategory(entity.getCategory());
+        serviceDetailVo.setName(entity.getName());
+        serviceDetailVo.setVersion(entity.getVersion());
+        serviceDetailVo.setCsp(entity.getCsp());
+        serviceDetailVo.setFlavor(entity.getFlavor());
+        serviceDetailVo.setServiceState(entity.getServiceState());
+        serviceDetailVo.setCreateTime(entity.getCreateTime());
+        serviceDetailVo.setLastModifiedTime(entity.getLastModifiedTime());
+        serviceDetailVo.setCreateRequest(entity.getCreateRequest());
+        if (!CollectionUtils.isEmpty(entity.getDeployResourceList())) {
+            serviceDetailVo.setDeployResources(
+                    transResourceEntity(entity.getDeployResourceList()));
         }
-
+        return serviceDetailVo;
     }
 
 }
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.webhook;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Represents the WEBHOOK_DELIVERY_SLOT table in the database. Every webhook endpoint has a fixed
+ * number of slots, a delivery attempt holds one of them until it ends or its lease ends, so that
+ * the batches in flight per endpoint are capped on all nodes together.
+ */
+@Table(name = "WEBHOOK_DELIVERY_SLOT")
+@Entity
+@Data
+public class WebhookDeliverySlotEntity {
+
+    /**
+     * ID of the slot, derived from the endpoint and the number of the slot.
+     */
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "ENDPOINT", length = 512, nullable = false)
+    private String endpoint;
+
+    @Column(name = "SLOT", nullable = false)
+    private int slot;
+
+    /**
+     * Token of the delivery attempt holding the slot.
+     */
+    @Column(name = "CLAIM_TOKEN")
+    private UUID claimToken;
+
+    /**
+     * End of the lease of the delivery attempt holding the slot, null if the slot is free.
+     */
+    @Column(name = "LEASE_UNTIL")
+    private Date leaseUntil;
+}
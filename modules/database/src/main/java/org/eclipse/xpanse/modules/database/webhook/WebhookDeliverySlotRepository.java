@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.webhook;
+
+import java.util.Date;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface WebhookDeliverySlotRepository
+        extends JpaRepository<WebhookDeliverySlotEntity, UUID> {
+
+    /**
+     * Acquire the slot if it is free or the lease of its holder ended.
+     *
+     * @param id         id of the slot.
+     * @param now        the current time.
+     * @param token      token of the delivery attempt.
+     * @param leaseUntil end of the lease.
+     * @return 1 if the slot is acquired, 0 otherwise.
+     */
+    @Modifying
+    @Query("update WebhookDeliverySlotEntity s set s.claimToken = :token,"
+            + " s.leaseUntil = :leaseUntil where s.id = :id"
+            + " and (s.leaseUntil is null or s.leaseUntil <= :now)")
+    int acquire(@Param("id") UUID id, @Param("now") Date now, @Param("token") UUID token,
+            @Param("leaseUntil") Date leaseUntil);
+
+    /**
+     * Release the slot held by the delivery attempt.
+     *
+     * @param claimToken token of the delivery attempt.
+     * @return number of released slots.
+     */
+    @Modifying
+    @Query("update WebhookDeliverySlotEntity s set s.claimToken = null, s.leaseUntil = null"
+            + " where s.claimToken = :token")
+    int release(@Param("token") UUID claimToken);
+}
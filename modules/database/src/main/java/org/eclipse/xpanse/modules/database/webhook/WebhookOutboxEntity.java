@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.webhook;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.database.common.CompactJsonType;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.hibernate.annotations.Type;
+
+/**
+ * Represents the WEBHOOK_OUTBOX table in the database. A row is written for every webhook
+ * endpoint in the transaction changing the state of the service, and deleted once the endpoint
+ * accepted it.
+ */
+@Table(name = "WEBHOOK_OUTBOX", indexes = {
+        @Index(name = "IDX_WEBHOOK_OUTBOX_DUE", columnList = "ENDPOINT,NEXT_ATTEMPT_TIME"),
+        @Index(name = "IDX_WEBHOOK_OUTBOX_CLAIM", columnList = "CLAIM_TOKEN")
+})
+@Entity
+@Data
+public class WebhookOutboxEntity {
+
+    /**
+     * ID of the event, sent to the endpoint to detect duplicate deliveries.
+     */
+    @Id
+    @Column(name = "ID", nullable = false)
+    private UUID id;
+
+    @Column(name = "ENDPOINT", length = 512, nullable = false)
+    private String endpoint;
+
+    @Column(name = "EVENT", columnDefinition = "json", nullable = false)
+    @Type(value = CompactJsonType.class)
+    private ServiceStateEventVo event;
+
+    @Column(name = "CREATE_TIME", nullable = false)
+    private Date createTime;
+
+    /**
+     * Time of the next delivery attempt, or the end of the lease of a running attempt.
+     */
+    @Column(name = "NEXT_ATTEMPT_TIME", nullable = false)
+    private Date nextAttemptTime;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    /**
+     * Token of the delivery attempt holding the row.
+     */
+    @Column(name = "CLAIM_TOKEN")
+    private UUID claimToken;
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.webhook;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface WebhookOutboxRepository extends JpaRepository<WebhookOutboxEntity, UUID> {
+
+    /**
+     * Find the ids of the events due for delivery to the endpoint, oldest first.
+     *
+     * @param endpoint the webhook endpoint.
+     * @param now      the current time.
+     * @param pageable limit of the ids returned.
+     * @return ids of the due events.
+     */
+    @Query("select o.id from WebhookOutboxEntity o where o.endpoint = :endpoint"
+            + " and o.nextAttemptTime <= :now order by o.createTime, o.id")
+    List<UUID> findDueIds(@Param("endpoint") String endpoint, @Param("now") Date now,
+            Pageable pageable);
+
+    /**
+     * Claim the events which are still due, so that no other attempt delivers them until the
+     * lease ends.
+     *
+     * @param ids        ids of the events.
+     * @param now        the current time.
+     * @param token      token of the delivery attempt.
+     * @param leaseUntil end of the lease.
+     * @return number of claimed events.
+     */
+    @Modifying
+    @Query("update WebhookOutboxEntity o set o.claimToken = :token,"
+            + " o.nextAttemptTime = :leaseUntil where o.id in :ids and o.nextAttemptTime <= :now")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("now") Date now,
+            @Param("token") UUID token, @Param("leaseUntil") Date leaseUntil);
+
+    /**
+     * Find the events claimed by the delivery attempt, oldest first.
+     *
+     * @param claimToken token of the delivery attempt.
+     * @return the claimed events.
+     */
+    List<WebhookOutboxEntity> findByClaimTokenOrderByCreateTimeAscIdAsc(UUID claimToken);
+
+    /**
+     * Delete the events claimed by the delivery attempt.
+     *
+     * @param claimToken token of the delivery attempt.
+     * @return number of deleted events.
+     */
+    @Modifying
+    @Query("delete from WebhookOutboxEntity o where o.claimToken = :token")
+    int deleteClaimed(@Param("token") UUID claimToken);
+
+    /**
+     * Release the events claimed by a failed delivery attempt for a later attempt.
+     *
+     * @param claimToken      token of the delivery attempt.
+     * @param nextAttemptTime time of the next attempt.
+     * @return number of released events.
+     */
+    @Modifying
+    @Query("update WebhookOutboxEntity o set o.claimToken = null, o.attempts = o.attempts + 1,"
+            + " o.nextAttemptTime = :next where o.claimToken = :token")
+    int retryClaimed(@Param("token") UUID claimToken, @Param("next") Date nextAttemptTime);
+}
@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.utils.OclLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of the json column codec with the sample Ocls, compared to a mapper created per
+ * value as done before. Not run by the build, run the main method from the module directory with
+ * the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"huawei-Kafka.yml", "huawei-K8S.yml", "flexibleEngine-Kafka.yml"})
+    private String sample;
+
+    private Ocl ocl;
+    private String plainValue;
+    private String compressedValue;
+    private JsonCodec plainCodec;
+    private JsonCodec compressingCodec;
+
+    /**
+     * Load the sample and print the stored sizes.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        ocl = new OclLoader().getOcl(new File("../../samples/" + sample).toURI().toURL());
+        plainCodec = new JsonCodec(0);
+        compressingCodec = new JsonCodec(1024);
+        plainValue = plainCodec.encode(ocl);
+        compressedValue = compressingCodec.encode(ocl);
+        String pretty = new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValueAsString(ocl);
+        System.out.printf("%n%s: pretty %d bytes, compact %d bytes, compressed %d bytes%n",
+                sample, pretty.getBytes(StandardCharsets.UTF_8).length,
+                plainValue.getBytes(StandardCharsets.UTF_8).length,
+                compressedValue.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Benchmark
+    public String encodeNewMapper() throws Exception {
+        return new ObjectMapper().writeValueAsString(ocl);
+    }
+
+    @Benchmark
+    public String encodeCompact() {
+        return plainCodec.encode(ocl);
+    }
+
+    @Benchmark
+    public String encodeCompressed() {
+        return compressingCodec.encode(ocl);
+    }
+
+    @Benchmark
+    public Ocl decodeNewMapper() throws Exception {
+        return new ObjectMapper().readValue(plainValue, Ocl.class);
+    }
+
+    @Benchmark
+    public Ocl decodeCompact() {
+        return plainCodec.decode(plainValue, Ocl.class);
+    }
+
+    @Benchmark
+    public Ocl decodeCompressed() {
+        return compressingCodec.decode(compressedValue, Ocl.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JsonCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import java.io.File;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.utils.OclLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for JsonCodec.
+ */
+public class JsonCodecTest {
+
+    private Ocl ocl;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ocl = new OclLoader().getOcl(new File("../../samples/huawei-Kafka.yml").toURI().toURL());
+    }
+
+    @Test
+    public void testCompactRoundTrip() {
+        JsonCodec codec = new JsonCodec(0);
+
+        String value = codec.encode(ocl);
+
+        Assertions.assertFalse(JsonCodec.isCompressed(value));
+        Assertions.assertFalse(value.contains("\n"));
+        Assertions.assertFalse(value.contains(":null"));
+        Assertions.assertEquals(ocl, codec.decode(value, Ocl.class));
+    }
+
+    @Test
+    public void testCompressedRoundTrip() {
+        JsonCodec codec = new JsonCodec(1024);
+        String plain = new JsonCodec(0).encode(ocl);
+
+        String value = codec.encode(ocl);
+
+        Assertions.assertTrue(JsonCodec.isCompressed(value));
+        Assertions.assertTrue(value.length() < plain.length());
+        Assertions.assertEquals(ocl, codec.decode(value, Ocl.class));
+        Assertions.assertEquals(codec.decodeTree(plain), codec.decodeTree(value));
+    }
+
+    @Test
+    public void testSmallValueIsNotCompressed() {
+        JsonCodec codec = new JsonCodec(1024);
+        Ocl small = new Ocl();
+        small.setName("kafka");
+
+        Assertions.assertEquals("{\"name\":\"kafka\"}", codec.encode(small));
+    }
+
+    @Test
+    public void testLegacyValueIsReadable() {
+        JsonCodec codec = new JsonCodec(1024);
+        String legacy = "{\n  \"name\" : \"kafka\",\n  \"version\" : null,\n  \"unknown\" : 1\n}";
+
+        Ocl decoded = codec.decode(legacy, Ocl.class);
+
+        Assertions.assertEquals("kafka", decoded.getName());
+        Assertions.assertNull(decoded.getVersion());
+    }
+}
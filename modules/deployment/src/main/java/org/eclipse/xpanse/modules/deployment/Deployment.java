@@ -9,6 +9,7 @@ package org.eclipse.xpanse.modules.deployment;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
 import org.eclipse.xpanse.modules.models.enums.DeployerKind;
 import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
 
 /**
  * Interface to produce a service.
@@ -19,5 +20,15 @@ public interface Deployment {
 
     DeployResult destroy(DeployTask task);
 
+    DeployResult modify(DeployTask task);
+
+    DeployResult upgrade(DeployTask task);
+
+    DeployPlanVo plan(DeployTask task);
+
+    DeployPlanVo planModify(DeployTask task);
+
+    DeployPlanVo detectDrift(DeployTask task);
+
     DeployerKind getDeployerKind();
 }
@@ -33,6 +33,11 @@ public class DeployTask {
      */
     private Ocl ocl;
 
+    /**
+     * The hash of the Ocl snapshot of the DeployTask.
+     */
+    private String oclHash;
+
     /**
      * The specific xpanse resource handler for the csp.
      */
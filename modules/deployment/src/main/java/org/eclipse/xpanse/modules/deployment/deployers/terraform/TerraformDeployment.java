@@ -6,11 +6,28 @@
 
 package org.eclipse.xpanse.modules.deployment.deployers.terraform;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.deployment.Deployment;
@@ -20,8 +37,11 @@ import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.DeployerKind;
 import org.eclipse.xpanse.modules.models.enums.TerraformExecState;
 import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
 
 /**
  * Implementation of th deployment with terraform.
@@ -32,13 +52,30 @@ public class TerraformDeployment implements Deployment {
 
     public static final String VERSION_FILE_NAME = "version.tf";
     public static final String SCRIPT_FILE_NAME = "resources.tf";
+    public static final String PLAN_FILE_NAME = "tfplan";
+    private static final String STATE_FILE_PREFIX = "terraform.tfstate";
+    private static final Set<PosixFilePermission> OWNER_ONLY =
+            PosixFilePermissions.fromString("rwx------");
 
 
     private final String workspaceDirectory;
+    private final TerraformPlanCache planCache;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Constructor of the TerraformDeployment.
+     *
+     * @param workspaceDirectory directory of the workspaces.
+     * @param planCache          cache of the plans of new deployments.
+     * @param objectMapper       mapper of the JSON plans shown by terraform.
+     */
+    @Autowired
     public TerraformDeployment(
-            @Value("${terraform.workspace.directory:xpanse_deploy_ws}") String workspaceDirectory) {
+            @Value("${terraform.workspace.directory:xpanse_deploy_ws}") String workspaceDirectory,
+            TerraformPlanCache planCache, ObjectMapper objectMapper) {
         this.workspaceDirectory = workspaceDirectory;
+        this.planCache = planCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -53,9 +90,12 @@ public class TerraformDeployment implements Deployment {
         buildWorkspace(workspace);
         createScriptFile(task.getCreateRequest().getCsp(), task.getCreateRequest().getRegion(),
                 workspace, task.getOcl().getDeployment().getDeployer());
-        // Execute the terraform command.
+        // Execute the terraform command, apply the previewed plan if it is still cached.
         TerraformExecutor executor = getExecutor(task, workspace);
-        executor.deploy();
+        TerraformPlan plan = planCache.getIfPresent(getPlanKey(task));
+        if (Objects.isNull(plan) || !applyPlan(plan, executor, workspace)) {
+            executor.deploy();
+        }
         String tfState = executor.getTerraformState();
 
         DeployResult deployResult = new DeployResult();
@@ -89,6 +129,122 @@ public class TerraformDeployment implements Deployment {
         return result;
     }
 
+    /**
+     * Plan the deployment of the DeployTask without changing any resource. The plan is made in
+     * a template workspace and cached, a deploy with the same inputs applies it directly.
+     *
+     * @param task the task for the deployment.
+     */
+    @Override
+    public DeployPlanVo plan(DeployTask task) {
+        String key = getPlanKey(task);
+        AtomicBoolean planned = new AtomicBoolean();
+        TerraformPlan plan = planCache.get(key, () -> {
+            planned.set(true);
+            return createPlan(task, key);
+        });
+        return plan.toDeployPlanVo(!planned.get());
+    }
+
+    /**
+     * Plan the modification of the deployed service of the DeployTask in its workspace, without
+     * changing any resource. The plan is not kept, the state changes with every modification.
+     *
+     * @param task the task for the deployment, with the modified request.
+     */
+    @Override
+    public DeployPlanVo planModify(DeployTask task) {
+        String workspace = getWorkspacePath(task.getId().toString());
+        TerraformExecutor executor = getDeployedExecutor(task, workspace);
+        String planFile = PLAN_FILE_NAME + "-" + UUID.randomUUID();
+        try {
+            executor.plan(planFile);
+            return TerraformPlan.of(null, workspace, executor.tfShowPlan(planFile),
+                    objectMapper).toDeployPlanVo(false);
+        } finally {
+            deleteFile(Path.of(workspace, planFile));
+        }
+    }
+
+    /**
+     * Detect the drift of the deployed service of the DeployTask: a refresh-only plan lists the
+     * resources changed or deleted outside of the deployment. Neither the resources nor the
+     * state are changed.
+     *
+     * @param task the task for the deployment.
+     */
+    @Override
+    public DeployPlanVo detectDrift(DeployTask task) {
+        String workspace = getWorkspacePath(task.getId().toString());
+        TerraformExecutor executor = getDeployedExecutor(task, workspace);
+        String planFile = PLAN_FILE_NAME + "-" + UUID.randomUUID();
+        try {
+            executor.refreshPlan(planFile);
+            return TerraformPlan.ofDrift(workspace, executor.tfShowPlan(planFile),
+                    objectMapper).toDeployPlanVo(false);
+        } finally {
+            deleteFile(Path.of(workspace, planFile));
+        }
+    }
+
+    /**
+     * Modify the deployed resources of the DeployTask in place. The workspace and the state of
+     * the deployment are reused, terraform only applies the difference to the new variables.
+     *
+     * @param task the task for the deployment, with the modified request.
+     */
+    @Override
+    public DeployResult modify(DeployTask task) {
+        String workspace = getWorkspacePath(task.getId().toString());
+        return applyDeployed(task, getDeployedExecutor(task, workspace));
+    }
+
+    /**
+     * Upgrade the deployed resources of the DeployTask in place to the scripts of its Ocl. The
+     * scripts in the workspace are replaced and terraform applies the difference to the state of
+     * the deployment. The previous scripts are restored if the upgrade fails.
+     *
+     * @param task the task for the deployment, with the Ocl to upgrade to.
+     */
+    @Override
+    public DeployResult upgrade(DeployTask task) {
+        String workspace = getWorkspacePath(task.getId().toString());
+        TerraformExecutor executor = getDeployedExecutor(task, workspace);
+        Path scriptPath = Path.of(workspace, SCRIPT_FILE_NAME);
+        String previousScript;
+        try {
+            previousScript = Files.readString(scriptPath);
+        } catch (IOException ex) {
+            throw new TerraformExecutorException("Read terraform script failed.", ex);
+        }
+        createScriptFile(task.getCreateRequest().getCsp(), task.getCreateRequest().getRegion(),
+                workspace, task.getOcl().getDeployment().getDeployer());
+        try {
+            return applyDeployed(task, executor);
+        } catch (RuntimeException e) {
+            try {
+                Files.writeString(scriptPath, previousScript);
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    private DeployResult applyDeployed(DeployTask task, TerraformExecutor executor) {
+        executor.deploy();
+        String tfState = executor.getTerraformState();
+
+        DeployResult deployResult = new DeployResult();
+        deployResult.setId(task.getId());
+        deployResult.setState(TerraformExecState.DEPLOY_SUCCESS);
+        deployResult.getProperty().put("stateFile", tfState);
+        if (task.getDeployResourceHandler() != null) {
+            task.getDeployResourceHandler().handler(deployResult);
+        }
+        return deployResult;
+    }
+
     /**
      * Get a TerraformExecutor.
      *
@@ -96,6 +252,20 @@ public class TerraformDeployment implements Deployment {
      * @param workspace the workspace of the deployment.
      */
     private TerraformExecutor getExecutor(DeployTask task, String workspace) {
+        return new TerraformExecutor(getEnvVariables(task), DeployEnvironments.getVariables(task),
+                workspace);
+    }
+
+    private TerraformExecutor getDeployedExecutor(DeployTask task, String workspace) {
+        TerraformExecutor executor = getExecutor(task, workspace);
+        if (StringUtils.isBlank(executor.getTerraformState())) {
+            throw new TerraformExecutorException(
+                    "Terraform state of the deployment not found in " + workspace);
+        }
+        return executor;
+    }
+
+    private Map<String, String> getEnvVariables(DeployTask task) {
         Map<String, String> envVariables = DeployEnvironments.getEnv(task);
         Map<String, String> flavorVariables = DeployEnvironments.getFlavorVariables(task);
         Map<String, String> tfFlavorVariables = new HashMap<>();
@@ -103,8 +273,88 @@ public class TerraformDeployment implements Deployment {
             tfFlavorVariables.put("TF_VAR_" + key, flavorVariables.get(key));
         }
         envVariables.putAll(tfFlavorVariables);
-        return new TerraformExecutor(envVariables, DeployEnvironments.getVariables(task),
-                workspace);
+        return envVariables;
+    }
+
+    /**
+     * Get the key of the plan of a new deployment: the hash of the Ocl snapshot, the region and
+     * all variables, which include the flavor.
+     *
+     * @param task the task for the deployment.
+     */
+    private String getPlanKey(DeployTask task) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(Objects.isNull(task.getOclHash())
+                ? task.getOcl().getDeployment().getDeployer() : task.getOclHash(),
+                StandardCharsets.UTF_8);
+        hasher.putString("|" + task.getCreateRequest().getCsp() + "|"
+                + task.getCreateRequest().getRegion(), StandardCharsets.UTF_8);
+        for (Map<String, String> variables : List.of(getEnvVariables(task),
+                DeployEnvironments.getVariables(task))) {
+            // sorted, so that the key doesn't depend on the order of the map.
+            for (Map.Entry<String, String> variable : new TreeMap<>(variables).entrySet()) {
+                hasher.putString("|" + variable.getKey() + "=" + variable.getValue(),
+                        StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private TerraformPlan createPlan(DeployTask task, String key) {
+        String workspace = getWorkspacePath("plans" + File.separator + key);
+        try {
+            buildPlanWorkspace(workspace);
+            createScriptFile(task.getCreateRequest().getCsp(),
+                    task.getCreateRequest().getRegion(), workspace,
+                    task.getOcl().getDeployment().getDeployer());
+            TerraformExecutor executor = getExecutor(task, workspace);
+            executor.plan(PLAN_FILE_NAME);
+            return TerraformPlan.of(key, workspace, executor.tfShowPlan(PLAN_FILE_NAME),
+                    objectMapper);
+        } catch (RuntimeException e) {
+            deleteFile(Path.of(workspace));
+            throw e;
+        }
+    }
+
+    /**
+     * Apply the cached plan in the workspace of the task: the initialized template workspace is
+     * copied without its state, then the saved plan is applied.
+     *
+     * @return true if the plan was applied, false if the deployment must be planned again.
+     */
+    private boolean applyPlan(TerraformPlan plan, TerraformExecutor executor,
+            String workspace) {
+        Path source = Path.of(plan.getWorkspace());
+        Path target = Path.of(workspace);
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().startsWith(STATE_FILE_PREFIX)) {
+                    continue;
+                }
+                Path copy = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(path, copy, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+            log.info("Apply the cached plan {}.", plan.getId());
+            return executor.tfApplyPlan(PLAN_FILE_NAME);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to apply the cached plan {}, plan the deployment again.",
+                    plan.getId(), e);
+            return false;
+        }
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}.", path, e);
+        }
     }
 
     /**
@@ -146,6 +396,29 @@ public class TerraformDeployment implements Deployment {
         log.info("workspace create success,Working directory is " + ws.getAbsolutePath());
     }
 
+    /**
+     * Build the workspace of a cached plan, only accessible by the owner of the process where the
+     * file system supports it. The saved plan holds the resolved values of the variables,
+     * secrets included, until the plan leaves the cache.
+     */
+    private void buildPlanWorkspace(String workspace) {
+        Path path = Path.of(workspace);
+        try {
+            if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectories(path);
+                return;
+            }
+            Files.createDirectories(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            // the directory of the plans may exist from before, the umask may drop bits.
+            Files.setPosixFilePermissions(path.getParent(), OWNER_ONLY);
+            Files.setPosixFilePermissions(path, OWNER_ONLY);
+        } catch (IOException e) {
+            throw new TerraformExecutorException(
+                    "Create workspace failed, File path not created: " + path.toAbsolutePath(),
+                    e);
+        }
+    }
+
     /**
      * Get the workspace path for terraform.
      *
@@ -69,6 +69,57 @@ public class TerraformExecutor {
         return executeWithVariables(new StringBuilder("terraform apply -auto-approve "));
     }
 
+    /**
+     * Executes terraform plan command and saves the plan to the file.
+     *
+     * @param planFile name of the plan file in the workspace.
+     * @return true if terraform plan creation is successful. else false.
+     */
+    public boolean tfPlanToFile(String planFile) {
+        return executeWithVariables(new StringBuilder("terraform plan -input=false -out=")
+                .append(planFile).append(' '));
+    }
+
+    /**
+     * Executes terraform plan command in refresh-only mode and saves the plan to the file. The
+     * plan only records the changes made outside of terraform.
+     *
+     * @param planFile name of the plan file in the workspace.
+     * @return true if terraform plan creation is successful. else false.
+     */
+    public boolean tfRefreshPlanToFile(String planFile) {
+        return executeWithVariables(new StringBuilder(
+                "terraform plan -refresh-only -input=false -out=").append(planFile).append(' '));
+    }
+
+    /**
+     * Executes terraform apply command with a saved plan. The variables are part of the plan.
+     *
+     * @param planFile name of the plan file in the workspace.
+     * @return true if the plan is successfully applied. else false.
+     */
+    public boolean tfApplyPlan(String planFile) {
+        StringBuilder out = new StringBuilder();
+        boolean exeRet = execute("terraform apply -input=false -auto-approve " + planFile, out);
+        log.info(out.toString());
+        return exeRet;
+    }
+
+    /**
+     * Reads the saved plan as JSON.
+     *
+     * @param planFile name of the plan file in the workspace.
+     * @return the JSON representation of the plan.
+     */
+    public String tfShowPlan(String planFile) {
+        StringBuilder out = new StringBuilder();
+        execute("terraform show -json " + planFile, out);
+        // the output includes stderr, the plan is the line with the JSON object.
+        return out.toString().lines().filter(line -> line.startsWith("{")).reduce((first,
+                second) -> second).orElseThrow(() -> new TerraformExecutorException(
+                "TFExecutor.tfShowPlan returned no plan."));
+    }
+
     /**
      * Executes terraform destroy command.
      *
@@ -149,6 +200,38 @@ public class TerraformExecutor {
         }
     }
 
+    /**
+     * Plan the deployment and save the plan to the file.
+     *
+     * @param planFile name of the plan file in the workspace.
+     */
+    public void plan(String planFile) {
+        if (!tfInit()) {
+            log.error("TFExecutor.tfInit failed.");
+            throw new TerraformExecutorException("TFExecutor.tfInit failed.");
+        }
+        if (!tfPlanToFile(planFile)) {
+            log.error("TFExecutor.tfPlan failed.");
+            throw new TerraformExecutorException("TFExecutor.tfPlan failed.");
+        }
+    }
+
+    /**
+     * Plan a refresh of the state of the deployment and save the plan to the file.
+     *
+     * @param planFile name of the plan file in the workspace.
+     */
+    public void refreshPlan(String planFile) {
+        if (!tfInit()) {
+            log.error("TFExecutor.tfInit failed.");
+            throw new TerraformExecutorException("TFExecutor.tfInit failed.");
+        }
+        if (!tfRefreshPlanToFile(planFile)) {
+            log.error("TFExecutor.tfRefreshPlan failed.");
+            throw new TerraformExecutorException("TFExecutor.tfRefreshPlan failed.");
+        }
+    }
+
     /**
      * Reads the contents of the "terraform.tfstate" file from the terraform workspace.
      *
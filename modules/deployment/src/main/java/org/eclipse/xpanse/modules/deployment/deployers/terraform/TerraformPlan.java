@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import lombok.Getter;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.ResourceChangeVo;
+
+/**
+ * A saved terraform plan with the summary of its resource changes.
+ */
+@Getter
+public class TerraformPlan {
+
+    private final String id;
+    private final String workspace;
+    private final Date createTime;
+    private final List<ResourceChangeVo> resourceChanges;
+
+    private TerraformPlan(String id, String workspace, List<ResourceChangeVo> resourceChanges) {
+        this.id = id;
+        this.workspace = workspace;
+        this.createTime = new Date();
+        this.resourceChanges = Collections.unmodifiableList(resourceChanges);
+    }
+
+    /**
+     * Create the plan from the output of terraform show -json.
+     *
+     * @param id           id of the plan, null if the plan isn't kept.
+     * @param workspace    workspace with the saved plan.
+     * @param planJson     JSON representation of the plan.
+     * @param objectMapper mapper to read the JSON.
+     * @return the plan.
+     */
+    public static TerraformPlan of(String id, String workspace, String planJson,
+            ObjectMapper objectMapper) {
+        return new TerraformPlan(id, workspace,
+                getResourceChanges(planJson, "resource_changes", objectMapper));
+    }
+
+    /**
+     * Create the drift from the output of terraform show -json of a refresh-only plan: the
+     * resources changed outside of terraform.
+     *
+     * @param workspace    workspace of the deployment.
+     * @param planJson     JSON representation of the plan.
+     * @param objectMapper mapper to read the JSON.
+     * @return the drift as a plan without id.
+     */
+    public static TerraformPlan ofDrift(String workspace, String planJson,
+            ObjectMapper objectMapper) {
+        return new TerraformPlan(null, workspace,
+                getResourceChanges(planJson, "resource_drift", objectMapper));
+    }
+
+    /**
+     * Get the summary of the plan. Every call returns a new summary.
+     *
+     * @param cached whether the plan was served from the cache.
+     * @return the summary of the plan.
+     */
+    public DeployPlanVo toDeployPlanVo(boolean cached) {
+        DeployPlanVo deployPlanVo = new DeployPlanVo();
+        deployPlanVo.setPlanId(id);
+        deployPlanVo.setCached(cached);
+        deployPlanVo.setCreateTime(createTime);
+        deployPlanVo.setResourceChanges(resourceChanges);
+        for (ResourceChangeVo resourceChange : resourceChanges) {
+            switch (resourceChange.getAction()) {
+                case "create" -> deployPlanVo.setToCreate(deployPlanVo.getToCreate() + 1);
+                case "update" -> deployPlanVo.setToUpdate(deployPlanVo.getToUpdate() + 1);
+                case "replace" -> deployPlanVo.setToReplace(deployPlanVo.getToReplace() + 1);
+                default -> deployPlanVo.setToDelete(deployPlanVo.getToDelete() + 1);
+            }
+        }
+        return deployPlanVo;
+    }
+
+    private static List<ResourceChangeVo> getResourceChanges(String planJson, String field,
+            ObjectMapper objectMapper) {
+        JsonNode plan;
+        try {
+            plan = objectMapper.readTree(planJson);
+        } catch (JsonProcessingException e) {
+            throw new TerraformExecutorException("Parse terraform plan failed.", e);
+        }
+        List<ResourceChangeVo> resourceChanges = new ArrayList<>();
+        for (JsonNode resourceChange : plan.path(field)) {
+            String action = getAction(resourceChange.path("change").path("actions"));
+            if (action != null) {
+                resourceChanges.add(new ResourceChangeVo(resourceChange.path("address").asText(),
+                        resourceChange.path("type").asText(), action));
+            }
+        }
+        return resourceChanges;
+    }
+
+    /**
+     * Map the terraform actions of a resource to the action of the summary.
+     *
+     * @return the action, null if the resource is unchanged.
+     */
+    private static String getAction(JsonNode actions) {
+        List<String> names = new ArrayList<>();
+        actions.forEach(action -> names.add(action.asText()));
+        if (names.contains("create") && names.contains("delete")) {
+            return "replace";
+        }
+        if (names.size() == 1 && List.of("create", "update", "delete").contains(names.get(0))) {
+            return names.get(0);
+        }
+        // no-op and read.
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Cache of the saved terraform plans of new deployments, by the hash of everything the plan
+ * depends on: the Ocl snapshot, the flavor, the region and the variables.
+ *
+ * <p>Concurrent requests for the same plan share one planning. The workspace of a plan is
+ * deleted when the plan leaves the cache.
+ */
+@Slf4j
+@Component
+public class TerraformPlanCache {
+
+    private final Cache<String, TerraformPlan> plans;
+
+    /**
+     * Constructor of the TerraformPlanCache.
+     *
+     * @param maximumSize maximum number of cached plans.
+     * @param ttlMinutes  time to live of the cached plans.
+     */
+    @Autowired
+    public TerraformPlanCache(
+            @Value("${terraform.plan.cache.maximum-size:100}") long maximumSize,
+            @Value("${terraform.plan.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.plans = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .removalListener(this::deleteWorkspace).build();
+    }
+
+    /**
+     * Get the cached plan, or create it.
+     *
+     * @param key    hash of the inputs of the plan.
+     * @param loader creates the plan if it isn't cached.
+     * @return the plan.
+     */
+    public TerraformPlan get(String key, Callable<TerraformPlan> loader) {
+        try {
+            return plans.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Get the cached plan.
+     *
+     * @param key hash of the inputs of the plan.
+     * @return the plan, null if it isn't cached.
+     */
+    public TerraformPlan getIfPresent(String key) {
+        return plans.getIfPresent(key);
+    }
+
+    private void deleteWorkspace(RemovalNotification<String, TerraformPlan> notification) {
+        try {
+            FileSystemUtils.deleteRecursively(Path.of(notification.getValue().getWorkspace()));
+        } catch (IOException e) {
+            log.warn("Failed to delete the workspace of plan {}.", notification.getKey(), e);
+        }
+    }
+}
@@ -6,6 +6,7 @@
 
 package org.eclipse.xpanse.modules.deployment.deployers.terraform;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
@@ -45,7 +46,8 @@ public class TerraformDeploymentTest {
         xpanseDeployTask.setOcl(ocl);
         xpanseDeployTask.setDeployResourceHandler(null);
         xpanseDeployTask.setCreateRequest(deployRequest);
-        TerraformDeployment terraformDeployment = new TerraformDeployment("test");
+        TerraformDeployment terraformDeployment = new TerraformDeployment("test",
+                new TerraformPlanCache(100, 30), new ObjectMapper());
 
         DeployResult deployResult = terraformDeployment.deploy(xpanseDeployTask);
 
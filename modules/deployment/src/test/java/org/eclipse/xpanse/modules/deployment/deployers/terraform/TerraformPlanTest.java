@@ -0,0 +1,49 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.ResourceChangeVo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for TerraformPlan.
+ */
+public class TerraformPlanTest {
+
+    private static final String PLAN_JSON = "{\"format_version\":\"1.1\",\"resource_changes\":["
+            + "{\"address\":\"huaweicloud_vpc.vpc\",\"type\":\"huaweicloud_vpc\","
+            + "\"change\":{\"actions\":[\"no-op\"]}},"
+            + "{\"address\":\"huaweicloud_compute_instance.worker[3]\","
+            + "\"type\":\"huaweicloud_compute_instance\",\"change\":{\"actions\":[\"create\"]}},"
+            + "{\"address\":\"huaweicloud_compute_instance.zookeeper\","
+            + "\"type\":\"huaweicloud_compute_instance\",\"change\":{\"actions\":[\"update\"]}},"
+            + "{\"address\":\"huaweicloud_evs_volume.data\",\"type\":\"huaweicloud_evs_volume\","
+            + "\"change\":{\"actions\":[\"delete\",\"create\"]}}]}";
+
+    @Test
+    public void testUnchangedResourcesAreLeftOut() {
+        TerraformPlan plan = TerraformPlan.of("key", "workspace", PLAN_JSON,
+                new ObjectMapper());
+
+        DeployPlanVo deployPlanVo = plan.toDeployPlanVo(true);
+
+        Assertions.assertEquals("key", deployPlanVo.getPlanId());
+        Assertions.assertTrue(deployPlanVo.isCached());
+        Assertions.assertEquals(1, deployPlanVo.getToCreate());
+        Assertions.assertEquals(1, deployPlanVo.getToUpdate());
+        Assertions.assertEquals(1, deployPlanVo.getToReplace());
+        Assertions.assertEquals(0, deployPlanVo.getToDelete());
+        Assertions.assertEquals(List.of("create", "update", "replace"),
+                deployPlanVo.getResourceChanges().stream().map(ResourceChangeVo::getAction)
+                        .toList());
+        Assertions.assertFalse(plan.toDeployPlanVo(false).isCached());
+    }
+}
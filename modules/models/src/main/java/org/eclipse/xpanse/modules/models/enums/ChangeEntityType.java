@@ -0,0 +1,15 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * The kind of rows tracked by the change feeds.
+ */
+public enum ChangeEntityType {
+    DEPLOYED_SERVICE,
+    REGISTERED_SERVICE
+}
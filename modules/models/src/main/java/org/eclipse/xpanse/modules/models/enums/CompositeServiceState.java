@@ -0,0 +1,23 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * Aggregate state of the services of a composite service.
+ */
+public enum CompositeServiceState {
+    DEPLOYING,
+    DEPLOY_SUCCESS,
+    PARTIAL_SUCCESS,
+    DEPLOY_FAILED,
+    ROLLING_BACK,
+    ROLLED_BACK,
+    ROLLBACK_FAILED,
+    DESTROYING,
+    DESTROY_SUCCESS,
+    DESTROY_FAILED
+}
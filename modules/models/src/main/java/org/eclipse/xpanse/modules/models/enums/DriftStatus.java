@@ -0,0 +1,17 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * Result of the last drift check of a deployed service.
+ */
+public enum DriftStatus {
+    NOT_CHECKED,
+    IN_SYNC,
+    DRIFTED,
+    FAILED
+}
@@ -0,0 +1,21 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * What happens to a service group when the deployment in one of its regions fails.
+ */
+public enum GroupFailurePolicy {
+    /**
+     * The services deployed in the other regions are kept.
+     */
+    BEST_EFFORT,
+    /**
+     * The regions not started yet are skipped and the services of all regions are destroyed.
+     */
+    ALL_OR_NOTHING
+}
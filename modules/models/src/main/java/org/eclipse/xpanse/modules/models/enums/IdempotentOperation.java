@@ -0,0 +1,15 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * Operation of a request with an idempotency key.
+ */
+public enum IdempotentOperation {
+    DEPLOY,
+    DESTROY
+}
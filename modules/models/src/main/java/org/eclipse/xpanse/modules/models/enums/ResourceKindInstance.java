@@ -6,6 +6,11 @@
 
 package org.eclipse.xpanse.modules.models.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import org.eclipse.xpanse.modules.models.service.DeployResource;
 import org.eclipse.xpanse.modules.models.service.PublicIp;
 import org.eclipse.xpanse.modules.models.service.Vm;
@@ -13,37 +18,68 @@ import org.eclipse.xpanse.modules.models.service.Volume;
 import org.eclipse.xpanse.modules.models.service.Vpc;
 
 /**
- * Defines deployResourceKind and deployResourceInstance.
+ * Defines deployResourceKind and deployResourceInstance. Every kind creates a new instance and
+ * fills the fields of the kind from the properties of the resource.
  */
 public enum ResourceKindInstance {
 
-    VM_INSTANCE(DeployResourceKind.VM, new Vm()),
-    VOLUME_INSTANCE(DeployResourceKind.VOLUME, new Volume()),
-    VPC_INSTANCE(DeployResourceKind.VPC, new Vpc()),
-    PUBLIC_IP_INSTANCE(DeployResourceKind.PUBLIC_IP, new PublicIp()),
-    UNKNOWN_INSTANCE(DeployResourceKind.UNKNOWN, new DeployResource());
+    VM_INSTANCE(DeployResourceKind.VM, property -> {
+        Vm vm = new Vm();
+        vm.setIp(property.get("ip"));
+        return vm;
+    }),
+    VOLUME_INSTANCE(DeployResourceKind.VOLUME, property -> {
+        Volume volume = new Volume();
+        volume.setSize(property.get("size"));
+        volume.setType(property.get("type"));
+        return volume;
+    }),
+    VPC_INSTANCE(DeployResourceKind.VPC, property -> {
+        Vpc vpc = new Vpc();
+        vpc.setVpc(property.get("vpc"));
+        vpc.setSubnet(property.get("subnet"));
+        return vpc;
+    }),
+    PUBLIC_IP_INSTANCE(DeployResourceKind.PUBLIC_IP, property -> {
+        PublicIp publicIp = new PublicIp();
+        publicIp.setIp(property.get("ip"));
+        return publicIp;
+    }),
+    UNKNOWN_INSTANCE(DeployResourceKind.UNKNOWN, property -> new DeployResource());
+
+    private static final Map<DeployResourceKind, ResourceKindInstance> INSTANCES =
+            new EnumMap<>(DeployResourceKind.class);
+
+    static {
+        for (ResourceKindInstance enumItem : values()) {
+            INSTANCES.put(enumItem.resourceKind, enumItem);
+        }
+    }
 
     private final DeployResourceKind resourceKind;
-    private final DeployResource resourceInstance;
+    private final Function<Map<String, String>, DeployResource> resourceFactory;
 
     ResourceKindInstance(DeployResourceKind resourceKind,
-            DeployResource resourceInstance) {
+            Function<Map<String, String>, DeployResource> resourceFactory) {
         this.resourceKind = resourceKind;
-        this.resourceInstance = resourceInstance;
+        this.resourceFactory = resourceFactory;
     }
 
     /**
-     * get resourceInstance by resourceKind.
+     * get new resourceInstance by resourceKind, with the fields of the kind filled.
      *
      * @param resourceKind deployResourceKind
+     * @param property     properties of the resource, may be null.
      * @return resourceInstance
      */
-    public static DeployResource getInstance(DeployResourceKind resourceKind) {
-        for (ResourceKindInstance enumItem : values()) {
-            if (enumItem.resourceKind.equals(resourceKind)) {
-                return enumItem.resourceInstance;
-            }
+    public static DeployResource getInstance(DeployResourceKind resourceKind,
+            Map<String, String> property) {
+        ResourceKindInstance enumItem = Objects.isNull(resourceKind) ? null
+                : INSTANCES.get(resourceKind);
+        if (Objects.isNull(enumItem)) {
+            return new DeployResource();
         }
-        return new DeployResource();
+        return enumItem.resourceFactory.apply(
+                Objects.isNull(property) ? Collections.emptyMap() : property);
     }
 }
@@ -0,0 +1,17 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * State of a scheduled operation of a service.
+ */
+public enum ScheduleState {
+    PENDING,
+    FIRED,
+    FAILED,
+    CANCELLED
+}
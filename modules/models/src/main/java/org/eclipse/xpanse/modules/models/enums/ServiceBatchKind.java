@@ -0,0 +1,15 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * The kind of the operations started together on a batch of services.
+ */
+public enum ServiceBatchKind {
+    DEPLOY,
+    DESTROY
+}
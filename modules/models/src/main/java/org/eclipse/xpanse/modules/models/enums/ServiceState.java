@@ -8,6 +8,8 @@ package org.eclipse.xpanse.modules.models.enums;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.EnumSet;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -22,7 +24,10 @@ public enum ServiceState {
     DEPLOY_FAILED("deploy_failed"),
     DESTROYING("destroying"),
     DESTROY_SUCCESS("destroy_success"),
-    DESTROY_FAILED("destroy_failed");
+    DESTROY_FAILED("destroy_failed"),
+    MODIFYING("modifying"),
+    MODIFY_SUCCESS("modify_success"),
+    MODIFY_FAILED("modify_failed");
 
 
     private final String serviceState;
@@ -31,6 +36,34 @@ public enum ServiceState {
         this.serviceState = serviceState;
     }
 
+    /**
+     * Get the states a deployed service may move to this state from. Only a new service enters
+     * the deploying state, a running operation leaves its state only with its result.
+     *
+     * @return the previous states of the allowed transitions, empty if there is none.
+     */
+    public Set<ServiceState> getPreviousStates() {
+        return switch (this) {
+            case DEPLOY_SUCCESS, DEPLOY_FAILED -> EnumSet.of(DEPLOYING);
+            case DESTROYING -> EnumSet.of(DEPLOY_SUCCESS, DEPLOY_FAILED, DESTROY_SUCCESS,
+                    DESTROY_FAILED, MODIFY_SUCCESS, MODIFY_FAILED);
+            case DESTROY_SUCCESS, DESTROY_FAILED -> EnumSet.of(DESTROYING);
+            case MODIFYING -> EnumSet.of(DEPLOY_SUCCESS, MODIFY_SUCCESS, MODIFY_FAILED);
+            case MODIFY_SUCCESS, MODIFY_FAILED -> EnumSet.of(MODIFYING);
+            default -> EnumSet.noneOf(ServiceState.class);
+        };
+    }
+
+    /**
+     * Check whether a deployed service in this state may move to the next state.
+     *
+     * @param next the next state.
+     * @return true if the transition is allowed.
+     */
+    public boolean canTransitTo(ServiceState next) {
+        return next.getPreviousStates().contains(this);
+    }
+
     /**
      * For BillingPeriod serialize.
      */
@@ -0,0 +1,16 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * State of the rolling upgrade of the deployed services of a registered service.
+ */
+public enum UpgradeState {
+    RUNNING,
+    PAUSED,
+    COMPLETED
+}
@@ -0,0 +1,17 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.enums;
+
+/**
+ * State of a pre-deployed instance of a warm pool.
+ */
+public enum WarmInstanceState {
+    DEPLOYING,
+    READY,
+    FAILED,
+    DESTROYING
+}
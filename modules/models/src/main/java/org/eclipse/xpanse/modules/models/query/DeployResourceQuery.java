@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+
+/**
+ * The query model for search the resources of all deployed services.
+ */
+@Data
+@Valid
+public class DeployResourceQuery {
+
+    @Schema(description = "Kind of the deployed resource.")
+    private DeployResourceKind kind;
+
+    @Schema(description = "ID of the resource in the cloud service provider.")
+    private String resourceId;
+
+    @Schema(description = "IP address of the deployed resource.")
+    private String ipAddress;
+
+    @Schema(description = "Region of the deployed resource.")
+    private String region;
+
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import java.util.Date;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * The query model for search deployed services.
+ */
+@Data
+@Valid
+public class DeployedServiceQuery {
+
+    @Schema(description = "Name of the cloud service provider.")
+    private Csp csp;
+
+    @Schema(description = "Category of the service.")
+    private Category category;
+
+    @Schema(description = "Name of the deployed service.")
+    private String serviceName;
+
+    @Schema(description = "Version of the deployed service.")
+    private String serviceVersion;
+
+    @Schema(description = "State of the deployed service.")
+    private ServiceState serviceState;
+
+    @Schema(description = "Only services created at or after this time.")
+    private Date createdFrom;
+
+    @Schema(description = "Only services created before this time.")
+    private Date createdTo;
+
+}
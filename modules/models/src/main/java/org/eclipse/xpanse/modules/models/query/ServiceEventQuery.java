@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * The filter of a subscriber to the state changes of the deployed services.
+ */
+@Data
+@Valid
+public class ServiceEventQuery {
+
+    @Schema(description = "IDs of the deployed services, all services when empty.")
+    private Set<UUID> ids;
+
+    @Schema(description = "Cloud service provider of the deployed services.")
+    private Csp csp;
+
+    @Schema(description = "State of the deployed services after the change.")
+    private ServiceState serviceState;
+
+}
@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Request body for the creation of a batch of services. Either the list of requests, or one
+ * request and the number of services to create with it.
+ */
+@Data
+public class BatchCreateRequest {
+
+    @Valid
+    @Schema(description = "The requests of the services to create")
+    private List<CreateRequest> requests;
+
+    @Valid
+    @Schema(description = "The request of the services to create count times")
+    private CreateRequest request;
+
+    @Min(1)
+    @Schema(description = "The number of services to create with the request")
+    private Integer count;
+}
@@ -0,0 +1,37 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+
+/**
+ * Request body for the destruction of a batch of services. Either the ids of the services, or
+ * a filter selecting all deployed services of a registered service.
+ */
+@Data
+public class BatchDestroyRequest {
+
+    @Schema(description = "The IDs of the services to destroy")
+    private List<UUID> ids;
+
+    @Schema(description = "The category of the services to destroy")
+    private Category category;
+
+    @Schema(description = "The name of the services to destroy")
+    private String serviceName;
+
+    @Schema(description = "The version of the services to destroy")
+    private String serviceVersion;
+
+    @Schema(description = "The csp of the services to destroy")
+    private Csp csp;
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+
+/**
+ * Request to deploy several registered services as one composite service. The nodes are
+ * deployed in the order of their dependencies, independent nodes in parallel.
+ */
+@Data
+public class CompositeCreateRequest {
+
+    @NotBlank
+    @Schema(description = "The name of the composite service")
+    private String name;
+
+    @NotEmpty
+    @Valid
+    @Schema(description = "The registered services of the composite service")
+    private List<CompositeNode> nodes;
+
+    @Schema(description = "What happens when the deployment of a node fails, BEST_EFFORT keeps "
+            + "the deployed nodes and ALL_OR_NOTHING destroys them. BEST_EFFORT by default")
+    private GroupFailurePolicy failurePolicy;
+}
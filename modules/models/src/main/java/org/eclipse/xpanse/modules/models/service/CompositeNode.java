@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+
+/**
+ * A registered service deployed as a node of a composite service.
+ */
+@Data
+public class CompositeNode {
+
+    @NotBlank
+    @Schema(description = "The name of the node, unique in the composite service")
+    private String name;
+
+    @NotNull
+    @Valid
+    @Schema(description = "The request of the registered service of the node")
+    private CreateRequest request;
+
+    @Schema(description = "The nodes deployed before this node, in addition to the nodes of "
+            + "the inputs")
+    private Set<String> dependsOn;
+
+    @Schema(description = "The deploy variables of the node set from the outputs of other "
+            + "nodes, as variable name to '<node>.<resource name>.<property>'. The resource id "
+            + "is the property 'id'")
+    private Map<String, String> inputs;
+}
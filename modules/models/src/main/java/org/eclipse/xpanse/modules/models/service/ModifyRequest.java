@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Request body for the modification of a deployed service. Only the fields set are changed.
+ */
+@Data
+public class ModifyRequest {
+
+    /**
+     * The new flavor of the Service.
+     */
+    @Schema(description = "The new flavor of the service, unchanged if not set")
+    private String flavor;
+
+    /**
+     * The changed properties of the Service.
+     */
+    @Schema(description = "The properties to change, the other properties are kept")
+    private Map<String, String> property;
+}
@@ -0,0 +1,35 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.Set;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+
+/**
+ * Request body for the deployment of the same service in several regions of the provider.
+ */
+@Data
+public class MultiRegionCreateRequest {
+
+    @NotNull
+    @Valid
+    @Schema(description = "The request of the service, its region is replaced by each region")
+    private CreateRequest request;
+
+    @NotEmpty
+    @Schema(description = "The regions of the provider to deploy the service in")
+    private Set<String> regions;
+
+    @Schema(description = "What happens when the deployment in a region fails, "
+            + "BEST_EFFORT by default")
+    private GroupFailurePolicy failurePolicy;
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * Request body to deploy a service at a set time and to destroy it after a time to live.
+ */
+@Data
+public class ServiceScheduleRequest {
+
+    @NotNull
+    @Valid
+    @Schema(description = "The request of the service")
+    private CreateRequest request;
+
+    @Schema(description = "Time (UTC) the service is deployed, deployed at once if not set")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date deployTime;
+
+    @Min(1)
+    @Schema(description = "The minutes after the deployment the service is destroyed, kept "
+            + "if not set")
+    private Long ttlMinutes;
+}
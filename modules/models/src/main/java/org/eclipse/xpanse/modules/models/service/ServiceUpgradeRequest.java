@@ -0,0 +1,41 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Request body for the rolling upgrade of the deployed services of a registered service to its
+ * current Ocl.
+ */
+@Data
+public class ServiceUpgradeRequest {
+
+    @NotNull
+    @Schema(description = "The ID of the registered service whose deployed services are "
+            + "upgraded")
+    private UUID registeredServiceId;
+
+    @Min(1)
+    @Schema(description = "The number of services upgraded before the failure rate is checked")
+    private Integer batchSize;
+
+    @Min(1)
+    @Schema(description = "The maximum number of services upgrading at once")
+    private Integer maxUnavailable;
+
+    @DecimalMin("0")
+    @DecimalMax("1")
+    @Schema(description = "The upgrade pauses when the failed share of a batch is higher")
+    private Double failureThreshold;
+}
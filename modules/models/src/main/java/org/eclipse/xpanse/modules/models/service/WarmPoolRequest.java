@@ -0,0 +1,35 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Request body for the configuration of a warm pool: the number of instances kept deployed
+ * with the request, ready to be assigned to a matching create request.
+ */
+@Data
+public class WarmPoolRequest {
+
+    @NotNull
+    @Valid
+    @Schema(description = "The request the instances of the pool are deployed with")
+    private CreateRequest request;
+
+    @NotNull
+    @Min(0)
+    @Schema(description = "The number of instances kept deployed")
+    private Integer size;
+
+    @Min(1)
+    @Schema(description = "The minutes an instance is kept unassigned before it is destroyed")
+    private Long maxIdleMinutes;
+}
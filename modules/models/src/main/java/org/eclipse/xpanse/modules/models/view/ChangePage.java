@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import java.util.List;
+import lombok.Value;
+
+/**
+ * One page of a change feed.
+ *
+ * @param <T> type of the changed rows.
+ */
+@Value
+public class ChangePage<T> {
+
+    /**
+     * Changes of the page, in the order they were made.
+     */
+    List<ChangeVo<T>> changes;
+
+    /**
+     * Cursor to fetch the next changes with, also when the page is empty.
+     */
+    String nextCursor;
+
+    /**
+     * Whether more changes are available right away.
+     */
+    boolean hasMore;
+}
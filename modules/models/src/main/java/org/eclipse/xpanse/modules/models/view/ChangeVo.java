@@ -0,0 +1,38 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Change of one row in the change feed, either the current state of the row or a tombstone.
+ *
+ * @param <T> type of the changed rows.
+ */
+@Data
+public class ChangeVo<T> {
+
+    @NotNull
+    @Schema(description = "The ID of the changed row.")
+    private UUID id;
+
+    @Schema(description = "Whether the row was deleted, the item is not set then.")
+    private boolean deleted;
+
+    @NotNull
+    @Schema(description = "Time of the change.")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date changeTime;
+
+    @Schema(description = "The current state of the row.")
+    private T item;
+}
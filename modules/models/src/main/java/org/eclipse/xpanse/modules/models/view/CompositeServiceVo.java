@@ -0,0 +1,55 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * View of a composite service.
+ */
+@Data
+public class CompositeServiceVo {
+
+    @NotNull
+    @Schema(description = "The ID of the composite service")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The name of the composite service")
+    private String name;
+
+    @NotNull
+    @Schema(description = "Time the composite service was created")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    @NotNull
+    @Schema(description = "What happens when the deployment of a node fails")
+    private GroupFailurePolicy failurePolicy;
+
+    @NotNull
+    @Schema(description = "The aggregate state of the services of the nodes")
+    private CompositeServiceState state;
+
+    @NotNull
+    @Schema(description = "The ID of the service per node")
+    private Map<String, UUID> serviceIds;
+
+    @NotNull
+    @Schema(description = "The state of the service per node, missing for the nodes whose "
+            + "deployment did not start")
+    private Map<String, ServiceState> serviceStates;
+}
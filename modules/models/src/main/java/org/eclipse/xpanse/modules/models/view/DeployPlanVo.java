@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Preview of a deployment or a modification: the resources which would be changed.
+ */
+@Data
+public class DeployPlanVo {
+
+    @Schema(description = "The ID of the cached plan, null if the plan isn't cached")
+    private String planId;
+
+    @Schema(description = "Whether the plan was served from the cache")
+    private boolean cached;
+
+    @NotNull
+    @Schema(description = "Time the plan was created")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    @Schema(description = "Number of resources to create")
+    private int toCreate;
+
+    @Schema(description = "Number of resources to update in place")
+    private int toUpdate;
+
+    @Schema(description = "Number of resources to destroy and create again")
+    private int toReplace;
+
+    @Schema(description = "Number of resources to destroy")
+    private int toDelete;
+
+    @NotNull
+    @Schema(description = "The changed resources, unchanged resources are left out")
+    private List<ResourceChangeVo> resourceChanges;
+
+    @Schema(description = "Average duration of the recent deployments of the service in "
+            + "seconds, null without history")
+    private Long estimatedDeploySeconds;
+}
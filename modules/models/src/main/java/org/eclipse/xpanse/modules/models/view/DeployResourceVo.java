@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+
+/**
+ * Define view object for the resource inventory of all deployed services.
+ */
+@Data
+public class DeployResourceVo {
+
+    @NotNull
+    @Schema(description = "The ID of the deployed resource.")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The ID of the service the resource is deployed for.")
+    private UUID serviceId;
+
+    @Schema(description = "The ID of the resource in the cloud service provider.")
+    private String resourceId;
+
+    @Schema(description = "The name of the deployed resource.")
+    private String name;
+
+    @NotNull
+    @Schema(description = "The kind of the deployed resource.")
+    private DeployResourceKind kind;
+
+    @Schema(description = "The IP address of the deployed resource.")
+    private String ipAddress;
+
+    @Schema(description = "The region of the deployed resource.")
+    private String region;
+
+    @Schema(description = "The properties of the deployed resource.")
+    private Map<String, String> property;
+}
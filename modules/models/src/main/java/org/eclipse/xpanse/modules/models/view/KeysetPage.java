@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.Value;
+
+/**
+ * One page of a keyset paginated listing.
+ *
+ * @param <T> type of the items.
+ */
+@Value
+public class KeysetPage<T> {
+
+    /**
+     * Items of the page.
+     */
+    List<T> items;
+
+    /**
+     * Cursor to fetch the next page with, null on the last page.
+     */
+    String nextCursor;
+
+    /**
+     * Total number of items matching the query, null when not requested.
+     */
+    Long totalCount;
+
+    /**
+     * Create the page from the items fetched with a limit of one more than the page size, the
+     * extra item only tells that there is a next page.
+     *
+     * @param items      items fetched with a limit of pageSize + 1.
+     * @param pageSize   size of the page.
+     * @param cursorOf   function returning the cursor of an item.
+     * @param totalCount total number of items matching the query, may be null.
+     * @param <T>        type of the items.
+     * @return the page.
+     */
+    public static <T> KeysetPage<T> of(List<T> items, int pageSize, Function<T, String> cursorOf,
+            Long totalCount) {
+        if (items.size() <= pageSize) {
+            return new KeysetPage<>(items, null, totalCount);
+        }
+        List<T> pageItems = items.subList(0, pageSize);
+        return new KeysetPage<>(pageItems, cursorOf.apply(pageItems.get(pageSize - 1)),
+                totalCount);
+    }
+}
@@ -46,8 +46,8 @@ public class RegisteredServiceVo {
     @NotNull
     @Schema(description = "ID of the registered service.")
     private Category category;
-    @NotNull
-    @Schema(description = "ID of the registered service.")
+
+    @Schema(description = "Ocl of the registered service, not set when listed without it.")
     private Ocl ocl;
 
     @NotNull
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change of a resource planned by the deployer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceChangeVo {
+
+    @NotNull
+    @Schema(description = "The address of the resource in the deployment scripts")
+    private String address;
+
+    @NotNull
+    @Schema(description = "The type of the resource")
+    private String type;
+
+    @NotNull
+    @Schema(description = "The planned action, one of create, update, replace and delete")
+    private String action;
+}
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Aggregate progress of a batch of services.
+ */
+@Data
+public class ServiceBatchVo {
+
+    @NotNull
+    @Schema(description = "The ID of the batch")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The operation started on the services")
+    private ServiceBatchKind kind;
+
+    @NotNull
+    @Schema(description = "Time the batch was created")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    @Schema(description = "The IDs of the services of the batch, only returned at creation")
+    private List<UUID> serviceIds;
+
+    @Schema(description = "The number of services of the batch")
+    private int total;
+
+    @Schema(description = "The number of services whose operation did not start yet")
+    private long queued;
+
+    @NotNull
+    @Schema(description = "The number of services per state")
+    private Map<ServiceState, Long> states;
+}
@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.DriftStatus;
+
+/**
+ * Result of the last drift check of a deployed service: the resources changed outside of the
+ * deployment since it was applied.
+ */
+@Data
+public class ServiceDriftVo {
+
+    @NotNull
+    @Schema(description = "The ID of the deployed service")
+    private UUID serviceId;
+
+    @NotNull
+    @Schema(description = "The result of the last drift check")
+    private DriftStatus status;
+
+    @Schema(description = "Time of the last drift check")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date checkTime;
+
+    @Schema(description = "Time of the next drift check")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date nextCheckTime;
+
+    @Schema(description = "The resources changed outside of the deployment, updated or deleted")
+    private List<ResourceChangeVo> changes;
+
+    @Schema(description = "Why the last drift check failed")
+    private String error;
+}
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Aggregate state of the services of a group deployed in several regions.
+ */
+@Data
+public class ServiceGroupVo {
+
+    @NotNull
+    @Schema(description = "The ID of the group")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "Time the group was created")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    @NotNull
+    @Schema(description = "What happens when the deployment in a region fails")
+    private GroupFailurePolicy failurePolicy;
+
+    @NotNull
+    @Schema(description = "The aggregate state of the services of the group")
+    private ServiceGroupState state;
+
+    @NotNull
+    @Schema(description = "The ID of the service per region")
+    private Map<String, UUID> serviceIds;
+
+    @NotNull
+    @Schema(description = "The state of the service per region, missing for the regions whose "
+            + "deployment did not start")
+    private Map<String, ServiceState> serviceStates;
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.eclipse.xpanse.modules.models.enums.ScheduleType;
+
+/**
+ * Scheduled operation of a service.
+ */
+@Data
+public class ServiceScheduleVo {
+
+    @NotNull
+    @Schema(description = "The ID of the schedule")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The ID of the service")
+    private UUID serviceId;
+
+    @NotNull
+    @Schema(description = "The operation started by the schedule")
+    private ScheduleType type;
+
+    @NotNull
+    @Schema(description = "The state of the schedule")
+    private ScheduleState state;
+
+    @NotNull
+    @Schema(description = "Time (UTC) the operation is started")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date fireTime;
+
+    @Schema(description = "The minutes after the deployment the service is destroyed")
+    private Long ttlMinutes;
+
+    @Schema(description = "The reason the operation failed")
+    private String error;
+
+    @Schema(description = "Time the schedule was created")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+}
@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Change of the state of a deployed service, pushed to the subscribers.
+ */
+@Data
+public class ServiceStateEventVo {
+
+    @NotNull
+    @Schema(description = "The ID of the service")
+    private UUID id;
+
+    @Schema(description = "The catalog of the service")
+    private Category category;
+
+    @Schema(description = "The name of the service")
+    private String name;
+
+    @Schema(description = "The version of the service")
+    private String version;
+
+    @Schema(description = "The provider of the service")
+    private Csp csp;
+
+    @Schema(description = "The state of the service before the change")
+    private ServiceState previousState;
+
+    @NotNull
+    @Schema(description = "The state of the service after the change")
+    private ServiceState serviceState;
+
+    @Schema(description = "The number of resources of the service, only set when the resources "
+            + "changed")
+    private Integer resourceCount;
+
+    @NotNull
+    @Schema(description = "Time of the change.")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date time;
+}
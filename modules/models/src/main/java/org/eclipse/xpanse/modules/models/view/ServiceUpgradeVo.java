@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+
+/**
+ * Progress of the rolling upgrade of the deployed services of a registered service.
+ */
+@Data
+public class ServiceUpgradeVo {
+
+    @NotNull
+    @Schema(description = "The ID of the upgrade")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The ID of the registered service")
+    private UUID registeredServiceId;
+
+    @NotNull
+    @Schema(description = "The state of the upgrade")
+    private UpgradeState state;
+
+    @Schema(description = "The number of services upgraded before the failure rate is checked")
+    private int batchSize;
+
+    @Schema(description = "The maximum number of services upgrading at once")
+    private int maxUnavailable;
+
+    @Schema(description = "The upgrade pauses when the failed share of a batch is higher")
+    private double failureThreshold;
+
+    @Schema(description = "The number of services upgraded")
+    private int succeeded;
+
+    @Schema(description = "The number of services whose upgrade failed")
+    private int failed;
+
+    @Schema(description = "The number of services not upgraded yet")
+    private long remaining;
+
+    @NotNull
+    @Schema(description = "The IDs of the services whose upgrade failed")
+    private List<UUID> failedServiceIds;
+
+    @Schema(description = "Time the upgrade was started")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    @Schema(description = "Time the progress of the upgrade was last updated")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date lastModifiedTime;
+}
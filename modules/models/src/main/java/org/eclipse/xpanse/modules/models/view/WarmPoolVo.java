@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+
+/**
+ * Configuration and instances of a warm pool.
+ */
+@Data
+public class WarmPoolVo {
+
+    @NotNull
+    @Schema(description = "The ID of the pool")
+    private UUID id;
+
+    @NotNull
+    @Schema(description = "The request the instances of the pool are deployed with")
+    private CreateRequest request;
+
+    @Schema(description = "The number of instances kept deployed")
+    private int size;
+
+    @Schema(description = "The minutes an instance is kept unassigned before it is destroyed")
+    private long maxIdleMinutes;
+
+    @NotNull
+    @Schema(description = "The number of instances per state")
+    private Map<WarmInstanceState, Long> instances;
+}
@@ -0,0 +1,32 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change of the state of a deployed service, posted to the webhook endpoints. An event may be
+ * delivered more than once, the receivers skip the event ids they already processed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEventVo {
+
+    @NotNull
+    @Schema(description = "The ID of the event, the same for every delivery of the event")
+    private UUID eventId;
+
+    @NotNull
+    @Schema(description = "The state change")
+    private ServiceStateEventVo event;
+}
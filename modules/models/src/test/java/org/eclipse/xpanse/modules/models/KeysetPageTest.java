@@ -0,0 +1,35 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.function.Function;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
+import org.junit.jupiter.api.Test;
+
+public class KeysetPageTest {
+
+    @Test
+    public void testLastPageHasNoCursor() {
+        KeysetPage<String> page = KeysetPage.of(List.of("a", "b"), 2, Function.identity(), null);
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertNull(page.getNextCursor());
+        assertNull(page.getTotalCount());
+    }
+
+    @Test
+    public void testExtraItemIsDroppedAndGivesTheCursor() {
+        KeysetPage<String> page = KeysetPage.of(List.of("a", "b", "c"), 2, Function.identity(),
+                5L);
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertEquals("b", page.getNextCursor());
+        assertEquals(5L, page.getTotalCount());
+    }
+}
@@ -7,41 +7,72 @@
 package org.eclipse.xpanse.orchestrator;
 
 import jakarta.annotation.Resource;
+import jakarta.persistence.EntityNotFoundException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
-import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
 import org.eclipse.xpanse.modules.deployment.Deployment;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
 import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.DeployerKind;
 import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployResourceQuery;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
+import org.eclipse.xpanse.modules.models.query.ServiceEventQuery;
 import org.eclipse.xpanse.modules.models.resource.DeployVariable;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
 import org.eclipse.xpanse.modules.models.service.DeployResource;
 import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.modules.models.service.ModifyRequest;
 import org.eclipse.xpanse.modules.models.utils.DeployVariableValidator;
-import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.DeployResourceVo;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
 import org.eclipse.xpanse.modules.models.view.ServiceVo;
-import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.eclipse.xpanse.orchestrator.change.ChangeFeedService;
+import org.eclipse.xpanse.orchestrator.register.cache.CachedRegisteredService;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceCache;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceKey;
 import org.eclipse.xpanse.orchestrator.service.DeployResourceStorage;
 import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.eclipse.xpanse.orchestrator.service.cache.CachedServiceDetail;
+import org.eclipse.xpanse.orchestrator.service.cache.ServiceDetailCache;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventBus;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventListener;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventSubscription;
+import org.eclipse.xpanse.orchestrator.webhook.WebhookDispatcher;
 import org.slf4j.MDC;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -54,20 +85,49 @@ public class OrchestratorService {
 
     private static final String TASK_ID = "TASK_ID";
 
+    private static final int DURATION_SAMPLES = 20;
+
+    private static final Set<ServiceState> MODIFIABLE_STATES =
+            ServiceState.MODIFYING.getPreviousStates();
+
+    private static final Set<ServiceState> LEASED_STATES =
+            Set.of(ServiceState.DESTROYING, ServiceState.MODIFYING);
+
+    // drift checks lease the services in their modifiable states.
+    private static final Set<ServiceState> RENEWED_STATES = Stream.of(LEASED_STATES,
+            MODIFIABLE_STATES).flatMap(Set::stream).collect(Collectors.toUnmodifiableSet());
+
+    private static final int EXPIRED_LEASES_PAGE_SIZE = 100;
+
     private final Map<Csp, OrchestratorPlugin> pluginMap = new ConcurrentHashMap<>();
 
     private final Map<DeployerKind, Deployment> deploymentMap = new ConcurrentHashMap<>();
 
+    private final Set<UUID> leasedServices = ConcurrentHashMap.newKeySet();
+
+    @Value("${xpanse.service.lease-ms:300000}")
+    private long leaseMillis;
+
     @Resource
     private ApplicationContext applicationContext;
     @Resource
-    private RegisterServiceStorage registerServiceStorage;
+    private RegisteredServiceCache registeredServiceCache;
+    @Resource
+    private OclSnapshotCache oclSnapshotCache;
     @Resource
     private DeployServiceStorage deployServiceStorage;
     @Resource
     private DeployResourceStorage deployResourceStorage;
     @Resource
     private DeployVariableValidator deployVariableValidator;
+    @Resource
+    private ServiceDetailCache serviceDetailCache;
+    @Resource
+    private ServiceEventBus serviceEventBus;
+    @Resource
+    private ChangeFeedService changeFeedService;
+    @Resource
+    private WebhookDispatcher webhookDispatcher;
 
     /**
      * Get all OrchestratorPlugin group by Csp.
@@ -108,6 +168,7 @@ public class OrchestratorService {
         entity.setCategory(deployTask.getCreateRequest().getCategory());
         entity.setFlavor(deployTask.getCreateRequest().getFlavor());
         entity.setCreateRequest(deployTask.getCreateRequest());
+        entity.setOclHash(deployTask.getOclHash());
         return entity;
     }
 
@@ -119,32 +180,68 @@ public class OrchestratorService {
     public Deployment getDeployHandler(DeployTask deployTask) {
 
         // Find the registered service and fill Ocl.
-        RegisterServiceEntity serviceEntity = new RegisterServiceEntity();
-        serviceEntity.setName(StringUtils.lowerCase(deployTask.getCreateRequest().getName()));
-        serviceEntity.setVersion(StringUtils.lowerCase(deployTask.getCreateRequest().getVersion()));
-        serviceEntity.setCsp(deployTask.getCreateRequest().getCsp());
-        serviceEntity.setCategory(deployTask.getCreateRequest().getCategory());
-        serviceEntity = registerServiceStorage.findRegisteredService(serviceEntity);
-        if (Objects.isNull(serviceEntity) || Objects.isNull(serviceEntity.getOcl())) {
+        CachedRegisteredService registeredService = registeredServiceCache.get(
+                RegisteredServiceKey.of(deployTask.getCreateRequest().getName(),
+                        deployTask.getCreateRequest().getVersion(),
+                        deployTask.getCreateRequest().getCsp(),
+                        deployTask.getCreateRequest().getCategory()));
+        if (Objects.isNull(registeredService)) {
             throw new RuntimeException("Registered service not found");
         }
+        Ocl ocl = registeredService.getOcl();
         // Check context validation
-        if (Objects.nonNull(serviceEntity.getOcl().getDeployment()) && Objects.nonNull(
-                deployTask.getCreateRequest().getProperty())) {
-            List<DeployVariable> deployVariables = serviceEntity.getOcl().getDeployment()
-                    .getContext();
-            deployVariableValidator.isVariableValid(deployVariables,
-                    deployTask.getCreateRequest().getProperty());
-        }
-        // Set Ocl and CreateRequest
-        deployTask.setOcl(serviceEntity.getOcl());
-        deployTask.getCreateRequest().setOcl(serviceEntity.getOcl());
+        validateProperty(ocl, deployTask.getCreateRequest().getProperty());
+        // Set Ocl, the deployment only keeps the hash of the Ocl snapshot.
+        deployTask.setOcl(ocl);
+        deployTask.setOclHash(registeredService.getOclHash());
         // Fill the handler
         fillHandler(deployTask);
         // get the deployment.
         return getDeployment(deployTask);
     }
 
+    /**
+     * Get the deployments and fill the deployTasks of a batch of services. The registered
+     * service is looked up once per service, identical properties are validated once.
+     *
+     * @param deployTasks the tasks of the batch.
+     * @return the deployments, in the order of the tasks.
+     * @throws IllegalArgumentException if a task of the batch can't be deployed.
+     */
+    public List<Deployment> getDeployHandlers(List<DeployTask> deployTasks) {
+        Map<RegisteredServiceKey, DeployTask> preparedTasks = new HashMap<>();
+        Map<RegisteredServiceKey, Set<Map<String, String>>> validProperties = new HashMap<>();
+        List<Deployment> deployments = new ArrayList<>(deployTasks.size());
+        for (int i = 0; i < deployTasks.size(); i++) {
+            DeployTask deployTask = deployTasks.get(i);
+            CreateRequest request = deployTask.getCreateRequest();
+            RegisteredServiceKey key = RegisteredServiceKey.of(request.getName(),
+                    request.getVersion(), request.getCsp(), request.getCategory());
+            try {
+                DeployTask prepared = preparedTasks.get(key);
+                Set<Map<String, String>> properties =
+                        validProperties.computeIfAbsent(key, k -> new HashSet<>());
+                if (Objects.isNull(prepared)) {
+                    getDeployHandler(deployTask);
+                    preparedTasks.put(key, deployTask);
+                } else {
+                    if (!properties.contains(request.getProperty())) {
+                        validateProperty(prepared.getOcl(), request.getProperty());
+                    }
+                    deployTask.setOcl(prepared.getOcl());
+                    deployTask.setOclHash(prepared.getOclHash());
+                    deployTask.setDeployResourceHandler(prepared.getDeployResourceHandler());
+                }
+                properties.add(request.getProperty());
+                deployments.add(getDeployment(deployTask));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Request %d of the batch is invalid: %s", i, e.getMessage()), e);
+            }
+        }
+        return deployments;
+    }
+
     /**
      * Async method to deploy service.
      *
@@ -154,22 +251,53 @@ public class OrchestratorService {
     @Async("taskExecutor")
     @Transactional
     public void asyncDeployService(Deployment deployment, DeployTask deployTask) {
+        deployService(deployment, deployTask);
+    }
+
+    /**
+     * Deploy the service in the calling thread.
+     *
+     * @param deployment deployment
+     * @param deployTask deployTask
+     * @return the state of the service after the deployment.
+     */
+    @Transactional
+    public ServiceState deployService(Deployment deployment, DeployTask deployTask) {
         MDC.put(TASK_ID, deployTask.getId().toString());
         DeployServiceEntity deployServiceEntity = getNewDeployServiceTask(deployTask);
         try {
-            deployServiceEntity.setServiceState(ServiceState.DEPLOYING);
-            deployServiceStorage.store(deployServiceEntity);
+            updateServiceState(deployServiceEntity, ServiceState.DEPLOYING);
+            final long deployStart = System.currentTimeMillis();
             DeployResult deployResult = deployment.deploy(deployTask);
-            deployServiceEntity.setServiceState(ServiceState.DEPLOY_SUCCESS);
-            deployServiceEntity.setDeployResourceList(
-                    getDeployResourceEntityList(deployResult.getResources(), deployServiceEntity));
-            deployServiceStorage.store(deployServiceEntity);
+            deployServiceEntity.setDeployDuration(System.currentTimeMillis() - deployStart);
+            List<DeployResourceEntity> deployResources =
+                    getDeployResourceEntityList(deployResult.getResources(), deployServiceEntity);
+            deployResourceStorage.storeAll(deployResources);
+            updateServiceState(deployServiceEntity, ServiceState.DEPLOY_SUCCESS,
+                    deployResources.size());
         } catch (Exception e) {
             log.error("asyncDeployService failed.", e);
-            deployServiceEntity.setServiceState(ServiceState.DEPLOY_FAILED);
-            deployServiceStorage.store(deployServiceEntity);
+            updateServiceState(deployServiceEntity, ServiceState.DEPLOY_FAILED);
         }
+        return deployServiceEntity.getServiceState();
+    }
 
+    /**
+     * Store the service of the deployTask with the resources deployed ahead, e.g. by a warm
+     * pool. The state changes are published as for a deployment.
+     *
+     * @param deployTask   deployTask with the id of the deployed resources.
+     * @param deployResult the deployed resources.
+     */
+    @Transactional
+    public void deployWarmService(DeployTask deployTask, DeployResult deployResult) {
+        DeployServiceEntity deployServiceEntity = getNewDeployServiceTask(deployTask);
+        updateServiceState(deployServiceEntity, ServiceState.DEPLOYING);
+        List<DeployResourceEntity> deployResources =
+                getDeployResourceEntityList(deployResult.getResources(), deployServiceEntity);
+        deployResourceStorage.storeAll(deployResources);
+        updateServiceState(deployServiceEntity, ServiceState.DEPLOY_SUCCESS,
+                deployResources.size());
     }
 
     private List<DeployResourceEntity> getDeployResourceEntityList(
@@ -180,7 +308,10 @@ public class OrchestratorService {
         }
         for (DeployResource resource : deployResources) {
             DeployResourceEntity deployResource = new DeployResourceEntity();
-            BeanUtils.copyProperties(resource, deployResource);
+            deployResource.setResourceId(resource.getResourceId());
+            deployResource.setName(resource.getName());
+            deployResource.setKind(resource.getKind());
+            deployResource.setProperty(resource.getProperty());
             deployResource.setDeployService(deployServiceEntity);
             deployResourceEntities.add(deployResource);
         }
@@ -188,14 +319,178 @@ public class OrchestratorService {
     }
 
     /**
-     * Get deployment and fill deployTask for destroy service task.
+     * Async method to modify the deployed service in place. Terraform applies only the
+     * difference, the stored resources are updated incrementally: resources which are unchanged
+     * are left alone, only the added, changed and removed resources are written.
+     *
+     * @param deployment deployment
+     * @param deployTask deployTask with the modified request
+     */
+    @Async("taskExecutor")
+    @Transactional
+    public void asyncModifyService(Deployment deployment, DeployTask deployTask) {
+        modifyService(deployTask, () -> deployment.modify(deployTask));
+    }
+
+    /**
+     * Upgrade the deployed service in place to the Ocl of the deployTask, in the calling thread.
+     * The service keeps the hash of the new Ocl snapshot once the upgrade succeeded.
+     *
+     * @param deployment deployment
+     * @param deployTask deployTask with the Ocl to upgrade to
+     * @return the state of the service after the upgrade.
+     */
+    @Transactional
+    public ServiceState upgradeService(Deployment deployment, DeployTask deployTask) {
+        return modifyService(deployTask, () -> deployment.upgrade(deployTask));
+    }
+
+    private ServiceState modifyService(DeployTask deployTask, Supplier<DeployResult> operation) {
+        MDC.put(TASK_ID, deployTask.getId().toString());
+        DeployServiceEntity deployServiceEntity =
+                deployServiceStorage.findDeployServiceById(deployTask.getId());
+        if (Objects.isNull(deployServiceEntity)) {
+            throw new RuntimeException(String.format("Deployed service with id %s not found",
+                    deployTask.getId()));
+        }
+        // the handler of the operation moved the service to the modifying state.
+        checkClaimed(deployServiceEntity, ServiceState.MODIFYING);
+        try {
+            DeployResult deployResult = operation.get();
+            final int resourceCount = updateDeployResources(deployServiceEntity,
+                    getDeployResourceEntityList(deployResult.getResources(),
+                            deployServiceEntity));
+            // the modified request is used by the later modifications and the destroy.
+            deployServiceEntity.setFlavor(deployTask.getCreateRequest().getFlavor());
+            deployServiceEntity.setCreateRequest(deployTask.getCreateRequest());
+            deployServiceEntity.setOclHash(deployTask.getOclHash());
+            updateServiceState(deployServiceEntity, ServiceState.MODIFY_SUCCESS, resourceCount);
+        } catch (RuntimeException e) {
+            log.error("asyncModifyService failed", e);
+            updateServiceState(deployServiceEntity, ServiceState.MODIFY_FAILED);
+        } finally {
+            leasedServices.remove(deployServiceEntity.getId());
+        }
+        return deployServiceEntity.getServiceState();
+    }
+
+    private int updateDeployResources(DeployServiceEntity deployServiceEntity,
+            List<DeployResourceEntity> deployResources) {
+        Map<String, DeployResourceEntity> storedResources = new HashMap<>();
+        List<DeployResourceEntity> removedResources = new ArrayList<>();
+        for (DeployResourceEntity stored : deployResourceStorage.findByDeployServiceId(
+                deployServiceEntity.getId())) {
+            if (Objects.isNull(stored.getResourceId())
+                    || Objects.nonNull(storedResources.put(stored.getResourceId(), stored))) {
+                removedResources.add(stored);
+            }
+        }
+        List<DeployResourceEntity> changedResources = new ArrayList<>();
+        for (DeployResourceEntity resource : deployResources) {
+            DeployResourceEntity stored = Objects.isNull(resource.getResourceId())
+                    ? null : storedResources.remove(resource.getResourceId());
+            if (Objects.isNull(stored)) {
+                changedResources.add(resource);
+            } else if (!Objects.equals(stored.getName(), resource.getName())
+                    || stored.getKind() != resource.getKind()
+                    || !Objects.equals(stored.getProperty(), resource.getProperty())) {
+                stored.setName(resource.getName());
+                stored.setKind(resource.getKind());
+                stored.setProperty(resource.getProperty());
+                changedResources.add(stored);
+            }
+        }
+        removedResources.addAll(storedResources.values());
+        log.info("Modified service {}: {} resources added or changed, {} removed.",
+                deployServiceEntity.getId(), changedResources.size(), removedResources.size());
+        deployResourceStorage.deleteAll(removedResources);
+        deployResourceStorage.storeAll(changedResources);
+        return deployResources.size();
+    }
+
+    /**
+     * Get the states of the deployed services, with one query on their primary keys.
+     *
+     * @param ids ids of the deployed services.
+     * @return the state of every existing service by its id.
+     */
+    public Map<UUID, ServiceState> getServiceStates(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return deployServiceStorage.findServiceStates(ids);
+    }
+
+    /**
+     * Get the outputs of the deployed service: the properties of its resources as
+     * {@code <resource name>.<property>}, and the resource id as {@code <resource name>.id}.
+     *
+     * @param id id of the deployed service.
+     * @return the outputs of the service.
+     */
+    public Map<String, String> getServiceOutputs(UUID id) {
+        Map<String, String> outputs = new HashMap<>();
+        for (DeployResourceEntity resource : deployResourceStorage.findByDeployServiceId(id)) {
+            if (StringUtils.isBlank(resource.getName())) {
+                continue;
+            }
+            if (Objects.nonNull(resource.getProperty())) {
+                resource.getProperty().forEach((key, value) ->
+                        outputs.put(resource.getName() + "." + key, value));
+            }
+            outputs.put(resource.getName() + ".id", resource.getResourceId());
+        }
+        return outputs;
+    }
+
+    /**
+     * Get the deployments and fill the deployTasks to destroy a batch of services. The deployed
+     * services are loaded with one query. The services are only checked, each one is claimed
+     * by {@link #getDestroyHandler(DeployTask)} when its destroy is started.
+     *
+     * @param deployTasks the tasks of the batch.
+     * @return the deployments, in the order of the tasks.
+     * @throws IllegalArgumentException if a service of the batch can't be destroyed.
+     */
+    public List<Deployment> getDestroyHandlers(List<DeployTask> deployTasks) {
+        Map<UUID, DeployServiceEntity> deployServices = new HashMap<>();
+        for (DeployServiceEntity deployServiceEntity : deployServiceStorage
+                .findDeployServicesByIds(deployTasks.stream().map(DeployTask::getId).toList())) {
+            deployServices.put(deployServiceEntity.getId(), deployServiceEntity);
+        }
+        List<Deployment> deployments = new ArrayList<>(deployTasks.size());
+        for (DeployTask deployTask : deployTasks) {
+            try {
+                deployments.add(getDestroyHandler(deployTask,
+                        deployServices.get(deployTask.getId())));
+            } catch (ServiceStateConflictException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        return deployments;
+    }
+
+    /**
+     * Get deployment and fill deployTask for destroy service task. The service is moved to the
+     * destroying state, so no other request or node starts an operation of the service.
      *
      * @param deployTask the task of deploy managed service name.
+     * @throws ServiceStateConflictException if the service can't be destroyed in its state.
      */
+    @Transactional
     public Deployment getDestroyHandler(DeployTask deployTask) {
         // Find the deployed service.
         DeployServiceEntity deployServiceEntity =
                 deployServiceStorage.findDeployServiceById(deployTask.getId());
+        Deployment deployment = getDestroyHandler(deployTask, deployServiceEntity);
+        claimServiceState(deployServiceEntity, ServiceState.DESTROYING);
+        return deployment;
+    }
+
+    private Deployment getDestroyHandler(DeployTask deployTask,
+            DeployServiceEntity deployServiceEntity) {
         if (Objects.isNull(deployServiceEntity) || Objects.isNull(
                 deployServiceEntity.getCreateRequest())) {
             throw new RuntimeException(String.format("Deployed service with id %s not found",
@@ -203,13 +498,211 @@ public class OrchestratorService {
         }
         // Get state of service.
         ServiceState state = deployServiceEntity.getServiceState();
-        if (state.equals(ServiceState.DEPLOYING) || state.equals(ServiceState.DESTROYING)) {
-            throw new RuntimeException(String.format("Service with id %s is %s.",
+        if (!state.canTransitTo(ServiceState.DESTROYING)) {
+            throw new ServiceStateConflictException(String.format("Service with id %s is %s.",
+                    deployTask.getId(), state));
+        }
+        return fillDeployedService(deployTask, deployServiceEntity);
+    }
+
+    /**
+     * Get deployment and fill deployTask to modify the deployed service in place. The request
+     * of the task is the stored request of the service with the modifications applied. The
+     * service is moved to the modifying state.
+     *
+     * @param deployTask    the task of the deployed service.
+     * @param modifyRequest the modifications of the service.
+     * @throws IllegalArgumentException      if the flavor or a property is invalid.
+     * @throws ServiceStateConflictException if the service can't be modified in its state.
+     */
+    @Transactional
+    public Deployment getModifyHandler(DeployTask deployTask, ModifyRequest modifyRequest) {
+        DeployServiceEntity deployServiceEntity =
+                deployServiceStorage.findDeployServiceById(deployTask.getId());
+        Deployment deployment = getModifyHandler(deployTask, modifyRequest, deployServiceEntity);
+        claimServiceState(deployServiceEntity, ServiceState.MODIFYING);
+        return deployment;
+    }
+
+    private Deployment getModifyHandler(DeployTask deployTask, ModifyRequest modifyRequest,
+            DeployServiceEntity deployServiceEntity) {
+        if (Objects.isNull(deployServiceEntity) || Objects.isNull(
+                deployServiceEntity.getCreateRequest())) {
+            throw new EntityNotFoundException(String.format(
+                    "Deployed service with id %s not found", deployTask.getId()));
+        }
+        // only services with a deployment state can be modified.
+        ServiceState state = deployServiceEntity.getServiceState();
+        if (!MODIFIABLE_STATES.contains(state)) {
+            throw new ServiceStateConflictException(String.format("Service with id %s is %s.",
+                    deployTask.getId(), state));
+        }
+        final Deployment deployment = fillDeployedService(deployTask, deployServiceEntity);
+        CreateRequest request = new CreateRequest();
+        BeanUtils.copyProperties(deployTask.getCreateRequest(), request);
+        if (StringUtils.isNotBlank(modifyRequest.getFlavor())) {
+            if (deployTask.getOcl().getFlavors().stream()
+                    .noneMatch(flavor -> flavor.getName().equals(modifyRequest.getFlavor()))) {
+                throw new IllegalArgumentException(String.format(
+                        "Flavor %s of service %s not found.", modifyRequest.getFlavor(),
+                        deployTask.getId()));
+            }
+            request.setFlavor(modifyRequest.getFlavor());
+        }
+        Map<String, String> property = new HashMap<>();
+        if (Objects.nonNull(request.getProperty())) {
+            property.putAll(request.getProperty());
+        }
+        if (Objects.nonNull(modifyRequest.getProperty())) {
+            property.putAll(modifyRequest.getProperty());
+        }
+        request.setProperty(property);
+        try {
+            validateProperty(deployTask.getOcl(), property);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        deployTask.setCreateRequest(request);
+        return deployment;
+    }
+
+    /**
+     * Get deployment and fill deployTask to upgrade the deployed service in place to an Ocl
+     * snapshot of its registered service.
+     *
+     * @param deployTask the task of the deployed service.
+     * @param oclHash    hash of the Ocl snapshot to upgrade to.
+     * @throws IllegalArgumentException      if the flavor or the properties of the service are
+     *                                       invalid for the Ocl.
+     * @throws ServiceStateConflictException if the service can't be modified in its state.
+     */
+    @Transactional
+    public Deployment getUpgradeHandler(DeployTask deployTask, String oclHash) {
+        DeployServiceEntity deployServiceEntity =
+                deployServiceStorage.findDeployServiceById(deployTask.getId());
+        if (Objects.isNull(deployServiceEntity) || Objects.isNull(
+                deployServiceEntity.getCreateRequest())) {
+            throw new EntityNotFoundException(String.format(
+                    "Deployed service with id %s not found", deployTask.getId()));
+        }
+        ServiceState state = deployServiceEntity.getServiceState();
+        if (!MODIFIABLE_STATES.contains(state)) {
+            throw new ServiceStateConflictException(String.format("Service with id %s is %s.",
                     deployTask.getId(), state));
         }
-        // Set Ocl and CreateRequest
+        CreateRequest request = deployServiceEntity.getCreateRequest();
+        deployTask.setCreateRequest(request);
+        final Deployment deployment = getDeployedHandler(deployTask, oclHash);
+        if (deployTask.getOcl().getFlavors().stream()
+                .noneMatch(flavor -> flavor.getName().equals(request.getFlavor()))) {
+            throw new IllegalArgumentException(String.format(
+                    "Flavor %s of service %s not found.", request.getFlavor(),
+                    deployTask.getId()));
+        }
+        try {
+            validateProperty(deployTask.getOcl(), request.getProperty());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        claimServiceState(deployServiceEntity, ServiceState.MODIFYING);
+        return deployment;
+    }
+
+    /**
+     * Plan the deployment of the service without deploying it. Plans of identical requests are
+     * cached, a deployment of the same request applies the cached plan directly.
+     *
+     * @param createRequest the request of the service.
+     * @return the resource changes of the deployment and its estimated duration.
+     */
+    public DeployPlanVo planDeployService(CreateRequest createRequest) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(UUID.randomUUID());
+        deployTask.setCreateRequest(createRequest);
+        Deployment deployment = getDeployHandler(deployTask);
+        DeployPlanVo plan = deployment.plan(deployTask);
+        if (Objects.nonNull(deployTask.getOclHash())) {
+            deployServiceStorage.findDeployDurations(deployTask.getOclHash(), DURATION_SAMPLES)
+                    .stream().mapToLong(Long::longValue).average().ifPresent(average ->
+                            plan.setEstimatedDeploySeconds(Math.round(average / 1000)));
+        }
+        return plan;
+    }
+
+    /**
+     * Plan the modification of the deployed service without modifying it.
+     *
+     * @param id            id of the deployed service.
+     * @param modifyRequest the modifications of the service.
+     * @return the resource changes of the modification.
+     */
+    public DeployPlanVo planModifyService(UUID id, ModifyRequest modifyRequest) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(id);
+        return getModifyHandler(deployTask, modifyRequest,
+                deployServiceStorage.findDeployServiceById(id)).planModify(deployTask);
+    }
+
+    /**
+     * Detect the resources of the deployed service changed or deleted outside of the deployment.
+     * The service is leased while the check runs, so no operation of the service starts
+     * meanwhile, and the check doesn't start while an operation holds the service.
+     *
+     * @param id id of the deployed service.
+     * @return the drifted resources, null if the service is no longer deployed.
+     * @throws ServiceStateConflictException if the service is held by an operation.
+     */
+    public DeployPlanVo detectServiceDrift(UUID id) {
+        DeployServiceEntity deployServiceEntity = deployServiceStorage.findDeployServiceById(id);
+        if (Objects.isNull(deployServiceEntity) || Objects.isNull(
+                deployServiceEntity.getCreateRequest())
+                || !MODIFIABLE_STATES.contains(deployServiceEntity.getServiceState())) {
+            return null;
+        }
+        if (!deployServiceStorage.leaseService(id, MODIFIABLE_STATES,
+                new Date(System.currentTimeMillis() + leaseMillis))) {
+            throw new ServiceStateConflictException(String.format(
+                    "Service with id %s is held by another operation.", id));
+        }
+        leasedServices.add(id);
+        try {
+            DeployTask deployTask = new DeployTask();
+            deployTask.setId(id);
+            return fillDeployedService(deployTask, deployServiceEntity).detectDrift(deployTask);
+        } finally {
+            leasedServices.remove(id);
+            deployServiceStorage.releaseService(id, MODIFIABLE_STATES);
+        }
+    }
+
+    /**
+     * Get the deployment and fill the deployTask of resources deployed without a service, e.g.
+     * the instances of a warm pool.
+     *
+     * @param deployTask deployTask with the id and the request of the deployed resources.
+     * @param oclHash    hash of the Ocl snapshot the resources are deployed with.
+     * @return the deployment.
+     */
+    public Deployment getDeployedHandler(DeployTask deployTask, String oclHash) {
+        deployTask.setOclHash(oclHash);
+        deployTask.setOcl(oclSnapshotCache.get(oclHash));
+        if (Objects.isNull(deployTask.getOcl())) {
+            throw new RuntimeException(String.format("Ocl snapshot %s not found", oclHash));
+        }
+        fillHandler(deployTask);
+        return getDeployment(deployTask);
+    }
+
+    private Deployment fillDeployedService(DeployTask deployTask,
+            DeployServiceEntity deployServiceEntity) {
+        // Set Ocl and CreateRequest, services deployed before Ocl snapshots embed the Ocl.
         deployTask.setCreateRequest(deployServiceEntity.getCreateRequest());
-        deployTask.setOcl(deployServiceEntity.getCreateRequest().getOcl());
+        deployTask.setOclHash(deployServiceEntity.getOclHash());
+        deployTask.setOcl(oclSnapshotCache.getDeployedOcl(deployServiceEntity));
+        if (Objects.isNull(deployTask.getOcl())) {
+            throw new RuntimeException(String.format("Ocl of deployed service with id %s not "
+                    + "found", deployTask.getId()));
+        }
         // Fill the handler
         fillHandler(deployTask);
         // get the deployment.
@@ -226,6 +719,18 @@ public class OrchestratorService {
     @Async("taskExecutor")
     @Transactional
     public void asyncDestroyService(Deployment deployment, DeployTask deployTask) {
+        destroyService(deployment, deployTask);
+    }
+
+    /**
+     * Destroy the service in the calling thread.
+     *
+     * @param deployment deployment
+     * @param deployTask deployTask
+     * @return the state of the service after the destroy.
+     */
+    @Transactional
+    public ServiceState destroyService(Deployment deployment, DeployTask deployTask) {
         MDC.put(TASK_ID, deployTask.getId().toString());
         DeployServiceEntity deployServiceEntity =
                 deployServiceStorage.findDeployServiceById(deployTask.getId());
@@ -233,66 +738,249 @@ public class OrchestratorService {
             throw new RuntimeException(String.format("Deployed service with id %s not found",
                     deployTask.getId()));
         }
+        // the handler of the destroy moved the service to the destroying state.
+        checkClaimed(deployServiceEntity, ServiceState.DESTROYING);
         try {
-            deployServiceEntity.setServiceState(ServiceState.DESTROYING);
-            deployServiceStorage.store(deployServiceEntity);
             DeployResult deployResult = deployment.destroy(deployTask);
-            deployServiceEntity.setServiceState(ServiceState.DESTROY_SUCCESS);
-            List<DeployResource> resources = deployResult.getResources();
-            if (CollectionUtils.isEmpty(resources)) {
-                deployResourceStorage.deleteByDeployServiceId(deployServiceEntity.getId());
-            } else {
-                deployServiceEntity.setDeployResourceList(
-                        getDeployResourceEntityList(resources, deployServiceEntity));
-            }
-            deployServiceStorage.store(deployServiceEntity);
+            // replace the resources with set based delete and batched inserts.
+            List<DeployResourceEntity> deployResources =
+                    getDeployResourceEntityList(deployResult.getResources(), deployServiceEntity);
+            deployResourceStorage.deleteByDeployServiceId(deployServiceEntity.getId());
+            deployResourceStorage.storeAll(deployResources);
+            updateServiceState(deployServiceEntity, ServiceState.DESTROY_SUCCESS,
+                    deployResources.size());
         } catch (RuntimeException e) {
             log.error("asyncDestroyService failed", e);
-            deployServiceEntity.setServiceState(ServiceState.DESTROY_FAILED);
-            deployServiceStorage.store(deployServiceEntity);
+            updateServiceState(deployServiceEntity, ServiceState.DESTROY_FAILED);
+        } finally {
+            leasedServices.remove(deployServiceEntity.getId());
         }
+        return deployServiceEntity.getServiceState();
+    }
 
+
+    /**
+     * List deploy services by query model, all at once or one page at a time. Only the columns
+     * of the view are loaded, never the create request.
+     *
+     * @param query     the query model for search deployed services.
+     * @param cursor    cursor returned with the previous page, null for the first page.
+     * @param pageSize  maximum number of deployed services in the page, null for all.
+     * @param withTotal whether to count all deployed services matching the query.
+     * @return page of serviceVos
+     */
+    public KeysetPage<ServiceVo> listDeployServices(DeployedServiceQuery query, String cursor,
+            Integer pageSize, boolean withTotal) {
+        UUID after = StringUtils.isBlank(cursor) ? null : UUID.fromString(cursor);
+        final Long totalCount = withTotal ? deployServiceStorage.countServices(query) : null;
+        if (Objects.isNull(pageSize)) {
+            return new KeysetPage<>(deployServiceStorage.listServices(query, after, null), null,
+                    totalCount);
+        }
+        // fetch one more to know whether there is a next page.
+        List<ServiceVo> services = deployServiceStorage.listServices(query, after, pageSize + 1);
+        return KeysetPage.of(services, pageSize, service -> service.getId().toString(),
+                totalCount);
     }
 
+    /**
+     * List the resources of all deployed services by query model, one page at a time.
+     *
+     * @param query     the query model for search deployed resources.
+     * @param cursor    cursor returned with the previous page, null for the first page.
+     * @param pageSize  maximum number of resources in the page.
+     * @param withTotal whether to count all resources matching the query.
+     * @return page of deployResourceVos
+     */
+    public KeysetPage<DeployResourceVo> listDeployResources(DeployResourceQuery query,
+            String cursor, int pageSize, boolean withTotal) {
+        UUID after = StringUtils.isBlank(cursor) ? null : UUID.fromString(cursor);
+        List<DeployResourceVo> resources =
+                deployResourceStorage.listResources(query, after, pageSize + 1);
+        return KeysetPage.of(resources, pageSize, resource -> resource.getId().toString(),
+                withTotal ? deployResourceStorage.countResources(query) : null);
+    }
 
     /**
-     * List deploy services.
+     * List the changes of the deployed services after the cursor.
      *
-     * @return serviceVos
+     * @param cursor   cursor returned with the previous page, null for the start of the feed.
+     * @param pageSize maximum number of changes in the page.
+     * @return page of the changes.
      */
-    public List<ServiceVo> listDeployServices() {
-        List<DeployServiceEntity> deployServices =
-                deployServiceStorage.services();
-        return deployServices.stream().map(service -> {
-            ServiceVo serviceVo = new ServiceVo();
-            BeanUtils.copyProperties(service, serviceVo);
-            return serviceVo;
-        }).collect(Collectors.toList());
+    public ChangePage<ServiceVo> listDeployServiceChanges(String cursor, int pageSize) {
+        return changeFeedService.listDeployServiceChanges(cursor, pageSize);
+    }
 
+    /**
+     * Export all deploy services matching the query model. The services are read from a
+     * database cursor and handed to the consumer one by one, so memory use does not depend on
+     * the number of services.
+     *
+     * @param query    the query model for search deployed services.
+     * @param consumer consumer of the serviceVos.
+     */
+    @Transactional(readOnly = true)
+    public void exportDeployServices(DeployedServiceQuery query, Consumer<ServiceVo> consumer) {
+        try (Stream<ServiceVo> services = deployServiceStorage.streamServices(query)) {
+            services.forEach(consumer);
+        }
     }
 
     /**
-     * Get deploy service detail by id.
+     * Get deploy service detail by id. Concurrent requests for the same id share one load and
+     * the detail is cached shortly, until the state of the service changes.
      *
      * @param id ID of deploy service.
-     * @return serviceDetailVo
+     * @return the shared serviceDetailVo with its ETag, null if the service is not deployed.
      */
-    public ServiceDetailVo getDeployServiceDetail(UUID id) {
-        DeployServiceEntity deployServiceEntity = deployServiceStorage.findDeployServiceById(id);
-        if (Objects.isNull(deployServiceEntity)) {
-            return null;
+    public CachedServiceDetail getDeployServiceDetail(UUID id) {
+        return serviceDetailCache.get(id);
+    }
+
+    /**
+     * Subscribe to the state changes of the deployed services on this node.
+     *
+     * @param query    filter of the state changes.
+     * @param listener listener of the subscriber.
+     * @return the subscription.
+     */
+    public ServiceEventSubscription subscribeServiceEvents(ServiceEventQuery query,
+            ServiceEventListener listener) {
+        return serviceEventBus.subscribe(query, listener);
+    }
+
+    /**
+     * Renew the leases of the services claimed by the operations of this node, the queued
+     * operations and the running drift checks too.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.lease-renew-interval-ms:60000}")
+    public void renewServiceLeases() {
+        if (leasedServices.isEmpty()) {
+            return;
         }
-        ServiceDetailVo serviceDetailVo = new ServiceDetailVo();
-        BeanUtils.copyProperties(deployServiceEntity, serviceDetailVo);
-        if (!CollectionUtils.isEmpty(deployServiceEntity.getDeployResourceList())) {
-            List<DeployResource> deployResources =
-                    EntityTransUtils.transResourceEntity(
-                            deployServiceEntity.getDeployResourceList());
-            serviceDetailVo.setDeployResources(deployResources);
+        try {
+            deployServiceStorage.renewLeases(List.copyOf(leasedServices), RENEWED_STATES,
+                    new Date(System.currentTimeMillis() + leaseMillis));
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew the leases of the claimed services.", e);
         }
-        return serviceDetailVo;
     }
 
+    /**
+     * Fail the operations whose node stopped renewing their lease, e.g. after a crash or a
+     * restart before the queued operation started, so the services can be operated again.
+     * Runs at startup too. The state change and its events are stored in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.lease-recovery-interval-ms:60000}")
+    @Transactional
+    public void failExpiredOperations() {
+        for (UUID id : deployServiceStorage.findExpiredLeases(LEASED_STATES,
+                EXPIRED_LEASES_PAGE_SIZE)) {
+            DeployServiceEntity deployServiceEntity =
+                    deployServiceStorage.findDeployServiceById(id);
+            if (Objects.isNull(deployServiceEntity) || leasedServices.contains(id)) {
+                continue;
+            }
+            ServiceState previousState = deployServiceEntity.getServiceState();
+            ServiceState failedState = previousState == ServiceState.DESTROYING
+                    ? ServiceState.DESTROY_FAILED : ServiceState.MODIFY_FAILED;
+            if (deployServiceStorage.updateExpiredState(id, previousState, failedState)) {
+                log.warn("Lease of service {} in state {} expired, the service is {}.", id,
+                        previousState, failedState);
+                publishServiceState(deployServiceEntity, previousState, failedState, null);
+            }
+        }
+    }
+
+    private void updateServiceState(DeployServiceEntity deployServiceEntity,
+            ServiceState serviceState) {
+        updateServiceState(deployServiceEntity, serviceState, null);
+    }
+
+    private void updateServiceState(DeployServiceEntity deployServiceEntity,
+            ServiceState serviceState, Integer resourceCount) {
+        final ServiceState previousState = deployServiceEntity.getServiceState();
+        deployServiceEntity.setServiceState(serviceState);
+        deployServiceEntity.setLeaseExpireTime(null);
+        deployServiceStorage.store(deployServiceEntity);
+        publishServiceState(deployServiceEntity, previousState, serviceState, resourceCount);
+    }
+
+    /**
+     * Move the deployed service to the state of an operation with a compare-and-set on the
+     * stored state, only the request or node which moves the service starts the operation.
+     * The claim is leased, this node renews the lease until the operation ends. The loaded
+     * service isn't changed, the operation loads the service again.
+     */
+    private void claimServiceState(DeployServiceEntity deployServiceEntity,
+            ServiceState serviceState) {
+        ServiceState previousState = deployServiceEntity.getServiceState();
+        if (!previousState.canTransitTo(serviceState)) {
+            throw new ServiceStateConflictException(String.format("Service with id %s is %s.",
+                    deployServiceEntity.getId(), previousState));
+        }
+        if (!deployServiceStorage.updateState(deployServiceEntity.getId(), previousState,
+                serviceState, new Date(System.currentTimeMillis() + leaseMillis))) {
+            throw new ServiceStateConflictException(String.format(
+                    "Service with id %s was changed by another request.",
+                    deployServiceEntity.getId()));
+        }
+        UUID id = deployServiceEntity.getId();
+        leasedServices.add(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                leasedServices.remove(id);
+                            }
+                        }
+                    });
+        }
+        publishServiceState(deployServiceEntity, previousState, serviceState, null);
+    }
+
+    /**
+     * Check the operation starts on the service claimed by its handler, an operation whose
+     * lease expired meanwhile doesn't start.
+     */
+    private void checkClaimed(DeployServiceEntity deployServiceEntity,
+            ServiceState serviceState) {
+        if (deployServiceEntity.getServiceState() != serviceState) {
+            leasedServices.remove(deployServiceEntity.getId());
+            throw new ServiceStateConflictException(String.format(
+                    "Service with id %s is %s, not claimed for the operation.",
+                    deployServiceEntity.getId(), deployServiceEntity.getServiceState()));
+        }
+        leasedServices.add(deployServiceEntity.getId());
+    }
+
+    private void publishServiceState(DeployServiceEntity deployServiceEntity,
+            ServiceState previousState, ServiceState serviceState, Integer resourceCount) {
+        serviceDetailCache.invalidate(deployServiceEntity.getId());
+        ServiceStateEventVo event = new ServiceStateEventVo();
+        event.setPreviousState(previousState);
+        event.setId(deployServiceEntity.getId());
+        event.setCategory(deployServiceEntity.getCategory());
+        event.setName(deployServiceEntity.getName());
+        event.setVersion(deployServiceEntity.getVersion());
+        event.setCsp(deployServiceEntity.getCsp());
+        event.setServiceState(serviceState);
+        event.setResourceCount(resourceCount);
+        event.setTime(new Date());
+        webhookDispatcher.enqueue(event);
+        serviceEventBus.publish(event);
+    }
+
+
+    private void validateProperty(Ocl ocl, Map<String, String> property) {
+        if (Objects.nonNull(ocl.getDeployment()) && Objects.nonNull(property)) {
+            List<DeployVariable> deployVariables = ocl.getDeployment().getContext();
+            deployVariableValidator.isVariableValid(deployVariables, property);
+        }
+    }
 
     private void fillHandler(DeployTask deployTask) {
         // Find the deployment plugin and resource handler
@@ -322,8 +1010,7 @@ public class OrchestratorService {
      */
     public String getOpenApiUrl(String id) {
         UUID uuid = UUID.fromString(id);
-        RegisterServiceEntity registerService = registerServiceStorage.getRegisterServiceById(uuid);
-        if (Objects.isNull(registerService) || Objects.isNull(registerService.getOcl())) {
+        if (Objects.isNull(registeredServiceCache.get(uuid))) {
             throw new IllegalArgumentException(String.format("Registered service with id %s not "
                     + "existed.", id));
         }
@@ -6,14 +6,18 @@
 
 package org.eclipse.xpanse.orchestrator.async;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Customize the thread pool. Define ThreadPoolTaskExecutor named taskExecutor to replace @Async's
- * default thread pool.
+ * default thread pool, and the named thread pools of the background operations. All of them
+ * carry the MDC of the submitting thread and are shut down with the application context.
  */
 @Configuration
 public class TaskConfiguration {
@@ -37,4 +41,128 @@ public class TaskConfiguration {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Define the thread pool delivering the state changes to the event subscribers.
+     *
+     * @param deliveryThreads number of threads delivering the state changes.
+     * @return executor
+     */
+    @Bean("serviceEventExecutor")
+    public Executor serviceEventExecutor(
+            @Value("${xpanse.service.events.delivery-threads:4}") int deliveryThreads) {
+        return newFixedExecutor("service-events-", deliveryThreads);
+    }
+
+    /**
+     * Define the thread pool delivering the webhook batches.
+     *
+     * @param endpoints          endpoints the state changes are delivered to.
+     * @param maximumConcurrency maximum number of batches in flight per endpoint.
+     * @return executor
+     */
+    @Bean("webhookExecutor")
+    public Executor webhookExecutor(
+            @Value("${xpanse.webhook.endpoints:}") List<String> endpoints,
+            @Value("${xpanse.webhook.maximum-concurrency:2}") int maximumConcurrency) {
+        long endpointCount = endpoints.stream().filter(StringUtils::isNotBlank)
+                .map(String::trim).distinct().count();
+        return newFixedExecutor("webhook-delivery-",
+                (int) Math.max(1, endpointCount * maximumConcurrency));
+    }
+
+    /**
+     * Define the thread pool checking the drift of the deployed services.
+     *
+     * @param maximumConcurrency maximum number of checks running at once.
+     * @return executor
+     */
+    @Bean("driftCheckExecutor")
+    public Executor driftCheckExecutor(
+            @Value("${xpanse.drift.maximum-concurrency:4}") int maximumConcurrency) {
+        return newFixedExecutor("service-drift-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool firing the scheduled deployments and destroys.
+     *
+     * @param maximumConcurrency maximum number of schedules firing at once.
+     * @return executor
+     */
+    @Bean("serviceScheduleExecutor")
+    public Executor serviceScheduleExecutor(
+            @Value("${xpanse.schedule.maximum-concurrency:4}") int maximumConcurrency) {
+        return newFixedExecutor("service-schedule-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool deploying and destroying the instances of the warm pools.
+     *
+     * @param maximumConcurrency maximum number of instances deployed or destroyed at once.
+     * @return executor
+     */
+    @Bean("warmPoolExecutor")
+    public Executor warmPoolExecutor(
+            @Value("${xpanse.warm-pool.maximum-concurrency:2}") int maximumConcurrency) {
+        return newFixedExecutor("warm-pool-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool deploying and destroying the services of the service groups.
+     *
+     * @param maximumConcurrency maximum number of deployments of all groups running at once.
+     * @return executor
+     */
+    @Bean("serviceGroupExecutor")
+    public Executor serviceGroupExecutor(
+            @Value("${xpanse.service.group.maximum-concurrency:16}") int maximumConcurrency) {
+        return newFixedExecutor("service-group-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool deploying and destroying the nodes of the composite services.
+     *
+     * @param maximumConcurrency maximum number of nodes deployed or destroyed at once.
+     * @return executor
+     */
+    @Bean("compositeExecutor")
+    public Executor compositeExecutor(
+            @Value("${xpanse.service.composite.maximum-concurrency:16}") int maximumConcurrency) {
+        return newFixedExecutor("composite-service-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool upgrading the services of the rolling upgrades.
+     *
+     * @param maximumConcurrency maximum number of services of all upgrades upgrading at once.
+     * @return executor
+     */
+    @Bean("upgradeExecutor")
+    public Executor upgradeExecutor(
+            @Value("${xpanse.upgrade.maximum-concurrency:8}") int maximumConcurrency) {
+        return newFixedExecutor("service-upgrade-", maximumConcurrency);
+    }
+
+    /**
+     * Define the thread pool running the operations of the service batches. The batches only
+     * dispatch an operation while a thread is free.
+     *
+     * @param maximumConcurrency maximum number of operations of all batches running at once.
+     * @return executor
+     */
+    @Bean("serviceBatchExecutor")
+    public Executor serviceBatchExecutor(
+            @Value("${xpanse.service.batch.maximum-concurrency:8}") int maximumConcurrency) {
+        return newFixedExecutor("service-batch-", maximumConcurrency);
+    }
+
+    private ServiceThreadPoolTaskExecutor newFixedExecutor(String threadNamePrefix, int threads) {
+        ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.batch;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchEntity;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchItem;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
+import org.eclipse.xpanse.modules.models.service.BatchCreateRequest;
+import org.eclipse.xpanse.modules.models.service.BatchDestroyRequest;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
+import org.eclipse.xpanse.modules.models.view.ServiceBatchVo;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the same operation on a batch of services with one request and reports the aggregate
+ * progress of the batch.
+ *
+ * <p>The batch is validated as a whole and stored with its services before any operation
+ * starts, the services waiting for their operation survive a restart. The operations are
+ * dispatched to the batch executor only while it has a free thread, so at most the configured
+ * number of operations of all batches run at once and never in the dispatching thread. The
+ * services of destroy batches are dispatched before the deploys still waiting, a tenant teardown
+ * doesn't queue behind an onboarding. A service is claimed only when its operation starts.
+ */
+@Slf4j
+@Component
+public class ServiceBatchService {
+
+    private static final int FILTER_PAGE_SIZE = 1000;
+    private static final int PENDING_BATCHES_PAGE_SIZE = 100;
+    private static final Set<ServiceState> NOT_DESTROYABLE_STATES = Set.of(
+            ServiceState.DEPLOYING, ServiceState.DESTROYING, ServiceState.DESTROY_SUCCESS,
+            ServiceState.MODIFYING);
+
+    private final OrchestratorService orchestratorService;
+    private final ServiceBatchStorage storage;
+    private final int maximumSize;
+    private final Executor batchExecutor;
+    private final Semaphore freeThreads;
+
+    /**
+     * Constructor of the ServiceBatchService.
+     *
+     * @param orchestratorService service running the operations.
+     * @param storage             storage of the batches.
+     * @param maximumSize         maximum number of services of a batch.
+     * @param maximumConcurrency  number of threads of the batch executor.
+     * @param batchExecutor       executor running the operations.
+     */
+    @Autowired
+    public ServiceBatchService(OrchestratorService orchestratorService,
+            ServiceBatchStorage storage,
+            @Value("${xpanse.service.batch.maximum-size:500}") int maximumSize,
+            @Value("${xpanse.service.batch.maximum-concurrency:8}") int maximumConcurrency,
+            @Qualifier("serviceBatchExecutor") Executor batchExecutor) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.maximumSize = maximumSize;
+        this.batchExecutor = batchExecutor;
+        this.freeThreads = new Semaphore(maximumConcurrency);
+    }
+
+    /**
+     * Deploy a batch of services.
+     *
+     * @param batchRequest the requests of the services.
+     * @return the batch, with the ids of the services in the order of the requests.
+     * @throws IllegalArgumentException if a request of the batch is invalid, then no service is
+     *                                  deployed.
+     */
+    public ServiceBatchVo deployServices(BatchCreateRequest batchRequest) {
+        List<CreateRequest> requests = getCreateRequests(batchRequest);
+        List<DeployTask> deployTasks = new ArrayList<>(requests.size());
+        for (CreateRequest request : requests) {
+            UUID id = UUID.randomUUID();
+            request.setId(id);
+            deployTasks.add(getDeployTask(id, request));
+        }
+        orchestratorService.getDeployHandlers(deployTasks);
+        return storeBatch(ServiceBatchKind.DEPLOY, deployTasks);
+    }
+
+    /**
+     * Destroy a batch of services, selected by their ids or by a filter. A filter selects the
+     * services which are neither being deployed or destroyed nor already destroyed.
+     *
+     * @param batchRequest the ids of the services or the filter.
+     * @return the batch, with the ids of the services.
+     * @throws IllegalArgumentException if a service of the batch can't be destroyed, then no
+     *                                  service is destroyed.
+     */
+    public ServiceBatchVo destroyServices(BatchDestroyRequest batchRequest) {
+        List<UUID> ids = getDestroyIds(batchRequest);
+        List<DeployTask> deployTasks = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            deployTasks.add(getDeployTask(id, null));
+        }
+        orchestratorService.getDestroyHandlers(deployTasks);
+        return storeBatch(ServiceBatchKind.DESTROY, deployTasks);
+    }
+
+    /**
+     * Get the aggregate progress of the batch.
+     *
+     * @param id id of the batch.
+     * @return the batch with the number of services per state.
+     */
+    public ServiceBatchVo getServiceBatch(UUID id) {
+        ServiceBatchEntity batch = storage.findBatchById(id);
+        if (Objects.isNull(batch)) {
+            throw new EntityNotFoundException(String.format("Batch with id %s not found.", id));
+        }
+        ServiceBatchVo batchVo = getServiceBatchVo(batch);
+        batchVo.setStates(storage.countServiceStates(id));
+        return batchVo;
+    }
+
+    /**
+     * Dispatch the waiting services of the batches while the batch executor has free threads.
+     * The services of destroy batches are dispatched first.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.batch.dispatch-interval-ms:1000}")
+    public void dispatchOperations() {
+        for (ServiceBatchEntity batch : storage.findPendingBatches(PENDING_BATCHES_PAGE_SIZE)) {
+            while (batch.getDispatched() < batch.getTotal()) {
+                if (!freeThreads.tryAcquire()) {
+                    return;
+                }
+                ServiceBatchItem item;
+                try {
+                    item = storage.claimNextItem(batch);
+                } catch (RuntimeException e) {
+                    freeThreads.release();
+                    throw e;
+                }
+                if (Objects.isNull(item)) {
+                    freeThreads.release();
+                    // another node dispatched it, the batch is reloaded with the next dispatch.
+                    break;
+                }
+                batch.setDispatched(batch.getDispatched() + 1);
+                dispatch(batch, item);
+            }
+        }
+    }
+
+    private ServiceBatchVo storeBatch(ServiceBatchKind kind, List<DeployTask> deployTasks) {
+        ServiceBatchEntity batch = new ServiceBatchEntity();
+        batch.setId(UUID.randomUUID());
+        batch.setKind(kind);
+        batch.setCreateTime(new Date());
+        batch.setTotal(deployTasks.size());
+        batch.setItems(deployTasks.stream().map(deployTask -> {
+            ServiceBatchItem item = new ServiceBatchItem();
+            item.setServiceId(deployTask.getId());
+            item.setCreateRequest(deployTask.getCreateRequest());
+            return item;
+        }).toList());
+        storage.store(batch);
+        log.info("{} batch {} of {} services.", kind, batch.getId(), batch.getTotal());
+        ServiceBatchVo batchVo = getServiceBatchVo(batch);
+        batchVo.setServiceIds(deployTasks.stream().map(DeployTask::getId).toList());
+        batchVo.setStates(Collections.emptyMap());
+        return batchVo;
+    }
+
+    private void dispatch(ServiceBatchEntity batch, ServiceBatchItem item) {
+        try {
+            batchExecutor.execute(() -> {
+                try {
+                    runOperation(batch.getKind(), item);
+                } catch (RuntimeException e) {
+                    log.error("Failed to start the {} of service {} of batch {}.",
+                            batch.getKind(), item.getServiceId(), batch.getId(), e);
+                } finally {
+                    freeThreads.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            freeThreads.release();
+            log.error("Failed to dispatch the {} of service {} of batch {}.", batch.getKind(),
+                    item.getServiceId(), batch.getId(), e);
+        }
+    }
+
+    private void runOperation(ServiceBatchKind kind, ServiceBatchItem item) {
+        DeployTask deployTask = getDeployTask(item.getServiceId(), item.getCreateRequest());
+        // the service is claimed only now, when its operation starts.
+        if (kind == ServiceBatchKind.DESTROY) {
+            Deployment deployment = orchestratorService.getDestroyHandler(deployTask);
+            orchestratorService.destroyService(deployment, deployTask);
+        } else {
+            Deployment deployment = orchestratorService.getDeployHandler(deployTask);
+            orchestratorService.deployService(deployment, deployTask);
+        }
+    }
+
+    private List<CreateRequest> getCreateRequests(BatchCreateRequest batchRequest) {
+        List<CreateRequest> requests = new ArrayList<>();
+        if (Objects.nonNull(batchRequest.getRequests())) {
+            if (Objects.nonNull(batchRequest.getRequest())) {
+                throw new IllegalArgumentException(
+                        "Either the requests or the request and its count must be set.");
+            }
+            requests.addAll(batchRequest.getRequests());
+        } else if (Objects.nonNull(batchRequest.getRequest())) {
+            int count = Objects.isNull(batchRequest.getCount()) ? 1 : batchRequest.getCount();
+            checkSize(count);
+            for (int i = 0; i < count; i++) {
+                CreateRequest request = new CreateRequest();
+                BeanUtils.copyProperties(batchRequest.getRequest(), request);
+                requests.add(request);
+            }
+        }
+        checkSize(requests.size());
+        return requests;
+    }
+
+    private List<UUID> getDestroyIds(BatchDestroyRequest batchRequest) {
+        if (Objects.nonNull(batchRequest.getIds())) {
+            if (StringUtils.isNotBlank(batchRequest.getServiceName())) {
+                throw new IllegalArgumentException(
+                        "Either the ids or the name of the services must be set.");
+            }
+            List<UUID> ids = batchRequest.getIds().stream().distinct().toList();
+            checkSize(ids.size());
+            return ids;
+        }
+        if (StringUtils.isBlank(batchRequest.getServiceName())) {
+            throw new IllegalArgumentException(
+                    "Either the ids or the name of the services must be set.");
+        }
+        DeployedServiceQuery query = new DeployedServiceQuery();
+        query.setCategory(batchRequest.getCategory());
+        query.setServiceName(StringUtils.lowerCase(batchRequest.getServiceName()));
+        query.setServiceVersion(StringUtils.lowerCase(batchRequest.getServiceVersion()));
+        query.setCsp(batchRequest.getCsp());
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<ServiceVo> page = orchestratorService.listDeployServices(query, cursor,
+                    FILTER_PAGE_SIZE, false);
+            for (ServiceVo service : page.getItems()) {
+                if (!NOT_DESTROYABLE_STATES.contains(service.getServiceState())) {
+                    ids.add(service.getId());
+                }
+            }
+            cursor = page.getNextCursor();
+        } while (Objects.nonNull(cursor) && ids.size() <= maximumSize);
+        checkSize(ids.size());
+        return ids;
+    }
+
+    private void checkSize(int size) {
+        if (size < 1 || size > maximumSize) {
+            throw new IllegalArgumentException(String.format(
+                    "A batch must have between 1 and %d services.", maximumSize));
+        }
+    }
+
+    private DeployTask getDeployTask(UUID id, CreateRequest request) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(id);
+        deployTask.setCreateRequest(request);
+        return deployTask;
+    }
+
+    private ServiceBatchVo getServiceBatchVo(ServiceBatchEntity batch) {
+        ServiceBatchVo batchVo = new ServiceBatchVo();
+        batchVo.setId(batch.getId());
+        batchVo.setKind(batch.getKind());
+        batchVo.setCreateTime(batch.getCreateTime());
+        batchVo.setTotal(batch.getTotal());
+        batchVo.setQueued(batch.getTotal() - batch.getDispatched());
+        return batchVo;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.batch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchEntity;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchItem;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Interface to be implemented by the database of the service batches.
+ */
+public interface ServiceBatchStorage {
+
+    /**
+     * Add or update the batch.
+     *
+     * @param batch the batch with the ids of its services.
+     */
+    void store(ServiceBatchEntity batch);
+
+    /**
+     * Method to find the batch by id, without its services.
+     *
+     * @param id id of the batch.
+     * @return the batch, null if not found.
+     */
+    ServiceBatchEntity findBatchById(UUID id);
+
+    /**
+     * Method to count the services of the batch per state in one query. Services whose
+     * operation did not start yet are not counted.
+     *
+     * @param id id of the batch.
+     * @return number of services per state.
+     */
+    Map<ServiceState, Long> countServiceStates(UUID id);
+
+    /**
+     * Method to find the batches with services waiting for their operation, without their
+     * services. The batches destroying services come first, then the oldest first.
+     *
+     * @param limit maximum number of batches.
+     * @return the batches.
+     */
+    List<ServiceBatchEntity> findPendingBatches(int limit);
+
+    /**
+     * Claim the next waiting service of the batch, the one after the dispatched services of
+     * the given batch. Only one node claims each service.
+     *
+     * @param batch the batch, as loaded.
+     * @return the service, null if the batch changed since it was loaded.
+     */
+    ServiceBatchItem claimNextItem(ServiceBatchEntity batch);
+}
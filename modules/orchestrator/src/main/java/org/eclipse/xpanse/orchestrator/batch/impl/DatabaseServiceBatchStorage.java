@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.batch.impl;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchEntity;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchItem;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchRepository;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.orchestrator.batch.ServiceBatchStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ServiceBatchStorage.
+ */
+@Component
+public class DatabaseServiceBatchStorage implements ServiceBatchStorage {
+
+    private final ServiceBatchRepository repository;
+
+    @Autowired
+    public DatabaseServiceBatchStorage(ServiceBatchRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(ServiceBatchEntity batch) {
+        repository.save(batch);
+    }
+
+    @Override
+    public ServiceBatchEntity findBatchById(UUID id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    @Override
+    public Map<ServiceState, Long> countServiceStates(UUID id) {
+        Map<ServiceState, Long> states = new EnumMap<>(ServiceState.class);
+        for (Object[] row : repository.countServiceStates(id)) {
+            if (row[0] instanceof ServiceState state) {
+                states.put(state, (Long) row[1]);
+            }
+        }
+        return states;
+    }
+
+    @Override
+    public List<ServiceBatchEntity> findPendingBatches(int limit) {
+        return repository.findPendingBatches(ServiceBatchKind.DESTROY, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public ServiceBatchItem claimNextItem(ServiceBatchEntity batch) {
+        if (repository.claimItem(batch.getId(), batch.getDispatched()) == 0) {
+            return null;
+        }
+        return repository.findItem(batch.getId(), batch.getDispatched());
+    }
+}
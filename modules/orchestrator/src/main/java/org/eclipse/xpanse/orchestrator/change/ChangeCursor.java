@@ -0,0 +1,96 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.change;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Position in a change feed: the modification time of the last change seen and the id of its
+ * row, which orders the rows changed in the same millisecond.
+ */
+@Value
+public class ChangeCursor {
+
+    /**
+     * Position before all changes.
+     */
+    public static final ChangeCursor START = new ChangeCursor(0L, new UUID(0L, 0L));
+
+    /**
+     * Highest id, ordered after all other ids of the same time.
+     */
+    public static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    /**
+     * Order of the changes in the feed. Ids are compared as unsigned bytes, like the database.
+     */
+    public static final Comparator<ChangeCursor> ORDER = Comparator
+            .comparingLong(ChangeCursor::getTime)
+            .thenComparing(ChangeCursor::getId, ChangeCursor::compareIds);
+
+    private static final String SEPARATOR = "_";
+
+    long time;
+
+    UUID id;
+
+    /**
+     * Get the position of the change.
+     *
+     * @param time modification time of the row.
+     * @param id   id of the row.
+     * @return the position.
+     */
+    public static ChangeCursor of(Date time, UUID id) {
+        return new ChangeCursor(time.getTime(), id);
+    }
+
+    /**
+     * Parse the cursor returned with a previous page.
+     *
+     * @param cursor the cursor, blank for the start of the feed.
+     * @return the position.
+     */
+    public static ChangeCursor parse(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return START;
+        }
+        try {
+            return new ChangeCursor(
+                    Long.parseLong(StringUtils.substringBefore(cursor, SEPARATOR)),
+                    UUID.fromString(StringUtils.substringAfter(cursor, SEPARATOR)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid change cursor %s.",
+                    cursor), e);
+        }
+    }
+
+    /**
+     * Get the modification time of the position.
+     *
+     * @return the modification time.
+     */
+    public Date getDate() {
+        return new Date(time);
+    }
+
+    @Override
+    public String toString() {
+        return time + SEPARATOR + id;
+    }
+
+    private static int compareIds(UUID first, UUID second) {
+        int result = Long.compareUnsigned(first.getMostSignificantBits(),
+                second.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(first.getLeastSignificantBits(),
+                second.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.change;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.eclipse.xpanse.modules.database.change.ChangeTombstoneEntity;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.ChangeVo;
+import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Change feeds of the deployed and the registered services. A feed returns the rows modified
+ * after a cursor, ordered by modification time and id, merged with the tombstones of the rows
+ * deleted after the cursor, so that a periodic sync only reads what changed.
+ *
+ * <p>Changes of the last settle period are held back: the modification time is set when the
+ * row is flushed, slightly before the commit, and the clocks of the nodes may differ. Rows
+ * stamped within the settle period before they became visible are therefore not skipped.
+ */
+@Component
+public class ChangeFeedService {
+
+    private static final Comparator<ChangeVo<?>> CHANGE_ORDER = Comparator.comparing(
+            change -> ChangeCursor.of(change.getChangeTime(), change.getId()),
+            ChangeCursor.ORDER);
+
+    private final DeployServiceStorage deployServiceStorage;
+    private final RegisterServiceStorage registerServiceStorage;
+    private final ChangeTombstoneStorage tombstoneStorage;
+    private final long settleMillis;
+    private final long retentionMillis;
+
+    /**
+     * Constructor of the ChangeFeedService.
+     *
+     * @param deployServiceStorage   storage of the deployed services.
+     * @param registerServiceStorage storage of the registered services.
+     * @param tombstoneStorage       storage of the tombstones.
+     * @param settleMillis           age of the changes before they are returned.
+     * @param retentionHours         retention of the tombstones, older cursors are rejected.
+     */
+    @Autowired
+    public ChangeFeedService(DeployServiceStorage deployServiceStorage,
+            RegisterServiceStorage registerServiceStorage, ChangeTombstoneStorage tombstoneStorage,
+            @Value("${xpanse.changes.settle-ms:5000}") long settleMillis,
+            @Value("${xpanse.changes.tombstone-retention-hours:168}") long retentionHours) {
+        this.deployServiceStorage = deployServiceStorage;
+        this.registerServiceStorage = registerServiceStorage;
+        this.tombstoneStorage = tombstoneStorage;
+        this.settleMillis = settleMillis;
+        this.retentionMillis = retentionHours * 3600_000L;
+    }
+
+    /**
+     * List the changes of the deployed services after the cursor.
+     *
+     * @param cursor   cursor returned with the previous page, null for the start of the feed.
+     * @param pageSize maximum number of changes in the page.
+     * @return page of the changes.
+     */
+    public ChangePage<ServiceVo> listDeployServiceChanges(String cursor, int pageSize) {
+        return listChanges(ChangeEntityType.DEPLOYED_SERVICE, cursor, pageSize,
+                deployServiceStorage::listChangedServices, ServiceVo::getId,
+                ServiceVo::getLastModifiedTime);
+    }
+
+    /**
+     * List the changes of the registered services after the cursor.
+     *
+     * @param cursor   cursor returned with the previous page, null for the start of the feed.
+     * @param pageSize maximum number of changes in the page.
+     * @return page of the changes.
+     */
+    public ChangePage<RegisteredServiceVo> listRegisteredServiceChanges(String cursor,
+            int pageSize) {
+        return listChanges(ChangeEntityType.REGISTERED_SERVICE, cursor, pageSize,
+                registerServiceStorage::listChangedRegisteredServices, RegisteredServiceVo::getId,
+                RegisteredServiceVo::getLastModifiedTime);
+    }
+
+    /**
+     * Record the deletion of a row, in the transaction deleting it. Tombstones older than the
+     * retention are removed at the same time.
+     *
+     * @param entityType kind of the deleted row.
+     * @param entityId   id of the deleted row.
+     */
+    public void recordDeletion(ChangeEntityType entityType, UUID entityId) {
+        tombstoneStorage.store(entityType, entityId);
+        tombstoneStorage.deleteBefore(new Date(System.currentTimeMillis() - retentionMillis));
+    }
+
+    private <T> ChangePage<T> listChanges(ChangeEntityType entityType, String cursor,
+            int pageSize, ChangedRows<T> changedRows, Function<T, UUID> idOf,
+            Function<T, Date> timeOf) {
+        ChangeCursor after = ChangeCursor.parse(cursor);
+        long now = System.currentTimeMillis();
+        if (after.getTime() > 0 && after.getTime() < now - retentionMillis) {
+            throw new ChangeCursorExpiredException(String.format("Change cursor %s is older "
+                    + "than the retention of the deletions, list all rows again.", cursor));
+        }
+        Date until = new Date(now - settleMillis);
+        List<ChangeVo<T>> changes = new ArrayList<>();
+        for (T row : changedRows.list(after, until, pageSize + 1)) {
+            ChangeVo<T> change = new ChangeVo<>();
+            change.setId(idOf.apply(row));
+            change.setChangeTime(timeOf.apply(row));
+            change.setItem(row);
+            changes.add(change);
+        }
+        for (ChangeTombstoneEntity tombstone : tombstoneStorage.listTombstones(entityType, after,
+                until, pageSize + 1)) {
+            ChangeVo<T> change = new ChangeVo<>();
+            change.setId(tombstone.getEntityId());
+            change.setChangeTime(tombstone.getDeleteTime());
+            change.setDeleted(true);
+            changes.add(change);
+        }
+        changes.sort(CHANGE_ORDER);
+        if (changes.size() > pageSize) {
+            List<ChangeVo<T>> page = new ArrayList<>(changes.subList(0, pageSize));
+            ChangeVo<T> last = page.get(pageSize - 1);
+            return new ChangePage<>(page,
+                    ChangeCursor.of(last.getChangeTime(), last.getId()).toString(), true);
+        }
+        // all changes before the settle period are read, continue from there.
+        ChangeCursor settled = new ChangeCursor(until.getTime() - 1, ChangeCursor.MAX_ID);
+        return new ChangePage<>(changes,
+                (ChangeCursor.ORDER.compare(settled, after) > 0 ? settled : after).toString(),
+                false);
+    }
+
+    /**
+     * Query of the rows changed after a position.
+     *
+     * @param <T> type of the changed rows.
+     */
+    @FunctionalInterface
+    private interface ChangedRows<T> {
+
+        List<T> list(ChangeCursor after, Date until, int limit);
+    }
+}
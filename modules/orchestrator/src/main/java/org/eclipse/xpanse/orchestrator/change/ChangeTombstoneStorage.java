@@ -0,0 +1,47 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.change;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.change.ChangeTombstoneEntity;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+
+/**
+ * Interface to be implemented by the tombstone database of the change feeds.
+ */
+public interface ChangeTombstoneStorage {
+
+    /**
+     * Store the tombstone of a deleted row.
+     *
+     * @param entityType kind of the deleted row.
+     * @param entityId   id of the deleted row.
+     */
+    void store(ChangeEntityType entityType, UUID entityId);
+
+    /**
+     * Method to list the tombstones after the position, ordered by delete time and id.
+     *
+     * @param entityType kind of the deleted rows.
+     * @param after      position of the last change seen.
+     * @param until      only rows deleted before this time are returned.
+     * @param limit      maximum number of tombstones returned.
+     * @return Returns the tombstones for the provided arguments.
+     */
+    List<ChangeTombstoneEntity> listTombstones(ChangeEntityType entityType, ChangeCursor after,
+            Date until, int limit);
+
+    /**
+     * Delete the tombstones older than the time.
+     *
+     * @param time only tombstones of rows deleted before this time are deleted.
+     * @return number of deleted tombstones.
+     */
+    int deleteBefore(Date time);
+}
@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.change.impl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.change.ChangeTombstoneEntity;
+import org.eclipse.xpanse.modules.database.change.ChangeTombstoneRepository;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursor;
+import org.eclipse.xpanse.orchestrator.change.ChangeTombstoneStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ChangeTombstoneStorage.
+ */
+@Component
+public class DatabaseChangeTombstoneStorage implements ChangeTombstoneStorage {
+
+    private final ChangeTombstoneRepository repository;
+
+    @Autowired
+    public DatabaseChangeTombstoneStorage(ChangeTombstoneRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(ChangeEntityType entityType, UUID entityId) {
+        ChangeTombstoneEntity tombstone = new ChangeTombstoneEntity();
+        tombstone.setEntityId(entityId);
+        tombstone.setEntityType(entityType);
+        tombstone.setDeleteTime(new Date());
+        repository.save(tombstone);
+    }
+
+    @Override
+    public List<ChangeTombstoneEntity> listTombstones(ChangeEntityType entityType,
+            ChangeCursor after, Date until, int limit) {
+        return repository.findAfter(entityType, after.getDate(), after.getId(), until,
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public int deleteBefore(Date time) {
+        return repository.deleteBefore(time);
+    }
+}
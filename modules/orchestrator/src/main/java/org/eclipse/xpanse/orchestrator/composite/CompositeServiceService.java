@@ -0,0 +1,477 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.composite;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.composite.CompositeServiceEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CompositeCreateRequest;
+import org.eclipse.xpanse.modules.models.service.CompositeNode;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.view.CompositeServiceVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.group.GroupOperations;
+import org.eclipse.xpanse.orchestrator.group.OperationLeases;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deploys several registered services as one composite service, in the order of the
+ * dependencies between its nodes.
+ *
+ * <p>The nodes form a directed acyclic graph. A node starts once all nodes it depends on are
+ * deployed, so independent nodes are deployed in parallel. The inputs of a node are set from
+ * the outputs of the deployed nodes right before it starts, the other nodes are validated when
+ * the composite service is requested. A failed node stops its dependent nodes. With the
+ * ALL_OR_NOTHING policy it also stops the nodes not started yet, and the deployed nodes are
+ * destroyed. The services are destroyed in the reverse order: a node once all nodes depending
+ * on it are destroyed.
+ *
+ * <p>The node running the deployment, rollback or destroy holds a lease of the composite
+ * service. When it stops renewing the lease, e.g. as it was restarted, the interrupted
+ * operation fails, so the composite service can be destroyed.
+ */
+@Slf4j
+@Component
+public class CompositeServiceService {
+
+    private static final Set<CompositeServiceState> DESTROYABLE_STATES = Set.of(
+            CompositeServiceState.DEPLOY_SUCCESS, CompositeServiceState.PARTIAL_SUCCESS,
+            CompositeServiceState.DEPLOY_FAILED, CompositeServiceState.ROLLBACK_FAILED,
+            CompositeServiceState.DESTROY_FAILED);
+    // the interrupted operations end in a destroyable state.
+    private static final Map<CompositeServiceState, CompositeServiceState> INTERRUPTED_STATES =
+            Map.of(CompositeServiceState.DEPLOYING, CompositeServiceState.DEPLOY_FAILED,
+                    CompositeServiceState.ROLLING_BACK, CompositeServiceState.ROLLBACK_FAILED,
+                    CompositeServiceState.DESTROYING, CompositeServiceState.DESTROY_FAILED);
+    private static final int EXPIRED_LEASES_PAGE_SIZE = 100;
+
+    private final OrchestratorService orchestratorService;
+    private final CompositeServiceStorage storage;
+    private final Executor compositeExecutor;
+    private final OperationLeases leases;
+
+    /**
+     * Constructor of the CompositeServiceService.
+     *
+     * @param orchestratorService service deploying the services of the nodes.
+     * @param storage             storage of the composite services.
+     * @param compositeExecutor   executor deploying and destroying the nodes.
+     * @param leaseMillis         time a node holds a running operation without renewing it.
+     */
+    @Autowired
+    public CompositeServiceService(OrchestratorService orchestratorService,
+            CompositeServiceStorage storage,
+            @Qualifier("compositeExecutor") Executor compositeExecutor,
+            @Value("${xpanse.service.composite.lease-ms:300000}") long leaseMillis) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.compositeExecutor = compositeExecutor;
+        this.leases = new OperationLeases(leaseMillis);
+    }
+
+    /**
+     * Deploy the nodes of the composite service in the order of their dependencies.
+     *
+     * @param compositeRequest the nodes of the composite service.
+     * @return the composite service, with the id of the service per node.
+     * @throws IllegalArgumentException if the nodes or their dependencies are invalid, then no
+     *                                  service is deployed.
+     */
+    public CompositeServiceVo deployComposite(CompositeCreateRequest compositeRequest) {
+        Map<String, CompositeNode> nodes = new LinkedHashMap<>();
+        for (CompositeNode node : compositeRequest.getNodes()) {
+            if (StringUtils.contains(node.getName(), '.')
+                    || Objects.nonNull(nodes.put(node.getName(), node))) {
+                throw new IllegalArgumentException(String.format(
+                        "Node name %s is not unique or contains a '.'.", node.getName()));
+            }
+        }
+        Map<String, Set<String>> dependencies = getDependencies(nodes.values());
+        final List<String> order = getOrder(dependencies);
+        Map<String, DeployTask> deployTasks = new LinkedHashMap<>();
+        List<String> preparedNodes = new ArrayList<>();
+        List<DeployTask> preparedTasks = new ArrayList<>();
+        for (CompositeNode node : nodes.values()) {
+            CreateRequest request = new CreateRequest();
+            BeanUtils.copyProperties(node.getRequest(), request);
+            UUID id = UUID.randomUUID();
+            request.setId(id);
+            request.setProperty(Objects.isNull(request.getProperty())
+                    ? new HashMap<>() : new HashMap<>(request.getProperty()));
+            DeployTask deployTask = new DeployTask();
+            deployTask.setId(id);
+            deployTask.setCreateRequest(request);
+            deployTasks.put(node.getName(), deployTask);
+            if (Objects.isNull(node.getInputs()) || node.getInputs().isEmpty()) {
+                preparedNodes.add(node.getName());
+                preparedTasks.add(deployTask);
+            }
+        }
+        // the nodes with inputs are validated once the outputs are known.
+        List<Deployment> preparedDeployments = orchestratorService.getDeployHandlers(
+                preparedTasks);
+        Map<String, Deployment> deployments = new HashMap<>();
+        for (int i = 0; i < preparedNodes.size(); i++) {
+            deployments.put(preparedNodes.get(i), preparedDeployments.get(i));
+        }
+        CompositeServiceEntity composite = new CompositeServiceEntity();
+        composite.setId(UUID.randomUUID());
+        composite.setName(compositeRequest.getName());
+        composite.setCreateTime(new Date());
+        composite.setFailurePolicy(Objects.isNull(compositeRequest.getFailurePolicy())
+                ? GroupFailurePolicy.BEST_EFFORT : compositeRequest.getFailurePolicy());
+        composite.setState(CompositeServiceState.DEPLOYING);
+        composite.setNodes(compositeRequest.getNodes());
+        Map<String, UUID> serviceIds = new LinkedHashMap<>();
+        deployTasks.forEach((name, deployTask) -> serviceIds.put(name, deployTask.getId()));
+        composite.setServiceIds(serviceIds);
+        composite.setLeaseExpireTime(leases.update(composite.getId(), true));
+        storage.store(composite);
+        // taken before the nodes start, the deployments change the state of the entity.
+        final CompositeServiceVo compositeServiceVo = getCompositeServiceVo(composite, Map.of());
+        log.info("Composite service {} deploys the nodes in order {}.", composite.getId(),
+                order);
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<String, CompletableFuture<ServiceState>> results = runInOrder(order, dependencies,
+                (name, upstream) -> {
+                    CompositeNode node = nodes.get(name);
+                    DeployTask deployTask = deployTasks.get(name);
+                    if (!upstream.stream().allMatch(ServiceState.DEPLOY_SUCCESS::equals)
+                            || (failed.get() && composite.getFailurePolicy()
+                            == GroupFailurePolicy.ALL_OR_NOTHING)) {
+                        log.info("Composite service {} skips node {} after a failed node.",
+                                composite.getId(), name);
+                        return null;
+                    }
+                    ServiceState state = deployNode(composite, node, deployTask,
+                            deployments.get(name));
+                    if (state != ServiceState.DEPLOY_SUCCESS) {
+                        failed.set(true);
+                    }
+                    return state;
+                });
+        GroupOperations.whenAllDone(results.values(),
+                states -> finishDeployments(composite, states));
+        return compositeServiceVo;
+    }
+
+    /**
+     * Get the aggregate state of the composite service and the state of the service of every
+     * node.
+     *
+     * @param id id of the composite service.
+     * @return the composite service.
+     */
+    public CompositeServiceVo getComposite(UUID id) {
+        CompositeServiceEntity composite = getCompositeEntity(id);
+        Map<UUID, ServiceState> states =
+                orchestratorService.getServiceStates(composite.getServiceIds().values());
+        Map<String, ServiceState> serviceStates = new TreeMap<>();
+        composite.getServiceIds().forEach((name, serviceId) -> {
+            if (states.containsKey(serviceId)) {
+                serviceStates.put(name, states.get(serviceId));
+            }
+        });
+        return getCompositeServiceVo(composite, serviceStates);
+    }
+
+    /**
+     * Destroy the services of the nodes in the reverse order of their dependencies.
+     *
+     * @param id id of the composite service.
+     * @return the composite service.
+     * @throws IllegalArgumentException if the composite service is being deployed or
+     *                                  destroyed.
+     */
+    public CompositeServiceVo destroyComposite(UUID id) {
+        CompositeServiceEntity composite = getCompositeEntity(id);
+        Date leaseExpireTime = leases.getLeaseExpireTime();
+        if (!storage.updateState(id, DESTROYABLE_STATES, CompositeServiceState.DESTROYING,
+                leaseExpireTime)) {
+            throw new IllegalArgumentException(String.format(
+                    "Composite service %s is %s and can't be destroyed.", id,
+                    composite.getState()));
+        }
+        leases.update(id, true);
+        composite.setState(CompositeServiceState.DESTROYING);
+        composite.setLeaseExpireTime(leaseExpireTime);
+        final CompositeServiceVo compositeServiceVo = getCompositeServiceVo(composite, Map.of());
+        log.info("Composite service {} is {}.", id, CompositeServiceState.DESTROYING);
+        destroyNodes(composite, destroyed -> updateState(composite, destroyed
+                ? CompositeServiceState.DESTROY_SUCCESS : CompositeServiceState.DESTROY_FAILED));
+        return compositeServiceVo;
+    }
+
+    /**
+     * Extend the leases of the composite services operated by this node.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.composite.lease-renew-interval-ms:60000}")
+    public void renewCompositeLeases() {
+        Set<UUID> held = leases.getHeld();
+        if (held.isEmpty()) {
+            return;
+        }
+        try {
+            storage.renewLeases(held, INTERRUPTED_STATES.keySet(),
+                    leases.getLeaseExpireTime());
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew the leases of the composite services.", e);
+        }
+    }
+
+    /**
+     * Fail the operations of the composite services whose node stopped renewing their lease,
+     * e.g. after a restart, so they can be destroyed. The services of the nodes keep the state
+     * of their own operation.
+     */
+    @Scheduled(fixedDelayString =
+            "${xpanse.service.composite.lease-recovery-interval-ms:60000}")
+    public void failInterruptedComposites() {
+        for (UUID id : storage.findExpiredLeases(INTERRUPTED_STATES.keySet(),
+                EXPIRED_LEASES_PAGE_SIZE)) {
+            CompositeServiceEntity composite = storage.findCompositeById(id);
+            if (Objects.isNull(composite) || leases.isHeld(id)
+                    || !INTERRUPTED_STATES.containsKey(composite.getState())) {
+                continue;
+            }
+            CompositeServiceState failedState = INTERRUPTED_STATES.get(composite.getState());
+            if (storage.updateExpiredState(id, composite.getState(), failedState)) {
+                log.warn("Lease of composite service {} in state {} expired, it is {}.", id,
+                        composite.getState(), failedState);
+            }
+        }
+    }
+
+    private CompositeServiceEntity getCompositeEntity(UUID id) {
+        CompositeServiceEntity composite = storage.findCompositeById(id);
+        if (Objects.isNull(composite)) {
+            throw new EntityNotFoundException(String.format(
+                    "Composite service with id %s not found.", id));
+        }
+        return composite;
+    }
+
+    private Map<String, Set<String>> getDependencies(Collection<CompositeNode> nodes) {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        for (CompositeNode node : nodes) {
+            dependencies.put(node.getName(), new HashSet<>());
+        }
+        for (CompositeNode node : nodes) {
+            Set<String> upstream = dependencies.get(node.getName());
+            if (Objects.nonNull(node.getDependsOn())) {
+                upstream.addAll(node.getDependsOn());
+            }
+            if (Objects.nonNull(node.getInputs())) {
+                node.getInputs().values().forEach(input -> upstream.add(
+                        StringUtils.substringBefore(input, ".")));
+            }
+            for (String dependency : upstream) {
+                if (!dependencies.containsKey(dependency)
+                        || dependency.equals(node.getName())) {
+                    throw new IllegalArgumentException(String.format(
+                            "Node %s depends on unknown node %s.", node.getName(), dependency));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private List<String> getOrder(Map<String, Set<String>> dependencies) {
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        Map<String, List<String>> dependents = getDependents(dependencies);
+        Deque<String> ready = new ArrayDeque<>();
+        dependencies.forEach((name, upstream) -> {
+            pending.put(name, upstream.size());
+            if (upstream.isEmpty()) {
+                ready.add(name);
+            }
+        });
+        List<String> order = new ArrayList<>(dependencies.size());
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(name);
+            for (String dependent : dependents.get(name)) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < dependencies.size()) {
+            pending.keySet().removeAll(order);
+            throw new IllegalArgumentException(String.format(
+                    "The dependencies of nodes %s form a cycle.", pending.keySet()));
+        }
+        return order;
+    }
+
+    private Map<String, List<String>> getDependents(Map<String, Set<String>> dependencies) {
+        Map<String, List<String>> dependents = new LinkedHashMap<>();
+        dependencies.keySet().forEach(name -> dependents.put(name, new ArrayList<>()));
+        dependencies.forEach((name, upstream) ->
+                upstream.forEach(dependency -> dependents.get(dependency).add(name)));
+        return dependents;
+    }
+
+    /**
+     * Start the operation of every node once the operations of the nodes it waits for are done.
+     * The operation gets the results of these nodes.
+     */
+    private Map<String, CompletableFuture<ServiceState>> runInOrder(List<String> order,
+            Map<String, ? extends Collection<String>> waitFor, NodeOperation operation) {
+        Map<String, CompletableFuture<ServiceState>> results = new LinkedHashMap<>();
+        for (String name : order) {
+            List<CompletableFuture<ServiceState>> upstream = waitFor.get(name).stream()
+                    .map(results::get).toList();
+            results.put(name, CompletableFuture.allOf(upstream.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignored -> operation.run(name, upstream.stream()
+                            .map(result -> result.getNow(null)).toList()), compositeExecutor)
+                    .exceptionally(e -> {
+                        log.error("Operation of node {} failed.", name, e);
+                        return null;
+                    }));
+        }
+        return results;
+    }
+
+    private ServiceState deployNode(CompositeServiceEntity composite, CompositeNode node,
+            DeployTask deployTask, Deployment deployment) {
+        try {
+            if (Objects.isNull(deployment)) {
+                setInputs(composite, node, deployTask.getCreateRequest());
+                deployment = orchestratorService.getDeployHandler(deployTask);
+            }
+        } catch (RuntimeException e) {
+            log.error("Composite service {} can't deploy node {}.", composite.getId(),
+                    node.getName(), e);
+            return ServiceState.DEPLOY_FAILED;
+        }
+        return orchestratorService.deployService(deployment, deployTask);
+    }
+
+    private void setInputs(CompositeServiceEntity composite, CompositeNode node,
+            CreateRequest request) {
+        Map<String, Map<String, String>> outputs = new HashMap<>();
+        node.getInputs().forEach((variable, input) -> {
+            String upstream = StringUtils.substringBefore(input, ".");
+            String value = outputs.computeIfAbsent(upstream, name ->
+                    orchestratorService.getServiceOutputs(composite.getServiceIds().get(name)))
+                    .get(StringUtils.substringAfter(input, "."));
+            if (Objects.isNull(value)) {
+                throw new IllegalArgumentException(String.format(
+                        "Output %s of node %s not found.", StringUtils.substringAfter(input, "."),
+                        upstream));
+            }
+            request.getProperty().put(variable, value);
+        });
+    }
+
+    private void finishDeployments(CompositeServiceEntity composite, List<ServiceState> states) {
+        switch (GroupOperations.getDeploymentResult(states, composite.getFailurePolicy())) {
+            case SUCCESS -> updateState(composite, CompositeServiceState.DEPLOY_SUCCESS);
+            case PARTIAL_SUCCESS -> updateState(composite, CompositeServiceState.PARTIAL_SUCCESS);
+            case FAILED -> updateState(composite, CompositeServiceState.DEPLOY_FAILED);
+            default -> {
+                updateState(composite, CompositeServiceState.ROLLING_BACK);
+                destroyNodes(composite, destroyed -> updateState(composite, destroyed
+                        ? CompositeServiceState.ROLLED_BACK
+                        : CompositeServiceState.ROLLBACK_FAILED));
+            }
+        }
+    }
+
+    /**
+     * Destroy the stored services of the nodes, a node once the nodes depending on it are
+     * destroyed. A node whose dependent node was not destroyed is kept.
+     */
+    private void destroyNodes(CompositeServiceEntity composite, Consumer<Boolean> action) {
+        Map<String, Set<String>> dependencies = getDependencies(composite.getNodes());
+        List<String> order = new ArrayList<>(getOrder(dependencies));
+        Collections.reverse(order);
+        // failed deployments may have created resources too.
+        Map<UUID, ServiceState> states =
+                orchestratorService.getServiceStates(composite.getServiceIds().values());
+        Map<String, CompletableFuture<ServiceState>> results = runInOrder(order,
+                getDependents(dependencies), (name, downstream) -> {
+                    UUID serviceId = composite.getServiceIds().get(name);
+                    if (!states.containsKey(serviceId)
+                            || states.get(serviceId) == ServiceState.DESTROY_SUCCESS) {
+                        return ServiceState.DESTROY_SUCCESS;
+                    }
+                    if (!downstream.stream().allMatch(ServiceState.DESTROY_SUCCESS::equals)) {
+                        log.info("Composite service {} keeps node {} after a failed node.",
+                                composite.getId(), name);
+                        return null;
+                    }
+                    DeployTask destroyTask = new DeployTask();
+                    destroyTask.setId(serviceId);
+                    return orchestratorService.destroyService(
+                            orchestratorService.getDestroyHandler(destroyTask), destroyTask);
+                });
+        GroupOperations.whenAllDone(results.values(),
+                destroyed -> action.accept(GroupOperations.isDestroyed(destroyed)));
+    }
+
+    private void updateState(CompositeServiceEntity composite, CompositeServiceState state) {
+        composite.setState(state);
+        composite.setLeaseExpireTime(leases.update(composite.getId(),
+                INTERRUPTED_STATES.containsKey(state)));
+        storage.store(composite);
+        log.info("Composite service {} is {}.", composite.getId(), state);
+    }
+
+    private CompositeServiceVo getCompositeServiceVo(CompositeServiceEntity composite,
+            Map<String, ServiceState> serviceStates) {
+        CompositeServiceVo compositeVo = new CompositeServiceVo();
+        compositeVo.setId(composite.getId());
+        compositeVo.setName(composite.getName());
+        compositeVo.setCreateTime(composite.getCreateTime());
+        compositeVo.setFailurePolicy(composite.getFailurePolicy());
+        compositeVo.setState(composite.getState());
+        compositeVo.setServiceIds(new TreeMap<>(composite.getServiceIds()));
+        compositeVo.setServiceStates(serviceStates);
+        return compositeVo;
+    }
+
+    /**
+     * Operation of a node with the results of the nodes it waited for.
+     */
+    @FunctionalInterface
+    private interface NodeOperation {
+
+        ServiceState run(String name, List<ServiceState> upstream);
+    }
+}
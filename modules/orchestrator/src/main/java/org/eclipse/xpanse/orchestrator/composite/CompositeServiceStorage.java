@@ -0,0 +1,80 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.composite;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.composite.CompositeServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+
+/**
+ * Interface for persist of the composite services.
+ */
+public interface CompositeServiceStorage {
+
+    /**
+     * Store the composite service.
+     *
+     * @param composite the composite service.
+     */
+    void store(CompositeServiceEntity composite);
+
+    /**
+     * Find the composite service by its id.
+     *
+     * @param id id of the composite service.
+     * @return the composite service, null if not found.
+     */
+    CompositeServiceEntity findCompositeById(UUID id);
+
+    /**
+     * Change the state of the composite service if it is still in one of the expected states,
+     * so only one node starts an operation of the composite service.
+     *
+     * @param id              id of the composite service.
+     * @param expected        the expected states.
+     * @param state           the new state.
+     * @param leaseExpireTime end of the lease of the node running the new state.
+     * @return true if the state was changed.
+     */
+    boolean updateState(UUID id, Collection<CompositeServiceState> expected,
+            CompositeServiceState state, Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the composite services still in one of the states.
+     *
+     * @param ids             ids of the composite services.
+     * @param states          the leased states.
+     * @param leaseExpireTime the new end of the leases.
+     */
+    void renewLeases(Collection<UUID> ids, Collection<CompositeServiceState> states,
+            Date leaseExpireTime);
+
+    /**
+     * Find the composite services in one of the states whose lease ended, e.g. as their node
+     * was restarted.
+     *
+     * @param states the leased states.
+     * @param limit  maximum number of composite services.
+     * @return the ids of the composite services.
+     */
+    List<UUID> findExpiredLeases(Collection<CompositeServiceState> states, int limit);
+
+    /**
+     * Change the state of the composite service if it is still in the expected state and its
+     * lease ended, so only one node ends the interrupted operation.
+     *
+     * @param id       id of the composite service.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @return true if the state was changed.
+     */
+    boolean updateExpiredState(UUID id, CompositeServiceState expected,
+            CompositeServiceState state);
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.composite.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.composite.CompositeServiceEntity;
+import org.eclipse.xpanse.modules.database.composite.CompositeServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.eclipse.xpanse.orchestrator.composite.CompositeServiceStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the CompositeServiceStorage.
+ */
+@Component
+public class DatabaseCompositeServiceStorage implements CompositeServiceStorage {
+
+    private final CompositeServiceRepository repository;
+
+    @Autowired
+    public DatabaseCompositeServiceStorage(CompositeServiceRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(CompositeServiceEntity composite) {
+        repository.save(composite);
+    }
+
+    @Override
+    public CompositeServiceEntity findCompositeById(UUID id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public boolean updateState(UUID id, Collection<CompositeServiceState> expected,
+            CompositeServiceState state, Date leaseExpireTime) {
+        return repository.updateState(id, expected, state, leaseExpireTime) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void renewLeases(Collection<UUID> ids, Collection<CompositeServiceState> states,
+            Date leaseExpireTime) {
+        repository.renewLeases(ids, states, leaseExpireTime);
+    }
+
+    @Override
+    public List<UUID> findExpiredLeases(Collection<CompositeServiceState> states, int limit) {
+        return repository.findExpiredLeases(states, new Date(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateExpiredState(UUID id, CompositeServiceState expected,
+            CompositeServiceState state) {
+        return repository.updateExpiredState(id, expected, state, new Date()) > 0;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.drift;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DriftStatus;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.ServiceDriftVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the deployed services for drift: resources changed or deleted outside of the
+ * deployment, for example by hand in the console of the csp.
+ *
+ * <p>Every deployed service is checked once per period. The first check of a service is placed
+ * in the period by the hash of its id, so the checks are spread over the period instead of
+ * starting together. At most a fixed number of checks run at once, and the checks of every csp
+ * are rate limited, as each check reads all resources of the service from the csp. A check
+ * claims the service in the database, so every service is checked by one node. The check
+ * leases the deployed service while it runs and is skipped while an operation of the service
+ * runs, so a plan never runs on a workspace being changed.
+ */
+@Slf4j
+@Component
+public class ServiceDriftService {
+
+    private static final String METRIC_NAME = "xpanse.drift";
+    private static final int MAXIMUM_ERROR_LENGTH = 1024;
+    private static final Set<ServiceState> CHECKED_STATES = Set.of(ServiceState.DEPLOY_SUCCESS,
+            ServiceState.MODIFY_SUCCESS, ServiceState.MODIFY_FAILED);
+
+    private final OrchestratorService orchestratorService;
+    private final ServiceDriftStorage storage;
+    private final boolean enabled;
+    private final long periodMillis;
+    private final long leaseMillis;
+    private final double checksPerSecond;
+    private final int maximumConcurrency;
+    private final Semaphore checkSlots;
+    private final Map<Csp, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Executor checkExecutor;
+    private final Timer checkDuration;
+    private final Counter driftedServices;
+    private final Counter driftedResources;
+    private final Counter failedChecks;
+
+    /**
+     * Constructor of the ServiceDriftService.
+     *
+     * @param orchestratorService service detecting the drift.
+     * @param storage             storage of the drift checks.
+     * @param meterRegistry       registry of the metrics.
+     * @param enabled             whether the deployed services are checked.
+     * @param periodMinutes       time between two checks of a service.
+     * @param leaseMinutes        time before a check which got no result is retried.
+     * @param maximumConcurrency  maximum number of checks running at once.
+     * @param cspChecksPerMinute  maximum number of checks started per minute and csp.
+     * @param checkExecutor       executor running the checks.
+     */
+    @Autowired
+    public ServiceDriftService(OrchestratorService orchestratorService,
+            ServiceDriftStorage storage, MeterRegistry meterRegistry,
+            @Value("${xpanse.drift.enabled:true}") boolean enabled,
+            @Value("${xpanse.drift.period-minutes:360}") long periodMinutes,
+            @Value("${xpanse.drift.lease-minutes:30}") long leaseMinutes,
+            @Value("${xpanse.drift.maximum-concurrency:4}") int maximumConcurrency,
+            @Value("${xpanse.drift.csp-checks-per-minute:30}") double cspChecksPerMinute,
+            @Qualifier("driftCheckExecutor") Executor checkExecutor) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.enabled = enabled;
+        this.periodMillis = TimeUnit.MINUTES.toMillis(periodMinutes);
+        this.leaseMillis = TimeUnit.MINUTES.toMillis(leaseMinutes);
+        this.checksPerSecond = cspChecksPerMinute / 60;
+        this.maximumConcurrency = maximumConcurrency;
+        this.checkSlots = new Semaphore(maximumConcurrency);
+        this.checkExecutor = checkExecutor;
+        this.checkDuration = Timer.builder(METRIC_NAME + ".check.duration")
+                .description("Duration of the drift checks of the deployed services.")
+                .register(meterRegistry);
+        this.driftedServices = Counter.builder(METRIC_NAME + ".drifted")
+                .description("Drift checks which found drifted resources.")
+                .register(meterRegistry);
+        this.driftedResources = Counter.builder(METRIC_NAME + ".resources")
+                .description("Drifted resources found by the drift checks.")
+                .register(meterRegistry);
+        this.failedChecks = Counter.builder(METRIC_NAME + ".failures")
+                .description("Failed drift checks.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedule the new deployed services and start the due checks, as long as there are free
+     * check slots and the rate limits of the csps allow.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.drift.poll-interval-ms:60000}")
+    public void scan() {
+        if (!enabled) {
+            return;
+        }
+        Date now = new Date();
+        try {
+            scheduleServices(now);
+            startChecks(now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to scan the deployed services for drift.", e);
+        }
+    }
+
+    /**
+     * Get the result of the last drift check of the deployed service.
+     *
+     * @param serviceId id of the deployed service.
+     * @return the result of the last drift check.
+     */
+    public ServiceDriftVo getServiceDrift(UUID serviceId) {
+        ServiceDriftEntity drift = storage.findByServiceId(serviceId);
+        if (Objects.isNull(drift)) {
+            throw new EntityNotFoundException(String.format(
+                    "Drift checks of service %s not scheduled.", serviceId));
+        }
+        ServiceDriftVo serviceDriftVo = new ServiceDriftVo();
+        serviceDriftVo.setServiceId(drift.getServiceId());
+        serviceDriftVo.setStatus(drift.getStatus());
+        serviceDriftVo.setCheckTime(drift.getCheckTime());
+        serviceDriftVo.setNextCheckTime(drift.getNextCheckTime());
+        serviceDriftVo.setChanges(drift.getChanges());
+        serviceDriftVo.setError(drift.getError());
+        return serviceDriftVo;
+    }
+
+    private void scheduleServices(Date now) {
+        Map<UUID, Csp> services = storage.findUnscheduledServices(CHECKED_STATES,
+                maximumConcurrency * 100);
+        List<ServiceDriftEntity> drifts = new ArrayList<>(services.size());
+        for (Map.Entry<UUID, Csp> service : services.entrySet()) {
+            ServiceDriftEntity drift = new ServiceDriftEntity();
+            drift.setServiceId(service.getKey());
+            drift.setCsp(service.getValue());
+            drift.setStatus(DriftStatus.NOT_CHECKED);
+            drift.setNextCheckTime(new Date(now.getTime()
+                    + Math.floorMod(service.getKey().hashCode(), periodMillis)));
+            drifts.add(drift);
+        }
+        if (!drifts.isEmpty()) {
+            storage.storeAll(drifts);
+            log.info("Scheduled the drift checks of {} services.", drifts.size());
+        }
+    }
+
+    private void startChecks(Date now) {
+        if (checkSlots.availablePermits() == 0) {
+            return;
+        }
+        for (ServiceDriftEntity drift : storage.findDue(now, maximumConcurrency * 10)) {
+            if (!checkSlots.tryAcquire()) {
+                return;
+            }
+            // services of a csp at its rate limit stay due for the next scan.
+            if (!getRateLimiter(drift.getCsp()).tryAcquire() || !storage.claim(
+                    drift.getServiceId(), now, new Date(now.getTime() + leaseMillis))) {
+                checkSlots.release();
+                continue;
+            }
+            try {
+                checkExecutor.execute(() -> {
+                    try {
+                        check(drift);
+                    } finally {
+                        checkSlots.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // shutting down, the service is checked when the lease ends.
+                checkSlots.release();
+                return;
+            }
+        }
+    }
+
+    private void check(ServiceDriftEntity drift) {
+        long start = System.nanoTime();
+        Date checkTime = new Date();
+        try {
+            DeployPlanVo plan = orchestratorService.detectServiceDrift(drift.getServiceId());
+            if (Objects.isNull(plan)) {
+                log.info("Service {} is no longer deployed, stop its drift checks.",
+                        drift.getServiceId());
+                storage.delete(drift.getServiceId());
+                return;
+            }
+            drift.setChanges(plan.getResourceChanges());
+            drift.setError(null);
+            if (plan.getResourceChanges().isEmpty()) {
+                drift.setStatus(DriftStatus.IN_SYNC);
+            } else {
+                drift.setStatus(DriftStatus.DRIFTED);
+                driftedServices.increment();
+                driftedResources.increment(plan.getResourceChanges().size());
+                log.warn("Service {} drifted, {} resources changed outside of the deployment.",
+                        drift.getServiceId(), plan.getResourceChanges().size());
+            }
+        } catch (ServiceStateConflictException e) {
+            // the claim of the check holds the service until its lease ends, then it's retried.
+            log.info("Skipped the drift check of service {}: {}", drift.getServiceId(),
+                    e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Failed to check service {} for drift.", drift.getServiceId(), e);
+            failedChecks.increment();
+            drift.setStatus(DriftStatus.FAILED);
+            drift.setError(StringUtils.abbreviate(e.getMessage(), MAXIMUM_ERROR_LENGTH));
+        }
+        checkDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        drift.setCheckTime(checkTime);
+        drift.setNextCheckTime(new Date(checkTime.getTime() + periodMillis));
+        try {
+            storage.store(drift);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store the drift of service {}, check again when the lease "
+                    + "ends.", drift.getServiceId(), e);
+        }
+    }
+
+    private RateLimiter getRateLimiter(Csp csp) {
+        return rateLimiters.computeIfAbsent(csp, key -> RateLimiter.create(checksPerSecond));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.drift;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Interface for persist of the drift checks of the deployed services.
+ */
+public interface ServiceDriftStorage {
+
+    /**
+     * Store the drift records.
+     *
+     * @param drifts the drift records.
+     */
+    void storeAll(List<ServiceDriftEntity> drifts);
+
+    /**
+     * Store the drift record.
+     *
+     * @param drift the drift record.
+     */
+    void store(ServiceDriftEntity drift);
+
+    /**
+     * Get the drift record of the deployed service.
+     *
+     * @param serviceId id of the deployed service.
+     * @return the drift record, null if the service is not scheduled for drift checks.
+     */
+    ServiceDriftEntity findByServiceId(UUID serviceId);
+
+    /**
+     * Find the deployed services in the states which are not scheduled for drift checks.
+     *
+     * @param states states of the services.
+     * @param limit  maximum number of services.
+     * @return the csp of the services by their id.
+     */
+    Map<UUID, Csp> findUnscheduledServices(Collection<ServiceState> states, int limit);
+
+    /**
+     * Find the drift records due for a check, the longest due first.
+     *
+     * @param now   the current time.
+     * @param limit maximum number of records.
+     * @return the due records.
+     */
+    List<ServiceDriftEntity> findDue(Date now, int limit);
+
+    /**
+     * Claim the drift record if it is still due, so that no other node checks the service
+     * until the lease ends.
+     *
+     * @param serviceId  id of the deployed service.
+     * @param now        the current time.
+     * @param leaseUntil end of the lease.
+     * @return true if the record was claimed.
+     */
+    boolean claim(UUID serviceId, Date now, Date leaseUntil);
+
+    /**
+     * Delete the drift record of the deployed service.
+     *
+     * @param serviceId id of the deployed service.
+     */
+    void delete(UUID serviceId);
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.drift.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftEntity;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftRepository;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.orchestrator.drift.ServiceDriftStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ServiceDriftStorage.
+ */
+@Component
+public class DatabaseServiceDriftStorage implements ServiceDriftStorage {
+
+    private final ServiceDriftRepository repository;
+
+    @Autowired
+    public DatabaseServiceDriftStorage(ServiceDriftRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void storeAll(List<ServiceDriftEntity> drifts) {
+        repository.saveAll(drifts);
+    }
+
+    @Override
+    public void store(ServiceDriftEntity drift) {
+        repository.save(drift);
+    }
+
+    @Override
+    public ServiceDriftEntity findByServiceId(UUID serviceId) {
+        return repository.findById(serviceId).orElse(null);
+    }
+
+    @Override
+    public Map<UUID, Csp> findUnscheduledServices(Collection<ServiceState> states, int limit) {
+        Map<UUID, Csp> services = new LinkedHashMap<>();
+        for (Object[] service : repository.findUnscheduledServices(states,
+                PageRequest.of(0, limit))) {
+            services.put((UUID) service[0], (Csp) service[1]);
+        }
+        return services;
+    }
+
+    @Override
+    public List<ServiceDriftEntity> findDue(Date now, int limit) {
+        return repository.findDue(now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(UUID serviceId, Date now, Date leaseUntil) {
+        return repository.claim(serviceId, now, leaseUntil) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void delete(UUID serviceId) {
+        repository.findById(serviceId).ifPresent(repository::delete);
+    }
+}
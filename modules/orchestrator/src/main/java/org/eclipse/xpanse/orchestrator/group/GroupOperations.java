@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Steps shared by the service groups and the composite services, which deploy several services
+ * as one with a failure policy.
+ */
+@Slf4j
+public final class GroupOperations {
+
+    private GroupOperations() {
+    }
+
+    /**
+     * Result of the deployments of the services of a group with its failure policy.
+     */
+    public enum DeploymentResult {
+        SUCCESS,
+        PARTIAL_SUCCESS,
+        FAILED,
+        ROLLBACK
+    }
+
+    /**
+     * Get the result of the deployments of the services. The deployments not started have no
+     * state.
+     *
+     * @param states        the states of the services.
+     * @param failurePolicy the failure policy of the group.
+     * @return SUCCESS if all services are deployed, ROLLBACK if a deployment failed with the
+     *         ALL_OR_NOTHING policy, else PARTIAL_SUCCESS or FAILED.
+     */
+    public static DeploymentResult getDeploymentResult(List<ServiceState> states,
+            GroupFailurePolicy failurePolicy) {
+        long succeeded = states.stream().filter(ServiceState.DEPLOY_SUCCESS::equals).count();
+        if (succeeded == states.size()) {
+            return DeploymentResult.SUCCESS;
+        }
+        if (failurePolicy == GroupFailurePolicy.ALL_OR_NOTHING) {
+            return DeploymentResult.ROLLBACK;
+        }
+        return succeeded > 0 ? DeploymentResult.PARTIAL_SUCCESS : DeploymentResult.FAILED;
+    }
+
+    /**
+     * Check all services of the group were destroyed.
+     *
+     * @param states the states of the services.
+     * @return true if all services are destroyed.
+     */
+    public static boolean isDestroyed(List<ServiceState> states) {
+        return states.stream().allMatch(ServiceState.DESTROY_SUCCESS::equals);
+    }
+
+    /**
+     * Run the action with the states of the services once all operations ended. An operation
+     * which failed or didn't start has no state.
+     *
+     * @param results the results of the operations.
+     * @param action  the action.
+     */
+    public static void whenAllDone(Collection<CompletableFuture<ServiceState>> results,
+            Consumer<List<ServiceState>> action) {
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).whenComplete(
+                (ignored, e) -> {
+                    try {
+                        action.accept(results.stream()
+                                .map(result -> result.getNow(null)).toList());
+                    } catch (RuntimeException ex) {
+                        log.error("Failed to finish the operations of the group.", ex);
+                    }
+                });
+    }
+}
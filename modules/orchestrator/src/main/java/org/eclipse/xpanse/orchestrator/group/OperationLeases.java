@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases of the groups whose operation runs on this node. The node renews the leases until
+ * the operations end, a group whose lease ended was interrupted, e.g. by a restart.
+ */
+public class OperationLeases {
+
+    private final long leaseMillis;
+    private final Set<UUID> held = ConcurrentHashMap.newKeySet();
+
+    public OperationLeases(long leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Hold or release the lease of the group.
+     *
+     * @param id   id of the group.
+     * @param hold true while the operation of the group runs.
+     * @return the end of the lease, null if it was released.
+     */
+    public Date update(UUID id, boolean hold) {
+        if (!hold) {
+            held.remove(id);
+            return null;
+        }
+        held.add(id);
+        return getLeaseExpireTime();
+    }
+
+    /**
+     * Check this node holds the lease of the group.
+     *
+     * @param id id of the group.
+     * @return true if the lease is held.
+     */
+    public boolean isHeld(UUID id) {
+        return Objects.nonNull(id) && held.contains(id);
+    }
+
+    /**
+     * Get the groups whose lease this node holds.
+     *
+     * @return the ids of the groups.
+     */
+    public Set<UUID> getHeld() {
+        return Set.copyOf(held);
+    }
+
+    /**
+     * Get the end of a lease starting now.
+     *
+     * @return the end of the lease.
+     */
+    public Date getLeaseExpireTime() {
+        return new Date(System.currentTimeMillis() + leaseMillis);
+    }
+}
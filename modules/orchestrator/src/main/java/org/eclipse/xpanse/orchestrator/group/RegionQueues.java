@@ -0,0 +1,111 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+
+/**
+ * Runs the operations of the services with at most a number of operations running at once per
+ * region, as the quotas of the provider apply per region. The operations over the limit wait in
+ * the queue of their region without holding a thread, and start once an operation of the
+ * region ended.
+ */
+class RegionQueues {
+
+    private final int regionConcurrency;
+    private final Executor executor;
+    private final Map<String, RegionQueue> queues = new ConcurrentHashMap<>();
+
+    RegionQueues(int regionConcurrency, Executor executor) {
+        this.regionConcurrency = regionConcurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Run the operation once the region has a free slot.
+     *
+     * @param region    the region of the service.
+     * @param operation the operation.
+     * @return the state of the service after the operation.
+     */
+    CompletableFuture<ServiceState> submit(String region, Supplier<ServiceState> operation) {
+        Task task = new Task(operation);
+        queues.computeIfAbsent(region, key -> new RegionQueue()).submit(task);
+        return task.result;
+    }
+
+    private class RegionQueue {
+
+        private final Deque<Task> waiting = new ArrayDeque<>();
+        private int running;
+
+        void submit(Task task) {
+            synchronized (this) {
+                if (running >= regionConcurrency) {
+                    waiting.add(task);
+                    return;
+                }
+                running++;
+            }
+            start(task);
+        }
+
+        private void start(Task task) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        startNext();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                task.result.completeExceptionally(e);
+                startNext();
+            }
+        }
+
+        private void startNext() {
+            Task next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (Objects.isNull(next)) {
+                    running--;
+                    return;
+                }
+            }
+            start(next);
+        }
+    }
+
+    private static class Task {
+
+        private final Supplier<ServiceState> operation;
+        private final CompletableFuture<ServiceState> result = new CompletableFuture<>();
+
+        Task(Supplier<ServiceState> operation) {
+            this.operation = operation;
+        }
+
+        void run() {
+            try {
+                result.complete(operation.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.group.ServiceGroupEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.resource.Region;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.MultiRegionCreateRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceGroupVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deploys the same service in several regions of the provider with one request, as a group
+ * with an aggregate state.
+ *
+ * <p>The registered service is looked up and the properties are validated once for all
+ * regions, then the regions are deployed in parallel. The deployments running at once in a
+ * region are limited across all groups, as the quotas of the provider apply per region. With
+ * the ALL_OR_NOTHING policy a failed region stops the regions not started yet, and the
+ * services of the started regions are destroyed once their deployments ended.
+ *
+ * <p>The node running the deployments or the rollback holds a lease of the group. When it
+ * stops renewing the lease, e.g. as it was restarted, the interrupted operation fails.
+ */
+@Slf4j
+@Component
+public class ServiceGroupService {
+
+    // the interrupted operations end in a failed state.
+    private static final Map<ServiceGroupState, ServiceGroupState> INTERRUPTED_STATES = Map.of(
+            ServiceGroupState.DEPLOYING, ServiceGroupState.DEPLOY_FAILED,
+            ServiceGroupState.ROLLING_BACK, ServiceGroupState.ROLLBACK_FAILED);
+    private static final int EXPIRED_LEASES_PAGE_SIZE = 100;
+
+    private final OrchestratorService orchestratorService;
+    private final ServiceGroupStorage storage;
+    private final RegionQueues regionQueues;
+    private final OperationLeases leases;
+
+    /**
+     * Constructor of the ServiceGroupService.
+     *
+     * @param orchestratorService service deploying the services.
+     * @param storage             storage of the groups.
+     * @param regionConcurrency   maximum number of deployments running at once in a region.
+     * @param groupExecutor       executor deploying and destroying the services.
+     * @param leaseMillis         time a node holds a running operation without renewing it.
+     */
+    @Autowired
+    public ServiceGroupService(OrchestratorService orchestratorService,
+            ServiceGroupStorage storage,
+            @Value("${xpanse.service.group.region-concurrency:2}") int regionConcurrency,
+            @Qualifier("serviceGroupExecutor") Executor groupExecutor,
+            @Value("${xpanse.service.group.lease-ms:300000}") long leaseMillis) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.regionQueues = new RegionQueues(regionConcurrency, groupExecutor);
+        this.leases = new OperationLeases(leaseMillis);
+    }
+
+    /**
+     * Deploy the service in every region of the request.
+     *
+     * @param groupRequest the request of the service and the regions.
+     * @return the group, with the id of the service per region.
+     * @throws IllegalArgumentException if the request is invalid in a region, then no service
+     *                                  is deployed.
+     */
+    public ServiceGroupVo deployServices(MultiRegionCreateRequest groupRequest) {
+        List<DeployTask> deployTasks = new ArrayList<>();
+        for (String region : new TreeSet<>(groupRequest.getRegions())) {
+            CreateRequest request = new CreateRequest();
+            BeanUtils.copyProperties(groupRequest.getRequest(), request);
+            UUID id = UUID.randomUUID();
+            request.setId(id);
+            request.setRegion(region);
+            DeployTask deployTask = new DeployTask();
+            deployTask.setId(id);
+            deployTask.setCreateRequest(request);
+            deployTasks.add(deployTask);
+        }
+        final List<Deployment> deployments = orchestratorService.getDeployHandlers(deployTasks);
+        checkRegions(deployTasks.get(0).getOcl(), groupRequest.getRegions());
+        ServiceGroupEntity group = new ServiceGroupEntity();
+        group.setId(UUID.randomUUID());
+        group.setCreateTime(new Date());
+        group.setFailurePolicy(Objects.isNull(groupRequest.getFailurePolicy())
+                ? GroupFailurePolicy.BEST_EFFORT : groupRequest.getFailurePolicy());
+        group.setState(ServiceGroupState.DEPLOYING);
+        Map<String, UUID> serviceIds = new LinkedHashMap<>();
+        for (DeployTask deployTask : deployTasks) {
+            serviceIds.put(deployTask.getCreateRequest().getRegion(), deployTask.getId());
+        }
+        group.setServiceIds(serviceIds);
+        group.setLeaseExpireTime(leases.update(group.getId(), true));
+        storage.store(group);
+        log.info("Group {} deploys the service in regions {}.", group.getId(),
+                serviceIds.keySet());
+        startDeployments(group, deployTasks, deployments);
+        return getServiceGroupVo(group, Map.of());
+    }
+
+    /**
+     * Get the aggregate state of the group and the state of the service in every region.
+     *
+     * @param id id of the group.
+     * @return the group.
+     */
+    public ServiceGroupVo getServiceGroup(UUID id) {
+        ServiceGroupEntity group = storage.findGroupById(id);
+        if (Objects.isNull(group)) {
+            throw new EntityNotFoundException(String.format("Group with id %s not found.", id));
+        }
+        Map<UUID, ServiceState> states =
+                orchestratorService.getServiceStates(group.getServiceIds().values());
+        Map<String, ServiceState> serviceStates = new TreeMap<>();
+        group.getServiceIds().forEach((region, serviceId) -> {
+            if (states.containsKey(serviceId)) {
+                serviceStates.put(region, states.get(serviceId));
+            }
+        });
+        return getServiceGroupVo(group, serviceStates);
+    }
+
+    /**
+     * Extend the leases of the groups operated by this node.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.group.lease-renew-interval-ms:60000}")
+    public void renewGroupLeases() {
+        Set<UUID> held = leases.getHeld();
+        if (held.isEmpty()) {
+            return;
+        }
+        try {
+            storage.renewLeases(held, INTERRUPTED_STATES.keySet(), leases.getLeaseExpireTime());
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew the leases of the groups.", e);
+        }
+    }
+
+    /**
+     * Fail the operations of the groups whose node stopped renewing their lease, e.g. after a
+     * restart. The services of the regions keep the state of their own operation.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.service.group.lease-recovery-interval-ms:60000}")
+    public void failInterruptedGroups() {
+        for (UUID id : storage.findExpiredLeases(INTERRUPTED_STATES.keySet(),
+                EXPIRED_LEASES_PAGE_SIZE)) {
+            ServiceGroupEntity group = storage.findGroupById(id);
+            if (Objects.isNull(group) || leases.isHeld(id)
+                    || !INTERRUPTED_STATES.containsKey(group.getState())) {
+                continue;
+            }
+            ServiceGroupState failedState = INTERRUPTED_STATES.get(group.getState());
+            if (storage.updateExpiredState(id, group.getState(), failedState)) {
+                log.warn("Lease of group {} in state {} expired, it is {}.", id,
+                        group.getState(), failedState);
+            }
+        }
+    }
+
+    private void checkRegions(Ocl ocl, Set<String> regions) {
+        Set<String> serviceRegions = ocl.getCloudServiceProvider().getRegions().stream()
+                .map(Region::getName).collect(Collectors.toSet());
+        for (String region : regions) {
+            if (!serviceRegions.contains(region)) {
+                throw new IllegalArgumentException(String.format(
+                        "Region %s is not a region of the service, the regions are %s.",
+                        region, serviceRegions));
+            }
+        }
+    }
+
+    private void startDeployments(ServiceGroupEntity group, List<DeployTask> deployTasks,
+            List<Deployment> deployments) {
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<ServiceState>> results = new ArrayList<>(deployTasks.size());
+        for (int i = 0; i < deployTasks.size(); i++) {
+            DeployTask deployTask = deployTasks.get(i);
+            Deployment deployment = deployments.get(i);
+            results.add(runInRegion(deployTask, () -> {
+                if (failed.get() && group.getFailurePolicy()
+                        == GroupFailurePolicy.ALL_OR_NOTHING) {
+                    log.info("Group {} skips region {} after a failed region.", group.getId(),
+                            deployTask.getCreateRequest().getRegion());
+                    return null;
+                }
+                ServiceState state = orchestratorService.deployService(deployment, deployTask);
+                if (state != ServiceState.DEPLOY_SUCCESS) {
+                    failed.set(true);
+                }
+                return state;
+            }, ServiceState.DEPLOY_FAILED));
+        }
+        GroupOperations.whenAllDone(results,
+                states -> finishDeployments(group, deployTasks, states));
+    }
+
+    private void finishDeployments(ServiceGroupEntity group, List<DeployTask> deployTasks,
+            List<ServiceState> states) {
+        switch (GroupOperations.getDeploymentResult(states, group.getFailurePolicy())) {
+            case SUCCESS -> updateState(group, ServiceGroupState.DEPLOY_SUCCESS);
+            case PARTIAL_SUCCESS -> updateState(group, ServiceGroupState.PARTIAL_SUCCESS);
+            case FAILED -> updateState(group, ServiceGroupState.DEPLOY_FAILED);
+            default -> rollback(group, deployTasks, states);
+        }
+    }
+
+    private void rollback(ServiceGroupEntity group, List<DeployTask> deployTasks,
+            List<ServiceState> states) {
+        updateState(group, ServiceGroupState.ROLLING_BACK);
+        List<CompletableFuture<ServiceState>> results = new ArrayList<>();
+        for (int i = 0; i < deployTasks.size(); i++) {
+            if (Objects.isNull(states.get(i))) {
+                continue;
+            }
+            // failed deployments may have created resources too.
+            DeployTask destroyTask = new DeployTask();
+            destroyTask.setId(deployTasks.get(i).getId());
+            destroyTask.setCreateRequest(deployTasks.get(i).getCreateRequest());
+            results.add(runInRegion(destroyTask,
+                    () -> orchestratorService.destroyService(
+                            orchestratorService.getDestroyHandler(destroyTask), destroyTask),
+                    ServiceState.DESTROY_FAILED));
+        }
+        GroupOperations.whenAllDone(results, destroyed -> updateState(group,
+                GroupOperations.isDestroyed(destroyed)
+                        ? ServiceGroupState.ROLLED_BACK : ServiceGroupState.ROLLBACK_FAILED));
+    }
+
+    private CompletableFuture<ServiceState> runInRegion(DeployTask deployTask,
+            Supplier<ServiceState> operation, ServiceState failedState) {
+        return regionQueues.submit(deployTask.getCreateRequest().getRegion(), operation)
+                .exceptionally(e -> {
+                    log.error("Operation of service {} in region {} failed.", deployTask.getId(),
+                            deployTask.getCreateRequest().getRegion(), e);
+                    return failedState;
+                });
+    }
+
+    private void updateState(ServiceGroupEntity group, ServiceGroupState state) {
+        group.setState(state);
+        group.setLeaseExpireTime(leases.update(group.getId(),
+                INTERRUPTED_STATES.containsKey(state)));
+        storage.store(group);
+        log.info("Group {} is {}.", group.getId(), state);
+    }
+
+    private ServiceGroupVo getServiceGroupVo(ServiceGroupEntity group,
+            Map<String, ServiceState> serviceStates) {
+        ServiceGroupVo groupVo = new ServiceGroupVo();
+        groupVo.setId(group.getId());
+        groupVo.setCreateTime(group.getCreateTime());
+        groupVo.setFailurePolicy(group.getFailurePolicy());
+        groupVo.setState(group.getState());
+        groupVo.setServiceIds(new TreeMap<>(group.getServiceIds()));
+        groupVo.setServiceStates(serviceStates);
+        return groupVo;
+    }
+}
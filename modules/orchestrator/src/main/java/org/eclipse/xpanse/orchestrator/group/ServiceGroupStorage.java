@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.group.ServiceGroupEntity;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+
+/**
+ * Interface for persist of the service groups.
+ */
+public interface ServiceGroupStorage {
+
+    /**
+     * Store the group.
+     *
+     * @param group the group.
+     */
+    void store(ServiceGroupEntity group);
+
+    /**
+     * Find the group by its id.
+     *
+     * @param id id of the group.
+     * @return the group, null if not found.
+     */
+    ServiceGroupEntity findGroupById(UUID id);
+
+    /**
+     * Extend the leases of the groups still in one of the states.
+     *
+     * @param ids             ids of the groups.
+     * @param states          the leased states.
+     * @param leaseExpireTime the new end of the leases.
+     */
+    void renewLeases(Collection<UUID> ids, Collection<ServiceGroupState> states,
+            Date leaseExpireTime);
+
+    /**
+     * Find the groups in one of the states whose lease ended, e.g. as their node was
+     * restarted.
+     *
+     * @param states the leased states.
+     * @param limit  maximum number of groups.
+     * @return the ids of the groups.
+     */
+    List<UUID> findExpiredLeases(Collection<ServiceGroupState> states, int limit);
+
+    /**
+     * Change the state of the group if it is still in the expected state and its lease ended,
+     * so only one node ends the interrupted operation.
+     *
+     * @param id       id of the group.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @return true if the state was changed.
+     */
+    boolean updateExpiredState(UUID id, ServiceGroupState expected, ServiceGroupState state);
+}
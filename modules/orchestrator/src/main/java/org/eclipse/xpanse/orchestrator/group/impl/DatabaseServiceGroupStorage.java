@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.group.ServiceGroupEntity;
+import org.eclipse.xpanse.modules.database.group.ServiceGroupRepository;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+import org.eclipse.xpanse.orchestrator.group.ServiceGroupStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ServiceGroupStorage.
+ */
+@Component
+public class DatabaseServiceGroupStorage implements ServiceGroupStorage {
+
+    private final ServiceGroupRepository repository;
+
+    @Autowired
+    public DatabaseServiceGroupStorage(ServiceGroupRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(ServiceGroupEntity group) {
+        repository.save(group);
+    }
+
+    @Override
+    public ServiceGroupEntity findGroupById(UUID id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void renewLeases(Collection<UUID> ids, Collection<ServiceGroupState> states,
+            Date leaseExpireTime) {
+        repository.renewLeases(ids, states, leaseExpireTime);
+    }
+
+    @Override
+    public List<UUID> findExpiredLeases(Collection<ServiceGroupState> states, int limit) {
+        return repository.findExpiredLeases(states, new Date(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateExpiredState(UUID id, ServiceGroupState expected,
+            ServiceGroupState state) {
+        return repository.updateExpiredState(id, expected, state, new Date()) > 0;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.idempotency;
+
+import java.util.Date;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyEntity;
+
+/**
+ * Interface for persist of the idempotency keys.
+ */
+public interface IdempotencyKeyStorage {
+
+    /**
+     * Find the idempotency key.
+     *
+     * @param key the idempotency key.
+     * @return the stored key, null if not found.
+     */
+    IdempotencyKeyEntity findByKey(String key);
+
+    /**
+     * Insert the new idempotency key, replacing the key if it expired.
+     *
+     * @param idempotencyKey the new key.
+     * @return false if the key is already stored and not expired.
+     */
+    boolean claim(IdempotencyKeyEntity idempotencyKey);
+
+    /**
+     * Store the claimed idempotency key.
+     *
+     * @param idempotencyKey the key.
+     */
+    void store(IdempotencyKeyEntity idempotencyKey);
+
+    /**
+     * Delete the idempotency key.
+     *
+     * @param key the idempotency key.
+     */
+    void delete(String key);
+
+    /**
+     * Delete the expired idempotency keys.
+     *
+     * @param now the current time.
+     * @return the number of deleted keys.
+     */
+    int deleteExpired(Date now);
+}
@@ -0,0 +1,216 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.IdempotentOperation;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes the deploy and destroy requests safe to retry.
+ *
+ * <p>A request with an idempotency key claims the key in the database before its task starts,
+ * a replay of the request while the key is stored returns the id of the original task instead
+ * of starting another one. Independent of the keys, a destroy of a service whose destroy is
+ * already queued or running is coalesced with it.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    private static final int MAXIMUM_KEY_LENGTH = 255;
+
+    private final OrchestratorService orchestratorService;
+    private final IdempotencyKeyStorage storage;
+    private final ObjectWriter requestWriter;
+    private final Executor taskExecutor;
+    private final long ttlMillis;
+    private final Set<UUID> queuedDestroys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor of the IdempotencyService.
+     *
+     * @param orchestratorService service destroying the services.
+     * @param storage             storage of the idempotency keys.
+     * @param objectMapper        mapper of the requests to hash.
+     * @param taskExecutor        executor of the deployments and destroys.
+     * @param ttlMinutes          time an idempotency key is stored.
+     */
+    @Autowired
+    public IdempotencyService(OrchestratorService orchestratorService,
+            IdempotencyKeyStorage storage, ObjectMapper objectMapper,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            @Value("${xpanse.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        // equal requests hash equally whatever the order of their properties.
+        this.requestWriter = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.taskExecutor = taskExecutor;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    /**
+     * Start the task of the request once per idempotency key. A request without a key always
+     * starts the task.
+     *
+     * @param idempotencyKey the idempotency key of the request, may be null.
+     * @param operation      the operation of the request.
+     * @param request        the request, a replay must send the same request.
+     * @param task           starts the task and returns its id.
+     * @return the id of the task, of the original task for a replay.
+     * @throws IllegalArgumentException        if the key was used with another request.
+     * @throws IdempotencyKeyConflictException if the original task is still starting.
+     */
+    public UUID execute(String idempotencyKey, IdempotentOperation operation, Object request,
+            Supplier<UUID> task) {
+        if (StringUtils.isEmpty(idempotencyKey)) {
+            return task.get();
+        }
+        if (idempotencyKey.length() > MAXIMUM_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format(
+                    "Idempotency key is longer than %d characters.", MAXIMUM_KEY_LENGTH));
+        }
+        String requestHash = getRequestHash(operation, request);
+        IdempotencyKeyEntity stored = storage.findByKey(idempotencyKey);
+        if (Objects.nonNull(stored) && stored.getExpireTime().after(new Date())) {
+            return replay(stored, requestHash);
+        }
+        IdempotencyKeyEntity claimed = new IdempotencyKeyEntity();
+        claimed.setKey(idempotencyKey);
+        claimed.setOperation(operation);
+        claimed.setRequestHash(requestHash);
+        claimed.setExpireTime(new Date(System.currentTimeMillis() + ttlMillis));
+        if (!storage.claim(claimed)) {
+            // claimed by a concurrent request.
+            return replay(storage.findByKey(idempotencyKey), requestHash);
+        }
+        UUID taskId;
+        try {
+            taskId = task.get();
+        } catch (RuntimeException e) {
+            // the task didn't start, a retry may start it.
+            storage.delete(idempotencyKey);
+            throw e;
+        }
+        claimed.setTaskId(taskId);
+        storage.store(claimed);
+        return taskId;
+    }
+
+    /**
+     * Start the destroy of the service, unless a destroy of the service is already queued on
+     * this node or running on any node.
+     *
+     * @param serviceId id of the service.
+     * @return true if the destroy was started, false if it was coalesced with a queued one.
+     */
+    public boolean destroyOnce(UUID serviceId) {
+        ServiceState state = orchestratorService.getServiceStates(List.of(serviceId))
+                .get(serviceId);
+        if (state == ServiceState.DESTROYING || !queuedDestroys.add(serviceId)) {
+            log.info("Destroy of service {} is already queued.", serviceId);
+            return false;
+        }
+        try {
+            DeployTask deployTask = new DeployTask();
+            deployTask.setId(serviceId);
+            Deployment deployment = orchestratorService.getDestroyHandler(deployTask);
+            taskExecutor.execute(() -> {
+                try {
+                    orchestratorService.destroyService(deployment, deployTask);
+                } finally {
+                    queuedDestroys.remove(serviceId);
+                }
+            });
+            return true;
+        } catch (ServiceStateConflictException e) {
+            queuedDestroys.remove(serviceId);
+            // a destroy started by another node meanwhile is coalesced too.
+            if (orchestratorService.getServiceStates(List.of(serviceId)).get(serviceId)
+                    == ServiceState.DESTROYING) {
+                log.info("Destroy of service {} is already running.", serviceId);
+                return false;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            queuedDestroys.remove(serviceId);
+            throw e;
+        }
+    }
+
+    /**
+     * Delete the expired idempotency keys.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpiredKeys() {
+        try {
+            int deleted = storage.deleteExpired(new Date());
+            if (deleted > 0) {
+                log.info("Deleted {} expired idempotency keys.", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete the expired idempotency keys.", e);
+        }
+    }
+
+    private UUID replay(IdempotencyKeyEntity stored, String requestHash) {
+        if (Objects.isNull(stored)) {
+            throw new IdempotencyKeyConflictException(
+                    "Request with the idempotency key is still starting, retry later.");
+        }
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(String.format(
+                    "Idempotency key %s was used with another request.", stored.getKey()));
+        }
+        if (Objects.isNull(stored.getTaskId())) {
+            throw new IdempotencyKeyConflictException(String.format(
+                    "Request with idempotency key %s is still starting, retry later.",
+                    stored.getKey()));
+        }
+        log.info("Replayed the {} request with idempotency key {}, task {}.",
+                stored.getOperation(), stored.getKey(), stored.getTaskId());
+        return stored.getTaskId();
+    }
+
+    private String getRequestHash(IdempotentOperation operation, Object request) {
+        try {
+            return Hashing.sha256().newHasher()
+                    .putString(operation.name(), StandardCharsets.UTF_8)
+                    .putBytes(requestWriter.writeValueAsBytes(request))
+                    .hash().toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request can't be hashed.", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.idempotency.impl;
+
+import java.util.Date;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyEntity;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyRepository;
+import org.eclipse.xpanse.orchestrator.idempotency.IdempotencyKeyStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the IdempotencyKeyStorage.
+ */
+@Component
+public class DatabaseIdempotencyKeyStorage implements IdempotencyKeyStorage {
+
+    private final IdempotencyKeyRepository repository;
+
+    @Autowired
+    public DatabaseIdempotencyKeyStorage(IdempotencyKeyRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public IdempotencyKeyEntity findByKey(String key) {
+        return repository.findById(key).orElse(null);
+    }
+
+    @Override
+    public boolean claim(IdempotencyKeyEntity idempotencyKey) {
+        Date now = new Date();
+        try {
+            repository.findById(idempotencyKey.getKey())
+                    .filter(stored -> !stored.getExpireTime().after(now))
+                    .ifPresent(repository::delete);
+        } catch (OptimisticLockingFailureException e) {
+            // replaced or deleted concurrently, only one of the inserts succeeds.
+        }
+        try {
+            // without a version the key is persisted, a key stored concurrently fails the insert.
+            repository.saveAndFlush(idempotencyKey);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void store(IdempotencyKeyEntity idempotencyKey) {
+        repository.save(idempotencyKey);
+    }
+
+    @Override
+    @Transactional
+    public void delete(String key) {
+        repository.findById(key).ifPresent(repository::delete);
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Date now) {
+        return repository.deleteExpired(now);
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceEntity;
+import org.eclipse.xpanse.modules.database.pool.WarmPoolEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.TerraformExecState;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.modules.models.service.WarmPoolRequest;
+import org.eclipse.xpanse.modules.models.view.WarmPoolVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps instances of popular service flavors deployed ahead of the create requests, so that a
+ * matching create request is assigned a deployed instance at once instead of waiting for the
+ * deployment.
+ *
+ * <p>A pool is configured per service flavor, region and properties. A create request matches
+ * a pool when it asks for the same service, flavor and region with the same properties, and
+ * the instance was deployed with the currently registered Ocl. The instance is deployed in the
+ * workspace of its id, so the assigned service takes over the id of the instance.
+ *
+ * <p>The pools are refilled in the background: every node checks the pools periodically and
+ * claims the refill of a pool with a lease, the claimed pool is topped up to its size and its
+ * expired instances are destroyed. Instances unassigned for longer than the maximum idle age
+ * of the pool, deployed with an outdated Ocl, or stuck in a deployment are destroyed.
+ */
+@Slf4j
+@Component
+public class WarmPoolService {
+
+    private static final String METRIC_NAME = "xpanse.warm-pool";
+    private static final int CLAIM_CANDIDATES = 5;
+
+    private final OrchestratorService orchestratorService;
+    private final WarmPoolStorage storage;
+    private final boolean enabled;
+    private final long maxIdleMinutes;
+    private final long leaseMillis;
+    private final long deployTimeoutMillis;
+    private final long retryDelayMillis;
+    private final Executor instanceExecutor;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expired;
+
+    /**
+     * Constructor of the WarmPoolService.
+     *
+     * @param orchestratorService  service deploying the instances.
+     * @param storage              storage of the pools and their instances.
+     * @param meterRegistry        registry of the metrics.
+     * @param enabled              whether the pools are refilled and assigned.
+     * @param maxIdleMinutes       default maximum idle age of the instances of a pool.
+     * @param leaseMillis          time a node refills a pool before another node may.
+     * @param instanceExecutor     executor deploying and destroying the instances.
+     * @param deployTimeoutMinutes time after which a deploying instance is considered stuck.
+     * @param retryDelayMillis     time before a failed instance is destroyed and replaced.
+     */
+    @Autowired
+    public WarmPoolService(OrchestratorService orchestratorService, WarmPoolStorage storage,
+            MeterRegistry meterRegistry,
+            @Value("${xpanse.warm-pool.enabled:true}") boolean enabled,
+            @Value("${xpanse.warm-pool.max-idle-minutes:1440}") long maxIdleMinutes,
+            @Value("${xpanse.warm-pool.lease-ms:60000}") long leaseMillis,
+            @Qualifier("warmPoolExecutor") Executor instanceExecutor,
+            @Value("${xpanse.warm-pool.deploy-timeout-minutes:120}") long deployTimeoutMinutes,
+            @Value("${xpanse.warm-pool.retry-delay-ms:300000}") long retryDelayMillis) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.enabled = enabled;
+        this.maxIdleMinutes = maxIdleMinutes;
+        this.leaseMillis = leaseMillis;
+        this.deployTimeoutMillis = TimeUnit.MINUTES.toMillis(deployTimeoutMinutes);
+        this.retryDelayMillis = retryDelayMillis;
+        this.instanceExecutor = instanceExecutor;
+        this.hits = Counter.builder(METRIC_NAME + ".hits")
+                .description("Create requests assigned a warm instance.")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME + ".misses")
+                .description("Create requests matching a warm pool without a ready instance.")
+                .register(meterRegistry);
+        this.expired = Counter.builder(METRIC_NAME + ".expired")
+                .description("Warm instances destroyed after the maximum idle age.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Configure the pool of the request. A pool with the same request is updated.
+     *
+     * @param poolRequest the request of the instances and the size of the pool.
+     * @return the pool.
+     */
+    public WarmPoolVo storePool(WarmPoolRequest poolRequest) {
+        CreateRequest request = new CreateRequest();
+        BeanUtils.copyProperties(poolRequest.getRequest(), request);
+        request.setId(null);
+        request.setOcl(null);
+        request.setName(StringUtils.lowerCase(request.getName()));
+        request.setVersion(StringUtils.lowerCase(request.getVersion()));
+        try {
+            orchestratorService.getDeployHandler(getDeployTask(UUID.randomUUID(), request));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Request of the warm pool is invalid: %s", e.getMessage()), e);
+        }
+        WarmPoolEntity pool = findPool(request);
+        if (Objects.isNull(pool)) {
+            pool = new WarmPoolEntity();
+            pool.setId(UUID.randomUUID());
+            pool.setCategory(request.getCategory());
+            pool.setName(request.getName());
+            pool.setVersion(request.getVersion());
+            pool.setCsp(request.getCsp());
+            pool.setRegion(request.getRegion());
+            pool.setFlavor(request.getFlavor());
+        }
+        pool.setCreateRequest(request);
+        pool.setSize(poolRequest.getSize());
+        pool.setMaxIdleMinutes(Objects.isNull(poolRequest.getMaxIdleMinutes())
+                ? maxIdleMinutes : poolRequest.getMaxIdleMinutes());
+        storage.storePool(pool);
+        log.info("Warm pool {} of {} instances of {}-{}-{} flavor {} in {}.", pool.getId(),
+                pool.getSize(), pool.getName(), pool.getVersion(), pool.getCsp(),
+                pool.getFlavor(), pool.getRegion());
+        return getWarmPoolVo(pool);
+    }
+
+    /**
+     * List the pools with the number of their instances per state.
+     *
+     * @return the pools.
+     */
+    public List<WarmPoolVo> listPools() {
+        return storage.findPools().stream().map(this::getWarmPoolVo).toList();
+    }
+
+    /**
+     * Delete the pool. Its instances are destroyed in the background, then the pool is removed.
+     *
+     * @param id id of the pool.
+     */
+    public void deletePool(UUID id) {
+        WarmPoolEntity pool = storage.findPoolById(id);
+        if (Objects.isNull(pool)) {
+            throw new EntityNotFoundException(String.format("Warm pool with id %s not found.",
+                    id));
+        }
+        pool.setSize(0);
+        storage.storePool(pool);
+    }
+
+    /**
+     * Assign a ready instance of a matching pool to the deployTask. The service is stored with
+     * the id and the resources of the instance, the pool is refilled in the background.
+     *
+     * @param deployTask deployTask filled by the deploy handler.
+     * @return true if an instance was assigned, false if the service must be deployed.
+     */
+    @Transactional
+    public boolean assign(DeployTask deployTask) {
+        if (!enabled) {
+            return false;
+        }
+        WarmPoolEntity pool = findPool(deployTask.getCreateRequest());
+        if (Objects.isNull(pool)) {
+            return false;
+        }
+        for (WarmInstanceEntity instance : storage.findReadyInstances(pool.getId(),
+                deployTask.getOclHash(), CLAIM_CANDIDATES)) {
+            // the instance is claimed by deleting it, another request may be faster.
+            if (storage.deleteInstance(instance.getId(), WarmInstanceState.READY)) {
+                deployTask.setId(instance.getId());
+                deployTask.getCreateRequest().setId(instance.getId());
+                DeployResult deployResult = new DeployResult();
+                deployResult.setId(instance.getId());
+                deployResult.setState(TerraformExecState.DEPLOY_SUCCESS);
+                deployResult.setResources(instance.getResources());
+                orchestratorService.deployWarmService(deployTask, deployResult);
+                hits.increment();
+                log.info("Assigned warm instance {} of pool {}.", instance.getId(),
+                        pool.getId());
+                return true;
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Refill the pools and destroy their expired instances, the pools refilled by another node
+     * are skipped.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.warm-pool.poll-interval-ms:10000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        for (WarmPoolEntity pool : storage.findPools()) {
+            Date now = new Date();
+            try {
+                if (storage.claimRefill(pool.getId(), now,
+                        new Date(now.getTime() + leaseMillis))) {
+                    maintainPool(pool, now);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to refill warm pool {}.", pool.getId(), e);
+            }
+        }
+    }
+
+    private void maintainPool(WarmPoolEntity pool, Date now) {
+        DeployTask template = getDeployTask(UUID.randomUUID(), pool.getCreateRequest());
+        Deployment deployment = null;
+        try {
+            deployment = orchestratorService.getDeployHandler(template);
+        } catch (RuntimeException e) {
+            log.warn("Service of warm pool {} can't be deployed: {}", pool.getId(),
+                    e.getMessage());
+        }
+        List<WarmInstanceEntity> instances = storage.findInstances(pool.getId());
+        if (pool.getSize() == 0 && instances.isEmpty()) {
+            storage.deletePool(pool.getId());
+            log.info("Deleted warm pool {}.", pool.getId());
+            return;
+        }
+        String oclHash = Objects.isNull(deployment) ? null : template.getOclHash();
+        List<WarmInstanceEntity> ready = new ArrayList<>();
+        int active = 0;
+        for (WarmInstanceEntity instance : instances) {
+            if (isExpired(pool, instance, oclHash, now)) {
+                if (tearDown(instance, now) && isIdle(pool, instance, now)) {
+                    expired.increment();
+                }
+            } else if (instance.getState() != WarmInstanceState.DESTROYING) {
+                active++;
+                if (instance.getState() == WarmInstanceState.READY) {
+                    ready.add(instance);
+                }
+            }
+        }
+        // a shrunk pool destroys its longest ready instances first.
+        ready.sort(Comparator.comparing(WarmInstanceEntity::getStateTime));
+        for (int i = 0; i < Math.min(active - pool.getSize(), ready.size()); i++) {
+            tearDown(ready.get(i), now);
+        }
+        if (Objects.nonNull(deployment)) {
+            for (int i = active; i < pool.getSize(); i++) {
+                startDeploy(pool, template, deployment, now);
+            }
+        }
+    }
+
+    private boolean isExpired(WarmPoolEntity pool, WarmInstanceEntity instance, String oclHash,
+            Date now) {
+        long age = now.getTime() - instance.getStateTime().getTime();
+        return switch (instance.getState()) {
+            case READY -> isIdle(pool, instance, now)
+                    || !Objects.equals(oclHash, instance.getOclHash())
+                    || !getProperty(pool.getCreateRequest()).equals(
+                    getProperty(instance.getCreateRequest()));
+            case DEPLOYING, DESTROYING -> age >= deployTimeoutMillis;
+            case FAILED -> age >= retryDelayMillis;
+        };
+    }
+
+    private boolean isIdle(WarmPoolEntity pool, WarmInstanceEntity instance, Date now) {
+        return instance.getState() == WarmInstanceState.READY
+                && now.getTime() - instance.getStateTime().getTime()
+                >= TimeUnit.MINUTES.toMillis(pool.getMaxIdleMinutes());
+    }
+
+    private void startDeploy(WarmPoolEntity pool, DeployTask template, Deployment deployment,
+            Date now) {
+        UUID id = UUID.randomUUID();
+        CreateRequest request = new CreateRequest();
+        BeanUtils.copyProperties(pool.getCreateRequest(), request);
+        request.setId(id);
+        WarmInstanceEntity instance = new WarmInstanceEntity();
+        instance.setId(id);
+        instance.setPoolId(pool.getId());
+        instance.setState(WarmInstanceState.DEPLOYING);
+        instance.setStateTime(now);
+        instance.setOclHash(template.getOclHash());
+        instance.setCreateRequest(request);
+        storage.storeInstance(instance);
+        DeployTask deployTask = getDeployTask(id, request);
+        deployTask.setOcl(template.getOcl());
+        deployTask.setOclHash(template.getOclHash());
+        deployTask.setDeployResourceHandler(template.getDeployResourceHandler());
+        instanceExecutor.execute(() -> deploy(deployment, deployTask, instance));
+    }
+
+    private void deploy(Deployment deployment, DeployTask deployTask,
+            WarmInstanceEntity instance) {
+        try {
+            DeployResult deployResult = deployment.deploy(deployTask);
+            if (deployResult.getState() != TerraformExecState.DEPLOY_SUCCESS) {
+                throw new IllegalStateException("Terraform state of the deployment not found.");
+            }
+            instance.setResources(deployResult.getResources());
+            instance.setStateTime(new Date());
+            if (storage.completeInstance(instance)) {
+                log.info("Warm instance {} of pool {} is ready.", instance.getId(),
+                        instance.getPoolId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to deploy warm instance {} of pool {}.", instance.getId(),
+                    instance.getPoolId(), e);
+            storage.updateInstanceState(instance.getId(), WarmInstanceState.DEPLOYING,
+                    WarmInstanceState.FAILED, new Date());
+        }
+    }
+
+    private boolean tearDown(WarmInstanceEntity instance, Date now) {
+        if (!storage.updateInstanceState(instance.getId(), instance.getState(),
+                WarmInstanceState.DESTROYING, now)) {
+            return false;
+        }
+        instanceExecutor.execute(() -> destroy(instance));
+        return true;
+    }
+
+    private void destroy(WarmInstanceEntity instance) {
+        try {
+            DeployTask deployTask = getDeployTask(instance.getId(), instance.getCreateRequest());
+            orchestratorService.getDeployedHandler(deployTask, instance.getOclHash())
+                    .destroy(deployTask);
+            storage.deleteInstance(instance.getId(), WarmInstanceState.DESTROYING);
+            log.info("Destroyed warm instance {} of pool {}.", instance.getId(),
+                    instance.getPoolId());
+        } catch (RuntimeException e) {
+            log.error("Failed to destroy warm instance {} of pool {}.", instance.getId(),
+                    instance.getPoolId(), e);
+            storage.updateInstanceState(instance.getId(), WarmInstanceState.DESTROYING,
+                    WarmInstanceState.FAILED, new Date());
+        }
+    }
+
+    private WarmPoolEntity findPool(CreateRequest request) {
+        Map<String, String> property = getProperty(request);
+        for (WarmPoolEntity pool : storage.findPools(StringUtils.lowerCase(request.getName()),
+                StringUtils.lowerCase(request.getVersion()), request.getCsp(),
+                request.getRegion(), request.getFlavor())) {
+            if (Objects.equals(pool.getCategory(), request.getCategory())
+                    && property.equals(getProperty(pool.getCreateRequest()))) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> getProperty(CreateRequest request) {
+        return Objects.isNull(request.getProperty())
+                ? Collections.emptyMap() : request.getProperty();
+    }
+
+    private DeployTask getDeployTask(UUID id, CreateRequest request) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(id);
+        deployTask.setCreateRequest(request);
+        return deployTask;
+    }
+
+    private WarmPoolVo getWarmPoolVo(WarmPoolEntity pool) {
+        WarmPoolVo poolVo = new WarmPoolVo();
+        poolVo.setId(pool.getId());
+        poolVo.setRequest(pool.getCreateRequest());
+        poolVo.setSize(pool.getSize());
+        poolVo.setMaxIdleMinutes(pool.getMaxIdleMinutes());
+        poolVo.setInstances(storage.countInstanceStates(pool.getId()));
+        return poolVo;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.pool;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceEntity;
+import org.eclipse.xpanse.modules.database.pool.WarmPoolEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+
+/**
+ * Interface for persist of the warm pools and their instances.
+ */
+public interface WarmPoolStorage {
+
+    /**
+     * Store the pool.
+     *
+     * @param pool the pool.
+     */
+    void storePool(WarmPoolEntity pool);
+
+    /**
+     * Find the pool by its id.
+     *
+     * @param id id of the pool.
+     * @return the pool, null if not found.
+     */
+    WarmPoolEntity findPoolById(UUID id);
+
+    /**
+     * Find all pools.
+     *
+     * @return the pools.
+     */
+    List<WarmPoolEntity> findPools();
+
+    /**
+     * Find the pools of the service flavor in the region.
+     *
+     * @param name    name of the service.
+     * @param version version of the service.
+     * @param csp     csp of the service.
+     * @param region  region of the service.
+     * @param flavor  flavor of the service.
+     * @return the pools.
+     */
+    List<WarmPoolEntity> findPools(String name, String version, Csp csp, String region,
+            String flavor);
+
+    /**
+     * Delete the pool.
+     *
+     * @param id id of the pool.
+     */
+    void deletePool(UUID id);
+
+    /**
+     * Claim the refill of the pool until the lease ends.
+     *
+     * @param id         id of the pool.
+     * @param now        the current time.
+     * @param leaseUntil end of the lease.
+     * @return true if the refill was claimed, false if another node holds the lease.
+     */
+    boolean claimRefill(UUID id, Date now, Date leaseUntil);
+
+    /**
+     * Store the instance.
+     *
+     * @param instance the instance.
+     */
+    void storeInstance(WarmInstanceEntity instance);
+
+    /**
+     * Find the instances of the pool.
+     *
+     * @param poolId id of the pool.
+     * @return the instances.
+     */
+    List<WarmInstanceEntity> findInstances(UUID poolId);
+
+    /**
+     * Find the ready instances of the pool deployed with the Ocl snapshot, the longest ready
+     * first.
+     *
+     * @param poolId  id of the pool.
+     * @param oclHash hash of the Ocl snapshot.
+     * @param limit   maximum number of instances returned.
+     * @return the ready instances.
+     */
+    List<WarmInstanceEntity> findReadyInstances(UUID poolId, String oclHash, int limit);
+
+    /**
+     * Count the instances of the pool per state.
+     *
+     * @param poolId id of the pool.
+     * @return the number of instances per state.
+     */
+    Map<WarmInstanceState, Long> countInstanceStates(UUID poolId);
+
+    /**
+     * Change the state of the instance if it is still in the expected state.
+     *
+     * @param id        id of the instance.
+     * @param expected  the expected state.
+     * @param state     the new state.
+     * @param stateTime the time of the change.
+     * @return true if the state was changed.
+     */
+    boolean updateInstanceState(UUID id, WarmInstanceState expected, WarmInstanceState state,
+            Date stateTime);
+
+    /**
+     * Store the deployed instance if it is still deploying.
+     *
+     * @param instance the ready instance with its resources.
+     * @return true if the instance was stored, false if it was torn down meanwhile.
+     */
+    boolean completeInstance(WarmInstanceEntity instance);
+
+    /**
+     * Delete the instance if it is still in the expected state.
+     *
+     * @param id       id of the instance.
+     * @param expected the expected state.
+     * @return true if the instance was deleted.
+     */
+    boolean deleteInstance(UUID id, WarmInstanceState expected);
+}
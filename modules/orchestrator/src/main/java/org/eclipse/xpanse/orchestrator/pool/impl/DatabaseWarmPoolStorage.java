@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.pool.impl;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceEntity;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceRepository;
+import org.eclipse.xpanse.modules.database.pool.WarmPoolEntity;
+import org.eclipse.xpanse.modules.database.pool.WarmPoolRepository;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.orchestrator.pool.WarmPoolStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the WarmPoolStorage.
+ */
+@Component
+public class DatabaseWarmPoolStorage implements WarmPoolStorage {
+
+    private final WarmPoolRepository poolRepository;
+    private final WarmInstanceRepository instanceRepository;
+
+    /**
+     * Constructor of the DatabaseWarmPoolStorage.
+     */
+    @Autowired
+    public DatabaseWarmPoolStorage(WarmPoolRepository poolRepository,
+            WarmInstanceRepository instanceRepository) {
+        this.poolRepository = poolRepository;
+        this.instanceRepository = instanceRepository;
+    }
+
+    @Override
+    public void storePool(WarmPoolEntity pool) {
+        poolRepository.save(pool);
+    }
+
+    @Override
+    public WarmPoolEntity findPoolById(UUID id) {
+        return poolRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    public List<WarmPoolEntity> findPools() {
+        return poolRepository.findAll();
+    }
+
+    @Override
+    public List<WarmPoolEntity> findPools(String name, String version, Csp csp, String region,
+            String flavor) {
+        return poolRepository.findByNameAndVersionAndCspAndRegionAndFlavor(name, version, csp,
+                region, flavor);
+    }
+
+    @Override
+    @Transactional
+    public void deletePool(UUID id) {
+        poolRepository.findById(id).ifPresent(poolRepository::delete);
+    }
+
+    @Override
+    @Transactional
+    public boolean claimRefill(UUID id, Date now, Date leaseUntil) {
+        return poolRepository.claimRefill(id, now, leaseUntil) > 0;
+    }
+
+    @Override
+    public void storeInstance(WarmInstanceEntity instance) {
+        instanceRepository.save(instance);
+    }
+
+    @Override
+    public List<WarmInstanceEntity> findInstances(UUID poolId) {
+        return instanceRepository.findByPoolId(poolId);
+    }
+
+    @Override
+    public List<WarmInstanceEntity> findReadyInstances(UUID poolId, String oclHash, int limit) {
+        return instanceRepository.findReady(poolId, oclHash, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Map<WarmInstanceState, Long> countInstanceStates(UUID poolId) {
+        Map<WarmInstanceState, Long> states = new EnumMap<>(WarmInstanceState.class);
+        for (Object[] row : instanceRepository.countStates(poolId)) {
+            if (row[0] instanceof WarmInstanceState state) {
+                states.put(state, (Long) row[1]);
+            }
+        }
+        return states;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateInstanceState(UUID id, WarmInstanceState expected,
+            WarmInstanceState state, Date stateTime) {
+        return instanceRepository.updateState(id, expected, state, stateTime) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean completeInstance(WarmInstanceEntity instance) {
+        // the conditional update locks the row, the instance is never ready without resources.
+        if (instanceRepository.updateState(instance.getId(), WarmInstanceState.DEPLOYING,
+                WarmInstanceState.READY, instance.getStateTime()) == 0) {
+            return false;
+        }
+        instance.setState(WarmInstanceState.READY);
+        instanceRepository.save(instance);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteInstance(UUID id, WarmInstanceState expected) {
+        return instanceRepository.deleteInState(id, expected) > 0;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register;
+
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotEntity;
+
+/**
+ * Interface to be implemented by the Ocl snapshot database.
+ */
+public interface OclSnapshotStorage {
+
+    /**
+     * Store the Ocl snapshot unless a snapshot with the same hash is already stored.
+     *
+     * @param oclSnapshotEntity the Ocl snapshot.
+     */
+    void storeIfAbsent(OclSnapshotEntity oclSnapshotEntity);
+
+    /**
+     * Get the Ocl snapshot by hash.
+     *
+     * @param hash hash of the Ocl snapshot.
+     * @return Returns the Ocl snapshot, null if not stored.
+     */
+    OclSnapshotEntity findByHash(String hash);
+}
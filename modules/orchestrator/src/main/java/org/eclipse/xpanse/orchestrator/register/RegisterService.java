@@ -8,11 +8,15 @@ package org.eclipse.xpanse.orchestrator.register;
 
 import java.util.List;
 import java.util.UUID;
+import org.eclipse.xpanse.modules.models.enums.Category;
 import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
 import org.eclipse.xpanse.modules.models.resource.Ocl;
 import org.eclipse.xpanse.modules.models.view.CategoryOclVo;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
 import org.eclipse.xpanse.modules.models.view.OclDetailVo;
 import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.orchestrator.register.cache.CategoryCatalog;
 
 /**
  * This interface describes register service in charge of interacting with backend fundamental
@@ -63,12 +67,26 @@ public interface RegisterService {
     OclDetailVo getRegisteredService(String registeredServiceId);
 
     /**
-     * Search registered service by query model.
+     * Search registered service by query model, one page at a time.
      *
-     * @param query the query model for search registered service.
-     * @return list of RegisterVo
+     * @param query     the query model for search registered service.
+     * @param cursor    cursor returned with the previous page, null for the first page.
+     * @param pageSize  maximum number of registered services in the page.
+     * @param withTotal whether to count all registered services matching the query.
+     * @param withOcl   whether to return the Ocl of the registered services.
+     * @return page of RegisteredServiceVo
+     */
+    KeysetPage<RegisteredServiceVo> queryRegisteredServices(RegisteredServiceQuery query,
+            String cursor, int pageSize, boolean withTotal, boolean withOcl);
+
+    /**
+     * List the changes of the registered services after the cursor, including the removed ones.
+     *
+     * @param cursor   cursor returned with the previous page, null for the start of the feed.
+     * @param pageSize maximum number of changes in the page.
+     * @return page of the changes.
      */
-    List<RegisteredServiceVo> queryRegisteredServices(RegisteredServiceQuery query);
+    ChangePage<RegisteredServiceVo> queryRegisteredServiceChanges(String cursor, int pageSize);
 
     /**
      * Search registered service tree by query model.
@@ -78,6 +96,14 @@ public interface RegisterService {
      */
     List<CategoryOclVo> queryRegisteredServicesTree(RegisteredServiceQuery query);
 
+    /**
+     * Get the materialized tree of the registered services of the category.
+     *
+     * @param category category of the registered services.
+     * @return Returns the tree and its ETag.
+     */
+    CategoryCatalog getRegisteredServicesTree(Category category);
+
     /**
      * Unregister service using the ID of registered service.
      *
@@ -6,10 +6,13 @@
 
 package org.eclipse.xpanse.orchestrator.register;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursor;
 
 /**
  * Interface to be implemented by register service database.
@@ -31,6 +34,39 @@ public interface RegisterServiceStorage {
      */
     List<RegisterServiceEntity> queryRegisteredServices(RegisteredServiceQuery query);
 
+    /**
+     * Method to list the registered services by query model, ordered by id. Only the columns
+     * of the view are selected, the Ocl only when requested.
+     *
+     * @param query   query model for search register service entity.
+     * @param cursor  only services with an id after the cursor are returned, may be null.
+     * @param limit   maximum number of services returned, null for all services.
+     * @param withOcl whether to load the Ocl of the services.
+     * @return Returns the registered services for the provided arguments.
+     */
+    List<RegisteredServiceVo> listRegisteredServices(RegisteredServiceQuery query, UUID cursor,
+            Integer limit, boolean withOcl);
+
+    /**
+     * Method to list the registered services modified after the position of a change feed,
+     * ordered by modification time and id, without loading their Ocl.
+     *
+     * @param after position of the last change seen.
+     * @param until only services modified before this time are returned.
+     * @param limit maximum number of services returned.
+     * @return Returns the registered services for the provided arguments.
+     */
+    List<RegisteredServiceVo> listChangedRegisteredServices(ChangeCursor after, Date until,
+            int limit);
+
+    /**
+     * Method to count the registered services by query model.
+     *
+     * @param query query model for search register service entity.
+     * @return Returns the number of registered services for the provided arguments.
+     */
+    long countRegisteredServices(RegisteredServiceQuery query);
+
     /**
      * Method to get database entry based registerServiceEntity.
      *
@@ -68,4 +104,12 @@ public interface RegisterServiceStorage {
      */
     void remove(RegisterServiceEntity registerServiceEntity);
 
+    /**
+     * Get the change version of all registered services. The version changes whenever a
+     * registered service is added, updated or removed by any node.
+     *
+     * @return Returns the current change version.
+     */
+    String getChangeVersion();
+
 }
@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import java.util.UUID;
+import lombok.Value;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+
+/**
+ * Entry of the registered service cache. The Ocl is shared by all readers of the cache and must
+ * not be modified, use {@link Ocl#deepCopy()} to get a modifiable copy.
+ */
+@Value
+public class CachedRegisteredService {
+
+    UUID id;
+
+    RegisteredServiceKey key;
+
+    Ocl ocl;
+
+    /**
+     * Hash of the Ocl snapshot, see {@link OclSnapshotCache}.
+     */
+    String oclHash;
+}
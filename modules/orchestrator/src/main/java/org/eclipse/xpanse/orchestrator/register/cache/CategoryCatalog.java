@@ -0,0 +1,23 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import java.util.List;
+import lombok.Value;
+import org.eclipse.xpanse.modules.models.view.CategoryOclVo;
+
+/**
+ * Immutable tree of the registered services of one category, grouped by name, version and csp,
+ * together with the strong ETag of its content.
+ */
+@Value
+public class CategoryCatalog {
+
+    List<CategoryOclVo> services;
+
+    String etag;
+}
@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.Objects;
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.orchestrator.register.OclSnapshotStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content addressed store of the Ocl versions used by deployments. Every distinct Ocl is stored
+ * once in the OCL_SNAPSHOT table under the SHA-256 of its canonical JSON, deployments only keep
+ * the hash.
+ *
+ * <p>Parsed snapshots are interned, all deployments of the same Ocl version share one instance.
+ * The shared Ocl must not be modified, use {@link Ocl#deepCopy()} to get a modifiable copy.
+ */
+@Component
+public class OclSnapshotCache {
+
+    private static final String METRIC_NAME = "xpanse.ocl.snapshot.cache";
+
+    private final ObjectWriter canonicalWriter = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build().writer();
+
+    private final OclSnapshotStorage storage;
+    private final Cache<String, Ocl> snapshots;
+
+    /**
+     * Constructor of the OclSnapshotCache.
+     *
+     * @param storage       storage of the Ocl snapshots.
+     * @param meterRegistry registry of the cache metrics.
+     * @param maximumSize   maximum number of cached Ocl snapshots.
+     */
+    @Autowired
+    public OclSnapshotCache(OclSnapshotStorage storage, MeterRegistry meterRegistry,
+            @Value("${xpanse.ocl.snapshot.cache.maximum-size:1000}") long maximumSize) {
+        this.storage = storage;
+        this.snapshots = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        GuavaCacheMetrics.monitor(meterRegistry, snapshots, METRIC_NAME);
+    }
+
+    /**
+     * Store the Ocl as snapshot unless it is already stored.
+     *
+     * @param ocl the Ocl.
+     * @return the hash of the Ocl snapshot.
+     */
+    public String intern(Ocl ocl) {
+        String hash = hash(ocl);
+        if (Objects.isNull(snapshots.getIfPresent(hash))) {
+            OclSnapshotEntity entity = new OclSnapshotEntity();
+            entity.setHash(hash);
+            entity.setOcl(ocl);
+            storage.storeIfAbsent(entity);
+            snapshots.asMap().putIfAbsent(hash, ocl);
+        }
+        return hash;
+    }
+
+    /**
+     * Share the Ocl of a stored snapshot with the readers of the snapshot, without storing it.
+     *
+     * @param hash hash of the stored Ocl snapshot.
+     * @param ocl  the Ocl of the snapshot.
+     * @return the shared Ocl of the snapshot.
+     */
+    Ocl share(String hash, Ocl ocl) {
+        Ocl existing = snapshots.asMap().putIfAbsent(hash, ocl);
+        return Objects.isNull(existing) ? ocl : existing;
+    }
+
+    /**
+     * Get the Ocl the service is deployed with. Services deployed before the Ocl snapshots have
+     * no hash and embed the Ocl in their create request.
+     *
+     * @param deployServiceEntity the deployed service.
+     * @return the shared Ocl, null if it is not found.
+     */
+    public Ocl getDeployedOcl(DeployServiceEntity deployServiceEntity) {
+        if (Objects.isNull(deployServiceEntity.getOclHash())) {
+            return Objects.isNull(deployServiceEntity.getCreateRequest()) ? null
+                    : deployServiceEntity.getCreateRequest().getOcl();
+        }
+        return get(deployServiceEntity.getOclHash());
+    }
+
+    /**
+     * Get the shared Ocl of the snapshot.
+     *
+     * @param hash hash of the Ocl snapshot.
+     * @return the shared Ocl, null if no snapshot with the hash is stored.
+     */
+    public Ocl get(String hash) {
+        Ocl ocl = snapshots.getIfPresent(hash);
+        if (Objects.nonNull(ocl)) {
+            return ocl;
+        }
+        OclSnapshotEntity entity = storage.findByHash(hash);
+        if (Objects.isNull(entity)) {
+            return null;
+        }
+        Ocl existing = snapshots.asMap().putIfAbsent(hash, entity.getOcl());
+        return Objects.isNull(existing) ? entity.getOcl() : existing;
+    }
+
+    /**
+     * Compute the hash of the Ocl, the SHA-256 of its canonical JSON.
+     *
+     * @param ocl the Ocl.
+     * @return the hex encoded hash.
+     */
+    public String hash(Ocl ocl) {
+        try {
+            return Hashing.sha256().hashBytes(canonicalWriter.writeValueAsBytes(ocl)).toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compute hash of the Ocl.", e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of the registered services, used on the deploy path to avoid querying and
+ * deserializing the Ocl of the registered service for every request. Entries are indexed by the
+ * natural key and by the id of the registered service. The Ocl snapshot of a registered service
+ * is stored when it is registered or updated, deployments reference it by the stored hash. The
+ * cache only reads, a lookup never writes to the database.
+ *
+ * <p>Changes made on this node invalidate the entries explicitly, before and after the commit.
+ * Every invalidation moves the generation of the cache, an entry loaded while the generation
+ * moved is dropped again, so a reader which loaded the old state can't cache it after the
+ * invalidation. When running with more than one
+ * node, the change version of the registered services is also checked periodically and all
+ * entries are dropped when it moved.
+ */
+@Slf4j
+@Component
+public class RegisteredServiceCache {
+
+    private static final String METRIC_NAME = "xpanse.register.cache";
+
+    private final RegisterServiceStorage storage;
+    private final OclSnapshotCache oclSnapshotCache;
+    private final Cache<RegisteredServiceKey, CachedRegisteredService> servicesByKey;
+    private final Cache<UUID, CachedRegisteredService> servicesById;
+    private final boolean clusterEnabled;
+    private final long versionCheckIntervalMillis;
+    private final AtomicLong lastVersionCheck = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<String> changeVersion = new AtomicReference<>();
+
+    /**
+     * Constructor of the RegisteredServiceCache.
+     *
+     * @param storage                    storage of the registered services.
+     * @param oclSnapshotCache           store of the Ocl snapshots.
+     * @param meterRegistry              registry of the cache metrics.
+     * @param maximumSize                maximum number of cached registered services.
+     * @param clusterEnabled             whether more than one node shares the database.
+     * @param versionCheckIntervalMillis interval of the change version check in cluster mode.
+     */
+    @Autowired
+    public RegisteredServiceCache(RegisterServiceStorage storage,
+            OclSnapshotCache oclSnapshotCache, MeterRegistry meterRegistry,
+            @Value("${xpanse.register.cache.maximum-size:1000}") long maximumSize,
+            @Value("${xpanse.cluster.enabled:false}") boolean clusterEnabled,
+            @Value("${xpanse.register.cache.version-check-interval-ms:5000}")
+            long versionCheckIntervalMillis) {
+        this.storage = storage;
+        this.oclSnapshotCache = oclSnapshotCache;
+        this.clusterEnabled = clusterEnabled;
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+        this.servicesByKey = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .recordStats().build();
+        this.servicesById = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .recordStats().build();
+        GuavaCacheMetrics.monitor(meterRegistry, servicesByKey, METRIC_NAME,
+                Tags.of("index", "key"));
+        GuavaCacheMetrics.monitor(meterRegistry, servicesById, METRIC_NAME,
+                Tags.of("index", "id"));
+    }
+
+    /**
+     * Get the Ocl of the registered service by the natural key.
+     *
+     * @param name     name of the registered service.
+     * @param version  version of the registered service.
+     * @param csp      cloud service provider of the registered service.
+     * @param category category of the registered service.
+     * @return the shared Ocl of the registered service, null if it is not registered.
+     */
+    public Ocl getOcl(String name, String version, Csp csp, Category category) {
+        CachedRegisteredService service = get(RegisteredServiceKey.of(name, version, csp,
+                category));
+        return Objects.isNull(service) ? null : service.getOcl();
+    }
+
+    /**
+     * Get the registered service by the natural key.
+     *
+     * @param key natural key of the registered service.
+     * @return the cached registered service, null if it is not registered.
+     */
+    public CachedRegisteredService get(RegisteredServiceKey key) {
+        checkChangeVersion();
+        CachedRegisteredService service = servicesByKey.getIfPresent(key);
+        if (Objects.nonNull(service)) {
+            return service;
+        }
+        final long loadGeneration = generation.get();
+        RegisterServiceEntity query = new RegisterServiceEntity();
+        query.setName(key.getName());
+        query.setVersion(key.getVersion());
+        query.setCsp(key.getCsp());
+        query.setCategory(key.getCategory());
+        return put(storage.findRegisteredService(query), loadGeneration);
+    }
+
+    /**
+     * Get the registered service by id.
+     *
+     * @param id id of the registered service.
+     * @return the cached registered service, null if it is not registered.
+     */
+    public CachedRegisteredService get(UUID id) {
+        checkChangeVersion();
+        CachedRegisteredService service = servicesById.getIfPresent(id);
+        if (Objects.nonNull(service)) {
+            return service;
+        }
+        long loadGeneration = generation.get();
+        return put(storage.getRegisterServiceById(id), loadGeneration);
+    }
+
+    /**
+     * Invalidate the registered service, again after the commit of the current transaction so
+     * that concurrent readers can't cache the old state.
+     *
+     * @param id id of the registered service.
+     */
+    public void invalidate(UUID id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evict(id);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Invalidate all cached registered services.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        servicesById.invalidateAll();
+        servicesByKey.invalidateAll();
+    }
+
+    /**
+     * Get the change version of the registered services last seen in cluster mode.
+     *
+     * @return the change version, null when not running in cluster mode.
+     */
+    String currentChangeVersion() {
+        checkChangeVersion();
+        return changeVersion.get();
+    }
+
+    private CachedRegisteredService put(RegisterServiceEntity entity, long loadGeneration) {
+        if (Objects.isNull(entity) || Objects.isNull(entity.getOcl())) {
+            return null;
+        }
+        // services registered before the hash was stored get their snapshot stored at startup.
+        String oclHash = Objects.requireNonNullElseGet(entity.getOclHash(),
+                () -> oclSnapshotCache.hash(entity.getOcl()));
+        // share the Ocl instance with the deployments of the same Ocl version.
+        CachedRegisteredService service = new CachedRegisteredService(entity.getId(),
+                RegisteredServiceKey.of(entity.getName(), entity.getVersion(), entity.getCsp(),
+                        entity.getCategory()), oclSnapshotCache.share(oclHash, entity.getOcl()),
+                oclHash);
+        servicesById.put(service.getId(), service);
+        servicesByKey.put(service.getKey(), service);
+        if (generation.get() != loadGeneration) {
+            // invalidated while loading, the loaded state may be the old one.
+            evict(service.getId());
+        }
+        return service;
+    }
+
+    private void evict(UUID id) {
+        generation.incrementAndGet();
+        CachedRegisteredService service = servicesById.getIfPresent(id);
+        servicesById.invalidate(id);
+        if (Objects.nonNull(service)) {
+            servicesByKey.invalidate(service.getKey());
+        }
+        servicesByKey.asMap().values().removeIf(cached -> cached.getId().equals(id));
+    }
+
+    private void checkChangeVersion() {
+        if (!clusterEnabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lastCheck = lastVersionCheck.get();
+        if (now - lastCheck < versionCheckIntervalMillis
+                || !lastVersionCheck.compareAndSet(lastCheck, now)) {
+            return;
+        }
+        String currentVersion = storage.getChangeVersion();
+        String previousVersion = changeVersion.getAndSet(currentVersion);
+        if (!Objects.equals(previousVersion, currentVersion)) {
+            log.info("Registered services changed from version {} to {}, invalidate cache.",
+                    previousVersion, currentVersion);
+            invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.view.CategoryOclVo;
+import org.eclipse.xpanse.modules.models.view.OclDetailVo;
+import org.eclipse.xpanse.modules.models.view.ProviderOclVo;
+import org.eclipse.xpanse.modules.models.view.VersionOclVo;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Materialized category, name, version and csp tree of the registered services.
+ *
+ * <p>The tree is loaded once and then maintained incrementally: a register, update or unregister
+ * rebuilds only the category it touches, after the transaction committed, and swaps the new
+ * snapshot in atomically. Readers never lock and never see a half built tree. When running with
+ * more than one node, the tree is reloaded when the change version of the registered services
+ * moved.
+ */
+@Slf4j
+@Component
+public class RegisteredServiceCatalog {
+
+    private static final Comparator<CategoryOclVo> NAME_ORDER =
+            Comparator.comparing(CategoryOclVo::getName);
+
+    private final RegisterServiceStorage storage;
+    private final RegisteredServiceCache registeredServiceCache;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Object writeLock = new Object();
+
+    /**
+     * Constructor of the RegisteredServiceCatalog.
+     *
+     * @param storage                storage of the registered services.
+     * @param registeredServiceCache cache of the registered services, used for the change
+     *                               version in cluster mode.
+     * @param objectMapper           mapper of the trees to hash into their etags.
+     */
+    @Autowired
+    public RegisteredServiceCatalog(RegisterServiceStorage storage,
+            RegisteredServiceCache registeredServiceCache, ObjectMapper objectMapper) {
+        this.storage = storage;
+        this.registeredServiceCache = registeredServiceCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get the tree of the registered services of the category.
+     *
+     * @param category category of the registered services.
+     * @return the current tree of the category, never null.
+     */
+    public CategoryCatalog getCategory(Category category) {
+        CategoryCatalog catalog = currentSnapshot().getCategories().get(category);
+        return Objects.isNull(catalog) ? buildCategory(Collections.emptyMap()) : catalog;
+    }
+
+    /**
+     * Add or replace the registered service in the tree once the current transaction committed.
+     *
+     * @param entity the stored registered service.
+     */
+    public void update(RegisterServiceEntity entity) {
+        OclDetailVo service = convertToOclDetailVo(entity);
+        afterCommit(() -> apply(service.getId(), service));
+    }
+
+    /**
+     * Remove the registered service from the tree once the current transaction committed.
+     *
+     * @param id id of the removed registered service.
+     */
+    public void remove(UUID id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            change.run();
+                        }
+                    });
+        } else {
+            change.run();
+        }
+    }
+
+    private void apply(UUID id, OclDetailVo service) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot.get();
+            if (Objects.isNull(current)) {
+                // not loaded yet, the first reader loads the committed state.
+                return;
+            }
+            Map<Category, Map<UUID, OclDetailVo>> services = new EnumMap<>(Category.class);
+            services.putAll(current.getServices());
+            Map<Category, CategoryCatalog> categories = new EnumMap<>(Category.class);
+            categories.putAll(current.getCategories());
+            for (Map.Entry<Category, Map<UUID, OclDetailVo>> entry
+                    : current.getServices().entrySet()) {
+                if (entry.getValue().containsKey(id)) {
+                    Map<UUID, OclDetailVo> categoryServices = new HashMap<>(entry.getValue());
+                    categoryServices.remove(id);
+                    services.put(entry.getKey(), categoryServices);
+                    categories.put(entry.getKey(), buildCategory(categoryServices));
+                }
+            }
+            if (Objects.nonNull(service)) {
+                Map<UUID, OclDetailVo> categoryServices = new HashMap<>(
+                        services.getOrDefault(service.getCategory(), Collections.emptyMap()));
+                categoryServices.put(id, service);
+                services.put(service.getCategory(), categoryServices);
+                categories.put(service.getCategory(), buildCategory(categoryServices));
+            }
+            snapshot.set(new Snapshot(current.getChangeVersion(), services, categories));
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        String changeVersion = registeredServiceCache.currentChangeVersion();
+        Snapshot current = snapshot.get();
+        if (Objects.nonNull(current) && Objects.equals(current.getChangeVersion(), changeVersion)) {
+            return current;
+        }
+        synchronized (writeLock) {
+            current = snapshot.get();
+            if (Objects.isNull(current)
+                    || !Objects.equals(current.getChangeVersion(), changeVersion)) {
+                current = load(changeVersion);
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load(String changeVersion) {
+        Map<Category, Map<UUID, OclDetailVo>> services = new EnumMap<>(Category.class);
+        for (RegisterServiceEntity entity
+                : storage.queryRegisteredServices(new RegisteredServiceQuery())) {
+            OclDetailVo service = convertToOclDetailVo(entity);
+            services.computeIfAbsent(service.getCategory(), category -> new HashMap<>())
+                    .put(service.getId(), service);
+        }
+        Map<Category, CategoryCatalog> categories = new EnumMap<>(Category.class);
+        services.forEach((category, categoryServices) ->
+                categories.put(category, buildCategory(categoryServices)));
+        log.info("Loaded catalog of {} registered services.",
+                services.values().stream().mapToInt(Map::size).sum());
+        return new Snapshot(changeVersion, services, categories);
+    }
+
+    private CategoryCatalog buildCategory(Map<UUID, OclDetailVo> services) {
+        Map<String, Map<String, Map<Csp, List<OclDetailVo>>>> tree = new TreeMap<>();
+        services.values().forEach(service -> tree
+                .computeIfAbsent(StringUtils.lowerCase(service.getName()), name -> new TreeMap<>())
+                .computeIfAbsent(StringUtils.lowerCase(service.getServiceVersion()),
+                        version -> new TreeMap<>())
+                .computeIfAbsent(service.getCloudServiceProvider().getName(),
+                        csp -> new ArrayList<>())
+                .add(service));
+        List<CategoryOclVo> categoryOclVos = new ArrayList<>();
+        tree.forEach((name, versions) -> {
+            CategoryOclVo categoryOclVo = new CategoryOclVo();
+            categoryOclVo.setName(name);
+            List<VersionOclVo> versionOclVos = new ArrayList<>();
+            versions.forEach((version, csps) -> {
+                VersionOclVo versionOclVo = new VersionOclVo();
+                versionOclVo.setVersion(version);
+                List<ProviderOclVo> providerOclVos = new ArrayList<>();
+                csps.forEach((csp, details) -> {
+                    details.sort(Comparator.comparing(OclDetailVo::getId));
+                    ProviderOclVo providerOclVo = new ProviderOclVo();
+                    providerOclVo.setName(csp);
+                    providerOclVo.setDetails(Collections.unmodifiableList(details));
+                    providerOclVo.setRegions(details.get(0).getCloudServiceProvider().getRegions());
+                    providerOclVos.add(providerOclVo);
+                });
+                versionOclVo.setCloudProvider(Collections.unmodifiableList(providerOclVos));
+                versionOclVos.add(versionOclVo);
+            });
+            categoryOclVo.setVersions(Collections.unmodifiableList(versionOclVos));
+            categoryOclVos.add(categoryOclVo);
+        });
+        categoryOclVos.sort(NAME_ORDER);
+        return new CategoryCatalog(Collections.unmodifiableList(categoryOclVos),
+                computeEtag(categoryOclVos));
+    }
+
+    private String computeEtag(List<CategoryOclVo> categoryOclVos) {
+        try {
+            return "\"" + Hashing.sha256().hashBytes(objectMapper.writeValueAsBytes(categoryOclVos))
+                    + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compute ETag of the catalog.", e);
+        }
+    }
+
+    private OclDetailVo convertToOclDetailVo(RegisterServiceEntity serviceEntity) {
+        OclDetailVo oclDetailVo = new OclDetailVo();
+        oclDetailVo.setId(serviceEntity.getId());
+        BeanUtils.copyProperties(serviceEntity.getOcl(), oclDetailVo);
+        oclDetailVo.setCreateTime(serviceEntity.getCreateTime());
+        oclDetailVo.setLastModifiedTime(serviceEntity.getLastModifiedTime());
+        oclDetailVo.setServiceState(serviceEntity.getServiceState());
+        return oclDetailVo;
+    }
+
+    /**
+     * Immutable state of the catalog, replaced as a whole on every change.
+     */
+    @lombok.Value
+    private static class Snapshot {
+
+        String changeVersion;
+
+        Map<Category, Map<UUID, OclDetailVo>> services;
+
+        Map<Category, CategoryCatalog> categories;
+    }
+}
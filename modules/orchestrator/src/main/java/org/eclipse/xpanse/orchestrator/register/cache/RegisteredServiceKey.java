@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+
+/**
+ * Natural key of a registered service, the same columns as the unique constraint of the
+ * REGISTER_SERVICE table.
+ */
+@Value
+public class RegisteredServiceKey {
+
+    String name;
+
+    String version;
+
+    Csp csp;
+
+    Category category;
+
+    /**
+     * Create the key, name and version are normalized the same way they are stored.
+     *
+     * @param name     name of the registered service.
+     * @param version  version of the registered service.
+     * @param csp      cloud service provider of the registered service.
+     * @param category category of the registered service.
+     * @return the key of the registered service.
+     */
+    public static RegisteredServiceKey of(String name, String version, Csp csp,
+            Category category) {
+        return new RegisteredServiceKey(StringUtils.lowerCase(name),
+                StringUtils.lowerCase(version), csp, category);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotEntity;
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotRepository;
+import org.eclipse.xpanse.orchestrator.register.OclSnapshotStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bean to manage the Ocl snapshots in database.
+ */
+@Slf4j
+@Component
+public class DatabaseOclSnapshotStorage implements OclSnapshotStorage {
+
+    private final OclSnapshotRepository repository;
+
+    private final TransactionTemplate newTransaction;
+
+    /**
+     * Constructor of the DatabaseOclSnapshotStorage.
+     */
+    @Autowired
+    public DatabaseOclSnapshotStorage(OclSnapshotRepository oclSnapshotRepository,
+            PlatformTransactionManager transactionManager) {
+        this.repository = oclSnapshotRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store the Ocl snapshot unless a snapshot with the same hash is already stored. Snapshots
+     * are immutable, so losing the race against another writer of the same hash is fine. The
+     * snapshot is stored in its own transaction, the failed insert of the loser of the race
+     * does not roll back the transaction of the caller.
+     *
+     * @param oclSnapshotEntity the Ocl snapshot.
+     */
+    @Override
+    public void storeIfAbsent(OclSnapshotEntity oclSnapshotEntity) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (!repository.existsById(oclSnapshotEntity.getHash())) {
+                    repository.saveAndFlush(oclSnapshotEntity);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Ocl snapshot {} already stored.", oclSnapshotEntity.getHash());
+        }
+    }
+
+    /**
+     * Get the Ocl snapshot by hash.
+     *
+     * @param hash hash of the Ocl snapshot.
+     * @return Returns the Ocl snapshot, null if not stored.
+     */
+    @Override
+    public OclSnapshotEntity findByHash(String hash) {
+        return repository.findById(hash).orElse(null);
+    }
+}
@@ -6,16 +6,33 @@
 
 package org.eclipse.xpanse.orchestrator.register.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
 import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursor;
 import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
@@ -29,6 +46,9 @@ public class DatabaseRegisterServiceStorage implements RegisterServiceStorage {
 
     private final RegisterServiceRepository repository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public DatabaseRegisterServiceStorage(RegisterServiceRepository registerServiceRepository) {
         this.repository = registerServiceRepository;
@@ -81,34 +101,138 @@ public class DatabaseRegisterServiceStorage implements RegisterServiceStorage {
     @Override
     public List<RegisterServiceEntity> queryRegisteredServices(
             RegisteredServiceQuery serviceQuery) {
+        return repository.findAll(getSpecification(serviceQuery));
+    }
 
-        Specification<RegisterServiceEntity> specification =
-                ((root, query, criteriaBuilder) -> {
-                    List<Predicate> predicateList = new ArrayList<>();
-                    if (Objects.nonNull(serviceQuery.getCategory())) {
-                        predicateList.add(criteriaBuilder.equal(root.get("category"),
-                                serviceQuery.getCategory()));
-                    }
-
-                    if (Objects.nonNull(serviceQuery.getCsp())) {
-                        predicateList.add(criteriaBuilder.equal(root.get("csp"),
-                                serviceQuery.getCsp()));
-                    }
-                    if (StringUtils.isNotBlank(serviceQuery.getServiceName())) {
-                        predicateList.add(criteriaBuilder.equal(root.get("name"),
-                                StringUtils.lowerCase(serviceQuery.getServiceName())));
-
-                    }
-                    if (StringUtils.isNotBlank(serviceQuery.getServiceVersion())) {
-                        predicateList.add(criteriaBuilder.equal(root.get("version"),
-                                StringUtils.lowerCase(serviceQuery.getServiceVersion())));
-                    }
+    /**
+     * Method to list the registered services by query model. Only the columns of the view are
+     * selected, the Ocl only when requested.
+     *
+     * @param serviceQuery query model for search register service entity.
+     * @param cursor       only services with an id after the cursor are returned, may be null.
+     * @param limit        maximum number of services returned, null for all services.
+     * @param withOcl      whether to load the Ocl of the services.
+     * @return Returns the registered services for the provided arguments.
+     */
+    @Override
+    public List<RegisteredServiceVo> listRegisteredServices(RegisteredServiceQuery serviceQuery,
+            UUID cursor, Integer limit, boolean withOcl) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<RegisterServiceEntity> root = query.from(RegisterServiceEntity.class);
+        Predicate predicate = getSpecification(serviceQuery).toPredicate(root, query,
+                criteriaBuilder);
+        if (Objects.nonNull(cursor)) {
+            predicate = criteriaBuilder.and(predicate,
+                    criteriaBuilder.greaterThan(root.get("id"), cursor));
+        }
+        selectRegisteredServiceVo(query, root, withOcl)
+                .where(predicate)
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (Objects.nonNull(limit)) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultStream().map(tuple -> {
+            RegisteredServiceVo registeredServiceVo = convertToRegisteredServiceVo(tuple);
+            if (withOcl) {
+                registeredServiceVo.setOcl(tuple.get("ocl", Ocl.class));
+            }
+            return registeredServiceVo;
+        }).collect(Collectors.toList());
+    }
 
-                    return query.where(criteriaBuilder.and(predicateList.toArray(new Predicate[0])))
-                            .getRestriction();
-                });
+    /**
+     * Method to list the registered services modified after the position of a change feed.
+     *
+     * @param after position of the last change seen.
+     * @param until only services modified before this time are returned.
+     * @param limit maximum number of services returned.
+     * @return Returns the registered services for the provided arguments.
+     */
+    @Override
+    public List<RegisteredServiceVo> listChangedRegisteredServices(ChangeCursor after,
+            Date until, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<RegisterServiceEntity> root = query.from(RegisterServiceEntity.class);
+        Path<Date> lastModifiedTime = root.get("lastModifiedTime");
+        selectRegisteredServiceVo(query, root, false)
+                .where(criteriaBuilder.lessThan(lastModifiedTime, until),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(lastModifiedTime, after.getDate()),
+                                criteriaBuilder.and(
+                                        criteriaBuilder.equal(lastModifiedTime, after.getDate()),
+                                        criteriaBuilder.greaterThan(root.get("id"),
+                                                after.getId()))))
+                .orderBy(criteriaBuilder.asc(lastModifiedTime),
+                        criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultStream()
+                .map(this::convertToRegisteredServiceVo).collect(Collectors.toList());
+    }
 
-        return repository.findAll(specification);
+    /**
+     * Method to count the registered services by query model.
+     *
+     * @param serviceQuery query model for search register service entity.
+     * @return Returns the number of registered services for the provided arguments.
+     */
+    @Override
+    public long countRegisteredServices(RegisteredServiceQuery serviceQuery) {
+        return repository.count(getSpecification(serviceQuery));
+    }
+
+    private Specification<RegisterServiceEntity> getSpecification(
+            RegisteredServiceQuery serviceQuery) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicateList = new ArrayList<>();
+            if (Objects.nonNull(serviceQuery.getCategory())) {
+                predicateList.add(criteriaBuilder.equal(root.get("category"),
+                        serviceQuery.getCategory()));
+            }
+
+            if (Objects.nonNull(serviceQuery.getCsp())) {
+                predicateList.add(criteriaBuilder.equal(root.get("csp"),
+                        serviceQuery.getCsp()));
+            }
+            if (StringUtils.isNotBlank(serviceQuery.getServiceName())) {
+                predicateList.add(criteriaBuilder.equal(root.get("name"),
+                        StringUtils.lowerCase(serviceQuery.getServiceName())));
+
+            }
+            if (StringUtils.isNotBlank(serviceQuery.getServiceVersion())) {
+                predicateList.add(criteriaBuilder.equal(root.get("version"),
+                        StringUtils.lowerCase(serviceQuery.getServiceVersion())));
+            }
+            return criteriaBuilder.and(predicateList.toArray(new Predicate[0]));
+        };
+    }
+
+    private CriteriaQuery<Tuple> selectRegisteredServiceVo(CriteriaQuery<Tuple> query,
+            Root<RegisterServiceEntity> root, boolean withOcl) {
+        List<Selection<?>> selections = new ArrayList<>(List.of(root.get("id").alias("id"),
+                root.get("name").alias("name"), root.get("version").alias("version"),
+                root.get("csp").alias("csp"), root.get("category").alias("category"),
+                root.get("serviceState").alias("serviceState"),
+                root.get("createTime").alias("createTime"),
+                root.get("lastModifiedTime").alias("lastModifiedTime")));
+        if (withOcl) {
+            selections.add(root.get("ocl").alias("ocl"));
+        }
+        return query.multiselect(selections);
+    }
+
+    private RegisteredServiceVo convertToRegisteredServiceVo(Tuple tuple) {
+        RegisteredServiceVo registeredServiceVo = new RegisteredServiceVo();
+        registeredServiceVo.setId(tuple.get("id", UUID.class));
+        registeredServiceVo.setName(tuple.get("name", String.class));
+        registeredServiceVo.setVersion(tuple.get("version", String.class));
+        registeredServiceVo.setCsp(tuple.get("csp", Csp.class));
+        registeredServiceVo.setCategory(tuple.get("category", Category.class));
+        registeredServiceVo.setServiceState(tuple.get("serviceState", ServiceState.class));
+        registeredServiceVo.setCreateTime(tuple.get("createTime", Date.class));
+        registeredServiceVo.setLastModifiedTime(tuple.get("lastModifiedTime", Date.class));
+        return registeredServiceVo;
     }
 
     /**
@@ -158,4 +282,17 @@ public class DatabaseRegisterServiceStorage implements RegisterServiceStorage {
     public void remove(RegisterServiceEntity registerServiceEntity) {
         repository.delete(registerServiceEntity);
     }
+
+    /**
+     * Get the change version of all registered services. Built from the row count and the latest
+     * modification time, so both updates and removals change the version.
+     *
+     * @return Returns the current change version.
+     */
+    @Override
+    public String getChangeVersion() {
+        Date latestModifiedTime = repository.findLatestModifiedTime();
+        return repository.count() + ":"
+                + (Objects.isNull(latestModifiedTime) ? 0 : latestModifiedTime.getTime());
+    }
 }
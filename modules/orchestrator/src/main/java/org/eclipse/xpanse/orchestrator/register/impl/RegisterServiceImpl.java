@@ -17,21 +17,31 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
 import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.ServiceState;
 import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
 import org.eclipse.xpanse.modules.models.resource.Ocl;
 import org.eclipse.xpanse.modules.models.utils.OclLoader;
 import org.eclipse.xpanse.modules.models.view.CategoryOclVo;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.KeysetPage;
 import org.eclipse.xpanse.modules.models.view.OclDetailVo;
 import org.eclipse.xpanse.modules.models.view.ProviderOclVo;
 import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
 import org.eclipse.xpanse.modules.models.view.VersionOclVo;
+import org.eclipse.xpanse.orchestrator.change.ChangeFeedService;
 import org.eclipse.xpanse.orchestrator.register.RegisterService;
 import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.eclipse.xpanse.orchestrator.register.cache.CategoryCatalog;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceCache;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceCatalog;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -43,11 +53,25 @@ public class RegisterServiceImpl implements RegisterService {
 
     private final RegisterServiceStorage storage;
     private final OclLoader oclLoader;
+    private final RegisteredServiceCache registeredServiceCache;
+    private final RegisteredServiceCatalog registeredServiceCatalog;
+    private final ChangeFeedService changeFeedService;
+    private final OclSnapshotCache oclSnapshotCache;
 
+    /**
+     * Constructor of the RegisterServiceImpl.
+     */
     @Autowired
-    public RegisterServiceImpl(RegisterServiceStorage registerServiceStorage, OclLoader oclLoader) {
+    public RegisterServiceImpl(RegisterServiceStorage registerServiceStorage, OclLoader oclLoader,
+            RegisteredServiceCache registeredServiceCache,
+            RegisteredServiceCatalog registeredServiceCatalog,
+            ChangeFeedService changeFeedService, OclSnapshotCache oclSnapshotCache) {
         this.storage = registerServiceStorage;
         this.oclLoader = oclLoader;
+        this.registeredServiceCache = registeredServiceCache;
+        this.registeredServiceCatalog = registeredServiceCatalog;
+        this.changeFeedService = changeFeedService;
+        this.oclSnapshotCache = oclSnapshotCache;
     }
 
     /**
@@ -78,8 +102,11 @@ public class RegisterServiceImpl implements RegisterService {
         }
         checkParams(existedService, ocl);
         existedService.setOcl(ocl);
+        existedService.setOclHash(oclSnapshotCache.intern(ocl));
         existedService.setServiceState(ServiceState.UPDATED);
         storage.store(existedService);
+        registeredServiceCache.invalidate(existedService.getId());
+        registeredServiceCatalog.update(existedService);
     }
 
     private void checkParams(RegisterServiceEntity existedService, Ocl ocl) {
@@ -134,7 +161,9 @@ public class RegisterServiceImpl implements RegisterService {
             log.error("Service already registered.");
             throw new IllegalArgumentException("Service already registered.");
         }
+        newEntity.setOclHash(oclSnapshotCache.intern(ocl));
         storage.store(newEntity);
+        registeredServiceCatalog.update(newEntity);
         return newEntity.getId();
     }
 
@@ -163,19 +192,25 @@ public class RegisterServiceImpl implements RegisterService {
     }
 
     /**
-     * Search registered service by query model.
+     * Search registered service by query model, one page at a time. Only the columns of the view
+     * are loaded, the Ocl only when requested.
      *
-     * @param query the query model for search registered service.
-     * @return list of RegisteredServiceVo
+     * @param query     the query model for search registered service.
+     * @param cursor    cursor returned with the previous page, null for the first page.
+     * @param pageSize  maximum number of registered services in the page.
+     * @param withTotal whether to count all registered services matching the query.
+     * @param withOcl   whether to return the Ocl of the registered services.
+     * @return page of RegisteredServiceVo
      */
     @Override
-    public List<RegisteredServiceVo> queryRegisteredServices(RegisteredServiceQuery query) {
-        List<RegisterServiceEntity> registeredServices = storage.queryRegisteredServices(query);
-        if (CollectionUtils.isEmpty(registeredServices)) {
-            return new ArrayList<>();
-        }
-        return registeredServices.stream().map(
-                this::convertToRegisteredServiceVo).collect(Collectors.toList());
+    public KeysetPage<RegisteredServiceVo> queryRegisteredServices(RegisteredServiceQuery query,
+            String cursor, int pageSize, boolean withTotal, boolean withOcl) {
+        UUID after = StringUtils.isBlank(cursor) ? null : UUID.fromString(cursor);
+        // fetch one more to know whether there is a next page.
+        List<RegisteredServiceVo> services = storage.listRegisteredServices(query, after,
+                pageSize + 1, withOcl);
+        return KeysetPage.of(services, pageSize, service -> service.getId().toString(),
+                withTotal ? storage.countRegisteredServices(query) : null);
     }
 
     /**
@@ -186,6 +221,11 @@ public class RegisterServiceImpl implements RegisterService {
      */
     @Override
     public List<CategoryOclVo> queryRegisteredServicesTree(RegisteredServiceQuery query) {
+        if (Objects.nonNull(query.getCategory()) && Objects.isNull(query.getCsp())
+                && StringUtils.isBlank(query.getServiceName())
+                && StringUtils.isBlank(query.getServiceVersion())) {
+            return getRegisteredServicesTree(query.getCategory()).getServices();
+        }
         List<RegisterServiceEntity> serviceList = storage.queryRegisteredServices(query);
         if (CollectionUtils.isEmpty(serviceList)) {
             return new ArrayList<>();
@@ -227,6 +267,29 @@ public class RegisterServiceImpl implements RegisterService {
         return oclTrees;
     }
 
+    /**
+     * Get the materialized tree of the registered services of the category.
+     *
+     * @param category category of the registered services.
+     * @return Returns the tree and its ETag.
+     */
+    @Override
+    public CategoryCatalog getRegisteredServicesTree(Category category) {
+        return registeredServiceCatalog.getCategory(category);
+    }
+
+    /**
+     * List the changes of the registered services after the cursor, including the removed ones.
+     *
+     * @param cursor   cursor returned with the previous page, null for the start of the feed.
+     * @param pageSize maximum number of changes in the page.
+     * @return page of the changes.
+     */
+    @Override
+    public ChangePage<RegisteredServiceVo> queryRegisteredServiceChanges(String cursor,
+            int pageSize) {
+        return changeFeedService.listRegisteredServiceChanges(cursor, pageSize);
+    }
 
     /**
      * Unregister service using the ID of registered service.
@@ -234,9 +297,13 @@ public class RegisterServiceImpl implements RegisterService {
      * @param managedServiceId ID of registered service.
      */
     @Override
+    @Transactional
     public void unregisterService(String managedServiceId) {
         UUID uuid = UUID.fromString(managedServiceId);
         storage.removeById(uuid);
+        changeFeedService.recordDeletion(ChangeEntityType.REGISTERED_SERVICE, uuid);
+        registeredServiceCache.invalidate(uuid);
+        registeredServiceCatalog.remove(uuid);
     }
 
     private OclDetailVo convertToOclDetailVo(RegisterServiceEntity serviceEntity) {
@@ -251,14 +318,4 @@ public class RegisterServiceImpl implements RegisterService {
         oclDetailVo.setServiceState(serviceEntity.getServiceState());
         return oclDetailVo;
     }
-
-    private RegisteredServiceVo convertToRegisteredServiceVo(RegisterServiceEntity serviceEntity) {
-        if (Objects.isNull(serviceEntity)) {
-            return null;
-        }
-        RegisteredServiceVo registeredServiceVo = new RegisteredServiceVo();
-        BeanUtils.copyProperties(serviceEntity, registeredServiceVo);
-        return registeredServiceVo;
-    }
-
 }
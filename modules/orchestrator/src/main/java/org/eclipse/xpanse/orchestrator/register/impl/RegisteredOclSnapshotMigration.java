@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores the Ocl snapshots of the services registered before the hash of the snapshot was
+ * stored with the registered service, and stores their hash.
+ *
+ * <p>The services are migrated one batch per transaction. The hash is written with a bulk
+ * update, so the modified time of the registered services and the change feed are kept.
+ */
+@Slf4j
+@Component
+public class RegisteredOclSnapshotMigration {
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OclSnapshotCache oclSnapshotCache;
+
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor of the RegisteredOclSnapshotMigration.
+     */
+    @Autowired
+    public RegisteredOclSnapshotMigration(PlatformTransactionManager transactionManager,
+            OclSnapshotCache oclSnapshotCache,
+            @Value("${xpanse.migration.ocl-hash.batch-size:100}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.oclSnapshotCache = oclSnapshotCache;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Migrate the registered services without a stored hash when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int migrated = 0;
+        Integer stored;
+        do {
+            stored = transactionTemplate.execute(status -> storeBatch());
+            migrated += Objects.requireNonNullElse(stored, 0);
+        } while (Objects.nonNull(stored) && stored == batchSize);
+        if (migrated > 0) {
+            log.info("Stored the Ocl snapshots of {} registered services.", migrated);
+        }
+    }
+
+    private int storeBatch() {
+        List<RegisterServiceEntity> services = entityManager.createQuery(
+                        "select r from RegisterServiceEntity r where r.oclHash is null",
+                        RegisterServiceEntity.class)
+                .setMaxResults(batchSize)
+                .getResultList();
+        for (RegisterServiceEntity service : services) {
+            entityManager.createQuery("update RegisterServiceEntity r set r.oclHash = :oclHash"
+                            + " where r.id = :id and r.oclHash is null")
+                    .setParameter("oclHash", oclSnapshotCache.intern(service.getOcl()))
+                    .setParameter("id", service.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+        return services.size();
+    }
+}
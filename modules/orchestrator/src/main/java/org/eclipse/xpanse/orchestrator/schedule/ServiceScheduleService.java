@@ -0,0 +1,388 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.schedule.ServiceScheduleEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.eclipse.xpanse.modules.models.enums.ScheduleType;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.ServiceScheduleRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceScheduleVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deploys services at a set time and destroys them after their time to live.
+ *
+ * <p>The schedules are stored in the database, the schedules firing within the horizon are
+ * loaded into an in-memory timing wheel by a range scan of the index on their state and fire
+ * time, so neither a tick nor a restart reads all pending schedules. Due schedules are claimed
+ * in the database, so every schedule fires on one node, and their deployments and destroys go
+ * to the task executor like the ones requested directly. The destroy of a service with a time
+ * to live is stored with the claim of its deployment, before the deployment starts.
+ */
+@Slf4j
+@Component
+public class ServiceScheduleService {
+
+    private static final String METRIC_NAME = "xpanse.schedule";
+    private static final int MAXIMUM_ERROR_LENGTH = 1024;
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int SLOT_BITS = 6;
+    private static final int LEVELS = 4;
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final Set<ServiceState> BUSY_STATES = Set.of(ServiceState.DEPLOYING,
+            ServiceState.MODIFYING, ServiceState.DESTROYING);
+
+    private final OrchestratorService orchestratorService;
+    private final ServiceScheduleStorage storage;
+    private final long horizonMillis;
+    private final long retryMillis;
+    private final int missingServiceAttempts;
+    private final int maximumTimers;
+    private final TimingWheel timingWheel;
+    private final Set<UUID> timers = ConcurrentHashMap.newKeySet();
+    private final Executor fireExecutor;
+    private final Counter failedSchedules;
+
+    /**
+     * Constructor of the ServiceScheduleService.
+     *
+     * @param orchestratorService    service deploying and destroying the services.
+     * @param storage                storage of the schedules.
+     * @param meterRegistry          registry of the metrics.
+     * @param tickMillis             length of a tick of the timing wheel.
+     * @param horizonMinutes         schedules firing within this time are kept in memory.
+     * @param retryMinutes           time before a destroy of a busy service is tried again.
+     * @param missingServiceAttempts number of tries of a destroy which finds no service.
+     * @param maximumTimers          maximum number of schedules kept in memory.
+     * @param fireExecutor           executor firing the due schedules.
+     */
+    @Autowired
+    public ServiceScheduleService(OrchestratorService orchestratorService,
+            ServiceScheduleStorage storage, MeterRegistry meterRegistry,
+            @Value("${xpanse.schedule.tick-ms:1000}") long tickMillis,
+            @Value("${xpanse.schedule.horizon-minutes:10}") long horizonMinutes,
+            @Value("${xpanse.schedule.retry-minutes:1}") long retryMinutes,
+            @Value("${xpanse.schedule.missing-service-attempts:10}") int missingServiceAttempts,
+            @Value("${xpanse.schedule.maximum-timers:500000}") int maximumTimers,
+            @Qualifier("serviceScheduleExecutor") Executor fireExecutor) {
+        this.orchestratorService = orchestratorService;
+        this.storage = storage;
+        this.horizonMillis = TimeUnit.MINUTES.toMillis(horizonMinutes);
+        this.retryMillis = TimeUnit.MINUTES.toMillis(retryMinutes);
+        this.missingServiceAttempts = missingServiceAttempts;
+        this.maximumTimers = maximumTimers;
+        this.timingWheel = new TimingWheel(tickMillis, SLOT_BITS, LEVELS,
+                System.currentTimeMillis());
+        this.fireExecutor = fireExecutor;
+        this.failedSchedules = Counter.builder(METRIC_NAME + ".failures")
+                .description("Scheduled operations which failed to start.")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".timers", timingWheel, TimingWheel::size)
+                .description("Schedules waiting in the timing wheel.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedule the deployment of a service and, with a time to live, its destroy. A deploy
+     * time in the past deploys the service at once.
+     *
+     * @param scheduleRequest the request of the service and the times of the operations.
+     * @return the schedule of the deployment, with the id of the service.
+     */
+    public ServiceScheduleVo scheduleService(ServiceScheduleRequest scheduleRequest) {
+        CreateRequest createRequest = scheduleRequest.getRequest();
+        UUID serviceId = UUID.randomUUID();
+        createRequest.setId(serviceId);
+        // reject a request which can't be deployed now instead of when it fires.
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(serviceId);
+        deployTask.setCreateRequest(createRequest);
+        orchestratorService.getDeployHandler(deployTask);
+        Date now = new Date();
+        Date deployTime = scheduleRequest.getDeployTime();
+        ServiceScheduleEntity schedule = newSchedule(serviceId, ScheduleType.DEPLOY,
+                Objects.isNull(deployTime) || deployTime.before(now) ? now : deployTime);
+        schedule.setTtlMinutes(scheduleRequest.getTtlMinutes());
+        schedule.setCreateRequest(createRequest);
+        storage.store(schedule);
+        final ServiceScheduleVo serviceScheduleVo = getScheduleVo(schedule);
+        log.info("Scheduled the deployment of service {} at {}.", serviceId,
+                schedule.getFireTime());
+        track(schedule.getId(), schedule.getFireTime());
+        return serviceScheduleVo;
+    }
+
+    /**
+     * Get the schedule.
+     *
+     * @param id id of the schedule.
+     * @return the schedule.
+     */
+    public ServiceScheduleVo getSchedule(UUID id) {
+        return getScheduleVo(findSchedule(id));
+    }
+
+    /**
+     * List the schedules of the service.
+     *
+     * @param serviceId id of the service.
+     * @return the schedules, in the order of their fire time.
+     */
+    public List<ServiceScheduleVo> listSchedules(UUID serviceId) {
+        return storage.findSchedulesByServiceId(serviceId).stream()
+                .map(this::getScheduleVo).toList();
+    }
+
+    /**
+     * Cancel the pending schedule.
+     *
+     * @param id id of the schedule.
+     * @return the cancelled schedule.
+     */
+    public ServiceScheduleVo cancelSchedule(UUID id) {
+        ServiceScheduleEntity schedule = findSchedule(id);
+        if (!storage.updateState(id, ScheduleState.PENDING, ScheduleState.CANCELLED)) {
+            throw new IllegalArgumentException(String.format(
+                    "Schedule %s already started, only pending schedules are cancelled.", id));
+        }
+        // the timer stays in the wheel, its claim fails when it fires.
+        schedule.setState(ScheduleState.CANCELLED);
+        return getScheduleVo(schedule);
+    }
+
+    /**
+     * Load the pending schedules firing within the horizon into the timing wheel. Only the
+     * range of the index up to the horizon is read, the schedules already in the wheel are
+     * skipped.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.schedule.poll-interval-ms:60000}")
+    public void load() {
+        Date until = new Date(System.currentTimeMillis() + horizonMillis);
+        Date fireTime = new Date(0);
+        UUID id = FIRST_ID;
+        try {
+            while (timers.size() < maximumTimers) {
+                Map<UUID, Date> pending = storage.findPending(until, fireTime, id,
+                        LOAD_PAGE_SIZE);
+                for (Map.Entry<UUID, Date> schedule : pending.entrySet()) {
+                    track(schedule.getKey(), schedule.getValue());
+                    id = schedule.getKey();
+                    fireTime = schedule.getValue();
+                }
+                if (pending.size() < LOAD_PAGE_SIZE) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the pending schedules.", e);
+        }
+    }
+
+    /**
+     * Advance the timing wheel and fire the due schedules. The schedules are only handed to
+     * the fire executor, so a tick never waits for a deployment or a destroy.
+     */
+    @Scheduled(fixedRateString = "${xpanse.schedule.tick-ms:1000}")
+    public void tick() {
+        try {
+            for (UUID id : timingWheel.advance(System.currentTimeMillis())) {
+                fireExecutor.execute(() -> fire(id));
+            }
+        } catch (RejectedExecutionException e) {
+            // shutting down, the schedules are loaded again after the restart.
+        } catch (RuntimeException e) {
+            log.warn("Failed to advance the timers of the schedules.", e);
+        }
+    }
+
+    private void track(UUID id, Date fireTime) {
+        if (fireTime.getTime() <= System.currentTimeMillis() + horizonMillis
+                && timers.size() < maximumTimers && timers.add(id)) {
+            timingWheel.add(id, fireTime.getTime());
+        }
+    }
+
+    private void fire(UUID id) {
+        timers.remove(id);
+        ServiceScheduleEntity schedule;
+        ServiceScheduleEntity destroy;
+        try {
+            schedule = storage.findScheduleById(id);
+            if (Objects.isNull(schedule)) {
+                return;
+            }
+            destroy = getDestroySchedule(schedule);
+            // cancelled or fired by another node.
+            if (!storage.fire(id, destroy)) {
+                return;
+            }
+            schedule.setState(ScheduleState.FIRED);
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim schedule {}, it is loaded again.", id, e);
+            return;
+        }
+        try {
+            if (schedule.getType() == ScheduleType.DEPLOY) {
+                deploy(schedule);
+            } else {
+                destroy(schedule);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to start the {} of service {}.", schedule.getType(),
+                    schedule.getServiceId(), e);
+            failedSchedules.increment();
+            schedule.setState(ScheduleState.FAILED);
+            schedule.setError(StringUtils.abbreviate(e.getMessage(), MAXIMUM_ERROR_LENGTH));
+            destroy = cancelDestroy(destroy);
+        }
+        try {
+            storage.store(schedule);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store schedule {}.", id, e);
+        }
+        if (schedule.getState() == ScheduleState.PENDING) {
+            track(schedule.getId(), schedule.getFireTime());
+        }
+        if (Objects.nonNull(destroy)) {
+            track(destroy.getId(), destroy.getFireTime());
+        }
+    }
+
+    private ServiceScheduleEntity getDestroySchedule(ServiceScheduleEntity schedule) {
+        if (schedule.getType() != ScheduleType.DEPLOY
+                || Objects.isNull(schedule.getTtlMinutes())) {
+            return null;
+        }
+        return newSchedule(schedule.getServiceId(), ScheduleType.DESTROY,
+                new Date(System.currentTimeMillis()
+                        + TimeUnit.MINUTES.toMillis(schedule.getTtlMinutes())));
+    }
+
+    private ServiceScheduleEntity cancelDestroy(ServiceScheduleEntity destroy) {
+        if (Objects.isNull(destroy)) {
+            return null;
+        }
+        try {
+            storage.updateState(destroy.getId(), ScheduleState.PENDING, ScheduleState.CANCELLED);
+            return null;
+        } catch (RuntimeException e) {
+            // the destroy finds no service and ends after its attempts.
+            log.warn("Failed to cancel schedule {}.", destroy.getId(), e);
+            return destroy;
+        }
+    }
+
+    private void deploy(ServiceScheduleEntity schedule) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(schedule.getServiceId());
+        deployTask.setCreateRequest(schedule.getCreateRequest());
+        Deployment deployment = orchestratorService.getDeployHandler(deployTask);
+        orchestratorService.asyncDeployService(deployment, deployTask);
+        log.info("Started the scheduled deployment of service {}.", schedule.getServiceId());
+    }
+
+    private void destroy(ServiceScheduleEntity schedule) {
+        UUID serviceId = schedule.getServiceId();
+        ServiceState state = orchestratorService.getServiceStates(List.of(serviceId))
+                .get(serviceId);
+        if (Objects.isNull(state)) {
+            // the deployment is still queued in the task executor, or never started.
+            if (schedule.getAttempts() + 1 >= missingServiceAttempts) {
+                schedule.setState(ScheduleState.CANCELLED);
+                schedule.setError("Service not found.");
+                return;
+            }
+            schedule.setAttempts(schedule.getAttempts() + 1);
+            schedule.setState(ScheduleState.PENDING);
+            schedule.setFireTime(new Date(System.currentTimeMillis() + retryMillis));
+            return;
+        }
+        // still running another operation.
+        if (BUSY_STATES.contains(state)) {
+            schedule.setState(ScheduleState.PENDING);
+            schedule.setFireTime(new Date(System.currentTimeMillis() + retryMillis));
+            return;
+        }
+        if (state == ServiceState.DESTROY_SUCCESS) {
+            schedule.setState(ScheduleState.CANCELLED);
+            schedule.setError("Service already destroyed.");
+            return;
+        }
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(serviceId);
+        Deployment deployment;
+        try {
+            deployment = orchestratorService.getDestroyHandler(deployTask);
+        } catch (ServiceStateConflictException e) {
+            // another request or node started an operation of the service meanwhile.
+            schedule.setState(ScheduleState.PENDING);
+            schedule.setFireTime(new Date(System.currentTimeMillis() + retryMillis));
+            return;
+        }
+        orchestratorService.asyncDestroyService(deployment, deployTask);
+        log.info("Started the scheduled destroy of service {}.", serviceId);
+    }
+
+    private ServiceScheduleEntity findSchedule(UUID id) {
+        ServiceScheduleEntity schedule = storage.findScheduleById(id);
+        if (Objects.isNull(schedule)) {
+            throw new EntityNotFoundException(String.format("Schedule %s not found.", id));
+        }
+        return schedule;
+    }
+
+    private ServiceScheduleEntity newSchedule(UUID serviceId, ScheduleType type,
+            Date fireTime) {
+        ServiceScheduleEntity schedule = new ServiceScheduleEntity();
+        schedule.setId(UUID.randomUUID());
+        schedule.setServiceId(serviceId);
+        schedule.setType(type);
+        schedule.setState(ScheduleState.PENDING);
+        schedule.setFireTime(fireTime);
+        schedule.setCreateTime(new Date());
+        return schedule;
+    }
+
+    private ServiceScheduleVo getScheduleVo(ServiceScheduleEntity schedule) {
+        ServiceScheduleVo serviceScheduleVo = new ServiceScheduleVo();
+        serviceScheduleVo.setId(schedule.getId());
+        serviceScheduleVo.setServiceId(schedule.getServiceId());
+        serviceScheduleVo.setType(schedule.getType());
+        serviceScheduleVo.setState(schedule.getState());
+        serviceScheduleVo.setFireTime(schedule.getFireTime());
+        serviceScheduleVo.setTtlMinutes(schedule.getTtlMinutes());
+        serviceScheduleVo.setError(schedule.getError());
+        serviceScheduleVo.setCreateTime(schedule.getCreateTime());
+        return serviceScheduleVo;
+    }
+}
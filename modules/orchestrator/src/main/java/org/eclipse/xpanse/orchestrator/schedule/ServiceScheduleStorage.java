@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.schedule.ServiceScheduleEntity;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+
+/**
+ * Interface for persist of the scheduled operations of the services.
+ */
+public interface ServiceScheduleStorage {
+
+    /**
+     * Store the schedule.
+     *
+     * @param schedule the schedule.
+     */
+    void store(ServiceScheduleEntity schedule);
+
+    /**
+     * Find the schedule by its id.
+     *
+     * @param id id of the schedule.
+     * @return the schedule, null if not found.
+     */
+    ServiceScheduleEntity findScheduleById(UUID id);
+
+    /**
+     * Find the schedules of the service.
+     *
+     * @param serviceId id of the service.
+     * @return the schedules, in the order of their fire time.
+     */
+    List<ServiceScheduleEntity> findSchedulesByServiceId(UUID serviceId);
+
+    /**
+     * Find the pending schedules firing until the time, after the last schedule found in the
+     * order of the fire times and the ids. Only this range of the index is read, not all
+     * pending schedules.
+     *
+     * @param until    the latest fire time.
+     * @param fireTime fire time of the last schedule found.
+     * @param id       id of the last schedule found.
+     * @param limit    maximum number of schedules.
+     * @return the fire times of the schedules by their ids, in the order of the fire times.
+     */
+    Map<UUID, Date> findPending(Date until, Date fireTime, UUID id, int limit);
+
+    /**
+     * Change the state of the schedule if it is still in the expected state, so only one node
+     * starts the operation.
+     *
+     * @param id       id of the schedule.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @return true if the state was changed.
+     */
+    boolean updateState(UUID id, ScheduleState expected, ScheduleState state);
+
+    /**
+     * Change the pending schedule to fired and store the schedule following it in the same
+     * transaction, so the following schedule exists before the operation starts.
+     *
+     * @param id       id of the schedule.
+     * @param schedule the following schedule, null if none.
+     * @return true if the schedule was pending and is fired now.
+     */
+    boolean fire(UUID id, ServiceScheduleEntity schedule);
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hierarchical timing wheel of the pending schedules.
+ *
+ * <p>Every level has the same number of slots, a slot of a level spans a whole rotation of the
+ * level below. A timer is put in the lowest level whose rotation holds its fire time, and moves
+ * to the lower levels when the wheel reaches its slot, so adding a timer and advancing the
+ * wheel by a tick take constant time whatever the number of timers. Timers later than the
+ * rotation of the top level wait in an overflow list until the top level turns over.
+ */
+class TimingWheel {
+
+    private final long tickMillis;
+    private final int slotBits;
+    private final int slotMask;
+    private final List<List<Timer>> slots = new ArrayList<>();
+    private List<Timer> overflow = new ArrayList<>();
+    private final List<UUID> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructor of the TimingWheel.
+     *
+     * @param tickMillis length of a tick, the precision of the timers.
+     * @param slotBits   the levels have 2^slotBits slots.
+     * @param levels     number of levels.
+     * @param nowMillis  the current time.
+     */
+    TimingWheel(long tickMillis, int slotBits, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slotBits = slotBits;
+        this.slotMask = (1 << slotBits) - 1;
+        for (int i = 0; i < levels << slotBits; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Add a timer, a timer already due expires with the next advance.
+     *
+     * @param id             id of the schedule.
+     * @param fireTimeMillis fire time of the schedule.
+     */
+    synchronized void add(UUID id, long fireTimeMillis) {
+        place(new Timer(id, fireTimeMillis / tickMillis));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the time.
+     *
+     * @param nowMillis the current time.
+     * @return the ids of the expired timers, in the order of their ticks.
+     */
+    synchronized List<UUID> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick < nowTick) {
+            currentTick++;
+            cascade();
+            List<Timer> slot = slots.get(slotIndex(0, currentTick));
+            for (Timer timer : slot) {
+                expired.add(timer.id());
+            }
+            slot.clear();
+        }
+        List<UUID> ids = new ArrayList<>(expired);
+        expired.clear();
+        size -= ids.size();
+        return ids;
+    }
+
+    /**
+     * Get the number of timers not expired yet.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    private void place(Timer timer) {
+        if (timer.tick() <= currentTick) {
+            expired.add(timer.id());
+            return;
+        }
+        int levels = slots.size() >> slotBits;
+        for (int level = 0; level < levels; level++) {
+            int shift = slotBits * (level + 1);
+            if (timer.tick() >> shift == currentTick >> shift) {
+                slots.get(slotIndex(level, timer.tick())).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    /**
+     * Move the timers of the higher level slots reached by the current tick to the lower
+     * levels, the highest level first.
+     */
+    private void cascade() {
+        int levels = slots.size() >> slotBits;
+        int reached = 0;
+        while (reached + 1 < levels
+                && (currentTick & ((1L << (slotBits * (reached + 1))) - 1)) == 0) {
+            reached++;
+        }
+        if (reached + 1 == levels
+                && (currentTick & ((1L << (slotBits * levels)) - 1)) == 0) {
+            List<Timer> timers = overflow;
+            overflow = new ArrayList<>();
+            timers.forEach(this::place);
+        }
+        for (int level = reached; level > 0; level--) {
+            List<Timer> slot = slots.get(slotIndex(level, currentTick));
+            List<Timer> timers = new ArrayList<>(slot);
+            slot.clear();
+            timers.forEach(this::place);
+        }
+    }
+
+    private int slotIndex(int level, long tick) {
+        return (level << slotBits) + (int) ((tick >> (slotBits * level)) & slotMask);
+    }
+
+    private record Timer(UUID id, long tick) {
+    }
+}
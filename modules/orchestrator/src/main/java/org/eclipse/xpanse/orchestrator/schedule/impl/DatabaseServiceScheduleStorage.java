@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule.impl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.schedule.ServiceScheduleEntity;
+import org.eclipse.xpanse.modules.database.schedule.ServiceScheduleRepository;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.eclipse.xpanse.orchestrator.schedule.ServiceScheduleStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ServiceScheduleStorage.
+ */
+@Component
+public class DatabaseServiceScheduleStorage implements ServiceScheduleStorage {
+
+    private final ServiceScheduleRepository repository;
+
+    @Autowired
+    public DatabaseServiceScheduleStorage(ServiceScheduleRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(ServiceScheduleEntity schedule) {
+        repository.save(schedule);
+    }
+
+    @Override
+    public ServiceScheduleEntity findScheduleById(UUID id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    @Override
+    public List<ServiceScheduleEntity> findSchedulesByServiceId(UUID serviceId) {
+        return repository.findByServiceIdOrderByFireTimeAsc(serviceId);
+    }
+
+    @Override
+    public Map<UUID, Date> findPending(Date until, Date fireTime, UUID id, int limit) {
+        Map<UUID, Date> schedules = new LinkedHashMap<>();
+        for (Object[] schedule : repository.findDue(ScheduleState.PENDING, until, fireTime, id,
+                PageRequest.of(0, limit))) {
+            schedules.put((UUID) schedule[0], (Date) schedule[1]);
+        }
+        return schedules;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateState(UUID id, ScheduleState expected, ScheduleState state) {
+        return repository.updateState(id, expected, state) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean fire(UUID id, ServiceScheduleEntity schedule) {
+        if (repository.updateState(id, ScheduleState.PENDING, ScheduleState.FIRED) == 0) {
+            return false;
+        }
+        if (Objects.nonNull(schedule)) {
+            repository.save(schedule);
+        }
+        return true;
+    }
+}
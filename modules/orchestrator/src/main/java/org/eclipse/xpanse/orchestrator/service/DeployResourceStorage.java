@@ -6,12 +6,63 @@
 
 package org.eclipse.xpanse.orchestrator.service;
 
+import java.util.List;
 import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.eclipse.xpanse.modules.models.query.DeployResourceQuery;
+import org.eclipse.xpanse.modules.models.view.DeployResourceVo;
 
 /**
  * Interface for persist of DeployResource.
  */
 public interface DeployResourceStorage {
 
+    /**
+     * Store new or changed resources of deployed services. The searchable columns are filled
+     * from the properties, the statements are sent in JDBC batches when the transaction is
+     * flushed.
+     *
+     * @param deployResources new resources without id, or changed resources.
+     */
+    void storeAll(List<DeployResourceEntity> deployResources);
+
+    /**
+     * Delete all resources of the deployed service with set based statements.
+     *
+     * @param id id of the deployed service.
+     */
     void deleteByDeployServiceId(UUID id);
+
+    /**
+     * Get all resources of the deployed service.
+     *
+     * @param id id of the deployed service.
+     * @return the resources of the service.
+     */
+    List<DeployResourceEntity> findByDeployServiceId(UUID id);
+
+    /**
+     * Delete the resources of deployed services.
+     *
+     * @param deployResources the resources to delete.
+     */
+    void deleteAll(List<DeployResourceEntity> deployResources);
+
+    /**
+     * List the resources of all deployed services by query model, ordered by id.
+     *
+     * @param query  query model for search deployed resources.
+     * @param cursor only resources with an id after the cursor are returned, may be null.
+     * @param limit  maximum number of resources returned.
+     * @return the deployed resources.
+     */
+    List<DeployResourceVo> listResources(DeployResourceQuery query, UUID cursor, int limit);
+
+    /**
+     * Count the resources of all deployed services by query model.
+     *
+     * @param query query model for search deployed resources.
+     * @return the number of deployed resources.
+     */
+    long countResources(DeployResourceQuery query);
 }
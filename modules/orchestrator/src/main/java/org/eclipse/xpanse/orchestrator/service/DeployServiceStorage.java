@@ -6,9 +6,17 @@
 
 package org.eclipse.xpanse.orchestrator.service;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursor;
 
 /**
  * Interface for persist of DeployService.
@@ -29,6 +37,45 @@ public interface DeployServiceStorage {
      */
     List<DeployServiceEntity> services();
 
+    /**
+     * Method to list the deployed services by query model without loading their create request.
+     * The services are ordered by id.
+     *
+     * @param query  query model for search deployed services.
+     * @param cursor only services with an id after the cursor are returned, may be null.
+     * @param limit  maximum number of services returned, null for all services.
+     * @return Returns the deployed services for the provided arguments.
+     */
+    List<ServiceVo> listServices(DeployedServiceQuery query, UUID cursor, Integer limit);
+
+    /**
+     * Method to list the deployed services modified after the position of a change feed, ordered
+     * by modification time and id.
+     *
+     * @param after position of the last change seen.
+     * @param until only services modified before this time are returned.
+     * @param limit maximum number of services returned.
+     * @return Returns the deployed services for the provided arguments.
+     */
+    List<ServiceVo> listChangedServices(ChangeCursor after, Date until, int limit);
+
+    /**
+     * Method to count the deployed services by query model.
+     *
+     * @param query query model for search deployed services.
+     * @return Returns the number of deployed services for the provided arguments.
+     */
+    long countServices(DeployedServiceQuery query);
+
+    /**
+     * Method to stream the deployed services by query model. The stream holds a database cursor
+     * and must be consumed and closed within a transaction.
+     *
+     * @param query query model for search deployed services.
+     * @return Returns the stream of deployed services for the provided arguments.
+     */
+    Stream<ServiceVo> streamServices(DeployedServiceQuery query);
+
     /**
      * Get detail of deployed service using ID.
      *
@@ -36,4 +83,100 @@ public interface DeployServiceStorage {
      * @return registerServiceEntity
      */
     DeployServiceEntity findDeployServiceById(UUID id);
+
+    /**
+     * Get detail of deployed service using ID, the resources are fetched in the same query.
+     *
+     * @param id the ID of deployed service.
+     * @return the deployed service with its resources, null if not found.
+     */
+    DeployServiceEntity findDeployServiceWithResourcesById(UUID id);
+
+    /**
+     * Get the deployed services using their IDs, in one query.
+     *
+     * @param ids the IDs of the deployed services.
+     * @return the deployed services found, in no particular order.
+     */
+    List<DeployServiceEntity> findDeployServicesByIds(Collection<UUID> ids);
+
+    /**
+     * Get the states of the deployed services using their IDs, in one query on the primary key.
+     *
+     * @param ids the IDs of the deployed services.
+     * @return the state of every deployed service found.
+     */
+    Map<UUID, ServiceState> findServiceStates(Collection<UUID> ids);
+
+    /**
+     * Change the state of the deployed service if it is still in the expected state and not
+     * leased, so only one request or node starts an operation of the service.
+     *
+     * @param id              id of the deployed service.
+     * @param expected        the expected state.
+     * @param state           the new state.
+     * @param leaseExpireTime end of the lease of the operation of the new state, null if none.
+     * @return true if the state was changed.
+     */
+    boolean updateState(UUID id, ServiceState expected, ServiceState state,
+            Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the deployed services still held by an operation.
+     *
+     * @param ids             ids of the deployed services.
+     * @param states          states of the operations holding the services.
+     * @param leaseExpireTime the new end of the leases.
+     */
+    void renewLeases(Collection<UUID> ids, Collection<ServiceState> states,
+            Date leaseExpireTime);
+
+    /**
+     * Find the deployed services held by an operation whose lease ended.
+     *
+     * @param states states of the operations holding the services.
+     * @param limit  maximum number of services.
+     * @return the ids of the services.
+     */
+    List<UUID> findExpiredLeases(Collection<ServiceState> states, int limit);
+
+    /**
+     * Change the state of the deployed service if it is still in the expected state and its
+     * lease ended.
+     *
+     * @param id       id of the deployed service.
+     * @param expected the expected state.
+     * @param state    the new state.
+     * @return true if the state was changed.
+     */
+    boolean updateExpiredState(UUID id, ServiceState expected, ServiceState state);
+
+    /**
+     * Lease the deployed service without changing its state, if it is in one of the states and
+     * not leased. No operation of the service starts until the lease is released or ends.
+     *
+     * @param id              id of the deployed service.
+     * @param states          the expected states.
+     * @param leaseExpireTime end of the lease.
+     * @return true if the service was leased.
+     */
+    boolean leaseService(UUID id, Collection<ServiceState> states, Date leaseExpireTime);
+
+    /**
+     * Release the lease taken by {@link #leaseService(UUID, Collection, Date)}.
+     *
+     * @param id     id of the deployed service.
+     * @param states the states of the leased service.
+     */
+    void releaseService(UUID id, Collection<ServiceState> states);
+
+    /**
+     * Get the durations of the latest deployments of the Ocl snapshot, measured around the
+     * deployer. Services assigned resources deployed ahead have no duration and are left out.
+     *
+     * @param oclHash the hash of the Ocl snapshot.
+     * @param limit   maximum number of deployments.
+     * @return the durations in milliseconds, from the latest deployment.
+     */
+    List<Long> findDeployDurations(String oclHash, int limit);
 }
@@ -0,0 +1,18 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service;
+
+/**
+ * Thrown when an operation of a deployed service can't start from the current state of the
+ * service, or another request or node changed the state of the service first.
+ */
+public class ServiceStateConflictException extends RuntimeException {
+
+    public ServiceStateConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.cache;
+
+import lombok.Value;
+import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
+
+/**
+ * Entry of the service detail cache. The detail is shared by all readers of the cache and must
+ * not be modified.
+ */
+@Value
+public class CachedServiceDetail {
+
+    ServiceDetailVo detail;
+
+    /**
+     * Strong ETag of the json of the detail.
+     */
+    String etag;
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
+import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
+import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Short lived cache of the deployed service details, polled by the dashboards for every
+ * deployment in progress.
+ *
+ * <p>Concurrent requests for a detail which is not cached share one load from the database. The
+ * details are invalidated when the state of the deployed service changes on this node, the time
+ * to live bounds how long changes made by other nodes stay invisible.
+ */
+@Component
+public class ServiceDetailCache {
+
+    private static final String METRIC_NAME = "xpanse.service.detail.cache";
+
+    private final DeployServiceStorage storage;
+    private final Cache<UUID, CachedServiceDetail> details;
+    private final Map<UUID, CompletableFuture<CachedServiceDetail>> loads =
+            new ConcurrentHashMap<>();
+    private final Counter coalescedLoads;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor of the ServiceDetailCache.
+     *
+     * @param storage       storage of the deployed services.
+     * @param meterRegistry registry of the cache metrics.
+     * @param objectMapper  mapper of the details to hash into their etags.
+     * @param maximumSize   maximum number of cached service details.
+     * @param ttlMillis     time to live of the cached service details.
+     */
+    @Autowired
+    public ServiceDetailCache(DeployServiceStorage storage, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${xpanse.service.detail.cache.maximum-size:10000}") long maximumSize,
+            @Value("${xpanse.service.detail.cache.ttl-ms:2000}") long ttlMillis) {
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.details = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS).recordStats().build();
+        GuavaCacheMetrics.monitor(meterRegistry, details, METRIC_NAME);
+        this.coalescedLoads = Counter.builder(METRIC_NAME + ".coalesced")
+                .description("Requests served by the load of a concurrent request.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the detail of the deployed service.
+     *
+     * @param id id of the deployed service.
+     * @return the cached detail, null if the service is not deployed.
+     */
+    public CachedServiceDetail get(UUID id) {
+        CachedServiceDetail cached = details.getIfPresent(id);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        CompletableFuture<CachedServiceDetail> load = new CompletableFuture<>();
+        CompletableFuture<CachedServiceDetail> running = loads.putIfAbsent(id, load);
+        if (Objects.nonNull(running)) {
+            coalescedLoads.increment();
+            return join(running);
+        }
+        CachedServiceDetail loaded = null;
+        try {
+            loaded = details.getIfPresent(id);
+            if (Objects.isNull(loaded)) {
+                loaded = load(id);
+                if (Objects.nonNull(loaded)) {
+                    details.put(id, loaded);
+                }
+            }
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            // the service changed while loading, the loaded detail may already be outdated.
+            if (!loads.remove(id, load) && Objects.nonNull(loaded)) {
+                details.asMap().remove(id, loaded);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the detail of the deployed service, again after the commit of the current
+     * transaction so that concurrent readers can't cache the old state.
+     *
+     * @param id id of the deployed service.
+     */
+    public void invalidate(UUID id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evict(id);
+                        }
+                    });
+        }
+    }
+
+    private CachedServiceDetail load(UUID id) {
+        DeployServiceEntity entity = storage.findDeployServiceWithResourcesById(id);
+        if (Objects.isNull(entity)) {
+            return null;
+        }
+        ServiceDetailVo detail = EntityTransUtils.transServiceEntity(entity);
+        return new CachedServiceDetail(detail, computeEtag(detail));
+    }
+
+    private void evict(UUID id) {
+        loads.remove(id);
+        details.invalidate(id);
+    }
+
+    private String computeEtag(ServiceDetailVo detail) {
+        try {
+            return "\"" + Hashing.sha256().hashBytes(objectMapper.writeValueAsBytes(detail))
+                    + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compute ETag of the service detail.", e);
+        }
+    }
+
+    private static CachedServiceDetail join(CompletableFuture<CachedServiceDetail> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.models.query.ServiceEventQuery;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In memory bus of the state changes of the deployed services on this node.
+ *
+ * <p>Publishing never blocks: the state change is only added to the bounded buffer of every
+ * matching subscriber, a small pool of delivery threads drains the buffers, one subscriber at a
+ * time. A subscriber whose buffer is full is dropped, so slow consumers can't hold back the
+ * others or the deployments. Idle subscribers cost no thread.
+ */
+@Slf4j
+@Component
+public class ServiceEventBus {
+
+    private static final String METRIC_NAME = "xpanse.service.events";
+
+    private final Set<ServiceEventSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final int bufferSize;
+    private final int maximumSubscribers;
+    private final Executor deliveryExecutor;
+    private final Counter publishedEvents;
+    private final Counter droppedSubscribers;
+
+    /**
+     * Constructor of the ServiceEventBus.
+     *
+     * @param meterRegistry      registry of the metrics.
+     * @param bufferSize         maximum number of undelivered state changes per subscriber.
+     * @param maximumSubscribers maximum number of subscribers on this node.
+     * @param deliveryExecutor   executor delivering the state changes.
+     */
+    @Autowired
+    public ServiceEventBus(MeterRegistry meterRegistry,
+            @Value("${xpanse.service.events.buffer-size:64}") int bufferSize,
+            @Value("${xpanse.service.events.maximum-subscribers:10000}") int maximumSubscribers,
+            @Qualifier("serviceEventExecutor") Executor deliveryExecutor) {
+        this.bufferSize = bufferSize;
+        this.maximumSubscribers = maximumSubscribers;
+        this.deliveryExecutor = deliveryExecutor;
+        Gauge.builder(METRIC_NAME + ".subscribers", subscriptions, Set::size)
+                .description("Subscribers to the service state changes.")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder(METRIC_NAME + ".published")
+                .description("Published service state changes.")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder(METRIC_NAME + ".dropped")
+                .description("Subscribers dropped because they could not keep up or failed.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to the state changes matching the query.
+     *
+     * @param query    filter of the state changes.
+     * @param listener listener of the subscriber.
+     * @return the subscription.
+     */
+    public ServiceEventSubscription subscribe(ServiceEventQuery query,
+            ServiceEventListener listener) {
+        if (subscriptions.size() >= maximumSubscribers) {
+            throw new IllegalStateException(String.format(
+                    "Maximum number of %d subscribers reached.", maximumSubscribers));
+        }
+        ServiceEventSubscription subscription = new ServiceEventSubscription(this, query,
+                listener, bufferSize);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publish the state change, after the commit of the current transaction if there is one so
+     * that subscribers never see a state which is rolled back.
+     *
+     * @param event the state change.
+     */
+    public void publish(ServiceStateEventVo event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            dispatch(event);
+                        }
+                    });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    void unsubscribe(ServiceEventSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+    }
+
+    private void dispatch(ServiceStateEventVo event) {
+        publishedEvents.increment();
+        for (ServiceEventSubscription subscription : subscriptions) {
+            if (!subscription.matches(event)) {
+                continue;
+            }
+            if (!subscription.offer(event)) {
+                drop(subscription);
+            } else if (subscription.schedule()) {
+                deliveryExecutor.execute(() -> deliver(subscription));
+            }
+        }
+    }
+
+    private void deliver(ServiceEventSubscription subscription) {
+        try {
+            ServiceStateEventVo event;
+            while (!subscription.isClosed() && Objects.nonNull(event = subscription.poll())) {
+                subscription.getListener().onEvent(event);
+            }
+        } catch (Exception e) {
+            log.debug("Delivery of service state change failed, drop subscriber.", e);
+            drop(subscription);
+            return;
+        } finally {
+            subscription.unschedule();
+        }
+        // state changes added after the last poll and before unscheduling.
+        if (subscription.hasPending() && subscription.schedule()) {
+            deliveryExecutor.execute(() -> deliver(subscription));
+        }
+    }
+
+    private void drop(ServiceEventSubscription subscription) {
+        subscriptions.remove(subscription);
+        if (subscription.close()) {
+            droppedSubscribers.increment();
+            deliveryExecutor.execute(() -> subscription.getListener().onDropped());
+        }
+    }
+}
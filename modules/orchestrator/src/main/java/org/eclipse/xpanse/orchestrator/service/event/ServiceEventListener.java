@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.event;
+
+import java.io.IOException;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+
+/**
+ * Listener of a subscriber to the state changes of the deployed services. The methods are called
+ * on the delivery threads of the {@link ServiceEventBus}, never concurrently for one subscriber.
+ */
+public interface ServiceEventListener {
+
+    /**
+     * Deliver the state change to the subscriber. The subscriber is dropped when it fails.
+     *
+     * @param event the state change.
+     * @throws IOException if the state change can't be sent to the subscriber.
+     */
+    void onEvent(ServiceStateEventVo event) throws IOException;
+
+    /**
+     * Called once when the subscriber is dropped because it could not keep up or failed.
+     */
+    void onDropped();
+}
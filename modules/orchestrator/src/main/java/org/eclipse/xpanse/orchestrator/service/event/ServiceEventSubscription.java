@@ -0,0 +1,94 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.event;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.lang3.ObjectUtils;
+import org.eclipse.xpanse.modules.models.query.ServiceEventQuery;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+
+/**
+ * Subscription to the state changes of the deployed services, with the bounded buffer of the
+ * state changes not yet delivered to the subscriber.
+ */
+public class ServiceEventSubscription {
+
+    private final ServiceEventBus bus;
+    private final ServiceEventQuery query;
+    private final ServiceEventListener listener;
+    private final Queue<ServiceStateEventVo> buffer;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ServiceEventSubscription(ServiceEventBus bus, ServiceEventQuery query,
+            ServiceEventListener listener, int bufferSize) {
+        this.bus = bus;
+        this.query = query;
+        this.listener = listener;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * Cancel the subscription, no state change is delivered afterwards.
+     */
+    public void cancel() {
+        bus.unsubscribe(this);
+    }
+
+    ServiceEventListener getListener() {
+        return listener;
+    }
+
+    boolean matches(ServiceStateEventVo event) {
+        return (ObjectUtils.isEmpty(query.getIds()) || query.getIds().contains(event.getId()))
+                && (Objects.isNull(query.getCsp()) || query.getCsp() == event.getCsp())
+                && (Objects.isNull(query.getServiceState())
+                || query.getServiceState() == event.getServiceState());
+    }
+
+    boolean offer(ServiceStateEventVo event) {
+        return buffer.offer(event);
+    }
+
+    ServiceStateEventVo poll() {
+        return buffer.poll();
+    }
+
+    boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+
+    /**
+     * Mark the subscription as scheduled for delivery.
+     *
+     * @return true if it was not scheduled yet and the caller must schedule the delivery.
+     */
+    boolean schedule() {
+        return !closed.get() && scheduled.compareAndSet(false, true);
+    }
+
+    void unschedule() {
+        scheduled.set(false);
+    }
+
+    /**
+     * Close the subscription.
+     *
+     * @return true if it was open.
+     */
+    boolean close() {
+        buffer.clear();
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
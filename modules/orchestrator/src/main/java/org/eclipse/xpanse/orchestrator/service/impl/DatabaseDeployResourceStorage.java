@@ -6,10 +6,29 @@
 
 package org.eclipse.xpanse.orchestrator.service.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployResourceRepository;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.query.DeployResourceQuery;
+import org.eclipse.xpanse.modules.models.view.DeployResourceVo;
 import org.eclipse.xpanse.orchestrator.service.DeployResourceStorage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,15 +37,153 @@ import org.springframework.stereotype.Component;
 @Component
 public class DatabaseDeployResourceStorage implements DeployResourceStorage {
 
+    /**
+     * Keys of the IP address in the properties set by the resource handlers of the plugins.
+     */
+    private static final List<String> IP_ADDRESS_KEYS = List.of("ip", "ipv4");
+
+    private static final String REGION_KEY = "region";
+
     private final DeployResourceRepository dployResourceRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public DatabaseDeployResourceStorage(DeployResourceRepository dployResourceRepository) {
         this.dployResourceRepository = dployResourceRepository;
     }
 
+    @Override
+    public void storeAll(List<DeployResourceEntity> deployResources) {
+        for (DeployResourceEntity deployResource : deployResources) {
+            fillSearchColumns(deployResource);
+            // the service may be the detached instance passed to save, refer to the managed one.
+            if (Objects.nonNull(deployResource.getDeployService())) {
+                deployResource.setDeployService(entityManager.getReference(
+                        DeployServiceEntity.class, deployResource.getDeployService().getId()));
+            }
+        }
+        dployResourceRepository.saveAll(deployResources);
+    }
+
     @Override
     public void deleteByDeployServiceId(UUID id) {
         dployResourceRepository.deleteByDeployServiceId(id);
     }
+
+    @Override
+    public List<DeployResourceEntity> findByDeployServiceId(UUID id) {
+        return dployResourceRepository.findByDeployServiceId(id);
+    }
+
+    @Override
+    public void deleteAll(List<DeployResourceEntity> deployResources) {
+        dployResourceRepository.deleteAllInBatch(deployResources);
+    }
+
+    /**
+     * Method to list the resources of all deployed services by query model. Only the resource
+     * table is read, the searchable columns are indexed.
+     *
+     * @param resourceQuery query model for search deployed resources.
+     * @param cursor        only resources with an id after the cursor are returned, may be null.
+     * @param limit         maximum number of resources returned.
+     * @return Returns the deployed resources for the provided arguments.
+     */
+    @Override
+    public List<DeployResourceVo> listResources(DeployResourceQuery resourceQuery, UUID cursor,
+            int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<DeployResourceEntity> root = query.from(DeployResourceEntity.class);
+        Predicate predicate = getSpecification(resourceQuery).toPredicate(root, query,
+                criteriaBuilder);
+        if (Objects.nonNull(cursor)) {
+            predicate = criteriaBuilder.and(predicate,
+                    criteriaBuilder.greaterThan(root.get("id"), cursor));
+        }
+        query.multiselect(root.get("id").alias("id"),
+                        root.get("deployService").get("id").alias("serviceId"),
+                        root.get("resourceId").alias("resourceId"),
+                        root.get("name").alias("name"), root.get("kind").alias("kind"),
+                        root.get("ipAddress").alias("ipAddress"),
+                        root.get("region").alias("region"),
+                        root.get("property").alias("property"))
+                .where(predicate)
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultStream()
+                .map(this::convertToDeployResourceVo).collect(Collectors.toList());
+    }
+
+    /**
+     * Method to count the resources of all deployed services by query model.
+     *
+     * @param resourceQuery query model for search deployed resources.
+     * @return Returns the number of deployed resources for the provided arguments.
+     */
+    @Override
+    public long countResources(DeployResourceQuery resourceQuery) {
+        return dployResourceRepository.count(getSpecification(resourceQuery));
+    }
+
+    /**
+     * Copy the IP address and the region of the resource from its properties to the searchable
+     * columns.
+     *
+     * @param deployResource the deployed resource.
+     */
+    static void fillSearchColumns(DeployResourceEntity deployResource) {
+        Map<String, String> property = deployResource.getProperty();
+        if (Objects.nonNull(property)) {
+            deployResource.setIpAddress(IP_ADDRESS_KEYS.stream().map(property::get)
+                    .filter(StringUtils::isNotBlank).findFirst().orElse(null));
+            deployResource.setRegion(property.get(REGION_KEY));
+        }
+        // resources without region in the properties are in the region of the service.
+        if (StringUtils.isBlank(deployResource.getRegion())
+                && Objects.nonNull(deployResource.getDeployService())
+                && Objects.nonNull(deployResource.getDeployService().getCreateRequest())) {
+            deployResource.setRegion(
+                    deployResource.getDeployService().getCreateRequest().getRegion());
+        }
+    }
+
+    private Specification<DeployResourceEntity> getSpecification(
+            DeployResourceQuery resourceQuery) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicateList = new ArrayList<>();
+            if (Objects.nonNull(resourceQuery.getKind())) {
+                predicateList.add(criteriaBuilder.equal(root.get("kind"),
+                        resourceQuery.getKind()));
+            }
+            if (StringUtils.isNotBlank(resourceQuery.getResourceId())) {
+                predicateList.add(criteriaBuilder.equal(root.get("resourceId"),
+                        resourceQuery.getResourceId()));
+            }
+            if (StringUtils.isNotBlank(resourceQuery.getIpAddress())) {
+                predicateList.add(criteriaBuilder.equal(root.get("ipAddress"),
+                        resourceQuery.getIpAddress()));
+            }
+            if (StringUtils.isNotBlank(resourceQuery.getRegion())) {
+                predicateList.add(criteriaBuilder.equal(root.get("region"),
+                        resourceQuery.getRegion()));
+            }
+            return criteriaBuilder.and(predicateList.toArray(new Predicate[0]));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeployResourceVo convertToDeployResourceVo(Tuple tuple) {
+        DeployResourceVo deployResourceVo = new DeployResourceVo();
+        deployResourceVo.setId(tuple.get("id", UUID.class));
+        deployResourceVo.setServiceId(tuple.get("serviceId", UUID.class));
+        deployResourceVo.setResourceId(tuple.get("resourceId", String.class));
+        deployResourceVo.setName(tuple.get("name", String.class));
+        deployResourceVo.setKind(tuple.get("kind", DeployResourceKind.class));
+        deployResourceVo.setIpAddress(tuple.get("ipAddress", String.class));
+        deployResourceVo.setRegion(tuple.get("region", String.class));
+        deployResourceVo.setProperty(tuple.get("property", Map.class));
+        return deployResourceVo;
+    }
 }
@@ -6,14 +6,42 @@
 
 package org.eclipse.xpanse.orchestrator.service.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.change.ChangeCursor;
 import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of the DeployServiceStorage.
@@ -21,8 +49,13 @@ import org.springframework.stereotype.Component;
 @Component
 public class DatabaseDeployServiceStorage implements DeployServiceStorage {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final DeployServiceRepository deployServiceRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public DatabaseDeployServiceStorage(DeployServiceRepository deployServiceRepository) {
         this.deployServiceRepository = deployServiceRepository;
@@ -43,6 +76,80 @@ public class DatabaseDeployServiceStorage implements DeployServiceStorage {
         return this.deployServiceRepository.findAll();
     }
 
+    /**
+     * Method to list the deployed services by query model. Only the columns of the view are
+     * selected, the create request is not loaded.
+     *
+     * @param serviceQuery query model for search deployed services.
+     * @param cursor       only services with an id after the cursor are returned, may be null.
+     * @param limit        maximum number of services returned, null for all services.
+     * @return Returns the deployed services for the provided arguments.
+     */
+    @Override
+    public List<ServiceVo> listServices(DeployedServiceQuery serviceQuery, UUID cursor,
+            Integer limit) {
+        TypedQuery<Tuple> query = createServiceQuery(serviceQuery, cursor);
+        if (Objects.nonNull(limit)) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultStream().map(this::convertToServiceVo)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to list the deployed services modified after the position of a change feed.
+     *
+     * @param after position of the last change seen.
+     * @param until only services modified before this time are returned.
+     * @param limit maximum number of services returned.
+     * @return Returns the deployed services for the provided arguments.
+     */
+    @Override
+    public List<ServiceVo> listChangedServices(ChangeCursor after, Date until, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<DeployServiceEntity> root = query.from(DeployServiceEntity.class);
+        Path<Date> lastModifiedTime = root.get("lastModifiedTime");
+        selectServiceVo(query, root)
+                .where(criteriaBuilder.lessThan(lastModifiedTime, until),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(lastModifiedTime, after.getDate()),
+                                criteriaBuilder.and(
+                                        criteriaBuilder.equal(lastModifiedTime, after.getDate()),
+                                        criteriaBuilder.greaterThan(root.get("id"),
+                                                after.getId()))))
+                .orderBy(criteriaBuilder.asc(lastModifiedTime),
+                        criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultStream()
+                .map(this::convertToServiceVo).collect(Collectors.toList());
+    }
+
+    /**
+     * Method to count the deployed services by query model.
+     *
+     * @param serviceQuery query model for search deployed services.
+     * @return Returns the number of deployed services for the provided arguments.
+     */
+    @Override
+    public long countServices(DeployedServiceQuery serviceQuery) {
+        return this.deployServiceRepository.count(getSpecification(serviceQuery));
+    }
+
+    /**
+     * Method to stream the deployed services by query model. Rows are fetched in chunks from a
+     * database cursor, no entity is kept in the persistence context.
+     *
+     * @param serviceQuery query model for search deployed services.
+     * @return Returns the stream of deployed services for the provided arguments.
+     */
+    @Override
+    public Stream<ServiceVo> streamServices(DeployedServiceQuery serviceQuery) {
+        return createServiceQuery(serviceQuery, null)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream().map(this::convertToServiceVo);
+    }
+
     /**
      * Get detail of deployed service using ID.
      *
@@ -55,4 +162,193 @@ public class DatabaseDeployServiceStorage implements DeployServiceStorage {
                 this.deployServiceRepository.findById(id);
         return optional.orElse(null);
     }
+
+    /**
+     * Get detail of deployed service using ID, the resources are fetched in the same query.
+     *
+     * @param id the ID of deployed service.
+     * @return the deployed service with its resources, null if not found.
+     */
+    @Override
+    public DeployServiceEntity findDeployServiceWithResourcesById(UUID id) {
+        return this.deployServiceRepository.findWithResourcesById(id).orElse(null);
+    }
+
+    /**
+     * Get the deployed services using their IDs, in one query.
+     *
+     * @param ids the IDs of the deployed services.
+     * @return the deployed services found, in no particular order.
+     */
+    @Override
+    public List<DeployServiceEntity> findDeployServicesByIds(Collection<UUID> ids) {
+        return this.deployServiceRepository.findAllById(ids);
+    }
+
+    /**
+     * Get the states of the deployed services using their IDs. Only the id and the state are
+     * selected, in one query on the primary key.
+     *
+     * @param ids the IDs of the deployed services.
+     * @return the state of every deployed service found.
+     */
+    @Override
+    public Map<UUID, ServiceState> findServiceStates(Collection<UUID> ids) {
+        Map<UUID, ServiceState> states = new HashMap<>();
+        if (ids.isEmpty()) {
+            return states;
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<DeployServiceEntity> root = query.from(DeployServiceEntity.class);
+        Path<UUID> id = root.get("id");
+        Path<ServiceState> serviceState = root.get("serviceState");
+        query.multiselect(id, serviceState).where(id.in(ids));
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            states.put(tuple.get(id), tuple.get(serviceState));
+        }
+        return states;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateState(UUID id, ServiceState expected, ServiceState state,
+            Date leaseExpireTime) {
+        return this.deployServiceRepository.updateState(id, expected, state, new Date(),
+                leaseExpireTime) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void renewLeases(Collection<UUID> ids, Collection<ServiceState> states,
+            Date leaseExpireTime) {
+        this.deployServiceRepository.renewLeases(ids, states, leaseExpireTime);
+    }
+
+    @Override
+    public List<UUID> findExpiredLeases(Collection<ServiceState> states, int limit) {
+        return this.deployServiceRepository.findExpiredLeases(states, new Date(),
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateExpiredState(UUID id, ServiceState expected, ServiceState state) {
+        return this.deployServiceRepository.updateExpiredState(id, expected, state,
+                new Date()) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean leaseService(UUID id, Collection<ServiceState> states,
+            Date leaseExpireTime) {
+        return this.deployServiceRepository.updateLease(id, states, new Date(),
+                leaseExpireTime) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void releaseService(UUID id, Collection<ServiceState> states) {
+        this.deployServiceRepository.releaseLease(id, states);
+    }
+
+    /**
+     * Get the durations of the latest deployments of the Ocl snapshot, stored when the deployer
+     * returned. Services assigned resources deployed ahead, e.g. by a warm pool, and services
+     * deployed before the duration was stored have no duration and are left out.
+     *
+     * @param oclHash the hash of the Ocl snapshot.
+     * @param limit   maximum number of deployments.
+     * @return the durations in milliseconds, from the latest deployment.
+     */
+    @Override
+    public List<Long> findDeployDurations(String oclHash, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<DeployServiceEntity> root = query.from(DeployServiceEntity.class);
+        Path<Long> deployDuration = root.get("deployDuration");
+        query.select(deployDuration)
+                .where(criteriaBuilder.equal(root.get("oclHash"), oclHash),
+                        criteriaBuilder.isNotNull(deployDuration))
+                .orderBy(criteriaBuilder.desc(root.get("createTime")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<Tuple> createServiceQuery(DeployedServiceQuery serviceQuery,
+            UUID cursor) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<DeployServiceEntity> root = query.from(DeployServiceEntity.class);
+        Predicate predicate = getSpecification(serviceQuery).toPredicate(root, query,
+                criteriaBuilder);
+        if (Objects.nonNull(cursor)) {
+            predicate = criteriaBuilder.and(predicate,
+                    criteriaBuilder.greaterThan(root.get("id"), cursor));
+        }
+        selectServiceVo(query, root)
+                .where(predicate)
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query);
+    }
+
+    private CriteriaQuery<Tuple> selectServiceVo(CriteriaQuery<Tuple> query,
+            Root<DeployServiceEntity> root) {
+        return query.multiselect(root.get("id").alias("id"),
+                root.get("category").alias("category"), root.get("name").alias("name"),
+                root.get("version").alias("version"), root.get("csp").alias("csp"),
+                root.get("flavor").alias("flavor"),
+                root.get("serviceState").alias("serviceState"),
+                root.get("createTime").alias("createTime"),
+                root.get("lastModifiedTime").alias("lastModifiedTime"));
+    }
+
+    private Specification<DeployServiceEntity> getSpecification(
+            DeployedServiceQuery serviceQuery) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicateList = new ArrayList<>();
+            if (Objects.nonNull(serviceQuery.getCategory())) {
+                predicateList.add(criteriaBuilder.equal(root.get("category"),
+                        serviceQuery.getCategory()));
+            }
+            if (Objects.nonNull(serviceQuery.getCsp())) {
+                predicateList.add(criteriaBuilder.equal(root.get("csp"),
+                        serviceQuery.getCsp()));
+            }
+            if (StringUtils.isNotBlank(serviceQuery.getServiceName())) {
+                predicateList.add(criteriaBuilder.equal(root.get("name"),
+                        StringUtils.lowerCase(serviceQuery.getServiceName())));
+            }
+            if (StringUtils.isNotBlank(serviceQuery.getServiceVersion())) {
+                predicateList.add(criteriaBuilder.equal(root.get("version"),
+                        StringUtils.lowerCase(serviceQuery.getServiceVersion())));
+            }
+            if (Objects.nonNull(serviceQuery.getServiceState())) {
+                predicateList.add(criteriaBuilder.equal(root.get("serviceState"),
+                        serviceQuery.getServiceState()));
+            }
+            if (Objects.nonNull(serviceQuery.getCreatedFrom())) {
+                predicateList.add(criteriaBuilder.greaterThanOrEqualTo(root.<Date>get("createTime"),
+                        serviceQuery.getCreatedFrom()));
+            }
+            if (Objects.nonNull(serviceQuery.getCreatedTo())) {
+                predicateList.add(criteriaBuilder.lessThan(root.<Date>get("createTime"),
+                        serviceQuery.getCreatedTo()));
+            }
+            return criteriaBuilder.and(predicateList.toArray(new Predicate[0]));
+        };
+    }
+
+    private ServiceVo convertToServiceVo(Tuple tuple) {
+        ServiceVo serviceVo = new ServiceVo();
+        serviceVo.setId(tuple.get("id", UUID.class));
+        serviceVo.setCategory(tuple.get("category", Category.class));
+        serviceVo.setName(tuple.get("name", String.class));
+        serviceVo.setVersion(tuple.get("version", String.class));
+        serviceVo.setCsp(tuple.get("csp", Csp.class));
+        serviceVo.setFlavor(tuple.get("flavor", String.class));
+        serviceVo.setServiceState(tuple.get("serviceState", ServiceState.class));
+        serviceVo.setCreateTime(tuple.get("createTime", Date.class));
+        serviceVo.setLastModifiedTime(tuple.get("lastModifiedTime", Date.class));
+        return serviceVo;
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.nio.ByteBuffer;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the properties of the resources stored before they were kept in the PROPERTY column of
+ * the resource table, then drops the old DEPLOY_RESOURCE_PROPERTY table.
+ *
+ * <p>The properties are moved one batch of resources per transaction and the moved rows are
+ * deleted in the same transaction, so an interrupted migration continues with the remaining
+ * rows on the next start. Once the old table is dropped, a start only looks it up in the
+ * metadata of the database.
+ */
+@Slf4j
+@Component
+public class LegacyResourcePropertyMigration {
+
+    static final String LEGACY_PROPERTY_TABLE = "DEPLOY_RESOURCE_PROPERTY";
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor of the LegacyResourcePropertyMigration.
+     */
+    @Autowired
+    public LegacyResourcePropertyMigration(PlatformTransactionManager transactionManager,
+            @Value("${xpanse.migration.resource-property.enabled:true}") boolean enabled,
+            @Value("${xpanse.migration.resource-property.batch-size:500}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Migrate the properties when the application is ready, if the old table still exists.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled || !isLegacyTablePresent()) {
+            return;
+        }
+        int migrated = 0;
+        Integer moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch());
+            migrated += Objects.requireNonNullElse(moved, 0);
+        } while (Objects.nonNull(moved) && moved > 0);
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("drop table " + LEGACY_PROPERTY_TABLE).executeUpdate());
+        log.info("Moved the properties of {} deployed resources from table {}.", migrated,
+                LEGACY_PROPERTY_TABLE);
+    }
+
+    /**
+     * Whether the old property table exists, looked up in the metadata of the database by its
+     * upper and lower case name.
+     */
+    boolean isLegacyTablePresent() {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> entityManager
+                .unwrap(Session.class).doReturningWork(connection -> {
+                    DatabaseMetaData metaData = connection.getMetaData();
+                    for (String tableName : List.of(LEGACY_PROPERTY_TABLE,
+                            LEGACY_PROPERTY_TABLE.toLowerCase(Locale.ROOT))) {
+                        try (ResultSet tables = metaData.getTables(null, null, tableName,
+                                new String[] {"TABLE"})) {
+                            if (tables.next()) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                })));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int moveBatch() {
+        List<Object> ids = entityManager.createNativeQuery("select distinct DEPLOY_RESOURCE_ID"
+                        + " from " + LEGACY_PROPERTY_TABLE)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = entityManager.createNativeQuery("select DEPLOY_RESOURCE_ID, P_KEY,"
+                        + " P_VALUE from " + LEGACY_PROPERTY_TABLE
+                        + " where DEPLOY_RESOURCE_ID in (:ids)")
+                .setParameter("ids", ids)
+                .getResultList();
+        Map<UUID, Map<String, String>> properties = new HashMap<>();
+        for (Object[] row : rows) {
+            properties.computeIfAbsent(toUuid(row[0]), id -> new HashMap<>())
+                    .put((String) row[1], (String) row[2]);
+        }
+        properties.forEach((id, property) -> {
+            DeployResourceEntity deployResource = entityManager.find(DeployResourceEntity.class,
+                    id);
+            // resources stored again since the upgrade already have their properties.
+            if (Objects.nonNull(deployResource) && Objects.isNull(deployResource.getProperty())) {
+                deployResource.setProperty(property);
+                DatabaseDeployResourceStorage.fillSearchColumns(deployResource);
+            }
+        });
+        entityManager.flush();
+        entityManager.createNativeQuery("delete from " + LEGACY_PROPERTY_TABLE
+                        + " where DEPLOY_RESOURCE_ID in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.clear();
+        return properties.size();
+    }
+
+    /**
+     * Convert the id read by a native query, UUID columns are read as UUID or as 16 bytes
+     * depending on the database.
+     */
+    private UUID toUuid(Object id) {
+        if (id instanceof UUID uuid) {
+            return uuid;
+        }
+        if (id instanceof byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(id.toString());
+    }
+}
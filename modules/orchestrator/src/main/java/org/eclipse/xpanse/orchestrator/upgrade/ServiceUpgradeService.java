@@ -0,0 +1,348 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.upgrade;
+
+import com.google.common.util.concurrent.RateLimiter;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.eclipse.xpanse.modules.models.service.ServiceUpgradeRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceUpgradeVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.register.cache.CachedRegisteredService;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upgrades the deployed services of a registered service in place to its current Ocl, for
+ * example after its terraform script was updated.
+ *
+ * <p>The services are upgraded in batches in the order of their ids. In a batch at most
+ * maxUnavailable services upgrade at once, and the next batch starts once the batch ended. The
+ * upgrade pauses when the failed share of a batch is above the failure threshold, and goes on
+ * with the next batch when it is resumed. The upgrades running at once on a node are limited
+ * and the upgrades of every csp are rate limited, so an upgrade can't overwhelm the csp.
+ */
+@Slf4j
+@Component
+public class ServiceUpgradeService {
+
+    private static final Set<ServiceState> UPGRADED_STATES = Set.of(ServiceState.DEPLOY_SUCCESS,
+            ServiceState.MODIFY_SUCCESS, ServiceState.MODIFY_FAILED);
+    private static final UUID FIRST_CURSOR = new UUID(0, 0);
+
+    private final OrchestratorService orchestratorService;
+    private final RegisteredServiceCache registeredServiceCache;
+    private final ServiceUpgradeStorage storage;
+    private final int batchSize;
+    private final int maxUnavailable;
+    private final double failureThreshold;
+    private final double upgradesPerSecond;
+    private final Map<Csp, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Executor upgradeExecutor;
+    private final long leaseMillis;
+    private final Set<UUID> runningUpgrades = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor of the ServiceUpgradeService.
+     *
+     * @param orchestratorService    service upgrading the deployed services.
+     * @param registeredServiceCache cache of the registered services.
+     * @param storage                storage of the upgrades.
+     * @param batchSize              default number of services of a batch.
+     * @param maxUnavailable         default number of services of an upgrade upgrading at once.
+     * @param failureThreshold       default failed share of a batch which pauses the upgrade.
+     * @param upgradeExecutor        executor upgrading the services.
+     * @param cspUpgradesPerMinute   maximum number of upgrades started per minute and csp.
+     * @param leaseMillis            time a node holds a running upgrade without renewing it.
+     */
+    @Autowired
+    public ServiceUpgradeService(OrchestratorService orchestratorService,
+            RegisteredServiceCache registeredServiceCache, ServiceUpgradeStorage storage,
+            @Value("${xpanse.upgrade.batch-size:10}") int batchSize,
+            @Value("${xpanse.upgrade.max-unavailable:2}") int maxUnavailable,
+            @Value("${xpanse.upgrade.failure-threshold:0.2}") double failureThreshold,
+            @Qualifier("upgradeExecutor") Executor upgradeExecutor,
+            @Value("${xpanse.upgrade.csp-upgrades-per-minute:30}") double cspUpgradesPerMinute,
+            @Value("${xpanse.upgrade.lease-ms:300000}") long leaseMillis) {
+        this.orchestratorService = orchestratorService;
+        this.registeredServiceCache = registeredServiceCache;
+        this.storage = storage;
+        this.batchSize = batchSize;
+        this.maxUnavailable = maxUnavailable;
+        this.failureThreshold = failureThreshold;
+        this.upgradesPerSecond = cspUpgradesPerMinute / 60;
+        this.upgradeExecutor = upgradeExecutor;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Start the rolling upgrade of the deployed services of the registered service to its
+     * current Ocl.
+     *
+     * @param upgradeRequest the registered service and the limits of the upgrade.
+     * @return the upgrade.
+     * @throws IllegalArgumentException if the registered service is already being upgraded.
+     */
+    public ServiceUpgradeVo startUpgrade(ServiceUpgradeRequest upgradeRequest) {
+        CachedRegisteredService registeredService =
+                registeredServiceCache.get(upgradeRequest.getRegisteredServiceId());
+        if (Objects.isNull(registeredService)) {
+            throw new EntityNotFoundException(String.format(
+                    "Registered service with id %s not found.",
+                    upgradeRequest.getRegisteredServiceId()));
+        }
+        ServiceUpgradeEntity upgrade = new ServiceUpgradeEntity();
+        upgrade.setId(UUID.randomUUID());
+        upgrade.setRegisteredServiceId(registeredService.getId());
+        upgrade.setActiveRegisteredServiceId(registeredService.getId());
+        upgrade.setCategory(registeredService.getKey().getCategory());
+        upgrade.setName(registeredService.getKey().getName());
+        upgrade.setVersion(registeredService.getKey().getVersion());
+        upgrade.setCsp(registeredService.getKey().getCsp());
+        upgrade.setOclHash(registeredService.getOclHash());
+        upgrade.setState(UpgradeState.RUNNING);
+        upgrade.setCreateTime(new Date());
+        upgrade.setBatchSize(Objects.isNull(upgradeRequest.getBatchSize())
+                ? batchSize : upgradeRequest.getBatchSize());
+        upgrade.setMaxUnavailable(Objects.isNull(upgradeRequest.getMaxUnavailable())
+                ? maxUnavailable : upgradeRequest.getMaxUnavailable());
+        upgrade.setFailureThreshold(Objects.isNull(upgradeRequest.getFailureThreshold())
+                ? failureThreshold : upgradeRequest.getFailureThreshold());
+        upgrade.setCursor(FIRST_CURSOR);
+        upgrade.setFailedServiceIds(new ArrayList<>());
+        upgrade.setLeaseExpireTime(getLeaseExpireTime());
+        if (!storage.storeNewUpgrade(upgrade)) {
+            throw new IllegalArgumentException(String.format(
+                    "Registered service %s has an upgrade running or paused.",
+                    registeredService.getId()));
+        }
+        runningUpgrades.add(upgrade.getId());
+        log.info("Upgrade {} of registered service {} to Ocl snapshot {} started.",
+                upgrade.getId(), upgrade.getRegisteredServiceId(), upgrade.getOclHash());
+        final ServiceUpgradeVo upgradeVo = getServiceUpgradeVo(upgrade);
+        startNextBatch(upgrade);
+        return upgradeVo;
+    }
+
+    /**
+     * Get the progress of the upgrade.
+     *
+     * @param id id of the upgrade.
+     * @return the upgrade.
+     */
+    public ServiceUpgradeVo getUpgrade(UUID id) {
+        return getServiceUpgradeVo(getUpgradeEntity(id));
+    }
+
+    /**
+     * Resume the paused upgrade with the next batch.
+     *
+     * @param id id of the upgrade.
+     * @return the upgrade.
+     * @throws IllegalArgumentException if the upgrade is not paused.
+     */
+    public ServiceUpgradeVo resumeUpgrade(UUID id) {
+        ServiceUpgradeEntity upgrade = getUpgradeEntity(id);
+        Date leaseExpireTime = getLeaseExpireTime();
+        if (!storage.updateState(id, UpgradeState.PAUSED, UpgradeState.RUNNING,
+                leaseExpireTime)) {
+            throw new IllegalArgumentException(String.format(
+                    "Upgrade %s is %s and can't be resumed.", id, upgrade.getState()));
+        }
+        upgrade.setState(UpgradeState.RUNNING);
+        upgrade.setLeaseExpireTime(leaseExpireTime);
+        runningUpgrades.add(id);
+        log.info("Upgrade {} resumed.", id);
+        final ServiceUpgradeVo upgradeVo = getServiceUpgradeVo(upgrade);
+        startNextBatch(upgrade);
+        return upgradeVo;
+    }
+
+    /**
+     * Extend the leases of the upgrades running on this node, so no other node resumes them.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.upgrade.lease-renew-interval-ms:60000}")
+    public void renewUpgradeLeases() {
+        if (!runningUpgrades.isEmpty()) {
+            storage.renewLeases(Set.copyOf(runningUpgrades), getLeaseExpireTime());
+        }
+    }
+
+    /**
+     * Resume the running upgrades whose node stopped renewing their lease, e.g. as it was
+     * restarted, with the batch after their cursor. The services of the interrupted batch are
+     * upgraded again once their own lease ended.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.upgrade.lease-recovery-interval-ms:60000}")
+    public void resumeInterruptedUpgrades() {
+        for (UUID id : storage.findExpiredUpgrades(batchSize)) {
+            Date leaseExpireTime = getLeaseExpireTime();
+            if (!storage.leaseExpiredUpgrade(id, leaseExpireTime)) {
+                continue;
+            }
+            ServiceUpgradeEntity upgrade = storage.findUpgradeById(id);
+            if (Objects.isNull(upgrade) || upgrade.getState() != UpgradeState.RUNNING) {
+                continue;
+            }
+            upgrade.setLeaseExpireTime(leaseExpireTime);
+            runningUpgrades.add(id);
+            log.warn("Upgrade {} was interrupted, resumed after service {}.", id,
+                    upgrade.getCursor());
+            try {
+                startNextBatch(upgrade);
+            } catch (RuntimeException e) {
+                log.error("Failed to resume upgrade {}.", id, e);
+                runningUpgrades.remove(id);
+            }
+        }
+    }
+
+    private ServiceUpgradeEntity getUpgradeEntity(UUID id) {
+        ServiceUpgradeEntity upgrade = storage.findUpgradeById(id);
+        if (Objects.isNull(upgrade)) {
+            throw new EntityNotFoundException(String.format("Upgrade with id %s not found.",
+                    id));
+        }
+        return upgrade;
+    }
+
+    private void startNextBatch(ServiceUpgradeEntity upgrade) {
+        List<UUID> batch = storage.findOutdatedServices(upgrade, UPGRADED_STATES,
+                upgrade.getBatchSize());
+        if (batch.isEmpty()) {
+            updateState(upgrade, UpgradeState.COMPLETED);
+            return;
+        }
+        // every lane upgrades its services one after the other.
+        Map<UUID, ServiceState> states = new ConcurrentHashMap<>();
+        int lanes = Math.min(upgrade.getMaxUnavailable(), batch.size());
+        List<CompletableFuture<Void>> results = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < batch.size(); i += lanes) {
+                UUID serviceId = batch.get(i);
+                result = result.thenRunAsync(() -> states.put(serviceId,
+                        upgradeService(upgrade, serviceId)), upgradeExecutor);
+            }
+            results.add(result);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).whenComplete(
+                (ignored, e) -> {
+                    try {
+                        finishBatch(upgrade, batch, states);
+                    } catch (RuntimeException ex) {
+                        log.error("Failed to finish the batch of upgrade {}.", upgrade.getId(),
+                                ex);
+                        updateState(upgrade, UpgradeState.PAUSED);
+                    }
+                });
+    }
+
+    private ServiceState upgradeService(ServiceUpgradeEntity upgrade, UUID serviceId) {
+        getRateLimiter(upgrade.getCsp()).acquire();
+        try {
+            DeployTask deployTask = new DeployTask();
+            deployTask.setId(serviceId);
+            Deployment deployment =
+                    orchestratorService.getUpgradeHandler(deployTask, upgrade.getOclHash());
+            return orchestratorService.upgradeService(deployment, deployTask);
+        } catch (RuntimeException e) {
+            log.error("Upgrade {} can't upgrade service {}.", upgrade.getId(), serviceId, e);
+            return ServiceState.MODIFY_FAILED;
+        }
+    }
+
+    private void finishBatch(ServiceUpgradeEntity upgrade, List<UUID> batch,
+            Map<UUID, ServiceState> states) {
+        int failed = 0;
+        for (UUID serviceId : batch) {
+            if (states.get(serviceId) == ServiceState.MODIFY_SUCCESS) {
+                upgrade.setSucceeded(upgrade.getSucceeded() + 1);
+            } else {
+                upgrade.getFailedServiceIds().add(serviceId);
+                failed++;
+            }
+        }
+        upgrade.setCursor(batch.get(batch.size() - 1));
+        if (failed > 0 && (double) failed / batch.size() > upgrade.getFailureThreshold()) {
+            log.warn("Upgrade {} paused, {} of {} services of the batch failed.",
+                    upgrade.getId(), failed, batch.size());
+            updateState(upgrade, UpgradeState.PAUSED);
+            return;
+        }
+        store(upgrade);
+        log.info("Upgrade {} upgraded {} services, {} failed.", upgrade.getId(),
+                upgrade.getSucceeded(), upgrade.getFailedServiceIds().size());
+        startNextBatch(upgrade);
+    }
+
+    private void updateState(ServiceUpgradeEntity upgrade, UpgradeState state) {
+        upgrade.setState(state);
+        store(upgrade);
+        log.info("Upgrade {} is {}.", upgrade.getId(), state);
+    }
+
+    private void store(ServiceUpgradeEntity upgrade) {
+        if (upgrade.getState() == UpgradeState.RUNNING) {
+            upgrade.setLeaseExpireTime(getLeaseExpireTime());
+        } else {
+            upgrade.setLeaseExpireTime(null);
+            runningUpgrades.remove(upgrade.getId());
+        }
+        if (upgrade.getState() == UpgradeState.COMPLETED) {
+            // frees the registered service for its next upgrade.
+            upgrade.setActiveRegisteredServiceId(null);
+        }
+        storage.store(upgrade);
+    }
+
+    private Date getLeaseExpireTime() {
+        return new Date(System.currentTimeMillis() + leaseMillis);
+    }
+
+    private RateLimiter getRateLimiter(Csp csp) {
+        return rateLimiters.computeIfAbsent(csp, key -> RateLimiter.create(upgradesPerSecond));
+    }
+
+    private ServiceUpgradeVo getServiceUpgradeVo(ServiceUpgradeEntity upgrade) {
+        ServiceUpgradeVo upgradeVo = new ServiceUpgradeVo();
+        upgradeVo.setId(upgrade.getId());
+        upgradeVo.setRegisteredServiceId(upgrade.getRegisteredServiceId());
+        upgradeVo.setState(upgrade.getState());
+        upgradeVo.setBatchSize(upgrade.getBatchSize());
+        upgradeVo.setMaxUnavailable(upgrade.getMaxUnavailable());
+        upgradeVo.setFailureThreshold(upgrade.getFailureThreshold());
+        upgradeVo.setSucceeded(upgrade.getSucceeded());
+        upgradeVo.setFailed(upgrade.getFailedServiceIds().size());
+        upgradeVo.setFailedServiceIds(List.copyOf(upgrade.getFailedServiceIds()));
+        upgradeVo.setRemaining(upgrade.getState() == UpgradeState.COMPLETED
+                ? 0 : storage.countOutdatedServices(upgrade, UPGRADED_STATES));
+        upgradeVo.setCreateTime(upgrade.getCreateTime());
+        upgradeVo.setLastModifiedTime(upgrade.getLastModifiedTime());
+        return upgradeVo;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.upgrade;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeEntity;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+
+/**
+ * Interface for persist of the rolling upgrades.
+ */
+public interface ServiceUpgradeStorage {
+
+    /**
+     * Store the upgrade.
+     *
+     * @param upgrade the upgrade.
+     */
+    void store(ServiceUpgradeEntity upgrade);
+
+    /**
+     * Find the upgrade by its id.
+     *
+     * @param id id of the upgrade.
+     * @return the upgrade, null if not found.
+     */
+    ServiceUpgradeEntity findUpgradeById(UUID id);
+
+    /**
+     * Store the new upgrade, unless its registered service has an upgrade running or paused.
+     * The unique active registered service of the upgrades decides, not a check before.
+     *
+     * @param upgrade the new upgrade.
+     * @return true if the upgrade was stored.
+     */
+    boolean storeNewUpgrade(ServiceUpgradeEntity upgrade);
+
+    /**
+     * Change the state of the upgrade if it is still in the expected state, so only one node
+     * continues the upgrade.
+     *
+     * @param id              id of the upgrade.
+     * @param expected        the expected state.
+     * @param state           the new state.
+     * @param leaseExpireTime end of the lease of the node continuing the upgrade.
+     * @return true if the state was changed.
+     */
+    boolean updateState(UUID id, UpgradeState expected, UpgradeState state,
+            Date leaseExpireTime);
+
+    /**
+     * Extend the leases of the upgrades still running.
+     *
+     * @param ids             ids of the upgrades.
+     * @param leaseExpireTime the new end of the leases.
+     */
+    void renewLeases(Collection<UUID> ids, Date leaseExpireTime);
+
+    /**
+     * Find the running upgrades whose lease ended, e.g. as their node was restarted.
+     *
+     * @param limit maximum number of upgrades.
+     * @return the ids of the upgrades.
+     */
+    List<UUID> findExpiredUpgrades(int limit);
+
+    /**
+     * Lease the running upgrade whose lease ended, so only one node resumes it.
+     *
+     * @param id              id of the upgrade.
+     * @param leaseExpireTime end of the new lease.
+     * @return true if the upgrade was leased.
+     */
+    boolean leaseExpiredUpgrade(UUID id, Date leaseExpireTime);
+
+    /**
+     * Find the next deployed services of the upgrade: the services of its registered service
+     * in the states which are not deployed with its Ocl snapshot, after its cursor.
+     *
+     * @param upgrade the upgrade.
+     * @param states  the states of the services.
+     * @param limit   maximum number of services.
+     * @return the ids of the services, in the order of the ids.
+     */
+    List<UUID> findOutdatedServices(ServiceUpgradeEntity upgrade,
+            Collection<ServiceState> states, int limit);
+
+    /**
+     * Count the deployed services of the upgrade not upgraded yet.
+     *
+     * @param upgrade the upgrade.
+     * @param states  the states of the services.
+     * @return the number of services.
+     */
+    long countOutdatedServices(ServiceUpgradeEntity upgrade, Collection<ServiceState> states);
+}
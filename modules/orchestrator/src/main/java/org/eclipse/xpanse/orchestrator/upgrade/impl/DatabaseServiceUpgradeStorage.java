@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.upgrade.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeEntity;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeRepository;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.eclipse.xpanse.orchestrator.upgrade.ServiceUpgradeStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the ServiceUpgradeStorage.
+ */
+@Component
+public class DatabaseServiceUpgradeStorage implements ServiceUpgradeStorage {
+
+    private final ServiceUpgradeRepository repository;
+
+    @Autowired
+    public DatabaseServiceUpgradeStorage(ServiceUpgradeRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void store(ServiceUpgradeEntity upgrade) {
+        repository.save(upgrade);
+    }
+
+    @Override
+    public ServiceUpgradeEntity findUpgradeById(UUID id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    @Override
+    public boolean storeNewUpgrade(ServiceUpgradeEntity upgrade) {
+        try {
+            // not transactional, the insert is committed or rolled back before it returns.
+            repository.saveAndFlush(upgrade);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean updateState(UUID id, UpgradeState expected, UpgradeState state,
+            Date leaseExpireTime) {
+        return repository.updateState(id, expected, state, leaseExpireTime) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void renewLeases(Collection<UUID> ids, Date leaseExpireTime) {
+        repository.renewLeases(ids, UpgradeState.RUNNING, leaseExpireTime);
+    }
+
+    @Override
+    public List<UUID> findExpiredUpgrades(int limit) {
+        return repository.findExpiredLeases(UpgradeState.RUNNING, new Date(),
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean leaseExpiredUpgrade(UUID id, Date leaseExpireTime) {
+        return repository.updateExpiredLease(id, UpgradeState.RUNNING, new Date(),
+                leaseExpireTime) > 0;
+    }
+
+    @Override
+    public List<UUID> findOutdatedServices(ServiceUpgradeEntity upgrade,
+            Collection<ServiceState> states, int limit) {
+        return repository.findOutdatedServices(upgrade.getCategory(), upgrade.getName(),
+                upgrade.getVersion(), upgrade.getCsp(), upgrade.getOclHash(), states,
+                upgrade.getCursor(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public long countOutdatedServices(ServiceUpgradeEntity upgrade,
+            Collection<ServiceState> states) {
+        return repository.countOutdatedServices(upgrade.getCategory(), upgrade.getName(),
+                upgrade.getVersion(), upgrade.getCsp(), upgrade.getOclHash(), states,
+                upgrade.getCursor());
+    }
+}
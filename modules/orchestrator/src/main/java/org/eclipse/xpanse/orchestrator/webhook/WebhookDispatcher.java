@@ -0,0 +1,253 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxEntity;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.eclipse.xpanse.modules.models.view.WebhookEventVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers the state changes of the deployed services to the configured webhook endpoints.
+ *
+ * <p>The state changes are written to the outbox in the transaction changing the state, one row
+ * per endpoint, and deleted once the endpoint answered with a 2xx status. Every endpoint gets
+ * its events in batches, with at most a fixed number of batches in flight on all nodes together:
+ * every batch holds one of the delivery slots of the endpoint stored in the database. Failed
+ * batches are retried with an exponential backoff, batches and slots of a node which died are
+ * retried and freed when their lease ends. Events are therefore delivered at least once,
+ * receivers skip duplicate event ids.
+ */
+@Slf4j
+@Component
+public class WebhookDispatcher {
+
+    private static final String METRIC_NAME = "xpanse.webhook";
+
+    private final WebhookOutboxStorage storage;
+    private final Set<ServiceState> serviceStates;
+    private final Set<String> endpoints = new LinkedHashSet<>();
+    private final int batchSize;
+    private final int maximumConcurrency;
+    private final Duration timeout;
+    private final long leaseMillis;
+    private final long initialBackoffMillis;
+    private final long maximumBackoffMillis;
+    private final HttpClient httpClient;
+    private final Executor deliveryExecutor;
+    private final ObjectMapper objectMapper;
+    private final Timer deliveryLatency;
+    private final Counter deliveredEvents;
+    private final Counter failedAttempts;
+
+    /**
+     * Constructor of the WebhookDispatcher.
+     *
+     * @param storage              storage of the outbox.
+     * @param meterRegistry        registry of the metrics.
+     * @param objectMapper         mapper of the posted events.
+     * @param endpoints            URLs the events are posted to.
+     * @param serviceStates        states of the services sent to the endpoints.
+     * @param batchSize            maximum number of events posted at once.
+     * @param maximumConcurrency   maximum number of batches in flight per endpoint, on all
+     *                             nodes together.
+     * @param timeoutMillis        timeout of a post.
+     * @param leaseMillis          time before a batch whose attempt got no result is retried.
+     * @param initialBackoffMillis delay before the first retry of a failed batch.
+     * @param maximumBackoffMillis maximum delay before the retry of a failed batch.
+     * @param deliveryExecutor     executor posting the batches.
+     */
+    @Autowired
+    public WebhookDispatcher(WebhookOutboxStorage storage, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${xpanse.webhook.endpoints:}") List<String> endpoints,
+            @Value("${xpanse.webhook.service-states:DEPLOY_SUCCESS,DEPLOY_FAILED,DESTROY_SUCCESS,"
+                    + "DESTROY_FAILED,MODIFY_SUCCESS,MODIFY_FAILED}")
+            Set<ServiceState> serviceStates,
+            @Value("${xpanse.webhook.batch-size:100}") int batchSize,
+            @Value("${xpanse.webhook.maximum-concurrency:2}") int maximumConcurrency,
+            @Value("${xpanse.webhook.timeout-ms:10000}") long timeoutMillis,
+            @Value("${xpanse.webhook.lease-ms:60000}") long leaseMillis,
+            @Value("${xpanse.webhook.retry.initial-backoff-ms:1000}") long initialBackoffMillis,
+            @Value("${xpanse.webhook.retry.maximum-backoff-ms:300000}")
+            long maximumBackoffMillis,
+            @Qualifier("webhookExecutor") Executor deliveryExecutor) {
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.serviceStates = serviceStates;
+        for (String endpoint : endpoints) {
+            if (StringUtils.isNotBlank(endpoint)) {
+                // fail at startup on invalid URLs.
+                URI.create(endpoint.trim());
+                this.endpoints.add(endpoint.trim());
+            }
+        }
+        this.batchSize = batchSize;
+        this.maximumConcurrency = maximumConcurrency;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.leaseMillis = leaseMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maximumBackoffMillis = maximumBackoffMillis;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.deliveryExecutor = deliveryExecutor;
+        this.deliveryLatency = Timer.builder(METRIC_NAME + ".delivery.latency")
+                .description("Time from the state change to its delivery to an endpoint.")
+                .register(meterRegistry);
+        this.deliveredEvents = Counter.builder(METRIC_NAME + ".delivered")
+                .description("Events delivered to the webhook endpoints.")
+                .register(meterRegistry);
+        this.failedAttempts = Counter.builder(METRIC_NAME + ".failures")
+                .description("Failed attempts to deliver a batch of events.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add the state change to the outbox of every endpoint, in the current transaction so that
+     * the event is sent if and only if the state change is committed.
+     *
+     * @param event the state change.
+     */
+    public void enqueue(ServiceStateEventVo event) {
+        if (endpoints.isEmpty() || !serviceStates.contains(event.getServiceState())) {
+            return;
+        }
+        Date now = new Date();
+        List<WebhookOutboxEntity> events = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            WebhookOutboxEntity outboxEntity = new WebhookOutboxEntity();
+            outboxEntity.setId(UUID.randomUUID());
+            outboxEntity.setEndpoint(endpoint);
+            outboxEntity.setEvent(event);
+            outboxEntity.setCreateTime(now);
+            outboxEntity.setNextAttemptTime(now);
+            events.add(outboxEntity);
+        }
+        storage.storeAll(events);
+    }
+
+    /**
+     * Start the delivery of the due events with the free delivery slots of the endpoints. The
+     * slots held by running attempts of this or another node are skipped by the claim.
+     */
+    @Scheduled(fixedDelayString = "${xpanse.webhook.poll-interval-ms:1000}")
+    public void dispatch() {
+        for (String endpoint : endpoints) {
+            for (int slot = 0; slot < maximumConcurrency; slot++) {
+                startDelivery(endpoint, slot);
+            }
+        }
+    }
+
+    private void startDelivery(String endpoint, int slot) {
+        UUID claimToken = UUID.randomUUID();
+        List<WebhookOutboxEntity> batch;
+        try {
+            Date now = new Date();
+            batch = storage.claimDue(endpoint, slot, claimToken, now,
+                    new Date(now.getTime() + leaseMillis), batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim the webhook events of {}.", endpoint, e);
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            deliveryExecutor.execute(() -> deliver(endpoint, claimToken, batch));
+        } catch (RejectedExecutionException e) {
+            // shutting down, the batch is retried and the slot freed when the lease ends.
+            log.debug("Webhook delivery of {} rejected, retry when the lease ends.", endpoint);
+        }
+    }
+
+    private void deliver(String endpoint, UUID claimToken, List<WebhookOutboxEntity> batch) {
+        try {
+            HttpResponse<Void> response = httpClient.send(getRequest(endpoint, batch),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                long now = System.currentTimeMillis();
+                for (WebhookOutboxEntity event : batch) {
+                    deliveryLatency.record(now - event.getCreateTime().getTime(),
+                            TimeUnit.MILLISECONDS);
+                }
+                deliveredEvents.increment(batch.size());
+                // redelivered when the lease ends if the delete fails.
+                storage.deleteClaimed(claimToken);
+                return;
+            }
+            log.warn("Webhook endpoint {} answered {}, retry {} events.", endpoint,
+                    response.statusCode(), batch.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to post {} events to webhook endpoint {}, retry.", batch.size(),
+                    endpoint, e);
+        } catch (InterruptedException e) {
+            // shutting down, the batch is retried when the lease ends.
+            Thread.currentThread().interrupt();
+            return;
+        }
+        failedAttempts.increment();
+        int attempts = batch.stream().mapToInt(WebhookOutboxEntity::getAttempts).max().orElse(0);
+        try {
+            storage.retryClaimed(claimToken,
+                    new Date(System.currentTimeMillis() + getBackoffMillis(attempts)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to schedule the retry of the webhook events, retry when the lease "
+                    + "ends.", e);
+        }
+    }
+
+    private HttpRequest getRequest(String endpoint, List<WebhookOutboxEntity> batch) {
+        List<WebhookEventVo> events = new ArrayList<>(batch.size());
+        for (WebhookOutboxEntity event : batch) {
+            events.add(new WebhookEventVo(event.getId(), event.getEvent()));
+        }
+        try {
+            return HttpRequest.newBuilder(URI.create(endpoint)).timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(events)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the webhook events.", e);
+        }
+    }
+
+    private long getBackoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts, 30);
+        backoff = Math.min(maximumBackoffMillis, backoff < 0 ? Long.MAX_VALUE : backoff);
+        // jitter spreads the retries of the nodes and the endpoints.
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.webhook;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxEntity;
+
+/**
+ * Interface to be implemented by the outbox database of the webhook events.
+ */
+public interface WebhookOutboxStorage {
+
+    /**
+     * Add the events to the outbox, in the current transaction.
+     *
+     * @param events the events, one per endpoint.
+     */
+    void storeAll(List<WebhookOutboxEntity> events);
+
+    /**
+     * Claim the oldest events due for delivery to the endpoint, with the given delivery slot of
+     * the endpoint. The claimed events are not due again and the slot is not free before the end
+     * of the lease, unless the attempt is released before.
+     *
+     * @param endpoint   the webhook endpoint.
+     * @param slot       number of the delivery slot.
+     * @param claimToken token of the delivery attempt.
+     * @param now        the current time.
+     * @param leaseUntil end of the lease.
+     * @param limit      maximum number of events claimed.
+     * @return the claimed events, oldest first. Empty if no event is due or the slot is held by
+     *         another attempt.
+     */
+    List<WebhookOutboxEntity> claimDue(String endpoint, int slot, UUID claimToken, Date now,
+            Date leaseUntil, int limit);
+
+    /**
+     * Delete the events of a successful delivery attempt and release its delivery slot.
+     *
+     * @param claimToken token of the delivery attempt.
+     * @return number of deleted events.
+     */
+    int deleteClaimed(UUID claimToken);
+
+    /**
+     * Release the events of a failed delivery attempt for a later attempt, and its delivery
+     * slot.
+     *
+     * @param claimToken      token of the delivery attempt.
+     * @param nextAttemptTime time of the next attempt.
+     * @return number of released events.
+     */
+    int retryClaimed(UUID claimToken, Date nextAttemptTime);
+}
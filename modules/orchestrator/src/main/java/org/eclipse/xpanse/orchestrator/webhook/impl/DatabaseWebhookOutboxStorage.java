@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.webhook.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.webhook.WebhookDeliverySlotEntity;
+import org.eclipse.xpanse.modules.database.webhook.WebhookDeliverySlotRepository;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxEntity;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxRepository;
+import org.eclipse.xpanse.orchestrator.webhook.WebhookOutboxStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Implementation of the WebhookOutboxStorage.
+ */
+@Slf4j
+@Component
+public class DatabaseWebhookOutboxStorage implements WebhookOutboxStorage {
+
+    private final WebhookOutboxRepository repository;
+
+    private final WebhookDeliverySlotRepository slotRepository;
+
+    private final TransactionTemplate newTransaction;
+
+    /**
+     * Constructor of the DatabaseWebhookOutboxStorage.
+     */
+    @Autowired
+    public DatabaseWebhookOutboxStorage(WebhookOutboxRepository repository,
+            WebhookDeliverySlotRepository slotRepository,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.slotRepository = slotRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void storeAll(List<WebhookOutboxEntity> events) {
+        repository.saveAll(events);
+    }
+
+    @Override
+    @Transactional
+    public List<WebhookOutboxEntity> claimDue(String endpoint, int slot, UUID claimToken,
+            Date now, Date leaseUntil, int limit) {
+        List<UUID> ids = repository.findDueIds(endpoint, now, PageRequest.of(0, limit));
+        if (ids.isEmpty() || !acquireSlot(endpoint, slot, claimToken, now, leaseUntil)) {
+            return List.of();
+        }
+        // events claimed concurrently by another node are skipped by the update.
+        if (repository.claim(ids, now, claimToken, leaseUntil) == 0) {
+            slotRepository.release(claimToken);
+            return List.of();
+        }
+        return repository.findByClaimTokenOrderByCreateTimeAscIdAsc(claimToken);
+    }
+
+    @Override
+    @Transactional
+    public int deleteClaimed(UUID claimToken) {
+        slotRepository.release(claimToken);
+        return repository.deleteClaimed(claimToken);
+    }
+
+    @Override
+    @Transactional
+    public int retryClaimed(UUID claimToken, Date nextAttemptTime) {
+        slotRepository.release(claimToken);
+        return repository.retryClaimed(claimToken, nextAttemptTime);
+    }
+
+    private boolean acquireSlot(String endpoint, int slot, UUID claimToken, Date now,
+            Date leaseUntil) {
+        UUID slotId = UUID.nameUUIDFromBytes(
+                (endpoint + "#" + slot).getBytes(StandardCharsets.UTF_8));
+        if (slotRepository.acquire(slotId, now, claimToken, leaseUntil) == 1) {
+            return true;
+        }
+        if (slotRepository.existsById(slotId)) {
+            return false;
+        }
+        createSlot(slotId, endpoint, slot);
+        return slotRepository.acquire(slotId, now, claimToken, leaseUntil) == 1;
+    }
+
+    /**
+     * Create the free slot in its own transaction, the failed insert of the loser of a race
+     * between two nodes does not roll back its claim.
+     */
+    private void createSlot(UUID slotId, String endpoint, int slot) {
+        WebhookDeliverySlotEntity slotEntity = new WebhookDeliverySlotEntity();
+        slotEntity.setId(slotId);
+        slotEntity.setEndpoint(endpoint);
+        slotEntity.setSlot(slot);
+        try {
+            newTransaction.executeWithoutResult(status -> slotRepository.saveAndFlush(slotEntity));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Delivery slot {} of webhook endpoint {} already created.", slot, endpoint);
+        }
+    }
+}
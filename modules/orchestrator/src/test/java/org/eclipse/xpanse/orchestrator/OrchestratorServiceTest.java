@@ -6,8 +6,46 @@
 
 package org.eclipse.xpanse.orchestrator;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.deployment.DeployResourceHandler;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.enums.DeployerKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.DeployResource;
+import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.orchestrator.register.OclSnapshotStorage;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.eclipse.xpanse.orchestrator.service.DeployResourceStorage;
+import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.eclipse.xpanse.orchestrator.service.cache.ServiceDetailCache;
+import org.eclipse.xpanse.orchestrator.service.event.ServiceEventBus;
+import org.eclipse.xpanse.orchestrator.webhook.WebhookDispatcher;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class OrchestratorServiceTest {
 
@@ -16,4 +54,229 @@ public class OrchestratorServiceTest {
         Assertions.assertTrue(true);
     }
 
+    @Test
+    public void testModifyWritesOnlyChangedResources() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        DeployResourceStorage deployResourceStorage = mock(DeployResourceStorage.class);
+        OrchestratorService orchestratorService =
+                getOrchestratorService(deployServiceStorage, deployResourceStorage);
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setFlavor("small");
+        // claimed by the handler of the modification.
+        service.setServiceState(ServiceState.MODIFYING);
+        when(deployServiceStorage.findDeployServiceById(service.getId())).thenReturn(service);
+        DeployResourceEntity unchanged = getResourceEntity("vm-1", "10.0.0.1");
+        DeployResourceEntity changed = getResourceEntity("vm-2", "10.0.0.2");
+        DeployResourceEntity removed = getResourceEntity("vm-3", "10.0.0.3");
+        when(deployResourceStorage.findByDeployServiceId(service.getId())).thenReturn(
+                List.of(unchanged, changed, removed));
+        DeployResult result = new DeployResult();
+        result.setResources(List.of(getResource("vm-1", "10.0.0.1"),
+                getResource("vm-2", "10.0.0.5"), getResource("vm-4", "10.0.0.4")));
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.modify(any())).thenReturn(result);
+        CreateRequest request = new CreateRequest();
+        request.setFlavor("large");
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(service.getId());
+        deployTask.setCreateRequest(request);
+
+        orchestratorService.asyncModifyService(deployment, deployTask);
+
+        verify(deployResourceStorage).deleteAll(List.of(removed));
+        verify(deployResourceStorage).storeAll(
+                argThat(resources -> resources.size() == 2
+                        && resources.contains(changed)
+                        && "vm-4".equals(resources.get(1).getResourceId())));
+        verify(deployResourceStorage, never()).deleteByDeployServiceId(any());
+        Assertions.assertEquals("10.0.0.5", changed.getProperty().get("ip"));
+        Assertions.assertEquals("large", service.getFlavor());
+        Assertions.assertEquals(ServiceState.MODIFY_SUCCESS, service.getServiceState());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDestroyHandlerClaimsTheService() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        OrchestratorService orchestratorService = getOrchestratorService(deployServiceStorage,
+                mock(DeployResourceStorage.class));
+        OrchestratorPlugin plugin = mock(OrchestratorPlugin.class);
+        when(plugin.getResourceHandler()).thenReturn(mock(DeployResourceHandler.class));
+        ((Map<Csp, OrchestratorPlugin>) ReflectionTestUtils.getField(orchestratorService,
+                "pluginMap")).put(Csp.HUAWEI, plugin);
+        Deployment deployment = mock(Deployment.class);
+        ((Map<DeployerKind, Deployment>) ReflectionTestUtils.getField(orchestratorService,
+                "deploymentMap")).put(DeployerKind.TERRAFORM, deployment);
+        Ocl ocl = new Ocl();
+        ocl.setDeployment(new org.eclipse.xpanse.modules.models.resource.Deployment());
+        ocl.getDeployment().setKind(DeployerKind.TERRAFORM);
+        CreateRequest request = new CreateRequest();
+        request.setCsp(Csp.HUAWEI);
+        request.setOcl(ocl);
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        service.setCreateRequest(request);
+        when(deployServiceStorage.findDeployServiceById(service.getId())).thenReturn(service);
+        when(deployServiceStorage.updateState(eq(service.getId()),
+                eq(ServiceState.DEPLOY_SUCCESS), eq(ServiceState.DESTROYING), any()))
+                .thenReturn(true, false);
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(service.getId());
+
+        Assertions.assertSame(deployment, orchestratorService.getDestroyHandler(deployTask));
+        // another request or node claimed the service first.
+        Assertions.assertThrows(ServiceStateConflictException.class,
+                () -> orchestratorService.getDestroyHandler(deployTask));
+        service.setServiceState(ServiceState.DESTROYING);
+        Assertions.assertThrows(ServiceStateConflictException.class,
+                () -> orchestratorService.getDestroyHandler(deployTask));
+        verify(deployServiceStorage, times(2)).updateState(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testOnlyTheDeployerIsTimed() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        OrchestratorService orchestratorService = getOrchestratorService(deployServiceStorage,
+                mock(DeployResourceStorage.class));
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.deploy(any())).thenReturn(new DeployResult());
+        DeployTask deployed = getDeployTask();
+        DeployTask assigned = getDeployTask();
+
+        orchestratorService.deployService(deployment, deployed);
+        // assigned the resources of a warm pool instance.
+        orchestratorService.deployWarmService(assigned, new DeployResult());
+
+        verify(deployServiceStorage, atLeastOnce()).store(argThat(service ->
+                service.getId().equals(deployed.getId())
+                        && service.getServiceState() == ServiceState.DEPLOY_SUCCESS
+                        && Objects.nonNull(service.getDeployDuration())));
+        verify(deployServiceStorage, never()).store(argThat(service ->
+                service.getId().equals(assigned.getId())
+                        && Objects.nonNull(service.getDeployDuration())));
+    }
+
+    @Test
+    public void testOperationWithoutClaimDoesNotStart() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        OrchestratorService orchestratorService = getOrchestratorService(deployServiceStorage,
+                mock(DeployResourceStorage.class));
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        // failed when the lease of its destroy expired.
+        service.setServiceState(ServiceState.DESTROY_FAILED);
+        when(deployServiceStorage.findDeployServiceById(service.getId())).thenReturn(service);
+        Deployment deployment = mock(Deployment.class);
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(service.getId());
+
+        Assertions.assertThrows(ServiceStateConflictException.class,
+                () -> orchestratorService.destroyService(deployment, deployTask));
+        verify(deployment, never()).destroy(any());
+        verify(deployServiceStorage, never()).store(any());
+    }
+
+    @Test
+    public void testDriftCheckOfHeldServiceDoesNotStart() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        OrchestratorService orchestratorService = getOrchestratorService(deployServiceStorage,
+                mock(DeployResourceStorage.class));
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        service.setCreateRequest(new CreateRequest());
+        when(deployServiceStorage.findDeployServiceById(service.getId())).thenReturn(service);
+        // a destroy claimed the service after it was loaded.
+        when(deployServiceStorage.leaseService(eq(service.getId()), any(), any()))
+                .thenReturn(false);
+
+        Assertions.assertThrows(ServiceStateConflictException.class,
+                () -> orchestratorService.detectServiceDrift(service.getId()));
+        verify(deployServiceStorage, never()).releaseService(any(), any());
+    }
+
+    @Test
+    public void testExpiredOperationIsFailed() {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        OrchestratorService orchestratorService = getOrchestratorService(deployServiceStorage,
+                mock(DeployResourceStorage.class));
+        WebhookDispatcher webhookDispatcher = mock(WebhookDispatcher.class);
+        ReflectionTestUtils.setField(orchestratorService, "webhookDispatcher",
+                webhookDispatcher);
+        DeployServiceEntity destroying = new DeployServiceEntity();
+        destroying.setId(UUID.randomUUID());
+        destroying.setServiceState(ServiceState.DESTROYING);
+        DeployServiceEntity modifying = new DeployServiceEntity();
+        modifying.setId(UUID.randomUUID());
+        modifying.setServiceState(ServiceState.MODIFYING);
+        when(deployServiceStorage.findExpiredLeases(any(), anyInt())).thenReturn(
+                List.of(destroying.getId(), modifying.getId()));
+        when(deployServiceStorage.findDeployServiceById(destroying.getId()))
+                .thenReturn(destroying);
+        when(deployServiceStorage.findDeployServiceById(modifying.getId()))
+                .thenReturn(modifying);
+        when(deployServiceStorage.updateExpiredState(destroying.getId(),
+                ServiceState.DESTROYING, ServiceState.DESTROY_FAILED)).thenReturn(true);
+        // renewed by its node meanwhile.
+        when(deployServiceStorage.updateExpiredState(modifying.getId(),
+                ServiceState.MODIFYING, ServiceState.MODIFY_FAILED)).thenReturn(false);
+
+        orchestratorService.failExpiredOperations();
+
+        verify(webhookDispatcher).enqueue(argThat(event -> event.getId()
+                .equals(destroying.getId()) && event.getPreviousState() == ServiceState.DESTROYING
+                && event.getServiceState() == ServiceState.DESTROY_FAILED));
+        verify(webhookDispatcher, times(1)).enqueue(any());
+    }
+
+    private OrchestratorService getOrchestratorService(DeployServiceStorage deployServiceStorage,
+            DeployResourceStorage deployResourceStorage) {
+        OrchestratorService orchestratorService = new OrchestratorService();
+        ReflectionTestUtils.setField(orchestratorService, "deployServiceStorage",
+                deployServiceStorage);
+        ReflectionTestUtils.setField(orchestratorService, "deployResourceStorage",
+                deployResourceStorage);
+        ReflectionTestUtils.setField(orchestratorService, "serviceDetailCache",
+                mock(ServiceDetailCache.class));
+        ReflectionTestUtils.setField(orchestratorService, "serviceEventBus",
+                mock(ServiceEventBus.class));
+        ReflectionTestUtils.setField(orchestratorService, "webhookDispatcher",
+                mock(WebhookDispatcher.class));
+        ReflectionTestUtils.setField(orchestratorService, "oclSnapshotCache",
+                new OclSnapshotCache(mock(OclSnapshotStorage.class), new SimpleMeterRegistry(),
+                        10));
+        return orchestratorService;
+    }
+
+    private DeployTask getDeployTask() {
+        CreateRequest request = new CreateRequest();
+        request.setName("kafka");
+        request.setVersion("v1.0");
+        request.setCsp(Csp.HUAWEI);
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(UUID.randomUUID());
+        deployTask.setCreateRequest(request);
+        return deployTask;
+    }
+
+    private DeployResourceEntity getResourceEntity(String resourceId, String ip) {
+        DeployResourceEntity resource = new DeployResourceEntity();
+        resource.setId(UUID.randomUUID());
+        resource.setResourceId(resourceId);
+        resource.setName(resourceId);
+        resource.setKind(DeployResourceKind.VM);
+        resource.setProperty(Map.of("ip", ip));
+        return resource;
+    }
+
+    private DeployResource getResource(String resourceId, String ip) {
+        DeployResource resource = new DeployResource();
+        resource.setResourceId(resourceId);
+        resource.setName(resourceId);
+        resource.setKind(DeployResourceKind.VM);
+        resource.setProperty(Map.of("ip", ip));
+        return resource;
+    }
 }
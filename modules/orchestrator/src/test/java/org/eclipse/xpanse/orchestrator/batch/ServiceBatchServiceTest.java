@@ -0,0 +1,243 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.batch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchEntity;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchItem;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.BatchCreateRequest;
+import org.eclipse.xpanse.modules.models.service.BatchDestroyRequest;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceBatchVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+/**
+ * Test for ServiceBatchService.
+ */
+public class ServiceBatchServiceTest {
+
+    private OrchestratorService orchestratorService;
+    private ServiceBatchStorage storage;
+    private ServiceBatchService serviceBatchService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(1);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(ServiceBatchStorage.class);
+        serviceBatchService = new ServiceBatchService(orchestratorService, storage, 10, 1,
+                executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestIsDeployedCountTimes() {
+        Deployment deployment = mock(Deployment.class);
+        when(orchestratorService.getDeployHandlers(any())).thenReturn(
+                List.of(deployment, deployment, deployment));
+        BatchCreateRequest batchRequest = new BatchCreateRequest();
+        batchRequest.setRequest(getCreateRequest());
+        batchRequest.setCount(3);
+
+        ServiceBatchVo batch = serviceBatchService.deployServices(batchRequest);
+
+        Assertions.assertEquals(3, batch.getTotal());
+        Assertions.assertEquals(3, batch.getQueued());
+        Assertions.assertEquals(3, new HashSet<>(batch.getServiceIds()).size());
+        ArgumentCaptor<ServiceBatchEntity> stored = ArgumentCaptor.forClass(
+                ServiceBatchEntity.class);
+        verify(storage).store(stored.capture());
+        List<ServiceBatchItem> items = stored.getValue().getItems();
+        Assertions.assertEquals(batch.getServiceIds(),
+                items.stream().map(ServiceBatchItem::getServiceId).toList());
+        Assertions.assertEquals(batch.getServiceIds().get(0),
+                items.get(0).getCreateRequest().getId());
+        // the deployments wait for the dispatcher.
+        verify(orchestratorService, never()).getDeployHandler(any());
+        verify(orchestratorService, never()).deployService(any(), any());
+    }
+
+    @Test
+    public void testInvalidBatchIsNotDeployed() {
+        when(orchestratorService.getDeployHandlers(any())).thenThrow(
+                new IllegalArgumentException("Request 1 of the batch is invalid"));
+        BatchCreateRequest batchRequest = new BatchCreateRequest();
+        batchRequest.setRequests(List.of(getCreateRequest(), getCreateRequest()));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceBatchService.deployServices(batchRequest));
+        batchRequest.setRequest(getCreateRequest());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceBatchService.deployServices(batchRequest));
+        batchRequest.setRequests(null);
+        batchRequest.setCount(11);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceBatchService.deployServices(batchRequest));
+
+        verify(storage, never()).store(any());
+        verify(orchestratorService, times(1)).getDeployHandlers(any());
+        verify(orchestratorService, never()).deployService(any(), any());
+    }
+
+    @Test
+    public void testProgressCountsQueuedServices() {
+        ServiceBatchEntity batch = new ServiceBatchEntity();
+        batch.setId(UUID.randomUUID());
+        batch.setKind(ServiceBatchKind.DEPLOY);
+        batch.setTotal(5);
+        batch.setDispatched(3);
+        when(storage.findBatchById(batch.getId())).thenReturn(batch);
+        when(storage.countServiceStates(batch.getId())).thenReturn(
+                Map.of(ServiceState.DEPLOYING, 2L, ServiceState.DEPLOY_SUCCESS, 1L));
+
+        ServiceBatchVo progress = serviceBatchService.getServiceBatch(batch.getId());
+
+        Assertions.assertEquals(2, progress.getQueued());
+        Assertions.assertEquals(2L, progress.getStates().get(ServiceState.DEPLOYING));
+    }
+
+    @Test
+    public void testDispatchWaitsForFreeThread() throws Exception {
+        ServiceBatchEntity batch = getPendingBatch(ServiceBatchKind.DEPLOY, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> deployThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            deployThread.set(Thread.currentThread());
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return ServiceState.DEPLOY_FAILED;
+        }).doReturn(ServiceState.DEPLOY_FAILED)
+                .when(orchestratorService).deployService(any(), any());
+
+        serviceBatchService.dispatchOperations();
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        serviceBatchService.dispatchOperations();
+
+        Assertions.assertNotEquals(Thread.currentThread(), deployThread.get());
+        verify(storage, times(1)).claimNextItem(batch);
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (batch.getDispatched() < 2 && System.currentTimeMillis() < deadline) {
+            serviceBatchService.dispatchOperations();
+            Thread.sleep(10);
+        }
+        verify(orchestratorService, timeout(10000).times(2)).deployService(any(), any());
+        verify(orchestratorService, times(2)).getDeployHandler(any());
+    }
+
+    @Test
+    public void testDestroyClaimsServiceWhenDispatched() {
+        BatchDestroyRequest destroyRequest = new BatchDestroyRequest();
+        destroyRequest.setIds(List.of(UUID.randomUUID()));
+
+        ServiceBatchVo batchVo = serviceBatchService.destroyServices(destroyRequest);
+
+        Assertions.assertEquals(ServiceBatchKind.DESTROY, batchVo.getKind());
+        Assertions.assertEquals(destroyRequest.getIds(), batchVo.getServiceIds());
+        verify(orchestratorService).getDestroyHandlers(any());
+        verify(orchestratorService, never()).getDestroyHandler(any());
+
+        getPendingBatch(ServiceBatchKind.DESTROY, 1);
+        serviceBatchService.dispatchOperations();
+
+        InOrder inOrder = inOrder(orchestratorService);
+        inOrder.verify(orchestratorService, timeout(10000)).getDestroyHandler(any());
+        inOrder.verify(orchestratorService, timeout(10000)).destroyService(any(), any());
+    }
+
+    @Test
+    public void testDestroyRequestNeedsIdsOrName() {
+        BatchDestroyRequest batchRequest = new BatchDestroyRequest();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceBatchService.destroyServices(batchRequest));
+        batchRequest.setIds(List.of(UUID.randomUUID()));
+        batchRequest.setServiceName("kafka");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceBatchService.destroyServices(batchRequest));
+
+        verify(orchestratorService, never()).getDestroyHandlers(any());
+        verify(storage, never()).store(any());
+    }
+
+    @Test
+    public void testDestroyProgressCountsStartedDestroys() {
+        ServiceBatchEntity batch = new ServiceBatchEntity();
+        batch.setId(UUID.randomUUID());
+        batch.setKind(ServiceBatchKind.DESTROY);
+        batch.setTotal(4);
+        batch.setDispatched(1);
+        when(storage.findBatchById(batch.getId())).thenReturn(batch);
+        when(storage.countServiceStates(batch.getId())).thenReturn(
+                Map.of(ServiceState.DEPLOY_SUCCESS, 3L, ServiceState.DESTROYING, 1L));
+
+        Assertions.assertEquals(3, serviceBatchService.getServiceBatch(batch.getId())
+                .getQueued());
+    }
+
+    private ServiceBatchEntity getPendingBatch(ServiceBatchKind kind, int total) {
+        ServiceBatchEntity batch = new ServiceBatchEntity();
+        batch.setId(UUID.randomUUID());
+        batch.setKind(kind);
+        batch.setTotal(total);
+        when(storage.findPendingBatches(anyInt())).thenAnswer(invocation ->
+                batch.getDispatched() < batch.getTotal() ? List.of(batch) : List.of());
+        when(storage.claimNextItem(batch)).thenAnswer(invocation -> {
+            ServiceBatchItem item = new ServiceBatchItem();
+            item.setServiceId(UUID.randomUUID());
+            if (kind == ServiceBatchKind.DEPLOY) {
+                item.setCreateRequest(getCreateRequest());
+            }
+            return item;
+        });
+        return batch;
+    }
+
+    private CreateRequest getCreateRequest() {
+        CreateRequest request = new CreateRequest();
+        request.setName("kafka");
+        request.setVersion("v1.0");
+        request.setCsp(Csp.HUAWEI);
+        request.setRegion("cn-southwest-2");
+        request.setFlavor("basic");
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.batch.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchEntity;
+import org.eclipse.xpanse.modules.database.batch.ServiceBatchItem;
+import org.eclipse.xpanse.modules.models.enums.ServiceBatchKind;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseServiceBatchStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseServiceBatchStorageTest {
+
+    @Autowired
+    private DatabaseServiceBatchStorage storage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void testWaitingServicesAreClaimedInOrderDestroysFirst() {
+        ServiceBatchEntity deployBatch = storeBatch(ServiceBatchKind.DEPLOY, 1000, 2);
+        ServiceBatchEntity destroyBatch = storeBatch(ServiceBatchKind.DESTROY, 0, 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ServiceBatchEntity> pending = storage.findPendingBatches(10);
+        Assertions.assertEquals(List.of(destroyBatch.getId(), deployBatch.getId()),
+                pending.stream().map(ServiceBatchEntity::getId).toList());
+
+        ServiceBatchEntity loaded = pending.get(1);
+        ServiceBatchItem first = storage.claimNextItem(loaded);
+        Assertions.assertEquals(deployBatch.getItems().get(0).getServiceId(),
+                first.getServiceId());
+        Assertions.assertEquals("basic-0", first.getCreateRequest().getFlavor());
+        // the batch changed since it was loaded.
+        Assertions.assertNull(storage.claimNextItem(loaded));
+        loaded.setDispatched(1);
+        Assertions.assertEquals(deployBatch.getItems().get(1).getServiceId(),
+                storage.claimNextItem(loaded).getServiceId());
+        entityManager.clear();
+
+        Assertions.assertEquals(List.of(destroyBatch.getId()),
+                storage.findPendingBatches(10).stream().map(ServiceBatchEntity::getId).toList());
+        Assertions.assertEquals(2, storage.findBatchById(deployBatch.getId()).getDispatched());
+    }
+
+    private ServiceBatchEntity storeBatch(ServiceBatchKind kind, long createTime, int total) {
+        ServiceBatchEntity batch = new ServiceBatchEntity();
+        batch.setId(UUID.randomUUID());
+        batch.setKind(kind);
+        batch.setCreateTime(new Date(createTime));
+        batch.setTotal(total);
+        batch.setItems(new ArrayList<>());
+        for (int i = 0; i < total; i++) {
+            ServiceBatchItem item = new ServiceBatchItem();
+            item.setServiceId(UUID.randomUUID());
+            if (kind == ServiceBatchKind.DEPLOY) {
+                CreateRequest request = new CreateRequest();
+                request.setFlavor("basic-" + i);
+                item.setCreateRequest(request);
+            }
+            batch.getItems().add(item);
+        }
+        storage.store(batch);
+        return batch;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.change;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.change.ChangeTombstoneEntity;
+import org.eclipse.xpanse.modules.models.enums.ChangeEntityType;
+import org.eclipse.xpanse.modules.models.view.ChangePage;
+import org.eclipse.xpanse.modules.models.view.ChangeVo;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ChangeFeedService.
+ */
+public class ChangeFeedServiceTest {
+
+    private static final long SETTLE_MILLIS = 5000L;
+
+    private DeployServiceStorage deployServiceStorage;
+    private ChangeTombstoneStorage tombstoneStorage;
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    public void setUp() {
+        deployServiceStorage = mock(DeployServiceStorage.class);
+        tombstoneStorage = mock(ChangeTombstoneStorage.class);
+        changeFeedService = new ChangeFeedService(deployServiceStorage,
+                mock(RegisterServiceStorage.class), tombstoneStorage, SETTLE_MILLIS, 1);
+    }
+
+    @Test
+    public void testChangesAndDeletionsAreMerged() {
+        long time = System.currentTimeMillis() - 60000L;
+        ServiceVo first = getService(time);
+        ServiceVo third = getService(time + 2);
+        ChangeTombstoneEntity second = getTombstone(time + 1);
+        when(deployServiceStorage.listChangedServices(eq(ChangeCursor.START), any(), eq(3)))
+                .thenReturn(List.of(first, third));
+        when(tombstoneStorage.listTombstones(eq(ChangeEntityType.DEPLOYED_SERVICE),
+                eq(ChangeCursor.START), any(), eq(3))).thenReturn(List.of(second));
+
+        ChangePage<ServiceVo> page = changeFeedService.listDeployServiceChanges(null, 2);
+
+        List<ChangeVo<ServiceVo>> changes = page.getChanges();
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(first.getId(), changes.get(0).getId());
+        Assertions.assertSame(first, changes.get(0).getItem());
+        Assertions.assertEquals(second.getEntityId(), changes.get(1).getId());
+        Assertions.assertTrue(changes.get(1).isDeleted());
+        Assertions.assertNull(changes.get(1).getItem());
+        Assertions.assertTrue(page.isHasMore());
+        Assertions.assertEquals(ChangeCursor.of(second.getDeleteTime(), second.getEntityId()),
+                ChangeCursor.parse(page.getNextCursor()));
+    }
+
+    @Test
+    public void testLastPageContinuesFromSettledTime() {
+        when(deployServiceStorage.listChangedServices(any(), any(), anyInt()))
+                .thenReturn(List.of());
+        when(tombstoneStorage.listTombstones(any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+        long before = System.currentTimeMillis();
+
+        ChangePage<ServiceVo> page = changeFeedService.listDeployServiceChanges(null, 10);
+
+        ChangeCursor next = ChangeCursor.parse(page.getNextCursor());
+        Assertions.assertTrue(page.getChanges().isEmpty());
+        Assertions.assertFalse(page.isHasMore());
+        Assertions.assertEquals(ChangeCursor.MAX_ID, next.getId());
+        Assertions.assertTrue(next.getTime() >= before - SETTLE_MILLIS - 1);
+        Assertions.assertTrue(next.getTime() < System.currentTimeMillis() - SETTLE_MILLIS);
+        verify(deployServiceStorage).listChangedServices(eq(ChangeCursor.START),
+                eq(new Date(next.getTime() + 1)), eq(11));
+    }
+
+    @Test
+    public void testExpiredCursorIsRejected() {
+        String cursor = ChangeCursor.of(new Date(System.currentTimeMillis() - 7200_000L),
+                UUID.randomUUID()).toString();
+
+        Assertions.assertThrows(ChangeCursorExpiredException.class,
+                () -> changeFeedService.listDeployServiceChanges(cursor, 10));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> changeFeedService.listDeployServiceChanges("invalid", 10));
+    }
+
+    private ServiceVo getService(long time) {
+        ServiceVo service = new ServiceVo();
+        service.setId(UUID.randomUUID());
+        service.setLastModifiedTime(new Date(time));
+        return service;
+    }
+
+    private ChangeTombstoneEntity getTombstone(long time) {
+        ChangeTombstoneEntity tombstone = new ChangeTombstoneEntity();
+        tombstone.setEntityId(UUID.randomUUID());
+        tombstone.setEntityType(ChangeEntityType.DEPLOYED_SERVICE);
+        tombstone.setDeleteTime(new Date(time));
+        return tombstone;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.composite;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.eclipse.xpanse.modules.database.composite.CompositeServiceEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.CompositeServiceState;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CompositeCreateRequest;
+import org.eclipse.xpanse.modules.models.service.CompositeNode;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.view.CompositeServiceVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for CompositeServiceService.
+ */
+public class CompositeServiceServiceTest {
+
+    private static final String FAILING_SERVICE = "failing";
+
+    private OrchestratorService orchestratorService;
+    private CompositeServiceStorage storage;
+    private CompositeServiceService compositeServiceService;
+    private Deployment deployment;
+    private final Map<UUID, ServiceState> states = new ConcurrentHashMap<>();
+    private final List<String> deployed = new CopyOnWriteArrayList<>();
+    private final List<UUID> destroyed = new CopyOnWriteArrayList<>();
+    private final Map<String, Map<String, String>> properties = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(CompositeServiceStorage.class);
+        deployment = mock(Deployment.class);
+        compositeServiceService = new CompositeServiceService(orchestratorService, storage,
+                executor, 300000);
+        doAnswer(invocation -> {
+            List<DeployTask> deployTasks = invocation.getArgument(0);
+            return Collections.nCopies(deployTasks.size(), deployment);
+        }).when(orchestratorService).getDeployHandlers(any());
+        when(orchestratorService.getDeployHandler(any())).thenReturn(deployment);
+        when(orchestratorService.deployService(any(), any())).thenAnswer(invocation -> {
+            DeployTask deployTask = invocation.getArgument(1);
+            String name = deployTask.getCreateRequest().getName();
+            deployed.add(name);
+            properties.put(name, deployTask.getCreateRequest().getProperty());
+            ServiceState state = FAILING_SERVICE.equals(name)
+                    ? ServiceState.DEPLOY_FAILED : ServiceState.DEPLOY_SUCCESS;
+            states.put(deployTask.getId(), state);
+            return state;
+        });
+        when(orchestratorService.getServiceOutputs(any())).thenReturn(
+                Map.of("vpc.id", "vpc-1"));
+        when(orchestratorService.getServiceStates(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            Map<UUID, ServiceState> found = new HashMap<>(states);
+            found.keySet().retainAll(ids);
+            return found;
+        });
+        when(orchestratorService.getDestroyHandler(any())).thenReturn(deployment);
+        when(orchestratorService.destroyService(any(), any())).thenAnswer(invocation -> {
+            DeployTask deployTask = invocation.getArgument(1);
+            destroyed.add(deployTask.getId());
+            return ServiceState.DESTROY_SUCCESS;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testNodesAreDeployedInDependencyOrder() {
+        CompositeServiceVo composite = compositeServiceService.deployComposite(
+                getCompositeRequest(GroupFailurePolicy.BEST_EFFORT,
+                        getNode("kafka", "kafka", Set.of(), Map.of("vpc_id", "network.vpc.id")),
+                        getNode("network", "vpc", Set.of(), Map.of()),
+                        getNode("k8s", "k8s", Set.of("network"), Map.of())));
+
+        Assertions.assertEquals(CompositeServiceState.DEPLOYING, composite.getState());
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == CompositeServiceState.DEPLOY_SUCCESS));
+        Assertions.assertEquals("vpc", deployed.get(0));
+        Assertions.assertEquals(3, deployed.size());
+        Assertions.assertEquals("vpc-1", properties.get("kafka").get("vpc_id"));
+        verify(orchestratorService).getServiceOutputs(composite.getServiceIds().get("network"));
+    }
+
+    @Test
+    public void testAllOrNothingDestroysInReverseOrder() {
+        CompositeServiceVo composite = compositeServiceService.deployComposite(
+                getCompositeRequest(GroupFailurePolicy.ALL_OR_NOTHING,
+                        getNode("network", "vpc", Set.of(), Map.of()),
+                        getNode("database", "rds", Set.of("network"), Map.of()),
+                        getNode("kafka", FAILING_SERVICE, Set.of("database"), Map.of()),
+                        getNode("app", "app", Set.of("kafka"), Map.of())));
+
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == CompositeServiceState.ROLLED_BACK));
+        Assertions.assertEquals(List.of("vpc", "rds", FAILING_SERVICE), deployed);
+        Assertions.assertEquals(List.of(composite.getServiceIds().get("kafka"),
+                composite.getServiceIds().get("database"),
+                composite.getServiceIds().get("network")), destroyed);
+    }
+
+    @Test
+    public void testInterruptedDeploymentFailsAndCanBeDestroyed() {
+        CompositeServiceEntity composite = new CompositeServiceEntity();
+        composite.setId(UUID.randomUUID());
+        composite.setFailurePolicy(GroupFailurePolicy.BEST_EFFORT);
+        composite.setState(CompositeServiceState.DEPLOYING);
+        composite.setNodes(List.of(getNode("network", "vpc", Set.of(), Map.of())));
+        composite.setServiceIds(Map.of("network", UUID.randomUUID()));
+        when(storage.findExpiredLeases(any(), anyInt())).thenReturn(List.of(composite.getId()));
+        when(storage.findCompositeById(composite.getId())).thenReturn(composite);
+
+        compositeServiceService.failInterruptedComposites();
+
+        verify(storage).updateExpiredState(composite.getId(), CompositeServiceState.DEPLOYING,
+                CompositeServiceState.DEPLOY_FAILED);
+    }
+
+    @Test
+    public void testCycleIsNotDeployed() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> compositeServiceService.deployComposite(getCompositeRequest(null,
+                        getNode("network", "vpc", Set.of("kafka"), Map.of()),
+                        getNode("kafka", "kafka", Set.of(), Map.of("vpc_id", "network.vpc.id")))));
+
+        verify(storage, never()).store(any());
+        verify(orchestratorService, never()).deployService(any(), any());
+    }
+
+    private CompositeCreateRequest getCompositeRequest(GroupFailurePolicy failurePolicy,
+            CompositeNode... nodes) {
+        CompositeCreateRequest compositeRequest = new CompositeCreateRequest();
+        compositeRequest.setName("kafka-with-network");
+        compositeRequest.setNodes(List.of(nodes));
+        compositeRequest.setFailurePolicy(failurePolicy);
+        return compositeRequest;
+    }
+
+    private CompositeNode getNode(String name, String service, Set<String> dependsOn,
+            Map<String, String> inputs) {
+        CreateRequest request = new CreateRequest();
+        request.setName(service);
+        request.setVersion("v1.0");
+        request.setCsp(Csp.HUAWEI);
+        request.setRegion("cn-southwest-2");
+        request.setFlavor("basic");
+        CompositeNode node = new CompositeNode();
+        node.setName(name);
+        node.setRequest(request);
+        node.setDependsOn(dependsOn);
+        node.setInputs(inputs);
+        return node;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.drift;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DriftStatus;
+import org.eclipse.xpanse.modules.models.view.DeployPlanVo;
+import org.eclipse.xpanse.modules.models.view.ResourceChangeVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.service.ServiceStateConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ServiceDriftService.
+ */
+public class ServiceDriftServiceTest {
+
+    private static final long PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(60);
+
+    private OrchestratorService orchestratorService;
+    private ServiceDriftStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceDriftService serviceDriftService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(ServiceDriftStorage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        serviceDriftService = new ServiceDriftService(orchestratorService, storage,
+                meterRegistry, true, 60, 30, 2, 600, executor);
+        when(storage.findUnscheduledServices(any(), anyInt())).thenReturn(Map.of());
+        when(storage.claim(any(), any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testNewServicesAreSpreadOverThePeriod() {
+        UUID id = UUID.randomUUID();
+        when(storage.findUnscheduledServices(any(), anyInt())).thenReturn(
+                Map.of(id, Csp.HUAWEI));
+        when(storage.findDue(any(), anyInt())).thenReturn(List.of());
+        long now = System.currentTimeMillis();
+
+        serviceDriftService.scan();
+
+        verify(storage).storeAll(argThat(drifts -> drifts.size() == 1
+                && drifts.get(0).getStatus() == DriftStatus.NOT_CHECKED
+                && drifts.get(0).getNextCheckTime().getTime() - now
+                < PERIOD_MILLIS + 1000));
+    }
+
+    @Test
+    public void testRunningChecksAreCapped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<ServiceDriftEntity> due = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            due.add(getDriftEntity());
+        }
+        when(storage.findDue(any(), anyInt())).thenReturn(due);
+        when(orchestratorService.detectServiceDrift(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return getPlan(Collections.emptyList());
+        });
+
+        // the rate limit of the csp starts a check every 100ms.
+        for (int i = 0; i < 20; i++) {
+            serviceDriftService.scan();
+            Thread.sleep(50);
+        }
+
+        verify(storage, times(2)).claim(any(), any(), any());
+        verify(orchestratorService, timeout(10000).times(2)).detectServiceDrift(any());
+        release.countDown();
+        verify(storage, timeout(10000).times(2)).store(argThat(
+                drift -> drift.getStatus() == DriftStatus.IN_SYNC));
+    }
+
+    @Test
+    public void testDriftIsStoredAndCounted() {
+        ServiceDriftEntity drift = getDriftEntity();
+        when(storage.findDue(any(), anyInt())).thenReturn(List.of(drift));
+        when(orchestratorService.detectServiceDrift(drift.getServiceId())).thenReturn(
+                getPlan(List.of(new ResourceChangeVo("huaweicloud_vpc.vpc", "huaweicloud_vpc",
+                        "delete"))));
+        long now = System.currentTimeMillis();
+
+        serviceDriftService.scan();
+
+        verify(storage, timeout(10000)).store(drift);
+        Assertions.assertEquals(DriftStatus.DRIFTED, drift.getStatus());
+        Assertions.assertEquals(1, drift.getChanges().size());
+        Assertions.assertTrue(drift.getNextCheckTime().getTime() >= now + PERIOD_MILLIS);
+        Assertions.assertEquals(1.0, meterRegistry.counter("xpanse.drift.resources").count());
+        Assertions.assertEquals(1, meterRegistry.timer("xpanse.drift.check.duration").count());
+    }
+
+    @Test
+    public void testChecksOfGoneServicesAreDeleted() {
+        ServiceDriftEntity drift = getDriftEntity();
+        when(storage.findDue(any(), anyInt())).thenReturn(List.of(drift));
+
+        serviceDriftService.scan();
+
+        verify(storage, timeout(10000)).delete(drift.getServiceId());
+        verify(storage, never()).store(any());
+    }
+
+    @Test
+    public void testChecksOfHeldServicesAreSkipped() {
+        ServiceDriftEntity drift = getDriftEntity();
+        when(storage.findDue(any(), anyInt())).thenReturn(List.of(drift));
+        when(orchestratorService.detectServiceDrift(drift.getServiceId())).thenThrow(
+                new ServiceStateConflictException("Service is held by another operation."));
+
+        serviceDriftService.scan();
+
+        verify(orchestratorService, timeout(10000)).detectServiceDrift(drift.getServiceId());
+        verify(storage, never()).store(any());
+        Assertions.assertEquals(DriftStatus.NOT_CHECKED, drift.getStatus());
+        Assertions.assertEquals(0.0, meterRegistry.counter("xpanse.drift.failures").count());
+    }
+
+    private ServiceDriftEntity getDriftEntity() {
+        ServiceDriftEntity drift = new ServiceDriftEntity();
+        drift.setServiceId(UUID.randomUUID());
+        drift.setCsp(Csp.HUAWEI);
+        drift.setStatus(DriftStatus.NOT_CHECKED);
+        drift.setNextCheckTime(new Date());
+        return drift;
+    }
+
+    private DeployPlanVo getPlan(List<ResourceChangeVo> changes) {
+        DeployPlanVo plan = new DeployPlanVo();
+        plan.setResourceChanges(changes);
+        return plan;
+    }
+}
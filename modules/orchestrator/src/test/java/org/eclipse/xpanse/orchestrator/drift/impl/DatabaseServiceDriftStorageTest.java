@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.drift.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.drift.ServiceDriftEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DriftStatus;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.view.ResourceChangeVo;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseServiceDriftStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseServiceDriftStorageTest {
+
+    @Autowired
+    private DatabaseServiceDriftStorage storage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void testScheduledServicesAreClaimedOnce() {
+        DeployServiceEntity deployed = getServiceEntity(ServiceState.DEPLOY_SUCCESS);
+        getServiceEntity(ServiceState.DEPLOYING);
+        entityManager.flush();
+
+        Map<UUID, Csp> unscheduled = storage.findUnscheduledServices(
+                Set.of(ServiceState.DEPLOY_SUCCESS), 10);
+        Assertions.assertEquals(Map.of(deployed.getId(), Csp.HUAWEI), unscheduled);
+
+        long now = System.currentTimeMillis();
+        ServiceDriftEntity drift = new ServiceDriftEntity();
+        drift.setServiceId(deployed.getId());
+        drift.setCsp(Csp.HUAWEI);
+        drift.setStatus(DriftStatus.DRIFTED);
+        drift.setNextCheckTime(new Date(now - 1000));
+        drift.setChanges(List.of(new ResourceChangeVo("huaweicloud_compute_instance.kafka",
+                "huaweicloud_compute_instance", "update")));
+        storage.storeAll(List.of(drift));
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertTrue(storage.findUnscheduledServices(
+                Set.of(ServiceState.DEPLOY_SUCCESS), 10).isEmpty());
+        Assertions.assertEquals(1, storage.findDue(new Date(now), 10).size());
+        Assertions.assertTrue(storage.claim(deployed.getId(), new Date(now),
+                new Date(now + 60000)));
+        Assertions.assertFalse(storage.claim(deployed.getId(), new Date(now),
+                new Date(now + 60000)));
+        entityManager.clear();
+        Assertions.assertTrue(storage.findDue(new Date(now), 10).isEmpty());
+        ServiceDriftEntity stored = storage.findByServiceId(deployed.getId());
+        Assertions.assertEquals("update", stored.getChanges().get(0).getAction());
+
+        storage.delete(deployed.getId());
+        storage.delete(deployed.getId());
+        Assertions.assertNull(storage.findByServiceId(deployed.getId()));
+    }
+
+    private DeployServiceEntity getServiceEntity(ServiceState state) {
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setName("kafka");
+        deployServiceEntity.setVersion("v1.0");
+        deployServiceEntity.setCsp(Csp.HUAWEI);
+        deployServiceEntity.setServiceState(state);
+        entityManager.persist(deployServiceEntity);
+        return deployServiceEntity;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.group;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.eclipse.xpanse.modules.database.group.ServiceGroupEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.GroupFailurePolicy;
+import org.eclipse.xpanse.modules.models.enums.ServiceGroupState;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.resource.CloudServiceProvider;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.resource.Region;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.MultiRegionCreateRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceGroupVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ServiceGroupService.
+ */
+public class ServiceGroupServiceTest {
+
+    private static final String FAILING_REGION = "cn-north-4";
+
+    private OrchestratorService orchestratorService;
+    private ServiceGroupStorage storage;
+    private ServiceGroupService serviceGroupService;
+    private Deployment deployment;
+    private final Set<UUID> deployed = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(ServiceGroupStorage.class);
+        deployment = mock(Deployment.class);
+        serviceGroupService = new ServiceGroupService(orchestratorService, storage, 1, executor,
+                300000);
+        doAnswer(invocation -> {
+            List<DeployTask> deployTasks = invocation.getArgument(0);
+            deployTasks.forEach(deployTask -> deployTask.setOcl(getOcl()));
+            return Collections.nCopies(deployTasks.size(), deployment);
+        }).when(orchestratorService).getDeployHandlers(any());
+        when(orchestratorService.deployService(any(), any())).thenAnswer(invocation -> {
+            DeployTask deployTask = invocation.getArgument(1);
+            deployed.add(deployTask.getId());
+            return FAILING_REGION.equals(deployTask.getCreateRequest().getRegion())
+                    ? ServiceState.DEPLOY_FAILED : ServiceState.DEPLOY_SUCCESS;
+        });
+        when(orchestratorService.getDestroyHandler(any())).thenReturn(deployment);
+        when(orchestratorService.destroyService(any(), any())).thenReturn(
+                ServiceState.DESTROY_SUCCESS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBestEffortKeepsDeployedRegions() {
+        ServiceGroupVo group = serviceGroupService.deployServices(
+                getGroupRequest(GroupFailurePolicy.BEST_EFFORT, "cn-southwest-2",
+                        FAILING_REGION, "eu-west-0"));
+
+        Assertions.assertEquals(ServiceGroupState.DEPLOYING, group.getState());
+        Assertions.assertEquals(Set.of("cn-southwest-2", FAILING_REGION, "eu-west-0"),
+                group.getServiceIds().keySet());
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == ServiceGroupState.PARTIAL_SUCCESS));
+        Assertions.assertEquals(3, deployed.size());
+        verify(orchestratorService, never()).destroyService(any(), any());
+    }
+
+    @Test
+    public void testAllOrNothingDestroysStartedRegions() {
+        serviceGroupService.deployServices(getGroupRequest(GroupFailurePolicy.ALL_OR_NOTHING,
+                "cn-southwest-2", FAILING_REGION));
+
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == ServiceGroupState.ROLLED_BACK));
+        for (UUID id : deployed) {
+            verify(orchestratorService).destroyService(any(),
+                    argThat(deployTask -> deployTask.getId().equals(id)));
+        }
+    }
+
+    @Test
+    public void testWaitingRegionDoesNotHoldThread() throws Exception {
+        ExecutorService twoThreads = Executors.newFixedThreadPool(2);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            DeployTask deployTask = invocation.getArgument(1);
+            if ("cn-southwest-2".equals(deployTask.getCreateRequest().getRegion())) {
+                release.await();
+            }
+            deployed.add(deployTask.getId());
+            return ServiceState.DEPLOY_SUCCESS;
+        }).when(orchestratorService).deployService(any(), any());
+        try {
+            ServiceGroupService service = new ServiceGroupService(orchestratorService, storage,
+                    1, twoThreads, 300000);
+            List<ServiceGroupVo> waiting = List.of(
+                    service.deployServices(getGroupRequest(null, "cn-southwest-2")),
+                    service.deployServices(getGroupRequest(null, "cn-southwest-2")));
+            // the second deployment of the region waits in its queue, not on a thread.
+            ServiceGroupVo group = service.deployServices(getGroupRequest(null, "eu-west-0"));
+
+            verifyDeployed(group);
+            Assertions.assertEquals(1, deployed.size());
+            release.countDown();
+            waiting.forEach(this::verifyDeployed);
+            Assertions.assertEquals(3, deployed.size());
+        } finally {
+            release.countDown();
+            twoThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInterruptedDeploymentFails() {
+        ServiceGroupEntity group = new ServiceGroupEntity();
+        group.setId(UUID.randomUUID());
+        group.setState(ServiceGroupState.DEPLOYING);
+        when(storage.findExpiredLeases(any(), anyInt())).thenReturn(List.of(group.getId()));
+        when(storage.findGroupById(group.getId())).thenReturn(group);
+
+        serviceGroupService.failInterruptedGroups();
+
+        verify(storage).updateExpiredState(group.getId(), ServiceGroupState.DEPLOYING,
+                ServiceGroupState.DEPLOY_FAILED);
+    }
+
+    @Test
+    public void testUnknownRegionIsNotDeployed() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceGroupService.deployServices(getGroupRequest(null,
+                        "cn-southwest-2", "mars-1")));
+
+        verify(storage, never()).store(any());
+        verify(orchestratorService, never()).deployService(any(), any());
+    }
+
+    private void verifyDeployed(ServiceGroupVo group) {
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(stored -> stored.getId()
+                .equals(group.getId()) && stored.getState() == ServiceGroupState.DEPLOY_SUCCESS));
+    }
+
+    private MultiRegionCreateRequest getGroupRequest(GroupFailurePolicy failurePolicy,
+            String... regions) {
+        CreateRequest request = new CreateRequest();
+        request.setName("kafka");
+        request.setVersion("v1.0");
+        request.setCsp(Csp.HUAWEI);
+        request.setFlavor("basic");
+        MultiRegionCreateRequest groupRequest = new MultiRegionCreateRequest();
+        groupRequest.setRequest(request);
+        groupRequest.setRegions(Set.of(regions));
+        groupRequest.setFailurePolicy(failurePolicy);
+        return groupRequest;
+    }
+
+    private Ocl getOcl() {
+        CloudServiceProvider cloudServiceProvider = new CloudServiceProvider();
+        cloudServiceProvider.setName(Csp.HUAWEI);
+        cloudServiceProvider.setRegions(Set.of("cn-southwest-2", FAILING_REGION, "eu-west-0")
+                .stream().map(name -> {
+                    Region region = new Region();
+                    region.setName(name);
+                    return region;
+                }).toList());
+        Ocl ocl = new Ocl();
+        ocl.setCloudServiceProvider(cloudServiceProvider);
+        return ocl;
+    }
+}
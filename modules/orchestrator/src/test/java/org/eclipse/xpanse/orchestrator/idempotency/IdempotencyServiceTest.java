@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.idempotency;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyEntity;
+import org.eclipse.xpanse.modules.models.enums.IdempotentOperation;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for IdempotencyService.
+ */
+public class IdempotencyServiceTest {
+
+    private OrchestratorService orchestratorService;
+    private IdempotencyService idempotencyService;
+    private final Map<String, IdempotencyKeyEntity> keys = new HashMap<>();
+    private final List<Runnable> queued = new ArrayList<>();
+    private final AtomicInteger started = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        orchestratorService = mock(OrchestratorService.class);
+        IdempotencyKeyStorage storage = mock(IdempotencyKeyStorage.class);
+        idempotencyService = new IdempotencyService(orchestratorService, storage,
+                new ObjectMapper(), queued::add, 60);
+        when(storage.findByKey(any())).thenAnswer(
+                invocation -> keys.get(invocation.<String>getArgument(0)));
+        when(storage.claim(any())).thenAnswer(invocation -> {
+            IdempotencyKeyEntity claimed = invocation.getArgument(0);
+            return keys.putIfAbsent(claimed.getKey(), claimed) == null;
+        });
+        doAnswer(invocation -> keys.remove(invocation.<String>getArgument(0)))
+                .when(storage).delete(any());
+    }
+
+    @Test
+    public void testReplayReturnsTheFirstTask() {
+        UUID first = idempotencyService.execute("key-1", IdempotentOperation.DEPLOY,
+                Map.of("name", "kafka", "flavor", "basic"), this::startTask);
+        UUID replayed = idempotencyService.execute("key-1", IdempotentOperation.DEPLOY,
+                Map.of("flavor", "basic", "name", "kafka"), this::startTask);
+
+        Assertions.assertEquals(first, replayed);
+        Assertions.assertEquals(1, started.get());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("key-1", IdempotentOperation.DEPLOY,
+                        Map.of("name", "rabbitmq"), this::startTask));
+        Assertions.assertNotEquals(first, idempotencyService.execute(null,
+                IdempotentOperation.DEPLOY, Map.of("name", "kafka"), this::startTask));
+    }
+
+    @Test
+    public void testFailedTaskReleasesTheKey() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> idempotencyService.execute("key-2", IdempotentOperation.DEPLOY, "kafka",
+                        () -> {
+                            throw new IllegalStateException("Registered service not found");
+                        }));
+
+        Assertions.assertFalse(keys.containsKey("key-2"));
+        idempotencyService.execute("key-2", IdempotentOperation.DEPLOY, "kafka",
+                this::startTask);
+        Assertions.assertEquals(1, started.get());
+    }
+
+    @Test
+    public void testQueuedDestroyIsCoalesced() {
+        UUID serviceId = UUID.randomUUID();
+        when(orchestratorService.getServiceStates(any())).thenReturn(
+                Map.of(serviceId, ServiceState.DEPLOY_SUCCESS));
+
+        Assertions.assertTrue(idempotencyService.destroyOnce(serviceId));
+        Assertions.assertFalse(idempotencyService.destroyOnce(serviceId));
+        Assertions.assertEquals(1, queued.size());
+
+        queued.remove(0).run();
+        verify(orchestratorService).destroyService(any(), any());
+        Assertions.assertTrue(idempotencyService.destroyOnce(serviceId));
+        verify(orchestratorService, times(2)).getDestroyHandler(any());
+    }
+
+    private UUID startTask() {
+        started.incrementAndGet();
+        return UUID.randomUUID();
+    }
+}
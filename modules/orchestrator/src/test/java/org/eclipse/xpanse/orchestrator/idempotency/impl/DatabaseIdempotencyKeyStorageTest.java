@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.idempotency.impl;
+
+import java.util.Date;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.idempotency.IdempotencyKeyEntity;
+import org.eclipse.xpanse.modules.models.enums.IdempotentOperation;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for DatabaseIdempotencyKeyStorage.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseIdempotencyKeyStorageTest {
+
+    @Autowired
+    private DatabaseIdempotencyKeyStorage storage;
+
+    @Test
+    public void testKeyIsClaimedOnceUntilItExpires() {
+        long now = System.currentTimeMillis();
+        IdempotencyKeyEntity first = getKey("key-1", new Date(now - 1000));
+        Assertions.assertTrue(storage.claim(first));
+        first.setTaskId(UUID.randomUUID());
+        storage.store(first);
+
+        // the first key expired, it is replaced.
+        IdempotencyKeyEntity second = getKey("key-1", new Date(now + 60000));
+        Assertions.assertTrue(storage.claim(second));
+        Assertions.assertFalse(storage.claim(getKey("key-1", new Date(now + 60000))));
+        Assertions.assertNull(storage.findByKey("key-1").getTaskId());
+
+        Assertions.assertEquals(0, storage.deleteExpired(new Date(now)));
+        Assertions.assertEquals(1, storage.deleteExpired(new Date(now + 60000)));
+        storage.delete("key-1");
+        Assertions.assertNull(storage.findByKey("key-1"));
+    }
+
+    private IdempotencyKeyEntity getKey(String key, Date expireTime) {
+        IdempotencyKeyEntity idempotencyKey = new IdempotencyKeyEntity();
+        idempotencyKey.setKey(key);
+        idempotencyKey.setOperation(IdempotentOperation.DEPLOY);
+        idempotencyKey.setRequestHash("hash");
+        idempotencyKey.setExpireTime(expireTime);
+        return idempotencyKey;
+    }
+}
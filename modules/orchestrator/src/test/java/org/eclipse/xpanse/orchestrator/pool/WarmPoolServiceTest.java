@@ -0,0 +1,179 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.pool;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceEntity;
+import org.eclipse.xpanse.modules.database.pool.WarmPoolEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.TerraformExecState;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for WarmPoolService.
+ */
+public class WarmPoolServiceTest {
+
+    private static final String OCL_HASH = "hash";
+
+    private OrchestratorService orchestratorService;
+    private WarmPoolStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private WarmPoolService warmPoolService;
+    private WarmPoolEntity pool;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(WarmPoolStorage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        warmPoolService = new WarmPoolService(orchestratorService, storage, meterRegistry,
+                true, 60, 60000, executor, 120, 300000);
+        pool = new WarmPoolEntity();
+        pool.setId(UUID.randomUUID());
+        pool.setCategory(Category.MIDDLEWARE);
+        pool.setCreateRequest(getCreateRequest());
+        pool.setSize(2);
+        pool.setMaxIdleMinutes(60);
+        when(storage.findPools(any(), any(), any(), any(), any())).thenReturn(List.of(pool));
+        when(storage.findPools()).thenReturn(List.of(pool));
+        when(storage.claimRefill(any(), any(), any())).thenReturn(true);
+        when(storage.updateInstanceState(any(), any(), any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMatchingRequestIsAssignedReadyInstance() {
+        WarmInstanceEntity instance = getInstanceEntity(WarmInstanceState.READY, new Date());
+        when(storage.findReadyInstances(pool.getId(), OCL_HASH, 5)).thenReturn(
+                List.of(instance));
+        when(storage.deleteInstance(instance.getId(), WarmInstanceState.READY)).thenReturn(true);
+        DeployTask deployTask = getDeployTask(getCreateRequest());
+
+        Assertions.assertTrue(warmPoolService.assign(deployTask));
+
+        Assertions.assertEquals(instance.getId(), deployTask.getId());
+        Assertions.assertEquals(instance.getId(), deployTask.getCreateRequest().getId());
+        verify(orchestratorService).deployWarmService(eq(deployTask),
+                argThat(result -> result.getState() == TerraformExecState.DEPLOY_SUCCESS));
+        Assertions.assertEquals(1.0, meterRegistry.counter("xpanse.warm-pool.hits").count());
+    }
+
+    @Test
+    public void testOtherPropertiesAreNotAssigned() {
+        when(storage.findReadyInstances(any(), any(), anyInt())).thenReturn(List.of());
+        Assertions.assertFalse(warmPoolService.assign(getDeployTask(getCreateRequest())));
+        Assertions.assertEquals(1.0, meterRegistry.counter("xpanse.warm-pool.misses").count());
+
+        CreateRequest request = getCreateRequest();
+        request.setProperty(Map.of("admin_passwd", "other"));
+        Assertions.assertFalse(warmPoolService.assign(getDeployTask(request)));
+
+        Assertions.assertEquals(1.0, meterRegistry.counter("xpanse.warm-pool.misses").count());
+        verify(orchestratorService, never()).deployWarmService(any(), any());
+    }
+
+    @Test
+    public void testPoolIsRefilledAndIdleInstancesDestroyed() {
+        Deployment deployment = mock(Deployment.class);
+        doAnswer(invocation -> {
+            invocation.<DeployTask>getArgument(0).setOclHash(OCL_HASH);
+            return deployment;
+        }).when(orchestratorService).getDeployHandler(any());
+        when(orchestratorService.getDeployedHandler(any(), any())).thenReturn(deployment);
+        DeployResult deployResult = new DeployResult();
+        deployResult.setState(TerraformExecState.DEPLOY_SUCCESS);
+        deployResult.setResources(new ArrayList<>());
+        when(deployment.deploy(any())).thenReturn(deployResult);
+        WarmInstanceEntity idle = getInstanceEntity(WarmInstanceState.READY,
+                new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(61)));
+        WarmInstanceEntity ready = getInstanceEntity(WarmInstanceState.READY, new Date());
+        when(storage.findInstances(pool.getId())).thenReturn(List.of(idle, ready));
+        when(storage.completeInstance(any())).thenReturn(true);
+
+        warmPoolService.maintain();
+
+        verify(storage, times(1)).storeInstance(argThat(
+                instance -> instance.getState() == WarmInstanceState.DEPLOYING));
+        verify(storage).updateInstanceState(eq(idle.getId()), eq(WarmInstanceState.READY),
+                eq(WarmInstanceState.DESTROYING), any());
+        verify(deployment, timeout(10000)).destroy(argThat(
+                task -> task.getId().equals(idle.getId())));
+        verify(storage, timeout(10000)).deleteInstance(idle.getId(),
+                WarmInstanceState.DESTROYING);
+        verify(storage, timeout(10000)).completeInstance(argThat(
+                instance -> instance.getPoolId().equals(pool.getId())));
+        Assertions.assertEquals(1.0, meterRegistry.counter("xpanse.warm-pool.expired").count());
+    }
+
+    private WarmInstanceEntity getInstanceEntity(WarmInstanceState state, Date stateTime) {
+        WarmInstanceEntity instance = new WarmInstanceEntity();
+        instance.setId(UUID.randomUUID());
+        instance.setPoolId(pool.getId());
+        instance.setState(state);
+        instance.setStateTime(stateTime);
+        instance.setOclHash(OCL_HASH);
+        instance.setCreateRequest(getCreateRequest());
+        return instance;
+    }
+
+    private DeployTask getDeployTask(CreateRequest request) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(UUID.randomUUID());
+        deployTask.setCreateRequest(request);
+        deployTask.setOclHash(OCL_HASH);
+        return deployTask;
+    }
+
+    private CreateRequest getCreateRequest() {
+        CreateRequest request = new CreateRequest();
+        request.setCategory(Category.MIDDLEWARE);
+        request.setName("kafka");
+        request.setVersion("v1.0");
+        request.setCsp(Csp.HUAWEI);
+        request.setRegion("cn-southwest-2");
+        request.setFlavor("basic");
+        request.setProperty(Map.of("admin_passwd", "Xx@123456"));
+        return request;
+    }
+}
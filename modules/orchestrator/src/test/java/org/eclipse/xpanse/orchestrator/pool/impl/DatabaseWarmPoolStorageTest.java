@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.pool.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.pool.WarmInstanceEntity;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.enums.WarmInstanceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.DeployResource;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseWarmPoolStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseWarmPoolStorageTest {
+
+    private static final String OCL_HASH = "hash";
+
+    @Autowired
+    private DatabaseWarmPoolStorage storage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void testReadyInstanceIsClaimedOnce() {
+        UUID poolId = UUID.randomUUID();
+        WarmInstanceEntity instance = getInstanceEntity(poolId);
+        storage.storeInstance(instance);
+        storage.storeInstance(getInstanceEntity(poolId));
+        entityManager.flush();
+        entityManager.clear();
+        Assertions.assertTrue(storage.findReadyInstances(poolId, OCL_HASH, 5).isEmpty());
+
+        DeployResource resource = new DeployResource();
+        resource.setResourceId("vm-1");
+        resource.setName("kafka-broker");
+        resource.setKind(DeployResourceKind.VM);
+        resource.setProperty(Map.of("ip", "10.0.0.1"));
+        instance.setResources(List.of(resource));
+        instance.setStateTime(new Date());
+        Assertions.assertTrue(storage.completeInstance(instance));
+        Assertions.assertFalse(storage.completeInstance(instance));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<WarmInstanceEntity> ready = storage.findReadyInstances(poolId, OCL_HASH, 5);
+        Assertions.assertEquals(1, ready.size());
+        Assertions.assertEquals("vm-1", ready.get(0).getResources().get(0).getResourceId());
+        Assertions.assertTrue(storage.findReadyInstances(poolId, "other", 5).isEmpty());
+        Assertions.assertEquals(Map.of(WarmInstanceState.READY, 1L,
+                WarmInstanceState.DEPLOYING, 1L), storage.countInstanceStates(poolId));
+        Assertions.assertTrue(storage.deleteInstance(instance.getId(),
+                WarmInstanceState.READY));
+        Assertions.assertFalse(storage.deleteInstance(instance.getId(),
+                WarmInstanceState.READY));
+        entityManager.clear();
+        Assertions.assertEquals(1, storage.findInstances(poolId).size());
+    }
+
+    private WarmInstanceEntity getInstanceEntity(UUID poolId) {
+        CreateRequest request = new CreateRequest();
+        request.setName("kafka");
+        request.setFlavor("basic");
+        WarmInstanceEntity instance = new WarmInstanceEntity();
+        instance.setId(UUID.randomUUID());
+        instance.setPoolId(poolId);
+        instance.setState(WarmInstanceState.DEPLOYING);
+        instance.setStateTime(new Date());
+        instance.setOclHash(OCL_HASH);
+        instance.setCreateRequest(request);
+        return instance;
+    }
+}
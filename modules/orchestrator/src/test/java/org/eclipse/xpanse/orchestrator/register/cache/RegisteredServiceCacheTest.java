@@ -0,0 +1,150 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.orchestrator.register.OclSnapshotStorage;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for RegisteredServiceCache.
+ */
+public class RegisteredServiceCacheTest {
+
+    private RegisterServiceStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private OclSnapshotStorage oclSnapshotStorage;
+    private OclSnapshotCache oclSnapshotCache;
+    private RegisterServiceEntity entity;
+
+    @BeforeEach
+    public void setUp() {
+        storage = mock(RegisterServiceStorage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        oclSnapshotStorage = mock(OclSnapshotStorage.class);
+        oclSnapshotCache = new OclSnapshotCache(oclSnapshotStorage, meterRegistry, 10);
+        entity = new RegisterServiceEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setName("kafka");
+        entity.setVersion("v1.0");
+        entity.setCsp(Csp.HUAWEI);
+        entity.setCategory(Category.MIDDLEWARE);
+        entity.setOcl(new Ocl());
+        when(storage.findRegisteredService(any())).thenReturn(entity);
+        when(storage.getRegisterServiceById(entity.getId())).thenReturn(entity);
+    }
+
+    @Test
+    public void testLookupByKeyIsCached() {
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, false, 0);
+
+        Ocl first = cache.getOcl("Kafka", "V1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+        Ocl second = cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+
+        Assertions.assertSame(entity.getOcl(), first);
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first, cache.get(entity.getId()).getOcl());
+        verify(storage, times(1)).findRegisteredService(any());
+        verify(storage, times(0)).getRegisterServiceById(any());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "xpanse.register.cache").tag("index", "key").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testInvalidate() {
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, false, 0);
+        cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+
+        cache.invalidate(entity.getId());
+        cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+
+        verify(storage, times(2)).findRegisteredService(any());
+    }
+
+    @Test
+    public void testServiceInvalidatedWhileLoadingIsNotCached() {
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, false, 0);
+        // the change commits after the reader loaded the old state.
+        when(storage.getRegisterServiceById(entity.getId())).thenAnswer(invocation -> {
+            cache.invalidate(entity.getId());
+            return entity;
+        }).thenReturn(entity);
+
+        Assertions.assertNotNull(cache.get(entity.getId()));
+        cache.get(entity.getId());
+        cache.get(entity.getId());
+
+        verify(storage, times(2)).getRegisterServiceById(entity.getId());
+    }
+
+    @Test
+    public void testNotRegisteredIsNotCached() {
+        when(storage.findRegisteredService(any())).thenReturn(null);
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, false, 0);
+
+        Assertions.assertNull(cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE));
+        Assertions.assertNull(cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE));
+
+        verify(storage, times(2)).findRegisteredService(any());
+    }
+
+    @Test
+    public void testChangeVersionInvalidatesInClusterMode() {
+        when(storage.getChangeVersion()).thenReturn("1:100", "1:100", "1:200");
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, true, 0);
+
+        cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+        cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+        verify(storage, times(1)).findRegisteredService(any());
+
+        cache.getOcl("kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE);
+        verify(storage, times(2)).findRegisteredService(any());
+    }
+
+    @Test
+    public void testLookupDoesNotStoreTheOclSnapshot() {
+        RegisteredServiceCache cache = new RegisteredServiceCache(storage, oclSnapshotCache,
+                meterRegistry, 10, false, 0);
+        entity.setOclHash("stored-hash");
+        RegisterServiceEntity legacy = new RegisterServiceEntity();
+        legacy.setId(UUID.randomUUID());
+        legacy.setOcl(new Ocl());
+        when(storage.getRegisterServiceById(legacy.getId())).thenReturn(legacy);
+
+        CachedRegisteredService service = cache.get(entity.getId());
+        CachedRegisteredService legacyService = cache.get(legacy.getId());
+
+        Assertions.assertEquals("stored-hash", service.getOclHash());
+        Assertions.assertSame(service.getOcl(), oclSnapshotCache.get("stored-hash"));
+        // registered before the hash was stored, the snapshot is stored by the migration.
+        Assertions.assertEquals(oclSnapshotCache.hash(legacy.getOcl()),
+                legacyService.getOclHash());
+        verify(oclSnapshotStorage, never()).storeIfAbsent(any());
+        verify(oclSnapshotStorage, never()).findByHash(any());
+    }
+}
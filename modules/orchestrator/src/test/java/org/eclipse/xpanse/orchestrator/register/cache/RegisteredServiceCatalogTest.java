@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.resource.CloudServiceProvider;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.orchestrator.register.OclSnapshotStorage;
+import org.eclipse.xpanse.orchestrator.register.RegisterServiceStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for RegisteredServiceCatalog.
+ */
+public class RegisteredServiceCatalogTest {
+
+    private RegisterServiceStorage storage;
+    private RegisteredServiceCatalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        storage = mock(RegisterServiceStorage.class);
+        when(storage.queryRegisteredServices(any())).thenReturn(new ArrayList<>(List.of(
+                getEntity("Kafka", "v1.0", Csp.HUAWEI, Category.MIDDLEWARE),
+                getEntity("Kafka", "v1.0", Csp.OPENSTACK, Category.MIDDLEWARE),
+                getEntity("Mysql", "v5.7", Csp.HUAWEI, Category.DATABASE))));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OclSnapshotCache oclSnapshotCache = new OclSnapshotCache(
+                mock(OclSnapshotStorage.class), meterRegistry, 10);
+        catalog = new RegisteredServiceCatalog(storage, new RegisteredServiceCache(storage,
+                oclSnapshotCache, meterRegistry, 10, false, 0), new ObjectMapper());
+    }
+
+    private RegisterServiceEntity getEntity(String name, String version, Csp csp,
+            Category category) {
+        CloudServiceProvider cloudServiceProvider = new CloudServiceProvider();
+        cloudServiceProvider.setName(csp);
+        cloudServiceProvider.setRegions(new ArrayList<>());
+        Ocl ocl = new Ocl();
+        ocl.setName(name);
+        ocl.setServiceVersion(version);
+        ocl.setCategory(category);
+        ocl.setCloudServiceProvider(cloudServiceProvider);
+        RegisterServiceEntity entity = new RegisterServiceEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setName(name.toLowerCase());
+        entity.setVersion(version.toLowerCase());
+        entity.setCsp(csp);
+        entity.setCategory(category);
+        entity.setOcl(ocl);
+        return entity;
+    }
+
+    @Test
+    public void testTreeIsLoadedOnce() {
+        CategoryCatalog middleware = catalog.getCategory(Category.MIDDLEWARE);
+
+        Assertions.assertEquals(1, middleware.getServices().size());
+        Assertions.assertEquals("kafka", middleware.getServices().get(0).getName());
+        Assertions.assertEquals(2, middleware.getServices().get(0).getVersions().get(0)
+                .getCloudProvider().size());
+        Assertions.assertSame(middleware, catalog.getCategory(Category.MIDDLEWARE));
+        Assertions.assertTrue(catalog.getCategory(Category.AI).getServices().isEmpty());
+        verify(storage, times(1)).queryRegisteredServices(any());
+    }
+
+    @Test
+    public void testUpdateRebuildsOnlyTheTouchedCategory() {
+        CategoryCatalog middleware = catalog.getCategory(Category.MIDDLEWARE);
+        CategoryCatalog database = catalog.getCategory(Category.DATABASE);
+
+        RegisterServiceEntity redis = getEntity("Redis", "v6.0", Csp.HUAWEI,
+                Category.MIDDLEWARE);
+        catalog.update(redis);
+
+        CategoryCatalog updated = catalog.getCategory(Category.MIDDLEWARE);
+        Assertions.assertEquals(2, updated.getServices().size());
+        Assertions.assertNotEquals(middleware.getEtag(), updated.getEtag());
+        Assertions.assertSame(database, catalog.getCategory(Category.DATABASE));
+
+        catalog.remove(redis.getId());
+        Assertions.assertEquals(middleware.getEtag(),
+                catalog.getCategory(Category.MIDDLEWARE).getEtag());
+        verify(storage, times(1)).queryRegisteredServices(any());
+    }
+}
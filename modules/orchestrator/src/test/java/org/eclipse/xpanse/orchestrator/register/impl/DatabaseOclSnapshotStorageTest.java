@@ -0,0 +1,144 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.impl;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotRepository;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test for DatabaseOclSnapshotStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DatabaseOclSnapshotStorageTest {
+
+    @SpyBean
+    private OclSnapshotRepository oclSnapshotRepository;
+
+    @Autowired
+    private DeployServiceRepository deployServiceRepository;
+
+    @Autowired
+    private DatabaseOclSnapshotStorage storage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OclSnapshotCache oclSnapshotCache;
+
+    @BeforeEach
+    public void setUp() {
+        oclSnapshotCache = new OclSnapshotCache(storage, new SimpleMeterRegistry(), 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        deployServiceRepository.deleteAll();
+        oclSnapshotRepository.deleteAll();
+    }
+
+    @Test
+    public void testDuplicateHashDoesNotRollBackTheCaller() throws Exception {
+        Ocl ocl = getOcl("kafka");
+        // both writers find no snapshot before either of them inserts it.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            boolean exists = oclSnapshotRepository.findById(invocation.getArgument(0))
+                    .isPresent();
+            barrier.await(10, TimeUnit.SECONDS);
+            return exists;
+        }).when(oclSnapshotRepository).existsById(anyString());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<CompletableFuture<String>> writers = List.of(1, 2).stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+                        status -> {
+                            deployServiceRepository.save(getDeployService(null));
+                            return oclSnapshotCache.intern(ocl);
+                        })))
+                .toList();
+
+        String hash = writers.get(0).get(20, TimeUnit.SECONDS);
+        Assertions.assertEquals(hash, writers.get(1).get(20, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, oclSnapshotRepository.count());
+        Assertions.assertEquals(2, deployServiceRepository.count());
+        Assertions.assertEquals(ocl, storage.findByHash(hash).getOcl());
+    }
+
+    @Test
+    public void testOclIsResolvedFromTheSnapshotOrTheLegacyCreateRequest() {
+        Ocl legacyOcl = getOcl("legacy");
+        DeployServiceEntity legacy = getDeployService(null);
+        legacy.getCreateRequest().setOcl(legacyOcl);
+        deployServiceRepository.save(legacy);
+        Ocl ocl = getOcl("kafka");
+        String hash = oclSnapshotCache.intern(ocl);
+        deployServiceRepository.save(getDeployService(hash));
+        oclSnapshotCache = new OclSnapshotCache(storage, new SimpleMeterRegistry(), 10);
+
+        for (DeployServiceEntity service : deployServiceRepository.findAll()) {
+            Ocl deployedOcl = oclSnapshotCache.getDeployedOcl(service);
+            if (service.getId().equals(legacy.getId())) {
+                Assertions.assertEquals(legacyOcl, deployedOcl);
+            } else {
+                Assertions.assertNull(service.getCreateRequest().getOcl());
+                Assertions.assertEquals(ocl, deployedOcl);
+            }
+        }
+        Assertions.assertNull(oclSnapshotCache.getDeployedOcl(getDeployService("unknown")));
+    }
+
+    private Ocl getOcl(String name) {
+        Ocl ocl = new Ocl();
+        ocl.setName(name);
+        ocl.setServiceVersion("v1.0");
+        return ocl;
+    }
+
+    private DeployServiceEntity getDeployService(String oclHash) {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setRegion("eu-west-0");
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setName("kafka");
+        deployServiceEntity.setVersion("v1.0");
+        deployServiceEntity.setCsp(Csp.HUAWEI);
+        deployServiceEntity.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        deployServiceEntity.setOclHash(oclHash);
+        deployServiceEntity.setCreateRequest(createRequest);
+        return deployServiceEntity;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.modules.models.view.RegisteredServiceVo;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseRegisterServiceStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseRegisterServiceStorageTest {
+
+    @Autowired
+    private DatabaseRegisterServiceStorage storage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        storage.store(getRegisterServiceEntity("kafka", Csp.HUAWEI));
+        storage.store(getRegisterServiceEntity("kafka", Csp.OPENSTACK));
+        storage.store(getRegisterServiceEntity("redis", Csp.HUAWEI));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testServicesAreListedWithTheirOcl() {
+        RegisteredServiceQuery query = new RegisteredServiceQuery();
+        query.setServiceName("kafka");
+
+        List<RegisteredServiceVo> services = storage.listRegisteredServices(query, null, null,
+                true);
+
+        Assertions.assertEquals(2, services.size());
+        for (RegisteredServiceVo service : services) {
+            Assertions.assertEquals("kafka", service.getName());
+            Assertions.assertEquals("v1.0", service.getVersion());
+            Assertions.assertEquals(Category.MIDDLEWARE, service.getCategory());
+            Assertions.assertEquals(ServiceState.REGISTERED, service.getServiceState());
+            Assertions.assertNotNull(service.getOcl());
+            Assertions.assertEquals("kafka", service.getOcl().getName());
+            Assertions.assertEquals(service.getCsp().toValue(), service.getOcl().getDescription());
+        }
+    }
+
+    @Test
+    public void testServicesAreListedWithoutTheirOcl() {
+        List<RegisteredServiceVo> services = storage.listRegisteredServices(
+                new RegisteredServiceQuery(), null, null, false);
+
+        Assertions.assertEquals(3, services.size());
+        services.forEach(service -> {
+            Assertions.assertNotNull(service.getName());
+            Assertions.assertNull(service.getOcl());
+        });
+    }
+
+    @Test
+    public void testServicesAreListedAfterTheCursor() {
+        RegisteredServiceQuery query = new RegisteredServiceQuery();
+        List<RegisteredServiceVo> all = storage.listRegisteredServices(query, null, null, false);
+
+        List<RegisteredServiceVo> first = storage.listRegisteredServices(query, null, 2, false);
+        List<RegisteredServiceVo> next = storage.listRegisteredServices(query,
+                first.get(1).getId(), 2, false);
+
+        Assertions.assertEquals(List.of(all.get(0).getId(), all.get(1).getId()),
+                first.stream().map(RegisteredServiceVo::getId).toList());
+        Assertions.assertEquals(List.of(all.get(2).getId()),
+                next.stream().map(RegisteredServiceVo::getId).toList());
+        Assertions.assertEquals(3, storage.countRegisteredServices(query));
+    }
+
+    private RegisterServiceEntity getRegisterServiceEntity(String name, Csp csp) {
+        Ocl ocl = new Ocl();
+        ocl.setName(name);
+        ocl.setDescription(csp.toValue());
+        RegisterServiceEntity entity = new RegisterServiceEntity();
+        entity.setName(name);
+        entity.setVersion("v1.0");
+        entity.setCsp(csp);
+        entity.setCategory(Category.MIDDLEWARE);
+        entity.setOcl(ocl);
+        entity.setServiceState(ServiceState.REGISTERED);
+        return entity;
+    }
+}
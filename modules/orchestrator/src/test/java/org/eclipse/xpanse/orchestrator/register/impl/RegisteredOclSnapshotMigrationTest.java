@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.register.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.eclipse.xpanse.modules.database.ocl.OclSnapshotRepository;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.resource.Ocl;
+import org.eclipse.xpanse.orchestrator.register.cache.OclSnapshotCache;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for RegisteredOclSnapshotMigration.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RegisteredOclSnapshotMigrationTest {
+
+    @Autowired
+    private RegisterServiceRepository registerServiceRepository;
+
+    @Autowired
+    private OclSnapshotRepository oclSnapshotRepository;
+
+    @Autowired
+    private DatabaseOclSnapshotStorage oclSnapshotStorage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void tearDown() {
+        registerServiceRepository.deleteAllInBatch();
+        oclSnapshotRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testSnapshotsOfServicesWithoutHashAreStoredInBatches() {
+        OclSnapshotCache oclSnapshotCache = new OclSnapshotCache(oclSnapshotStorage,
+                new SimpleMeterRegistry(), 10);
+        for (String name : List.of("kafka", "redis", "mysql")) {
+            registerServiceRepository.save(getRegisterServiceEntity(name, null));
+        }
+        RegisterServiceEntity stored = registerServiceRepository.save(
+                getRegisterServiceEntity("mongodb", "stored-hash"));
+        RegisteredOclSnapshotMigration migration = new RegisteredOclSnapshotMigration(
+                transactionManager, oclSnapshotCache, 2);
+        ReflectionTestUtils.setField(migration, "entityManager", entityManager);
+
+        migration.migrate();
+
+        for (RegisterServiceEntity service : registerServiceRepository.findAll()) {
+            if (service.getId().equals(stored.getId())) {
+                Assertions.assertEquals("stored-hash", service.getOclHash());
+                continue;
+            }
+            Assertions.assertEquals(oclSnapshotCache.hash(service.getOcl()),
+                    service.getOclHash());
+            Assertions.assertTrue(oclSnapshotRepository.existsById(service.getOclHash()));
+        }
+        Assertions.assertEquals(3, oclSnapshotRepository.count());
+    }
+
+    private RegisterServiceEntity getRegisterServiceEntity(String name, String oclHash) {
+        Ocl ocl = new Ocl();
+        ocl.setName(name);
+        RegisterServiceEntity entity = new RegisterServiceEntity();
+        entity.setName(name);
+        entity.setVersion("v1.0");
+        entity.setCsp(Csp.HUAWEI);
+        entity.setCategory(Category.MIDDLEWARE);
+        entity.setOcl(ocl);
+        entity.setOclHash(oclHash);
+        entity.setServiceState(ServiceState.REGISTERED);
+        return entity;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.schedule.ServiceScheduleEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ScheduleState;
+import org.eclipse.xpanse.modules.models.enums.ScheduleType;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.ServiceScheduleRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceScheduleVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+/**
+ * Test for ServiceScheduleService.
+ */
+public class ServiceScheduleServiceTest {
+
+    private OrchestratorService orchestratorService;
+    private ServiceScheduleStorage storage;
+    private ServiceScheduleService serviceScheduleService;
+    private final Map<UUID, ServiceScheduleEntity> schedules = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ScheduledExecutorService ticker;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(ServiceScheduleStorage.class);
+        serviceScheduleService = new ServiceScheduleService(orchestratorService, storage,
+                new SimpleMeterRegistry(), 10, 10, 1, 3, 1000, executor);
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(serviceScheduleService::tick, 10, 10, TimeUnit.MILLISECONDS);
+        when(orchestratorService.getDeployHandler(any())).thenReturn(mock(Deployment.class));
+        when(orchestratorService.getDestroyHandler(any())).thenReturn(mock(Deployment.class));
+        doAnswer(invocation -> {
+            ServiceScheduleEntity schedule = invocation.getArgument(0);
+            schedules.put(schedule.getId(), schedule);
+            return null;
+        }).when(storage).store(any());
+        when(storage.findScheduleById(any())).thenAnswer(
+                invocation -> schedules.get(invocation.<UUID>getArgument(0)));
+        when(storage.fire(any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ticker.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDeployFiresAndSchedulesTheDestroy() {
+        long start = System.currentTimeMillis();
+        ServiceScheduleRequest scheduleRequest = new ServiceScheduleRequest();
+        scheduleRequest.setRequest(getCreateRequest());
+        scheduleRequest.setTtlMinutes(30L);
+
+        ServiceScheduleVo schedule = serviceScheduleService.scheduleService(scheduleRequest);
+
+        Assertions.assertEquals(ScheduleType.DEPLOY, schedule.getType());
+        Assertions.assertEquals(ScheduleState.PENDING, schedule.getState());
+        verify(orchestratorService, timeout(10000)).asyncDeployService(any(), argThat(
+                deployTask -> deployTask.getId().equals(schedule.getServiceId())));
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(stored -> stored.getType()
+                == ScheduleType.DEPLOY && stored.getState() == ScheduleState.FIRED));
+        // the destroy is stored with the claim of the deployment, before it starts.
+        InOrder inOrder = inOrder(storage, orchestratorService);
+        inOrder.verify(storage).fire(eq(schedule.getId()), argThat(stored -> stored.getType()
+                == ScheduleType.DESTROY && stored.getServiceId().equals(schedule.getServiceId())
+                && stored.getFireTime().getTime() >= start + 30 * 60000));
+        inOrder.verify(orchestratorService).asyncDeployService(any(), any());
+    }
+
+    @Test
+    public void testDestroyOfDeploymentNotStartedIsCancelled() {
+        when(orchestratorService.getDeployHandler(any())).thenReturn(mock(Deployment.class))
+                .thenThrow(new IllegalStateException("Registered service not found"));
+        ServiceScheduleRequest scheduleRequest = new ServiceScheduleRequest();
+        scheduleRequest.setRequest(getCreateRequest());
+        scheduleRequest.setTtlMinutes(30L);
+
+        ServiceScheduleVo schedule = serviceScheduleService.scheduleService(scheduleRequest);
+
+        verify(storage, timeout(10000)).updateState(argThat(id -> !id.equals(schedule.getId())),
+                eq(ScheduleState.PENDING), eq(ScheduleState.CANCELLED));
+        verify(storage, timeout(10000).times(2)).store(argThat(stored -> stored.getType()
+                == ScheduleType.DEPLOY && stored.getState() == ScheduleState.FAILED));
+        verify(orchestratorService, never()).asyncDeployService(any(), any());
+    }
+
+    @Test
+    public void testDestroyOfMissingServiceEndsAfterItsAttempts() {
+        ServiceScheduleEntity retried = getDestroySchedule();
+        ServiceScheduleEntity ended = getDestroySchedule();
+        ended.setAttempts(2);
+        when(storage.findPending(any(), any(), any(), anyInt())).thenReturn(
+                Map.of(retried.getId(), retried.getFireTime(), ended.getId(),
+                        ended.getFireTime()));
+        when(orchestratorService.getServiceStates(any())).thenReturn(Map.of());
+
+        serviceScheduleService.load();
+
+        verify(storage, timeout(10000)).store(argThat(stored -> stored.getId()
+                .equals(retried.getId()) && stored.getState() == ScheduleState.PENDING
+                && stored.getAttempts() == 1));
+        verify(storage, timeout(10000)).store(argThat(stored -> stored.getId()
+                .equals(ended.getId()) && stored.getState() == ScheduleState.CANCELLED));
+        verify(orchestratorService, never()).asyncDestroyService(any(), any());
+    }
+
+    @Test
+    public void testLoadedDestroyOfBusyServiceIsRetried() {
+        ServiceScheduleEntity busy = getDestroySchedule();
+        ServiceScheduleEntity deployed = getDestroySchedule();
+        when(storage.findPending(any(), any(), any(), anyInt())).thenReturn(
+                Map.of(busy.getId(), busy.getFireTime(), deployed.getId(),
+                        deployed.getFireTime()));
+        when(orchestratorService.getServiceStates(any())).thenReturn(
+                Map.of(busy.getServiceId(), ServiceState.DEPLOYING, deployed.getServiceId(),
+                        ServiceState.DEPLOY_SUCCESS));
+
+        serviceScheduleService.load();
+
+        verify(orchestratorService, timeout(10000)).asyncDestroyService(any(), argThat(
+                deployTask -> deployTask.getId().equals(deployed.getServiceId())));
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getId().equals(busy.getId())
+                        && stored.getState() == ScheduleState.PENDING
+                        && stored.getFireTime().after(new Date())));
+        verify(orchestratorService, never()).asyncDestroyService(any(), argThat(
+                deployTask -> deployTask.getId().equals(busy.getServiceId())));
+    }
+
+    @Test
+    public void testCancelledScheduleDoesNotFire() {
+        ServiceScheduleEntity destroy = getDestroySchedule();
+        when(storage.updateState(destroy.getId(), ScheduleState.PENDING,
+                ScheduleState.CANCELLED)).thenReturn(true);
+        when(storage.fire(destroy.getId(), null)).thenReturn(false);
+        when(storage.findPending(any(), any(), any(), anyInt())).thenReturn(
+                Map.of(destroy.getId(), destroy.getFireTime()));
+
+        Assertions.assertEquals(ScheduleState.CANCELLED,
+                serviceScheduleService.cancelSchedule(destroy.getId()).getState());
+        serviceScheduleService.load();
+
+        verify(storage, timeout(10000)).fire(destroy.getId(), null);
+        verify(orchestratorService, never()).getServiceStates(any());
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> serviceScheduleService.cancelSchedule(UUID.randomUUID()));
+    }
+
+    private ServiceScheduleEntity getDestroySchedule() {
+        ServiceScheduleEntity destroy = new ServiceScheduleEntity();
+        destroy.setId(UUID.randomUUID());
+        destroy.setServiceId(UUID.randomUUID());
+        destroy.setType(ScheduleType.DESTROY);
+        destroy.setState(ScheduleState.PENDING);
+        destroy.setFireTime(new Date());
+        schedules.put(destroy.getId(), destroy);
+        return destroy;
+    }
+
+    private CreateRequest getCreateRequest() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setName("kafka");
+        createRequest.setVersion("v1.0");
+        createRequest.setCsp(Csp.HUAWEI);
+        createRequest.setRegion("cn-southwest-2");
+        createRequest.setFlavor("basic");
+        return createRequest;
+    }
+}
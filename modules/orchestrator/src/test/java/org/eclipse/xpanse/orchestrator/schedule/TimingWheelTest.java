@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.schedule;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for TimingWheel.
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void testTimersExpireAtTheirTick() {
+        // 2 levels of 4 slots, timers after 16 ticks wait in the overflow.
+        TimingWheel timingWheel = new TimingWheel(10, 2, 2, 1000);
+        Map<UUID, Long> fireTimes = new HashMap<>();
+        Map<UUID, Long> addTimes = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.randomUUID();
+            long fireTime = 1000 + random.nextInt(1000);
+            fireTimes.put(id, fireTime);
+            timingWheel.add(id, fireTime);
+        }
+        Assertions.assertEquals(200, timingWheel.size());
+
+        Map<UUID, Long> expireTimes = new HashMap<>();
+        for (long now = 1000; now <= 2100; now += 10) {
+            for (UUID id : timingWheel.advance(now)) {
+                Assertions.assertNull(expireTimes.put(id, now));
+            }
+            if (now == 1500) {
+                UUID late = UUID.randomUUID();
+                fireTimes.put(late, 1800L);
+                addTimes.put(late, now);
+                timingWheel.add(late, 1800);
+                UUID due = UUID.randomUUID();
+                fireTimes.put(due, 1200L);
+                addTimes.put(due, now);
+                timingWheel.add(due, 1200);
+            }
+        }
+
+        Assertions.assertEquals(fireTimes.size(), expireTimes.size());
+        for (Map.Entry<UUID, Long> fireTime : fireTimes.entrySet()) {
+            // timers added after the first advance expire with the next one at the earliest.
+            long expected = Math.max(fireTime.getValue() / 10 * 10,
+                    addTimes.getOrDefault(fireTime.getKey(), 990L) + 10);
+            Assertions.assertEquals(expected, expireTimes.get(fireTime.getKey()));
+        }
+        Assertions.assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    public void testAdvanceOverManyTicks() {
+        TimingWheel timingWheel = new TimingWheel(1000, 6, 4, 0);
+        UUID hour = UUID.randomUUID();
+        UUID day = UUID.randomUUID();
+        timingWheel.add(hour, 3_600_000);
+        timingWheel.add(day, 86_400_000);
+
+        Assertions.assertTrue(timingWheel.advance(3_599_999).isEmpty());
+        Assertions.assertEquals(List.of(hour), timingWheel.advance(3_600_000));
+        Assertions.assertTrue(timingWheel.advance(86_399_000).isEmpty());
+        Assertions.assertEquals(List.of(day), timingWheel.advance(86_400_000));
+    }
+}
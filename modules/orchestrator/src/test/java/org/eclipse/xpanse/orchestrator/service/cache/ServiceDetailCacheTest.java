@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.orchestrator.service.DeployServiceStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ServiceDetailCache.
+ */
+public class ServiceDetailCacheTest {
+
+    private static final int REQUESTS = 16;
+
+    private DeployServiceStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private DeployServiceEntity entity;
+
+    @BeforeEach
+    public void setUp() {
+        storage = mock(DeployServiceStorage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        entity = new DeployServiceEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setName("kafka");
+        entity.setVersion("v1.0");
+        entity.setCsp(Csp.HUAWEI);
+        entity.setServiceState(ServiceState.DEPLOYING);
+        entity.setCreateRequest(new CreateRequest());
+        entity.setDeployResourceList(new ArrayList<>());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storage.findDeployServiceWithResourcesById(entity.getId())).thenAnswer(
+                invocation -> {
+                    loading.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return entity;
+                });
+        ServiceDetailCache cache = new ServiceDetailCache(storage, meterRegistry, new ObjectMapper(),
+                10, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<CachedServiceDetail>> details = new ArrayList<>();
+            details.add(executor.submit(() -> cache.get(entity.getId())));
+            Assertions.assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < REQUESTS; i++) {
+                details.add(executor.submit(() -> cache.get(entity.getId())));
+            }
+            while (meterRegistry.get("xpanse.service.detail.cache.coalesced").counter().count()
+                    < REQUESTS - 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            CachedServiceDetail first = details.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<CachedServiceDetail> detail : details) {
+                Assertions.assertSame(first, detail.get(10, TimeUnit.SECONDS));
+            }
+            Assertions.assertSame(first, cache.get(entity.getId()));
+            verify(storage, times(1)).findDeployServiceWithResourcesById(entity.getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStateChangeInvalidates() {
+        when(storage.findDeployServiceWithResourcesById(entity.getId())).thenReturn(entity);
+        ServiceDetailCache cache = new ServiceDetailCache(storage, meterRegistry, new ObjectMapper(),
+                10, 60000);
+
+        CachedServiceDetail deploying = cache.get(entity.getId());
+        Assertions.assertSame(deploying, cache.get(entity.getId()));
+        entity.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        cache.invalidate(entity.getId());
+        CachedServiceDetail deployed = cache.get(entity.getId());
+
+        Assertions.assertEquals(ServiceState.DEPLOYING, deploying.getDetail().getServiceState());
+        Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS,
+                deployed.getDetail().getServiceState());
+        Assertions.assertNotEquals(deploying.getEtag(), deployed.getEtag());
+        verify(storage, times(2)).findDeployServiceWithResourcesById(entity.getId());
+    }
+
+    @Test
+    public void testLoadOutdatedByStateChangeIsNotCached() {
+        ServiceDetailCache[] cache = new ServiceDetailCache[1];
+        when(storage.findDeployServiceWithResourcesById(entity.getId())).thenAnswer(
+                invocation -> {
+                    // the state changes while the first request loads the detail.
+                    cache[0].invalidate(entity.getId());
+                    return entity;
+                }).thenReturn(entity);
+        cache[0] = new ServiceDetailCache(storage, meterRegistry, new ObjectMapper(),
+                10, 60000);
+
+        cache[0].get(entity.getId());
+        cache[0].get(entity.getId());
+
+        verify(storage, times(2)).findDeployServiceWithResourcesById(entity.getId());
+    }
+
+    @Test
+    public void testNotDeployedIsNotCached() {
+        ServiceDetailCache cache = new ServiceDetailCache(storage, meterRegistry, new ObjectMapper(),
+                10, 60000);
+
+        Assertions.assertNull(cache.get(entity.getId()));
+        Assertions.assertNull(cache.get(entity.getId()));
+
+        verify(storage, times(2)).findDeployServiceWithResourcesById(entity.getId());
+    }
+}
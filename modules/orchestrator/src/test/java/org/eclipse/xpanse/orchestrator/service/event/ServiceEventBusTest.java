@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.ServiceEventQuery;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ServiceEventBus.
+ */
+public class ServiceEventBusTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceEventBus bus;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        bus = new ServiceEventBus(meterRegistry, BUFFER_SIZE, 100, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEventsAreFiltered() throws Exception {
+        UUID id = UUID.randomUUID();
+        ServiceEventQuery query = new ServiceEventQuery();
+        query.setIds(Set.of(id));
+        query.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        RecordingListener listener = new RecordingListener();
+        bus.subscribe(query, listener);
+
+        bus.publish(getEvent(UUID.randomUUID(), ServiceState.DEPLOY_SUCCESS));
+        bus.publish(getEvent(id, ServiceState.DEPLOYING));
+        bus.publish(getEvent(id, ServiceState.DEPLOY_SUCCESS));
+
+        ServiceStateEventVo event = listener.events.poll(10, TimeUnit.SECONDS);
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals(id, event.getId());
+        Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS, event.getServiceState());
+        Assertions.assertNull(listener.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSlowSubscriberIsDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener() {
+            @Override
+            public void onEvent(ServiceStateEventVo event) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onEvent(event);
+            }
+        };
+        RecordingListener fast = new RecordingListener();
+        bus.subscribe(new ServiceEventQuery(), slow);
+        bus.subscribe(new ServiceEventQuery(), fast);
+
+        // one event is taken by the blocked delivery, the others fill the buffer.
+        for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+            bus.publish(getEvent(UUID.randomUUID(), ServiceState.DEPLOYING));
+            Assertions.assertNotNull(fast.events.poll(10, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertTrue(slow.dropped.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, fast.dropped.getCount());
+        Assertions.assertEquals(1.0, meterRegistry.get("xpanse.service.events.dropped")
+                .counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("xpanse.service.events.subscribers")
+                .gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    public void testCancelledSubscriberGetsNoEvents() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        ServiceEventSubscription subscription = bus.subscribe(new ServiceEventQuery(), listener);
+
+        subscription.cancel();
+        bus.publish(getEvent(UUID.randomUUID(), ServiceState.DEPLOYING));
+
+        Assertions.assertNull(listener.events.poll(100, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, listener.dropped.getCount());
+        Assertions.assertEquals(0.0, meterRegistry.get("xpanse.service.events.subscribers")
+                .gauge().value());
+    }
+
+    private ServiceStateEventVo getEvent(UUID id, ServiceState serviceState) {
+        ServiceStateEventVo event = new ServiceStateEventVo();
+        event.setId(id);
+        event.setCsp(Csp.HUAWEI);
+        event.setServiceState(serviceState);
+        event.setTime(new Date());
+        return event;
+    }
+
+    private static class RecordingListener implements ServiceEventListener {
+
+        final BlockingQueue<ServiceStateEventVo> events = new LinkedBlockingQueue<>();
+        final CountDownLatch dropped = new CountDownLatch(1);
+
+        @Override
+        public void onEvent(ServiceStateEventVo event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onDropped() {
+            dropped.countDown();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployResourceRepository;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployResourceQuery;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.eclipse.xpanse.modules.models.view.DeployResourceVo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseDeployResourceStorage.
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true"})
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseDeployResourceStorageTest {
+
+    private static final int RESOURCES = 200;
+    private static final int PROPERTIES = 10;
+
+    @Autowired
+    private DatabaseDeployResourceStorage deployResourceStorage;
+
+    @Autowired
+    private DatabaseDeployServiceStorage deployServiceStorage;
+
+    @Autowired
+    private DeployResourceRepository deployResourceRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    public void testResourcesAreStoredAndDeletedInBulk() {
+        DeployServiceEntity deployService = storeDeployService();
+
+        statistics.clear();
+        deployResourceStorage.storeAll(getResources(deployService));
+        entityManager.flush();
+        entityManager.clear();
+
+        // one insert per resource without batching.
+        Assertions.assertEquals(RESOURCES, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= RESOURCES / 100 + 1,
+                "statements: " + statistics.getPrepareStatementCount());
+        Assertions.assertEquals(RESOURCES, deployResourceRepository.count());
+
+        statistics.clear();
+        deployResourceStorage.deleteByDeployServiceId(deployService.getId());
+
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, deployResourceRepository.count());
+    }
+
+    @Test
+    public void testSearchResources() {
+        DeployServiceEntity deployService = storeDeployService();
+        deployResourceStorage.storeAll(getResources(deployService));
+        entityManager.flush();
+        entityManager.clear();
+
+        DeployResourceQuery query = new DeployResourceQuery();
+        query.setKind(DeployResourceKind.VM);
+        query.setIpAddress("192.168.0.42");
+        List<DeployResourceVo> vms = deployResourceStorage.listResources(query, null, 10);
+
+        Assertions.assertEquals(1, vms.size());
+        Assertions.assertEquals("node-42", vms.get(0).getName());
+        Assertions.assertEquals("eu-west-0", vms.get(0).getRegion());
+        Assertions.assertEquals(deployService.getId(), vms.get(0).getServiceId());
+        Assertions.assertEquals("192.168.0.42", vms.get(0).getProperty().get("ip"));
+
+        query = new DeployResourceQuery();
+        query.setKind(DeployResourceKind.PUBLIC_IP);
+        query.setRegion("cn-north-4");
+        List<DeployResourceVo> publicIps = deployResourceStorage.listResources(query, null, 10);
+        Assertions.assertEquals(10, publicIps.size());
+        Assertions.assertEquals(RESOURCES / 10, deployResourceStorage.countResources(query));
+        List<DeployResourceVo> next = deployResourceStorage.listResources(query,
+                publicIps.get(9).getId(), 100);
+        Assertions.assertEquals(RESOURCES / 10 - 10, next.size());
+        // the database orders the ids as unsigned bytes, unlike UUID.compareTo.
+        Assertions.assertTrue(next.stream().noneMatch(resource -> publicIps.stream()
+                .anyMatch(first -> first.getId().equals(resource.getId()))));
+    }
+
+    private DeployServiceEntity storeDeployService() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setRegion("cn-north-4");
+        DeployServiceEntity deployService = new DeployServiceEntity();
+        deployService.setId(UUID.randomUUID());
+        deployService.setName("kubernetes");
+        deployService.setVersion("v1.0");
+        deployService.setCsp(Csp.HUAWEI);
+        deployService.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        deployService.setCreateRequest(createRequest);
+        deployServiceStorage.store(deployService);
+        entityManager.flush();
+        return deployService;
+    }
+
+    private List<DeployResourceEntity> getResources(DeployServiceEntity deployService) {
+        List<DeployResourceEntity> resources = new ArrayList<>();
+        for (int i = 0; i < RESOURCES; i++) {
+            // every tenth resource is a public IP in the region of the service.
+            boolean publicIp = i % 10 == 0;
+            Map<String, String> property = new HashMap<>();
+            for (int j = 0; j < PROPERTIES; j++) {
+                property.put("key-" + j, "value-" + i + "-" + j);
+            }
+            property.put("ip", (publicIp ? "100.64.0." : "192.168.0.") + i);
+            if (!publicIp) {
+                property.put("region", "eu-west-0");
+            }
+            DeployResourceEntity resource = new DeployResourceEntity();
+            resource.setResourceId("resource-" + i);
+            resource.setName("node-" + i);
+            resource.setKind(publicIp ? DeployResourceKind.PUBLIC_IP : DeployResourceKind.VM);
+            resource.setProperty(property);
+            resource.setDeployService(deployService);
+            resources.add(resource);
+        }
+        return resources;
+    }
+}
@@ -10,31 +10,236 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
 import org.eclipse.xpanse.modules.models.enums.Csp;
 import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.query.DeployedServiceQuery;
 import org.eclipse.xpanse.modules.models.resource.Ocl;
 import org.eclipse.xpanse.modules.models.service.CreateRequest;
 import org.eclipse.xpanse.modules.models.service.DeployResource;
 import org.eclipse.xpanse.modules.models.service.DeployResult;
+import org.eclipse.xpanse.modules.models.service.Vm;
 import org.eclipse.xpanse.modules.models.utils.OclLoader;
+import org.eclipse.xpanse.modules.models.view.ServiceDetailVo;
+import org.eclipse.xpanse.modules.models.view.ServiceVo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Test for DatabaseDeployServiceStorage.
  */
 @Transactional
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = StorageTestApplication.class)
 public class DatabaseDeployServiceStorageTest {
 
     @PersistenceContext
     EntityManager entityManager;
 
+    @Autowired
+    DatabaseDeployServiceStorage deployServiceStorage;
+
+    @Autowired
+    DatabaseDeployResourceStorage deployResourceStorage;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    public void testDetailIsLoadedWithOneQuery(int resourceCount) {
+        UUID id = storeDeployService(resourceCount);
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ServiceDetailVo detail = EntityTransUtils.transServiceEntity(
+                deployServiceStorage.findDeployServiceWithResourcesById(id));
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(resourceCount, detail.getDeployResources().size());
+        Assertions.assertEquals(resourceCount, detail.getDeployResources().stream()
+                .map(resource -> ((Vm) resource).getIp()).distinct().count());
+        Assertions.assertEquals("eu-west-0", detail.getCreateRequest().getRegion());
+    }
+
+    @Test
+    public void testStateIsChangedOnceAndStaleServiceIsNotStored() {
+        UUID id = storeDeployService(0);
+        DeployServiceEntity stale = deployServiceStorage.findDeployServiceById(id);
+
+        Assertions.assertTrue(deployServiceStorage.updateState(id, ServiceState.DEPLOY_SUCCESS,
+                ServiceState.DESTROYING, null));
+        Assertions.assertFalse(deployServiceStorage.updateState(id,
+                ServiceState.DEPLOY_SUCCESS, ServiceState.DESTROYING, null));
+        entityManager.clear();
+
+        stale.setServiceState(ServiceState.MODIFYING);
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> deployServiceStorage.store(stale));
+        Assertions.assertEquals(ServiceState.DESTROYING,
+                deployServiceStorage.findDeployServiceById(id).getServiceState());
+    }
+
+    @Test
+    public void testOnlyExpiredLeasesAreFailed() {
+        UUID expired = storeDeployService(0);
+        UUID renewed = storeDeployService(0);
+        Date past = new Date(System.currentTimeMillis() - 1000);
+        Set<ServiceState> leasedStates = Set.of(ServiceState.DESTROYING, ServiceState.MODIFYING);
+        Assertions.assertTrue(deployServiceStorage.updateState(expired,
+                ServiceState.DEPLOY_SUCCESS, ServiceState.DESTROYING, past));
+        Assertions.assertTrue(deployServiceStorage.updateState(renewed,
+                ServiceState.DEPLOY_SUCCESS, ServiceState.MODIFYING, past));
+
+        deployServiceStorage.renewLeases(List.of(renewed), leasedStates,
+                new Date(System.currentTimeMillis() + 60000));
+
+        Assertions.assertEquals(List.of(expired),
+                deployServiceStorage.findExpiredLeases(leasedStates, 10));
+        Assertions.assertFalse(deployServiceStorage.updateExpiredState(renewed,
+                ServiceState.MODIFYING, ServiceState.MODIFY_FAILED));
+        Assertions.assertTrue(deployServiceStorage.updateExpiredState(expired,
+                ServiceState.DESTROYING, ServiceState.DESTROY_FAILED));
+        entityManager.clear();
+        DeployServiceEntity failed = deployServiceStorage.findDeployServiceById(expired);
+        Assertions.assertEquals(ServiceState.DESTROY_FAILED, failed.getServiceState());
+        Assertions.assertNull(failed.getLeaseExpireTime());
+        Assertions.assertEquals(ServiceState.MODIFYING,
+                deployServiceStorage.findDeployServiceById(renewed).getServiceState());
+    }
+
+    @Test
+    public void testLeasedServiceIsNotClaimed() {
+        UUID id = storeDeployService(0);
+        Set<ServiceState> states = Set.of(ServiceState.DEPLOY_SUCCESS);
+        Date leaseExpireTime = new Date(System.currentTimeMillis() + 60000);
+
+        Assertions.assertTrue(deployServiceStorage.leaseService(id, states, leaseExpireTime));
+        Assertions.assertFalse(deployServiceStorage.leaseService(id, states, leaseExpireTime));
+        Assertions.assertFalse(deployServiceStorage.updateState(id,
+                ServiceState.DEPLOY_SUCCESS, ServiceState.DESTROYING, null));
+
+        deployServiceStorage.releaseService(id, states);
+        Assertions.assertTrue(deployServiceStorage.updateState(id,
+                ServiceState.DEPLOY_SUCCESS, ServiceState.DESTROYING, null));
+        Assertions.assertFalse(deployServiceStorage.leaseService(id, states, leaseExpireTime));
+    }
+
+    @Test
+    public void testServicesAreListedAllAtOnceOrAfterTheCursor() {
+        List<UUID> ids = Stream.of(storeDeployService(0), storeDeployService(0),
+                storeDeployService(0)).sorted(Comparator.comparing(UUID::toString)).toList();
+        DeployedServiceQuery query = new DeployedServiceQuery();
+        query.setServiceName("kafka");
+
+        Assertions.assertEquals(ids, getIds(deployServiceStorage.listServices(query, null, null)));
+        Assertions.assertEquals(ids.subList(0, 2),
+                getIds(deployServiceStorage.listServices(query, null, 2)));
+        Assertions.assertEquals(ids.subList(2, 3),
+                getIds(deployServiceStorage.listServices(query, ids.get(1), 2)));
+        Assertions.assertEquals(3, deployServiceStorage.countServices(query));
+
+        query.setServiceState(ServiceState.DESTROY_SUCCESS);
+        Assertions.assertTrue(deployServiceStorage.listServices(query, null, null).isEmpty());
+        Assertions.assertEquals(0, deployServiceStorage.countServices(query));
+    }
+
+    @Test
+    public void testServicesAreStreamedWithTheColumnsOfTheView() {
+        List<UUID> ids = Stream.of(storeDeployService(1), storeDeployService(0))
+                .sorted(Comparator.comparing(UUID::toString)).toList();
+
+        List<ServiceVo> services;
+        try (Stream<ServiceVo> stream = deployServiceStorage.streamServices(
+                new DeployedServiceQuery())) {
+            services = stream.toList();
+        }
+
+        Assertions.assertEquals(ids, getIds(services));
+        services.forEach(service -> {
+            Assertions.assertEquals("kafka", service.getName());
+            Assertions.assertEquals("v1.0", service.getVersion());
+            Assertions.assertEquals(Csp.HUAWEI, service.getCsp());
+            Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS, service.getServiceState());
+        });
+    }
+
+    @Test
+    public void testOnlyMeasuredDeploymentsHaveADuration() {
+        storeDeployService("hash-1", 120000L);
+        // assigned a warm pool instance, its state changed within milliseconds.
+        storeDeployService("hash-1", null);
+        storeDeployService("hash-1", 90000L);
+        storeDeployService("hash-2", 30000L);
+
+        List<Long> durations = deployServiceStorage.findDeployDurations("hash-1", 10);
+
+        Assertions.assertEquals(2, durations.size());
+        Assertions.assertTrue(durations.containsAll(List.of(120000L, 90000L)));
+        Assertions.assertEquals(1, deployServiceStorage.findDeployDurations("hash-1", 1).size());
+    }
+
+    private void storeDeployService(String oclHash, Long deployDuration) {
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setName("kafka");
+        deployServiceEntity.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        deployServiceEntity.setOclHash(oclHash);
+        deployServiceEntity.setDeployDuration(deployDuration);
+        deployServiceStorage.store(deployServiceEntity);
+        entityManager.flush();
+    }
+
+    private List<UUID> getIds(List<ServiceVo> services) {
+        return services.stream().map(ServiceVo::getId).toList();
+    }
+
+    private UUID storeDeployService(int resourceCount) {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setRegion("eu-west-0");
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setName("kafka");
+        deployServiceEntity.setVersion("v1.0");
+        deployServiceEntity.setCsp(Csp.HUAWEI);
+        deployServiceEntity.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        deployServiceEntity.setCreateRequest(createRequest);
+        deployServiceStorage.store(deployServiceEntity);
+        List<DeployResourceEntity> resources = new ArrayList<>();
+        for (int i = 0; i < resourceCount; i++) {
+            DeployResourceEntity resource = new DeployResourceEntity();
+            resource.setResourceId("resource-" + i);
+            resource.setName("kafka-broker-" + i);
+            resource.setKind(DeployResourceKind.VM);
+            resource.setProperty(Map.of("ip", "192.168.0." + i));
+            resource.setDeployService(deployServiceEntity);
+            resources.add(resource);
+        }
+        deployResourceStorage.storeAll(resources);
+        entityManager.flush();
+        entityManager.clear();
+        return deployServiceEntity.getId();
+    }
+
     @Disabled
     @Test
     public void basicTest() throws Exception {
@@ -0,0 +1,137 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployResourceRepository;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceRepository;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.CreateRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for LegacyResourcePropertyMigration.
+ */
+@DataJpaTest(properties = "xpanse.migration.resource-property.batch-size=2")
+@ContextConfiguration(classes = StorageTestApplication.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LegacyResourcePropertyMigrationTest {
+
+    @Autowired
+    private LegacyResourcePropertyMigration migration;
+
+    @Autowired
+    private DeployServiceRepository deployServiceRepository;
+
+    @Autowired
+    private DeployResourceRepository deployResourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("drop table if exists "
+                + LegacyResourcePropertyMigration.LEGACY_PROPERTY_TABLE);
+        deployResourceRepository.deleteAllInBatch();
+        deployServiceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testPropertiesAreMovedInBatchesAndTheTableIsDropped() {
+        DeployServiceEntity deployService = storeDeployService();
+        List<DeployResourceEntity> resources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resources.add(getResource(deployService, "vm-" + i, null));
+        }
+        DeployResourceEntity migrated = getResource(deployService, "vm-migrated",
+                Map.of("ip", "10.0.0.99"));
+        resources.add(migrated);
+        deployResourceRepository.saveAll(resources);
+        createLegacyTable();
+        for (int i = 0; i < 5; i++) {
+            insertLegacyProperty(resources.get(i).getId(), "ip", "10.0.0." + i);
+            insertLegacyProperty(resources.get(i).getId(), "region", "eu-west-" + i);
+        }
+        insertLegacyProperty(migrated.getId(), "ip", "10.0.0.100");
+        insertLegacyProperty(UUID.randomUUID(), "ip", "10.0.0.101");
+        Assertions.assertTrue(migration.isLegacyTablePresent());
+
+        migration.migrate();
+
+        Assertions.assertFalse(migration.isLegacyTablePresent());
+        for (int i = 0; i < 5; i++) {
+            DeployResourceEntity resource =
+                    deployResourceRepository.findById(resources.get(i).getId()).orElseThrow();
+            Assertions.assertEquals(Map.of("ip", "10.0.0." + i, "region", "eu-west-" + i),
+                    resource.getProperty());
+            Assertions.assertEquals("10.0.0." + i, resource.getIpAddress());
+            Assertions.assertEquals("eu-west-" + i, resource.getRegion());
+        }
+        Assertions.assertEquals(Map.of("ip", "10.0.0.99"),
+                deployResourceRepository.findById(migrated.getId()).orElseThrow().getProperty());
+        Assertions.assertEquals(6, deployResourceRepository.count());
+    }
+
+    @Test
+    public void testNothingIsDoneWithoutTheLegacyTable() {
+        Assertions.assertFalse(migration.isLegacyTablePresent());
+        migration.migrate();
+        Assertions.assertFalse(migration.isLegacyTablePresent());
+    }
+
+    private void createLegacyTable() {
+        jdbcTemplate.execute("create table "
+                + LegacyResourcePropertyMigration.LEGACY_PROPERTY_TABLE
+                + " (DEPLOY_RESOURCE_ID uuid not null, P_KEY varchar(255) not null,"
+                + " P_VALUE varchar(255), primary key (DEPLOY_RESOURCE_ID, P_KEY))");
+    }
+
+    private void insertLegacyProperty(UUID id, String key, String value) {
+        jdbcTemplate.update("insert into " + LegacyResourcePropertyMigration.LEGACY_PROPERTY_TABLE
+                + " (DEPLOY_RESOURCE_ID, P_KEY, P_VALUE) values (?, ?, ?)", id, key, value);
+    }
+
+    private DeployServiceEntity storeDeployService() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setRegion("eu-west-0");
+        DeployServiceEntity deployService = new DeployServiceEntity();
+        deployService.setId(UUID.randomUUID());
+        deployService.setName("kafka");
+        deployService.setVersion("v1.0");
+        deployService.setCsp(Csp.HUAWEI);
+        deployService.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        deployService.setCreateRequest(createRequest);
+        return deployServiceRepository.save(deployService);
+    }
+
+    private DeployResourceEntity getResource(DeployServiceEntity deployService,
+            String resourceId, Map<String, String> property) {
+        DeployResourceEntity resource = new DeployResourceEntity();
+        resource.setResourceId(resourceId);
+        resource.setName(resourceId);
+        resource.setKind(DeployResourceKind.VM);
+        resource.setProperty(property);
+        resource.setDeployService(deployService);
+        return resource;
+    }
+}
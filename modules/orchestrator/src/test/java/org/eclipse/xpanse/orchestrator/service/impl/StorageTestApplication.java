@@ -0,0 +1,35 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.service.impl;
+
+import org.eclipse.xpanse.orchestrator.batch.impl.DatabaseServiceBatchStorage;
+import org.eclipse.xpanse.orchestrator.drift.impl.DatabaseServiceDriftStorage;
+import org.eclipse.xpanse.orchestrator.idempotency.impl.DatabaseIdempotencyKeyStorage;
+import org.eclipse.xpanse.orchestrator.pool.impl.DatabaseWarmPoolStorage;
+import org.eclipse.xpanse.orchestrator.register.impl.DatabaseOclSnapshotStorage;
+import org.eclipse.xpanse.orchestrator.register.impl.DatabaseRegisterServiceStorage;
+import org.eclipse.xpanse.orchestrator.upgrade.impl.DatabaseServiceUpgradeStorage;
+import org.eclipse.xpanse.orchestrator.webhook.impl.DatabaseWebhookOutboxStorage;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Application of the database storages under test.
+ */
+@SpringBootApplication
+@EntityScan("org.eclipse.xpanse.modules.database")
+@EnableJpaRepositories("org.eclipse.xpanse.modules.database")
+@Import({DatabaseDeployResourceStorage.class, DatabaseDeployServiceStorage.class,
+        DatabaseWebhookOutboxStorage.class, DatabaseServiceDriftStorage.class,
+        DatabaseWarmPoolStorage.class, DatabaseServiceUpgradeStorage.class,
+        DatabaseIdempotencyKeyStorage.class, DatabaseServiceBatchStorage.class,
+        DatabaseRegisterServiceStorage.class, DatabaseOclSnapshotStorage.class,
+        LegacyResourcePropertyMigration.class})
+public class StorageTestApplication {
+}
@@ -0,0 +1,208 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.upgrade;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeEntity;
+import org.eclipse.xpanse.modules.deployment.Deployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.DeployTask;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.eclipse.xpanse.modules.models.service.ServiceUpgradeRequest;
+import org.eclipse.xpanse.modules.models.view.ServiceUpgradeVo;
+import org.eclipse.xpanse.orchestrator.OrchestratorService;
+import org.eclipse.xpanse.orchestrator.register.cache.CachedRegisteredService;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceCache;
+import org.eclipse.xpanse.orchestrator.register.cache.RegisteredServiceKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for ServiceUpgradeService.
+ */
+public class ServiceUpgradeServiceTest {
+
+    private static final UUID REGISTERED_SERVICE_ID = UUID.randomUUID();
+    private static final String OCL_HASH = "new-ocl";
+
+    private OrchestratorService orchestratorService;
+    private ServiceUpgradeStorage storage;
+    private ServiceUpgradeService serviceUpgradeService;
+    private final List<UUID> services = new ArrayList<>();
+    private final Set<UUID> failing = new HashSet<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maximumRunning = new AtomicInteger();
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        orchestratorService = mock(OrchestratorService.class);
+        storage = mock(ServiceUpgradeStorage.class);
+        RegisteredServiceCache registeredServiceCache = mock(RegisteredServiceCache.class);
+        serviceUpgradeService = new ServiceUpgradeService(orchestratorService,
+                registeredServiceCache, storage, 10, 2, 0.2, executor, 60000, 300000);
+        when(registeredServiceCache.get(REGISTERED_SERVICE_ID)).thenReturn(
+                new CachedRegisteredService(REGISTERED_SERVICE_ID,
+                        RegisteredServiceKey.of("kafka", "v1.0", Csp.HUAWEI,
+                                Category.MIDDLEWARE), null, OCL_HASH));
+        when(storage.storeNewUpgrade(any())).thenReturn(true);
+        for (int i = 1; i <= 5; i++) {
+            services.add(new UUID(0, i));
+        }
+        when(storage.findOutdatedServices(any(), any(), anyInt())).thenAnswer(invocation -> {
+            ServiceUpgradeEntity upgrade = invocation.getArgument(0);
+            int limit = invocation.getArgument(2);
+            return services.stream()
+                    .filter(id -> id.compareTo(upgrade.getCursor()) > 0)
+                    .limit(limit).toList();
+        });
+        when(orchestratorService.getUpgradeHandler(any(), eq(OCL_HASH))).thenReturn(
+                mock(Deployment.class));
+        when(orchestratorService.upgradeService(any(), any())).thenAnswer(invocation -> {
+            DeployTask deployTask = invocation.getArgument(1);
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return failing.contains(deployTask.getId())
+                    ? ServiceState.MODIFY_FAILED : ServiceState.MODIFY_SUCCESS;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testServicesAreUpgradedInBatches() {
+        ServiceUpgradeVo upgrade = serviceUpgradeService.startUpgrade(getUpgradeRequest(2, 2));
+
+        Assertions.assertEquals(UpgradeState.RUNNING, upgrade.getState());
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == UpgradeState.COMPLETED));
+        verify(orchestratorService, times(5)).upgradeService(any(), any());
+        verify(storage, times(4)).findOutdatedServices(any(), any(), eq(2));
+        Assertions.assertTrue(maximumRunning.get() <= 2);
+    }
+
+    @Test
+    public void testFailedBatchPausesTheUpgrade() {
+        failing.add(services.get(1));
+
+        ServiceUpgradeVo upgrade = serviceUpgradeService.startUpgrade(getUpgradeRequest(2, 1));
+
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == UpgradeState.PAUSED));
+        verify(orchestratorService, times(2)).upgradeService(any(), any());
+        Assertions.assertEquals(1, maximumRunning.get());
+
+        ServiceUpgradeEntity paused = new ServiceUpgradeEntity();
+        paused.setId(upgrade.getId());
+        paused.setOclHash(OCL_HASH);
+        paused.setCsp(Csp.HUAWEI);
+        paused.setState(UpgradeState.PAUSED);
+        paused.setBatchSize(2);
+        paused.setMaxUnavailable(1);
+        paused.setFailureThreshold(0.2);
+        paused.setCursor(services.get(1));
+        paused.setSucceeded(1);
+        paused.setFailedServiceIds(new ArrayList<>(List.of(services.get(1))));
+        when(storage.findUpgradeById(upgrade.getId())).thenReturn(paused);
+        when(storage.updateState(eq(upgrade.getId()), eq(UpgradeState.PAUSED),
+                eq(UpgradeState.RUNNING), any())).thenReturn(true);
+
+        serviceUpgradeService.resumeUpgrade(upgrade.getId());
+
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == UpgradeState.COMPLETED));
+        Assertions.assertEquals(4, paused.getSucceeded());
+        Assertions.assertEquals(List.of(services.get(1)), paused.getFailedServiceIds());
+    }
+
+    @Test
+    public void testPausedUpgradeIsNotStartedAgain() {
+        when(storage.storeNewUpgrade(any())).thenReturn(false);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> serviceUpgradeService.startUpgrade(getUpgradeRequest(2, 2)));
+
+        verify(storage, never()).store(any());
+        verify(orchestratorService, never()).upgradeService(any(), any());
+    }
+
+    @Test
+    public void testInterruptedUpgradeIsResumedAfterItsCursor() {
+        ServiceUpgradeEntity interrupted = new ServiceUpgradeEntity();
+        interrupted.setId(UUID.randomUUID());
+        interrupted.setRegisteredServiceId(REGISTERED_SERVICE_ID);
+        interrupted.setActiveRegisteredServiceId(REGISTERED_SERVICE_ID);
+        interrupted.setOclHash(OCL_HASH);
+        interrupted.setCsp(Csp.HUAWEI);
+        interrupted.setState(UpgradeState.RUNNING);
+        interrupted.setBatchSize(2);
+        interrupted.setMaxUnavailable(2);
+        interrupted.setFailureThreshold(0.2);
+        interrupted.setCursor(services.get(2));
+        interrupted.setSucceeded(3);
+        interrupted.setFailedServiceIds(new ArrayList<>());
+        when(storage.findExpiredUpgrades(anyInt())).thenReturn(List.of(interrupted.getId()));
+        when(storage.leaseExpiredUpgrade(eq(interrupted.getId()), any())).thenReturn(true);
+        when(storage.findUpgradeById(interrupted.getId())).thenReturn(interrupted);
+
+        serviceUpgradeService.resumeInterruptedUpgrades();
+
+        verify(storage, timeout(10000).atLeastOnce()).store(argThat(
+                stored -> stored.getState() == UpgradeState.COMPLETED));
+        verify(orchestratorService, times(2)).upgradeService(any(), any());
+        Assertions.assertEquals(5, interrupted.getSucceeded());
+        Assertions.assertNull(interrupted.getActiveRegisteredServiceId());
+        Assertions.assertNull(interrupted.getLeaseExpireTime());
+    }
+
+    @Test
+    public void testUpgradeLeasedByAnotherNodeIsNotResumed() {
+        UUID id = UUID.randomUUID();
+        when(storage.findExpiredUpgrades(anyInt())).thenReturn(List.of(id));
+        when(storage.leaseExpiredUpgrade(eq(id), any())).thenReturn(false);
+
+        serviceUpgradeService.resumeInterruptedUpgrades();
+
+        verify(storage, never()).findUpgradeById(id);
+        verify(orchestratorService, never()).upgradeService(any(), any());
+    }
+
+    private ServiceUpgradeRequest getUpgradeRequest(int batchSize, int maxUnavailable) {
+        ServiceUpgradeRequest upgradeRequest = new ServiceUpgradeRequest();
+        upgradeRequest.setRegisteredServiceId(REGISTERED_SERVICE_ID);
+        upgradeRequest.setBatchSize(batchSize);
+        upgradeRequest.setMaxUnavailable(maxUnavailable);
+        return upgradeRequest;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.upgrade.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.upgrade.ServiceUpgradeEntity;
+import org.eclipse.xpanse.modules.models.enums.Category;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.enums.UpgradeState;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for DatabaseServiceUpgradeStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseServiceUpgradeStorageTest {
+
+    private static final Set<ServiceState> STATES = Set.of(ServiceState.DEPLOY_SUCCESS);
+
+    @Autowired
+    private DatabaseServiceUpgradeStorage storage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void testOutdatedServicesAreFoundAfterTheCursor() {
+        List<UUID> outdated = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            outdated.add(getServiceEntity(new UUID(0, i), "v1.0", "old-ocl",
+                    ServiceState.DEPLOY_SUCCESS).getId());
+        }
+        getServiceEntity(new UUID(0, 4), "v1.0", "new-ocl", ServiceState.DEPLOY_SUCCESS);
+        getServiceEntity(new UUID(0, 5), "v1.0", "old-ocl", ServiceState.DEPLOYING);
+        getServiceEntity(new UUID(0, 6), "v2.0", "old-ocl", ServiceState.DEPLOY_SUCCESS);
+        entityManager.flush();
+
+        ServiceUpgradeEntity upgrade = getUpgrade(UUID.randomUUID(), UpgradeState.PAUSED);
+        storage.store(upgrade);
+
+        Assertions.assertEquals(outdated, storage.findOutdatedServices(upgrade, STATES, 10));
+        Assertions.assertEquals(outdated.subList(0, 2),
+                storage.findOutdatedServices(upgrade, STATES, 2));
+        upgrade.setCursor(outdated.get(0));
+        Assertions.assertEquals(outdated.subList(1, 3),
+                storage.findOutdatedServices(upgrade, STATES, 10));
+        Assertions.assertEquals(2, storage.countOutdatedServices(upgrade, STATES));
+
+        Assertions.assertTrue(storage.updateState(upgrade.getId(), UpgradeState.PAUSED,
+                UpgradeState.RUNNING, new Date(System.currentTimeMillis() + 60000)));
+        Assertions.assertFalse(storage.updateState(upgrade.getId(), UpgradeState.PAUSED,
+                UpgradeState.RUNNING, new Date(System.currentTimeMillis() + 60000)));
+    }
+
+    @Test
+    public void testExpiredUpgradeIsLeasedOnce() {
+        ServiceUpgradeEntity expired = getUpgrade(UUID.randomUUID(), UpgradeState.RUNNING);
+        expired.setLeaseExpireTime(new Date(System.currentTimeMillis() - 1000));
+        storage.store(expired);
+        ServiceUpgradeEntity leased = getUpgrade(UUID.randomUUID(), UpgradeState.RUNNING);
+        leased.setLeaseExpireTime(new Date(System.currentTimeMillis() + 60000));
+        storage.store(leased);
+        entityManager.flush();
+
+        Assertions.assertEquals(List.of(expired.getId()), storage.findExpiredUpgrades(10));
+        Date leaseExpireTime = new Date(System.currentTimeMillis() + 60000);
+        Assertions.assertTrue(storage.leaseExpiredUpgrade(expired.getId(), leaseExpireTime));
+        Assertions.assertFalse(storage.leaseExpiredUpgrade(expired.getId(), leaseExpireTime));
+        Assertions.assertFalse(storage.leaseExpiredUpgrade(leased.getId(), leaseExpireTime));
+        Assertions.assertTrue(storage.findExpiredUpgrades(10).isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testOnlyOneUpgradeOfRegisteredServiceIsActive() {
+        UUID registeredServiceId = UUID.randomUUID();
+        ServiceUpgradeEntity first = getUpgrade(registeredServiceId, UpgradeState.PAUSED);
+        Assertions.assertTrue(storage.storeNewUpgrade(first));
+        Assertions.assertFalse(storage.storeNewUpgrade(
+                getUpgrade(registeredServiceId, UpgradeState.RUNNING)));
+
+        first.setState(UpgradeState.COMPLETED);
+        first.setActiveRegisteredServiceId(null);
+        storage.store(first);
+        ServiceUpgradeEntity next = getUpgrade(registeredServiceId, UpgradeState.PAUSED);
+        Assertions.assertTrue(storage.storeNewUpgrade(next));
+        next.setState(UpgradeState.COMPLETED);
+        next.setActiveRegisteredServiceId(null);
+        storage.store(next);
+    }
+
+    private ServiceUpgradeEntity getUpgrade(UUID registeredServiceId, UpgradeState state) {
+        ServiceUpgradeEntity upgrade = new ServiceUpgradeEntity();
+        upgrade.setId(UUID.randomUUID());
+        upgrade.setRegisteredServiceId(registeredServiceId);
+        upgrade.setActiveRegisteredServiceId(registeredServiceId);
+        upgrade.setCategory(Category.MIDDLEWARE);
+        upgrade.setName("kafka");
+        upgrade.setVersion("v1.0");
+        upgrade.setCsp(Csp.HUAWEI);
+        upgrade.setOclHash("new-ocl");
+        upgrade.setState(state);
+        upgrade.setBatchSize(2);
+        upgrade.setMaxUnavailable(1);
+        upgrade.setFailureThreshold(0.2);
+        upgrade.setCursor(new UUID(0, 0));
+        upgrade.setFailedServiceIds(new ArrayList<>());
+        upgrade.setCreateTime(new Date());
+        return upgrade;
+    }
+
+    private DeployServiceEntity getServiceEntity(UUID id, String version, String oclHash,
+            ServiceState state) {
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(id);
+        deployServiceEntity.setCategory(Category.MIDDLEWARE);
+        deployServiceEntity.setName("kafka");
+        deployServiceEntity.setVersion(version);
+        deployServiceEntity.setCsp(Csp.HUAWEI);
+        deployServiceEntity.setOclHash(oclHash);
+        deployServiceEntity.setServiceState(state);
+        entityManager.persist(deployServiceEntity);
+        return deployServiceEntity;
+    }
+}
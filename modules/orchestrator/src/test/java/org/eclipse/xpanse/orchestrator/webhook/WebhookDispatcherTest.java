@@ -0,0 +1,175 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.webhook;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxEntity;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for WebhookDispatcher, with a local HTTP endpoint.
+ */
+public class WebhookDispatcherTest {
+
+    private static final long INITIAL_BACKOFF_MILLIS = 60000L;
+
+    private final BlockingQueue<JsonNode> requests = new LinkedBlockingQueue<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private String endpoint;
+    private volatile int status = 200;
+    private WebhookOutboxStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookDispatcher dispatcher;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/events", exchange -> {
+            requests.add(objectMapper.readTree(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/events";
+        storage = mock(WebhookOutboxStorage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new WebhookDispatcher(storage, meterRegistry, objectMapper,
+                List.of(endpoint), Set.of(ServiceState.DEPLOY_SUCCESS), 10, 1, 5000, 60000,
+                INITIAL_BACKOFF_MILLIS, 600000, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    public void testOnlySelectedStatesAreEnqueued() {
+        dispatcher.enqueue(getEvent(ServiceState.DEPLOYING));
+        verify(storage, never()).storeAll(any());
+
+        ServiceStateEventVo event = getEvent(ServiceState.DEPLOY_SUCCESS);
+        dispatcher.enqueue(event);
+        verify(storage).storeAll(argThat(events -> events.size() == 1
+                && endpoint.equals(events.get(0).getEndpoint())
+                && event.equals(events.get(0).getEvent())));
+    }
+
+    @Test
+    public void testBatchIsDeliveredAndDeleted() throws Exception {
+        List<WebhookOutboxEntity> batch = List.of(getOutboxEntity(), getOutboxEntity());
+        when(storage.claimDue(eq(endpoint), eq(0), any(), any(), any(), eq(10)))
+                .thenReturn(batch, List.of());
+
+        dispatcher.dispatch();
+
+        JsonNode request = requests.poll(10, TimeUnit.SECONDS);
+        Assertions.assertNotNull(request);
+        Assertions.assertEquals(2, request.size());
+        Assertions.assertEquals(batch.get(0).getId().toString(),
+                request.get(0).get("eventId").asText());
+        Assertions.assertEquals(batch.get(1).getEvent().getId().toString(),
+                request.get(1).get("event").get("id").asText());
+        verify(storage, timeout(10000)).deleteClaimed(any());
+        verify(storage, never()).retryClaimed(any(), any());
+        Assertions.assertEquals(2, meterRegistry.get("xpanse.webhook.delivery.latency")
+                .timer().count());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithBackoff() throws Exception {
+        status = 503;
+        when(storage.claimDue(eq(endpoint), anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(getOutboxEntity()), List.of());
+        long before = System.currentTimeMillis();
+
+        dispatcher.dispatch();
+
+        verify(storage, timeout(10000)).retryClaimed(any(), argThat(next ->
+                next.getTime() >= before + INITIAL_BACKOFF_MILLIS / 2));
+        verify(storage, never()).deleteClaimed(any());
+        Assertions.assertEquals(1.0, meterRegistry.get("xpanse.webhook.failures")
+                .counter().count());
+    }
+
+    @Test
+    public void testEveryDeliverySlotIsClaimed() throws Exception {
+        dispatcher = new WebhookDispatcher(storage, meterRegistry, objectMapper,
+                List.of(endpoint), Set.of(ServiceState.DEPLOY_SUCCESS), 10, 2, 5000, 60000,
+                INITIAL_BACKOFF_MILLIS, 600000, executor);
+        List<UUID> claimTokens = new ArrayList<>();
+        when(storage.claimDue(eq(endpoint), eq(0), any(), any(), any(), anyInt())).thenAnswer(
+                invocation -> {
+                    claimTokens.add(invocation.getArgument(2));
+                    return List.of(getOutboxEntity());
+                });
+        when(storage.claimDue(eq(endpoint), eq(1), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(storage, times(2)).claimDue(any(), anyInt(), any(), any(), any(), anyInt());
+        Assertions.assertNotNull(requests.poll(10, TimeUnit.SECONDS));
+        verify(storage, timeout(10000)).deleteClaimed(claimTokens.get(0));
+        Assertions.assertNull(requests.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private WebhookOutboxEntity getOutboxEntity() {
+        WebhookOutboxEntity outboxEntity = new WebhookOutboxEntity();
+        outboxEntity.setId(UUID.randomUUID());
+        outboxEntity.setEndpoint(endpoint);
+        outboxEntity.setEvent(getEvent(ServiceState.DEPLOY_SUCCESS));
+        outboxEntity.setCreateTime(new Date());
+        outboxEntity.setNextAttemptTime(new Date());
+        return outboxEntity;
+    }
+
+    private ServiceStateEventVo getEvent(ServiceState serviceState) {
+        ServiceStateEventVo event = new ServiceStateEventVo();
+        event.setId(UUID.randomUUID());
+        event.setCsp(Csp.HUAWEI);
+        event.setServiceState(serviceState);
+        event.setTime(new Date());
+        return event;
+    }
+}
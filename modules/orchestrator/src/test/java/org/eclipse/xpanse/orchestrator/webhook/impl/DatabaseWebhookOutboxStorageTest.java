@@ -0,0 +1,136 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.orchestrator.webhook.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxEntity;
+import org.eclipse.xpanse.modules.database.webhook.WebhookOutboxRepository;
+import org.eclipse.xpanse.modules.models.enums.Csp;
+import org.eclipse.xpanse.modules.models.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.view.ServiceStateEventVo;
+import org.eclipse.xpanse.orchestrator.service.impl.StorageTestApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Test for DatabaseWebhookOutboxStorage.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = StorageTestApplication.class)
+public class DatabaseWebhookOutboxStorageTest {
+
+    private static final String ENDPOINT = "http://127.0.0.1/events";
+
+    @Autowired
+    private DatabaseWebhookOutboxStorage storage;
+
+    @Autowired
+    private WebhookOutboxRepository repository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void testClaimedEventsAreNotDueUntilRetried() {
+        long now = System.currentTimeMillis();
+        List<WebhookOutboxEntity> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(getOutboxEntity(ENDPOINT, new Date(now - 3000 + i)));
+        }
+        events.add(getOutboxEntity("http://127.0.0.1/other", new Date(now - 5000)));
+        storage.storeAll(events);
+        entityManager.flush();
+        entityManager.clear();
+
+        UUID first = UUID.randomUUID();
+        List<WebhookOutboxEntity> claimed = storage.claimDue(ENDPOINT, 0, first, new Date(now),
+                new Date(now + 60000), 2);
+        entityManager.clear();
+
+        Assertions.assertEquals(List.of(events.get(0).getId(), events.get(1).getId()),
+                claimed.stream().map(WebhookOutboxEntity::getId).toList());
+        Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS,
+                claimed.get(0).getEvent().getServiceState());
+        List<WebhookOutboxEntity> rest = storage.claimDue(ENDPOINT, 1, UUID.randomUUID(),
+                new Date(now), new Date(now + 60000), 2);
+        entityManager.clear();
+        Assertions.assertEquals(List.of(events.get(2).getId()),
+                rest.stream().map(WebhookOutboxEntity::getId).toList());
+
+        Assertions.assertEquals(2, storage.retryClaimed(first, new Date(now + 1000)));
+        entityManager.clear();
+        Assertions.assertTrue(storage.claimDue(ENDPOINT, 0, UUID.randomUUID(), new Date(now),
+                new Date(now + 60000), 10).isEmpty());
+        entityManager.clear();
+        List<WebhookOutboxEntity> retried = storage.claimDue(ENDPOINT, 0, UUID.randomUUID(),
+                new Date(now + 1000), new Date(now + 60000), 10);
+        entityManager.clear();
+        Assertions.assertEquals(2, retried.size());
+        Assertions.assertEquals(1, retried.get(0).getAttempts());
+
+        Assertions.assertEquals(2, storage.deleteClaimed(retried.get(0).getClaimToken()));
+        Assertions.assertEquals(2, repository.count());
+    }
+
+    @Test
+    public void testHeldDeliverySlotsAreNotClaimed() {
+        long now = System.currentTimeMillis();
+        List<WebhookOutboxEntity> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(getOutboxEntity(ENDPOINT, new Date(now - 3000 + i)));
+        }
+        storage.storeAll(events);
+        entityManager.flush();
+        entityManager.clear();
+
+        UUID first = UUID.randomUUID();
+        Assertions.assertEquals(1, storage.claimDue(ENDPOINT, 0, first, new Date(now),
+                new Date(now + 60000), 1).size());
+        entityManager.clear();
+        // the slot is held by the first attempt, on this or another node.
+        Assertions.assertTrue(storage.claimDue(ENDPOINT, 0, UUID.randomUUID(), new Date(now),
+                new Date(now + 60000), 1).isEmpty());
+        entityManager.clear();
+        Assertions.assertEquals(1, storage.claimDue(ENDPOINT, 1, UUID.randomUUID(),
+                new Date(now), new Date(now + 60000), 1).size());
+        entityManager.clear();
+
+        Assertions.assertEquals(1, storage.deleteClaimed(first));
+        entityManager.clear();
+        Assertions.assertEquals(List.of(events.get(2).getId()), storage.claimDue(ENDPOINT, 0,
+                        UUID.randomUUID(), new Date(now), new Date(now + 60000), 1).stream()
+                .map(WebhookOutboxEntity::getId).toList());
+        entityManager.clear();
+        // the slot of an attempt whose lease ended is free again.
+        Assertions.assertEquals(List.of(events.get(1).getId()), storage.claimDue(ENDPOINT, 1,
+                        UUID.randomUUID(), new Date(now + 60000), new Date(now + 120000), 1)
+                .stream().map(WebhookOutboxEntity::getId).toList());
+    }
+
+    private WebhookOutboxEntity getOutboxEntity(String endpoint, Date time) {
+        ServiceStateEventVo event = new ServiceStateEventVo();
+        event.setId(UUID.randomUUID());
+        event.setCsp(Csp.HUAWEI);
+        event.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        event.setTime(time);
+        WebhookOutboxEntity outboxEntity = new WebhookOutboxEntity();
+        outboxEntity.setId(UUID.randomUUID());
+        outboxEntity.setEndpoint(endpoint);
+        outboxEntity.setEvent(event);
+        outboxEntity.setCreateTime(time);
+        outboxEntity.setNextAttemptTime(time);
+        return outboxEntity;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry class to xpanse runtime. This class can be directly executed to start the server.
@@ -23,6 +24,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @EntityScan(basePackages = "org.eclipse.xpanse")
 @ComponentScan(basePackages = "org.eclipse.xpanse")
 @EnableJpaAuditing
+@EnableScheduling
 public class XpanseApplication {
 
     public static void main(String[] args) {